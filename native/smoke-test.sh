@@ -0,0 +1,87 @@
+#!/usr/bin/env bash
+# Smoke tests for the native executable: boot target/blassa against a local Postgres/PostGIS,
+# then run the auth, search and booking flows through the HTTP API.
+#
+# Usage: native/smoke-test.sh            (after ./mvnw -Pnative native:compile)
+#   DB_HOST/DB_PORT/DB_NAME/DB_USERNAME/DB_PASSWORD  local database (Flyway migrates it on boot)
+# Needs: curl, jq, psql.
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+BIN=${BIN:-"$ROOT/target/blassa"}
+PORT=${PORT:-8089}
+BASE="http://localhost:$PORT/api/v1"
+export DB_HOST=${DB_HOST:-localhost} DB_PORT=${DB_PORT:-5432} DB_NAME=${DB_NAME:-blassa_smoke}
+export DB_USERNAME=${DB_USERNAME:-postgres} DB_PASSWORD=${DB_PASSWORD:-postgres}
+export SERVER_PORT=$PORT SPRING_PROFILES_ACTIVE=prod
+export JWT_SECRET_KEY=${JWT_SECRET_KEY:-c21va2UtdGVzdC1zZWNyZXQta2V5LWZvci1uYXRpdmUtaW1hZ2UtMDAwMDAwMA==}
+export GOOGLE_CLIENT_ID=smoke GOOGLE_CLIENT_SECRET=smoke
+export MAIL_HOST=${MAIL_HOST:-localhost} MAIL_PORT=${MAIL_PORT:-1025} MAIL_USERNAME=smoke@localhost MAIL_PASSWORD=smoke
+export CLOUDINARY_CLOUD_NAME=smoke CLOUDINARY_API_KEY=smoke CLOUDINARY_API_SECRET=smoke
+PSQL="psql -h $DB_HOST -p $DB_PORT -U $DB_USERNAME -d $DB_NAME -v ON_ERROR_STOP=1 -q"
+export PGPASSWORD=$DB_PASSWORD
+
+fail() { echo "FAIL: $*" >&2; exit 1; }
+
+start=$(date +%s%N)
+"$BIN" > /tmp/blassa-native.log 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+until curl -sf "http://localhost:$PORT/livez" > /dev/null; do
+    kill -0 $PID 2>/dev/null || fail "native binary exited, see /tmp/blassa-native.log"
+    sleep 0.1
+done
+echo "native startup: $(( ($(date +%s%N) - start) / 1000000 )) ms"
+
+# Users verified directly in the DB (l email verification ma tet3addach fi smoke test)
+# pgcrypto bf hashes ($2a$) are accepted by BCryptPasswordEncoder
+$PSQL <<SQL
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+DELETE FROM bookings WHERE passenger_id IN (SELECT id FROM users WHERE email LIKE 'smoke-%@blassa.tn');
+DELETE FROM rides WHERE driver_id IN (SELECT id FROM users WHERE email LIKE 'smoke-%@blassa.tn');
+DELETE FROM vehicles WHERE owner_id IN (SELECT id FROM users WHERE email LIKE 'smoke-%@blassa.tn');
+DELETE FROM users WHERE email LIKE 'smoke-%@blassa.tn';
+INSERT INTO users (email, password_hash, phone_number, first_name, last_name, gender, date_of_birth, role, is_verified)
+VALUES ('smoke-driver@blassa.tn', crypt('password', gen_salt('bf', 10)), '+21620000001', 'Smoke', 'Driver', 'MALE', '1990-01-01', 'USER', true),
+       ('smoke-passenger@blassa.tn', crypt('password', gen_salt('bf', 10)), '+21620000002', 'Smoke', 'Passenger', 'MALE', '1992-01-01', 'USER', true);
+SQL
+
+login() {
+    curl -sf -X POST "$BASE/auth/mobile/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"$1\",\"password\":\"password\"}" | jq -r '.accessToken'
+}
+
+# --- auth
+DRIVER=$(login smoke-driver@blassa.tn)
+PASSENGER=$(login smoke-passenger@blassa.tn)
+[ -n "$DRIVER" ] && [ "$DRIVER" != "null" ] || fail "driver login"
+[ -n "$PASSENGER" ] && [ "$PASSENGER" != "null" ] || fail "passenger login"
+curl -sf "$BASE/user/me" -H "Authorization: Bearer $DRIVER" > /dev/null || fail "profile with JWT"
+echo "auth: ok"
+
+# --- publish + search (PostGIS / JTS round trip)
+VEHICLE=$(curl -sf -X POST "$BASE/vehicles" -H "Authorization: Bearer $DRIVER" -H 'Content-Type: application/json' \
+    -d '{"make":"Peugeot","model":"208","color":"Gris","licensePlate":"SMOKE-TN-1","productionYear":2020}' | jq -r '.id')
+DEPARTURE=$(date -u -d '+2 days' +%Y-%m-%dT%H:%M:%SZ)
+RIDE=$(curl -sf -X POST "$BASE/rides" -H "Authorization: Bearer $DRIVER" -H 'Content-Type: application/json' \
+    -d "{\"originName\":\"Tunis\",\"originLat\":36.8065,\"originLon\":10.1815,
+         \"destinationName\":\"Sousse\",\"destinationLat\":35.8256,\"destinationLon\":10.6084,
+         \"departureTime\":\"$DEPARTURE\",\"totalSeats\":3,\"pricePerSeat\":15,
+         \"genderPreference\":\"ANY\",\"luggageSize\":\"MEDIUM\",\"vehicleId\":\"$VEHICLE\"}" | jq -r '.id')
+[ -n "$RIDE" ] && [ "$RIDE" != "null" ] || fail "create ride"
+FOUND=$(curl -sf "$BASE/rides/search?originLat=36.80&originLon=10.18&destLat=35.82&destLon=10.60&radius=5" \
+    | jq --arg id "$RIDE" '[.content[] | select(.id == $id)] | length')
+[ "$FOUND" = "1" ] || fail "search did not return the new ride"
+echo "search: ok"
+
+# --- booking (+ STOMP/notification serialisation on the driver side)
+BOOKING=$(curl -sf -X POST "$BASE/bookings" -H "Authorization: Bearer $PASSENGER" -H 'Content-Type: application/json' \
+    -d "{\"rideId\":\"$RIDE\",\"seatsRequested\":1}" | jq -r '.id')
+[ -n "$BOOKING" ] && [ "$BOOKING" != "null" ] || fail "create booking"
+STATUS=$(curl -sf -X POST "$BASE/bookings/$BOOKING/accept" -H "Authorization: Bearer $DRIVER" | jq -r '.status')
+[ "$STATUS" = "CONFIRMED" ] || fail "accept booking (status=$STATUS)"
+UNREAD=$(curl -sf "$BASE/notifications/unread/count" -H "Authorization: Bearer $PASSENGER" | jq -r '.count')
+[ "$UNREAD" -ge 1 ] || fail "passenger notification"
+echo "booking: ok"
+
+echo "native smoke tests passed"
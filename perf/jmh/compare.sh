@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Compare two JMH JSON results (perf/jmh/run.sh) benchmark by benchmark.
+#
+# Usage: perf/jmh/compare.sh perf/jmh/baseline/<before>.json perf/jmh/baseline/<after>.json
+# Negative change = faster (all benchmarks use AverageTime).
+set -euo pipefail
+
+BEFORE=$1
+AFTER=$2
+
+python3 - "$BEFORE" "$AFTER" <<'PY'
+import json, sys
+
+def load(path):
+    results = {}
+    for r in json.load(open(path)):
+        params = ",".join(f"{k}={v}" for k, v in sorted(r.get("params", {}).items()))
+        name = r["benchmark"].rsplit(".", 2)[-2] + "." + r["benchmark"].rsplit(".", 1)[-1]
+        key = name + (f" [{params}]" if params else "")
+        m = r["primaryMetric"]
+        results[key] = (m["score"], m["scoreError"], m["scoreUnit"])
+    return results
+
+before, after = load(sys.argv[1]), load(sys.argv[2])
+print(f"{'benchmark':70} {'before':>14} {'after':>14} {'change':>9}")
+for key in sorted(before.keys() | after.keys()):
+    if key not in before or key not in after:
+        print(f"{key:70} {'(only in one run)':>39}")
+        continue
+    (b, berr, unit), (a, aerr, _) = before[key], after[key]
+    change = (a - b) / b * 100 if b else float("nan")
+    # Change a9al men l marge d'erreur = bruit
+    noise = " ~" if abs(a - b) <= berr + aerr else ""
+    print(f"{key:70} {b:10.1f} {unit:>3} {a:10.1f} {unit:>3} {change:+8.1f}%{noise}")
+PY
@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Run the JMH benchmarks (src/jmh/java) and store the JSON result under perf/jmh/baseline/.
+#
+# Usage: perf/jmh/run.sh [label] [benchmark regex]
+#   perf/jmh/run.sh                       all benchmarks, label = short git sha
+#   perf/jmh/run.sh before-fix Jwt        JwtUtilsBenchmark only
+# Compare two runs with perf/jmh/compare.sh.
+set -euo pipefail
+
+LABEL=${1:-$(git rev-parse --short HEAD 2>/dev/null || echo local)}
+FILTER=${2:-}
+ROOT=$(cd "$(dirname "$0")/../.." && pwd)
+OUT="$ROOT/perf/jmh/baseline/$LABEL.json"
+
+cd "$ROOT"
+./mvnw -B -q -Pbenchmarks -DskipTests test-compile exec:exec \
+    -Djmh.args="-rf json -rff $OUT $FILTER"
+
+echo "Results written to $OUT"
@@ -0,0 +1,345 @@
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Virtual users kima l app Android (DashboardApiService) w l web:
+ * passengers: search -> ride details -> booking -> notifications,
+ * drivers: STOMP subscribe -> mes trajets -> passagers -> accept.
+ * Latences par endpoint (route template) fi HdrHistogram, report p50/p99/p999.
+ *
+ * Usage: java -cp HdrHistogram.jar LoadTest.java <baseUrl> <passengers> <drivers> <durationSec> [warmupSec] [thinkMs] [csvOut]
+ * Users lt-passenger-N / lt-driver-N (password "password") yjiw men seed.sh.
+ */
+public class LoadTest {
+
+    record City(double lat, double lon) {
+    }
+
+    static final City[] CITIES = {
+            new City(36.8065, 10.1815), new City(35.8256, 10.6084), new City(34.7406, 10.7603),
+            new City(37.2744, 9.8739), new City(35.6781, 10.0963), new City(33.8815, 10.0982),
+            new City(36.4561, 10.7376), new City(35.7643, 10.8113), new City(34.4250, 8.7842),
+            new City(36.8625, 10.1956) };
+    static final int[] RADII_KM = { 3, 3, 5, 10 };
+    static final String[] SORTS = { "price_asc", "time_asc", "price_asc" };
+
+    static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    static final Pattern ENTITY_ID = Pattern.compile("[{,]\\s*\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+    static final Pattern PENDING_BOOKING = Pattern.compile(
+            "\"bookingId\"\\s*:\\s*\"([0-9a-f-]{36})\"[^}]*?\"status\"\\s*:\\s*\"PENDING\"");
+
+    static final Map<String, Histogram> LATENCIES = new ConcurrentHashMap<>();
+    static final Map<String, LongAdder> CLIENT_ERRORS = new ConcurrentHashMap<>();
+    static final Map<String, LongAdder> SERVER_ERRORS = new ConcurrentHashMap<>();
+    static final LongAdder STOMP_MESSAGES = new LongAdder();
+
+    static volatile boolean recording;
+    static volatile boolean running = true;
+
+    static String baseUrl;
+    static long thinkMs;
+    static HttpClient http;
+
+    public static void main(String[] args) throws Exception {
+        baseUrl = args[0].replaceAll("/$", "");
+        int passengers = Integer.parseInt(args[1]);
+        int drivers = Integer.parseInt(args[2]);
+        int durationSec = Integer.parseInt(args[3]);
+        int warmupSec = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        thinkMs = args.length > 5 ? Long.parseLong(args[5]) : 1000;
+        Path csvOut = args.length > 6 ? Path.of(args[6]) : null;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build();
+
+        List<Runnable> users = new ArrayList<>();
+        for (int i = 0; i < drivers; i++) {
+            String email = "lt-driver-" + i + "@blassa.tn";
+            users.add(() -> driver(email));
+        }
+        for (int i = 0; i < passengers; i++) {
+            String email = "lt-passenger-" + i + "@blassa.tn";
+            users.add(() -> passenger(email));
+        }
+
+        CountDownLatch done = new CountDownLatch(users.size());
+        long rampUpNanos = TimeUnit.SECONDS.toNanos(Math.max(1, warmupSec / 2));
+        for (int i = 0; i < users.size(); i++) {
+            Runnable user = users.get(i);
+            long delay = rampUpNanos * i / users.size();
+            executor.submit(() -> {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                    user.run();
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        System.out.printf("warm-up %ds (%d passengers, %d drivers)%n", warmupSec, passengers, drivers);
+        TimeUnit.SECONDS.sleep(warmupSec);
+        LATENCIES.clear();
+        CLIENT_ERRORS.clear();
+        SERVER_ERRORS.clear();
+        STOMP_MESSAGES.reset();
+        recording = true;
+        System.out.printf("measuring %ds%n", durationSec);
+        TimeUnit.SECONDS.sleep(durationSec);
+        recording = false;
+        running = false;
+        done.await(30, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        report(durationSec, csvOut);
+    }
+
+    // ---- virtual users
+
+    static void passenger(String email) {
+        String token = login(email);
+        if (token == null) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            City from = CITIES[random.nextInt(CITIES.length)];
+            City to = CITIES[random.nextInt(CITIES.length)];
+            String search = String.format(Locale.ROOT,
+                    "/api/v1/rides/search?originLat=%.4f&originLon=%.4f&destLat=%.4f&destLon=%.4f&radius=%d&page=0&size=10&sortBy=%s",
+                    from.lat(), from.lon(), to.lat(), to.lon(), RADII_KM[random.nextInt(RADII_KM.length)],
+                    SORTS[random.nextInt(SORTS.length)]);
+            // Search public: l app tab3athha b "No-Auth"
+            String results = call("GET /rides/search", "GET", search, null, null);
+            List<String> rideIds = all(ENTITY_ID, results);
+            if (!rideIds.isEmpty()) {
+                String rideId = rideIds.get(random.nextInt(rideIds.size()));
+                call("GET /rides/{id}", "GET", "/api/v1/rides/" + rideId, token, null);
+                call("GET /bookings/ride/{id}/mine", "GET", "/api/v1/bookings/ride/" + rideId + "/mine", token, null);
+                if (random.nextInt(5) == 0) {
+                    call("POST /bookings", "POST", "/api/v1/bookings", token,
+                            "{\"rideId\":\"" + rideId + "\",\"seatsRequested\":1}");
+                }
+            }
+            call("GET /notifications/unread/count", "GET", "/api/v1/notifications/unread/count", token, null);
+            if (random.nextInt(4) == 0) {
+                call("GET /bookings/mine", "GET", "/api/v1/bookings/mine?page=0&size=10", token, null);
+            }
+            think();
+        }
+    }
+
+    static void driver(String email) {
+        String token = login(email);
+        if (token == null) {
+            return;
+        }
+        WebSocket socket = stompSubscribe(token);
+        try {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (running) {
+                String mine = call("GET /rides/mine", "GET", "/api/v1/rides/mine?page=0&size=10", token, null);
+                List<String> rideIds = all(ENTITY_ID, mine);
+                for (int i = 0; i < Math.min(3, rideIds.size()); i++) {
+                    String rideId = rideIds.get(random.nextInt(rideIds.size()));
+                    String passengers = call("GET /bookings/ride/{id}/passengers", "GET",
+                            "/api/v1/bookings/ride/" + rideId + "/passengers", token, null);
+                    for (String bookingId : all(PENDING_BOOKING, passengers)) {
+                        call("POST /bookings/{id}/accept", "POST", "/api/v1/bookings/" + bookingId + "/accept", token, null);
+                    }
+                }
+                call("GET /notifications", "GET", "/api/v1/notifications", token, null);
+                think();
+            }
+        } finally {
+            if (socket != null) {
+                socket.sendClose(WebSocket.NORMAL_CLOSURE, "bye");
+            }
+        }
+    }
+
+    static String login(String email) {
+        String body = call("POST /auth/mobile/login", "POST", "/api/v1/auth/mobile/login", null,
+                "{\"email\":\"" + email + "\",\"password\":\"password\"}");
+        Matcher matcher = body != null ? ACCESS_TOKEN.matcher(body) : null;
+        return matcher != null && matcher.find() ? matcher.group(1) : null;
+    }
+
+    // ---- STOMP (raw WebSocket endpoint /ws, kima l mobile)
+
+    static WebSocket stompSubscribe(String token) {
+        CompletableFuture<Void> connected = new CompletableFuture<>();
+        long start = System.nanoTime();
+        WebSocket.Listener listener = new WebSocket.Listener() {
+            private final StringBuilder frame = new StringBuilder();
+
+            @Override
+            public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                frame.append(data);
+                int end;
+                while ((end = frame.indexOf("\0")) >= 0) {
+                    String complete = frame.substring(0, end).stripLeading();
+                    frame.delete(0, end + 1);
+                    if (complete.startsWith("CONNECTED")) {
+                        connected.complete(null);
+                    } else if (complete.startsWith("MESSAGE") && recording) {
+                        STOMP_MESSAGES.increment();
+                    }
+                }
+                webSocket.request(1);
+                return null;
+            }
+        };
+        try {
+            String wsUrl = baseUrl.replaceFirst("^http", "ws") + "/ws";
+            WebSocket socket = http.newWebSocketBuilder().buildAsync(URI.create(wsUrl), listener).get(10, TimeUnit.SECONDS);
+            socket.sendText("CONNECT\naccept-version:1.2\nheart-beat:0,0\nAuthorization:Bearer " + token + "\n\n\0", true);
+            connected.get(10, TimeUnit.SECONDS);
+            record("STOMP CONNECT", System.nanoTime() - start);
+            socket.sendText("SUBSCRIBE\nid:sub-0\ndestination:/user/queue/notification\n\n\0", true);
+            return socket;
+        } catch (Exception e) {
+            error("STOMP CONNECT", SERVER_ERRORS);
+            return null;
+        }
+    }
+
+    // ---- HTTP + metrics
+
+    static String call(String route, String method, String path, String token, String json) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (json != null) {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            record(route, System.nanoTime() - start);
+            int status = response.statusCode();
+            if (status >= 500) {
+                error(route, SERVER_ERRORS);
+                return null;
+            }
+            if (status >= 400) {
+                // NOT_ENOUGH_SEATS, GENDER_NOT_ALLOWED... : réponses métier normales sous charge
+                error(route, CLIENT_ERRORS);
+                return null;
+            }
+            return response.body();
+        } catch (IOException e) {
+            error(route, SERVER_ERRORS);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+            return null;
+        }
+    }
+
+    static void record(String route, long nanos) {
+        if (recording) {
+            LATENCIES.computeIfAbsent(route, r -> new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3))
+                    .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), TimeUnit.MINUTES.toMicros(1)));
+        }
+    }
+
+    static void error(String route, Map<String, LongAdder> counters) {
+        if (recording) {
+            counters.computeIfAbsent(route, r -> new LongAdder()).increment();
+        }
+    }
+
+    static List<String> all(Pattern pattern, String body) {
+        List<String> values = new ArrayList<>();
+        if (body != null) {
+            Matcher matcher = pattern.matcher(body);
+            while (matcher.find()) {
+                values.add(matcher.group(1));
+            }
+        }
+        return values;
+    }
+
+    static void think() {
+        try {
+            // Think time ±50% bch l VUs ma ytzamnouch
+            long ms = thinkMs / 2 + ThreadLocalRandom.current().nextLong(thinkMs + 1);
+            TimeUnit.MILLISECONDS.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    static void report(int durationSec, Path csvOut) throws IOException {
+        Map<String, Histogram> sorted = new TreeMap<>(LATENCIES);
+        String header = String.format(Locale.ROOT, "%-36s %9s %8s %8s %9s %9s %9s %9s %9s",
+                "endpoint", "count", "rps", "4xx", "5xx/io", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        System.out.println(header);
+        List<String> csv = new ArrayList<>();
+        csv.add("endpoint,count,rps,client_errors,server_errors,p50_ms,p99_ms,p999_ms,max_ms");
+        for (Map.Entry<String, Histogram> entry : sorted.entrySet()) {
+            Histogram h = entry.getValue();
+            long clientErrors = count(CLIENT_ERRORS, entry.getKey());
+            long serverErrors = count(SERVER_ERRORS, entry.getKey());
+            double rps = (double) h.getTotalCount() / durationSec;
+            double p50 = h.getValueAtPercentile(50) / 1000.0;
+            double p99 = h.getValueAtPercentile(99) / 1000.0;
+            double p999 = h.getValueAtPercentile(99.9) / 1000.0;
+            double max = h.getMaxValue() / 1000.0;
+            System.out.printf(Locale.ROOT, "%-36s %9d %8.1f %8d %9d %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey(), h.getTotalCount(), rps, clientErrors, serverErrors, p50, p99, p999, max);
+            csv.add(String.format(Locale.ROOT, "%s,%d,%.2f,%d,%d,%.2f,%.2f,%.2f,%.2f",
+                    entry.getKey(), h.getTotalCount(), rps, clientErrors, serverErrors, p50, p99, p999, max));
+        }
+        System.out.printf("STOMP notifications received: %d%n", STOMP_MESSAGES.sum());
+        if (csvOut != null) {
+            Files.createDirectories(csvOut.toAbsolutePath().getParent());
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csvOut))) {
+                csv.forEach(out::println);
+            }
+            System.out.println("report written to " + csvOut);
+        }
+    }
+
+    static long count(Map<String, LongAdder> counters, String route) {
+        LongAdder adder = counters.get(route);
+        return adder != null ? adder.sum() : 0;
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic data lel load test: CSVs (users, vehicles, rides) 7adhrin lel COPY (seed.sh).
+ * Rides bin l mdoun l kbar mta3 Tounes, m3a jitter ~3 km 7atta l pickups ma ykounouch nafs l point.
+ *
+ * Usage: java Seed.java <outDir> <drivers> <passengers> <ridesPerDriver> <bcryptHash>
+ */
+public class Seed {
+
+    record City(String name, double lat, double lon) {
+    }
+
+    static final City[] CITIES = {
+            new City("Tunis", 36.8065, 10.1815), new City("Ariana", 36.8625, 10.1956),
+            new City("Ben Arous", 36.7531, 10.2189), new City("Bizerte", 37.2744, 9.8739),
+            new City("Nabeul", 36.4561, 10.7376), new City("Sousse", 35.8256, 10.6084),
+            new City("Monastir", 35.7643, 10.8113), new City("Mahdia", 35.5047, 11.0622),
+            new City("Kairouan", 35.6781, 10.0963), new City("Sfax", 34.7406, 10.7603),
+            new City("Gabès", 33.8815, 10.0982), new City("Médenine", 33.3549, 10.5055),
+            new City("Tataouine", 32.9297, 10.4518), new City("Gafsa", 34.4250, 8.7842),
+            new City("Tozeur", 33.9197, 8.1335), new City("Kasserine", 35.1676, 8.8365),
+            new City("Sidi Bouzid", 35.0382, 9.4849), new City("Le Kef", 36.1826, 8.7148),
+            new City("Jendouba", 36.5011, 8.7802), new City("Béja", 36.7256, 9.1817) };
+
+    static final String[] FIRST_NAMES = { "Sami", "Amira", "Youssef", "Ines", "Mehdi", "Salma", "Aziz", "Nour" };
+    static final String[] LAST_NAMES = { "Ben Ali", "Trabelsi", "Gharbi", "Jaziri", "Mansouri", "Bouaziz" };
+    static final String[] MAKES = { "Peugeot 208", "Renault Clio", "Kia Picanto", "Volkswagen Polo", "Hyundai i20" };
+    static final String[] COLORS = { "Blanc", "Gris", "Noir", "Rouge", "Bleu" };
+    static final String[] LUGGAGE = { "SMALL", "MEDIUM", "LARGE" };
+    static final String[] GENDER_PREFERENCES = { "ANY", "ANY", "ANY", "FEMALE_ONLY", "MALE_ONLY" };
+
+    public static void main(String[] args) throws IOException {
+        Path out = Path.of(args[0]);
+        int drivers = Integer.parseInt(args[1]);
+        int passengers = Integer.parseInt(args[2]);
+        int ridesPerDriver = Integer.parseInt(args[3]);
+        String passwordHash = args[4];
+        Random random = new Random(42);
+        Files.createDirectories(out);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES);
+
+        UUID[] driverIds = new UUID[drivers];
+        UUID[] vehicleIds = new UUID[drivers];
+        try (PrintWriter users = new PrintWriter(Files.newBufferedWriter(out.resolve("users.csv")))) {
+            for (int i = 0; i < drivers + passengers; i++) {
+                boolean driver = i < drivers;
+                UUID id = UUID.randomUUID();
+                if (driver) {
+                    driverIds[i] = id;
+                }
+                String email = driver ? "lt-driver-" + i + "@blassa.tn" : "lt-passenger-" + (i - drivers) + "@blassa.tn";
+                String gender = random.nextBoolean() ? "MALE" : "FEMALE";
+                users.printf("%s,%s,%s,+2162%07d,%s,%s,%s,%s,USER,true%n",
+                        id, email, passwordHash, i,
+                        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        gender, LocalDate.of(1975 + random.nextInt(30), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            }
+        }
+
+        try (PrintWriter vehicles = new PrintWriter(Files.newBufferedWriter(out.resolve("vehicles.csv")))) {
+            for (int i = 0; i < drivers; i++) {
+                vehicleIds[i] = UUID.randomUUID();
+                String[] makeModel = MAKES[random.nextInt(MAKES.length)].split(" ", 2);
+                vehicles.printf("%s,%s,%s,%s,%s,LT %d TU %d,%d%n",
+                        vehicleIds[i], driverIds[i], makeModel[0], makeModel[1], COLORS[random.nextInt(COLORS.length)],
+                        100 + i % 150, i, 2010 + random.nextInt(15));
+            }
+        }
+
+        try (PrintWriter rides = new PrintWriter(Files.newBufferedWriter(out.resolve("rides.csv")))) {
+            for (int d = 0; d < drivers; d++) {
+                for (int r = 0; r < ridesPerDriver; r++) {
+                    City origin = CITIES[random.nextInt(CITIES.length)];
+                    City destination = CITIES[random.nextInt(CITIES.length)];
+                    if (origin == destination) {
+                        destination = CITIES[(indexOf(origin) + 1 + random.nextInt(CITIES.length - 1)) % CITIES.length];
+                    }
+                    int seats = 2 + random.nextInt(3);
+                    // 14 jour jeyin, bin 5h w 22h
+                    OffsetDateTime departure = now.plusDays(random.nextInt(14))
+                            .withHour(5 + random.nextInt(17)).withMinute(random.nextInt(4) * 15);
+                    if (departure.isBefore(now)) {
+                        departure = departure.plusDays(1);
+                    }
+                    rides.printf(Locale.ROOT, "%s,%s,%s,%s,SRID=4326;POINT(%.6f %.6f),%s,SRID=4326;POINT(%.6f %.6f),%s,%d,%d,%d.000,%s,%b,%b,%b,%s,SCHEDULED,0%n",
+                            UUID.randomUUID(), driverIds[d], vehicleIds[d],
+                            origin.name(), jitter(origin.lon(), random), jitter(origin.lat(), random),
+                            destination.name(), jitter(destination.lon(), random), jitter(destination.lat(), random),
+                            departure, seats, seats, 5 + random.nextInt(30),
+                            GENDER_PREFERENCES[random.nextInt(GENDER_PREFERENCES.length)],
+                            random.nextInt(10) == 0, random.nextBoolean(), random.nextInt(5) == 0,
+                            LUGGAGE[random.nextInt(LUGGAGE.length)]);
+                }
+            }
+        }
+        System.out.printf("users=%d vehicles=%d rides=%d -> %s%n",
+                drivers + passengers, drivers, drivers * ridesPerDriver, out.toAbsolutePath());
+    }
+
+    static int indexOf(City city) {
+        for (int i = 0; i < CITIES.length; i++) {
+            if (CITIES[i] == city) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    // ±0.03° ~ 3 km
+    static double jitter(double value, Random random) {
+        return value + (random.nextDouble() - 0.5) * 0.06;
+    }
+}
@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# End-to-end load test on one box: PostGIS + Mailpit (docker compose), the packaged backend, seeded
+# data, then LoadTest.java virtual users. The per-endpoint report lands in perf/loadtest/results/<label>.csv.
+#
+# Usage: perf/loadtest/run.sh [label] [passengers] [drivers] [durationSec]
+# Needs: docker compose, psql, java 21, a packaged jar (./mvnw package -DskipTests).
+#   SKIP_SEED=1   keep the data from a previous run (bookings pile up between runs otherwise fine)
+set -euo pipefail
+
+LABEL=${1:-$(git rev-parse --short HEAD 2>/dev/null || echo local)}
+PASSENGERS=${2:-800}
+DRIVERS=${3:-200}
+DURATION=${4:-300}
+DIR=$(cd "$(dirname "$0")" && pwd)
+ROOT=$(cd "$DIR/../.." && pwd)
+PORT=${SERVER_PORT:-8080}
+JAR=$(ls "$ROOT"/target/blassa-*.jar | grep -v plain | head -n 1)
+HDR_VERSION=2.2.2
+HDR_JAR="$DIR/lib/HdrHistogram-$HDR_VERSION.jar"
+
+docker compose -f "$DIR/docker-compose.yml" up -d --wait
+
+if [ ! -f "$HDR_JAR" ]; then
+    "$ROOT/mvnw" -q dependency:copy -Dartifact=org.hdrhistogram:HdrHistogram:$HDR_VERSION -DoutputDirectory="$DIR/lib"
+fi
+
+# Backend 3al stack locale. l schema mta3 neon_complete_migration = V9, Flyway ykammel men V10.
+export DB_HOST=localhost DB_PORT=5433 DB_NAME=blassa_load DB_USERNAME=postgres DB_PASSWORD=postgres
+export SPRING_FLYWAY_BASELINE_VERSION=9 SERVER_PORT=$PORT
+export JWT_SECRET_KEY=${JWT_SECRET_KEY:-bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWxvY2FsLXN0YWNrLTAwMDAwMDA=}
+export GOOGLE_CLIENT_ID=load GOOGLE_CLIENT_SECRET=load
+export MAIL_HOST=localhost MAIL_PORT=1025 MAIL_USERNAME=load@localhost MAIL_PASSWORD=load
+export CLOUDINARY_CLOUD_NAME=load CLOUDINARY_API_KEY=load CLOUDINARY_API_SECRET=load
+export SENTRY_DSN= SPRING_PROFILES_ACTIVE=${SPRING_PROFILES_ACTIVE:-prod}
+
+java ${JAVA_OPTS:-} -jar "$JAR" > /tmp/blassa-loadtest.log 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+until curl -sf "http://localhost:$PORT/readyz" > /dev/null; do
+    kill -0 $PID 2>/dev/null || { echo "backend exited, see /tmp/blassa-loadtest.log" >&2; exit 1; }
+    sleep 1
+done
+
+if [ -z "${SKIP_SEED:-}" ]; then
+    "$DIR/seed.sh" "$((DRIVERS * 5))" "$((PASSENGERS * 5))" 10
+fi
+
+java -cp "$HDR_JAR" "$DIR/LoadTest.java" "http://localhost:$PORT" "$PASSENGERS" "$DRIVERS" "$DURATION" 30 1000 \
+    "$DIR/results/$LABEL.csv"
@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Bulk-load synthetic users, vehicles and rides with COPY (perf/loadtest/Seed.java generates the CSVs).
+# Previous load-test data (emails lt-*@blassa.tn) is removed first, real rows are left alone.
+#
+# Usage: perf/loadtest/seed.sh [drivers] [passengers] [ridesPerDriver]
+#   DB_HOST/DB_PORT/DB_NAME/DB_USERNAME/DB_PASSWORD  default: the docker-compose stack (localhost:5433)
+# The backend must have started once on this database (Flyway creates the V10+ schema).
+set -euo pipefail
+
+DRIVERS=${1:-2000}
+PASSENGERS=${2:-8000}
+RIDES_PER_DRIVER=${3:-10}
+DIR=$(cd "$(dirname "$0")" && pwd)
+OUT=${OUT:-/tmp/blassa-loadtest-seed}
+export PGPASSWORD=${DB_PASSWORD:-postgres}
+PSQL="psql -h ${DB_HOST:-localhost} -p ${DB_PORT:-5433} -U ${DB_USERNAME:-postgres} -d ${DB_NAME:-blassa_load} -v ON_ERROR_STOP=1 -q"
+
+# Hash wa7ed lel users lkol: bcrypt 10 rounds par ligne ya5ou d9aye9
+$PSQL -c "CREATE EXTENSION IF NOT EXISTS pgcrypto"
+HASH=$($PSQL -At -c "SELECT crypt('password', gen_salt('bf', 10))")
+
+java "$DIR/Seed.java" "$OUT" "$DRIVERS" "$PASSENGERS" "$RIDES_PER_DRIVER" "$HASH"
+
+$PSQL <<SQL
+BEGIN;
+DELETE FROM notifications WHERE recipient_id IN (SELECT id FROM users WHERE email LIKE 'lt-%@blassa.tn');
+DELETE FROM bookings WHERE passenger_id IN (SELECT id FROM users WHERE email LIKE 'lt-%@blassa.tn')
+    OR ride_id IN (SELECT r.id FROM rides r JOIN users u ON u.id = r.driver_id WHERE u.email LIKE 'lt-%@blassa.tn');
+DELETE FROM rides WHERE driver_id IN (SELECT id FROM users WHERE email LIKE 'lt-%@blassa.tn');
+DELETE FROM vehicles WHERE owner_id IN (SELECT id FROM users WHERE email LIKE 'lt-%@blassa.tn');
+DELETE FROM users WHERE email LIKE 'lt-%@blassa.tn';
+\copy users (id, email, password_hash, phone_number, first_name, last_name, gender, date_of_birth, role, is_verified) FROM '$OUT/users.csv' WITH (FORMAT csv)
+\copy vehicles (id, owner_id, make, model, color, license_plate, production_year) FROM '$OUT/vehicles.csv' WITH (FORMAT csv)
+\copy rides (id, driver_id, vehicle_id, origin_name, origin_point, destination_name, destination_point, departure_time, total_seats, available_seats, price_per_seat, gender_preference, allows_smoking, allows_music, allows_pets, luggage_size, status, version) FROM '$OUT/rides.csv' WITH (FORMAT csv)
+-- route_line (V18) lel corridor search; ken l app mazel ma migratatech, Flyway yaamel backfill wa7dou (V18/V19)
+DO \$\$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = 'rides' AND column_name = 'route_line') THEN
+        UPDATE rides SET route_line = ST_MakeLine(origin_point::geometry, destination_point::geometry)
+        WHERE route_line IS NULL;
+    END IF;
+    -- ride_stops + leg_seats (V19) lel search "any stop pair"
+    IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'ride_stops') THEN
+        UPDATE rides SET leg_seats = ARRAY[available_seats] WHERE leg_seats IS NULL;
+        INSERT INTO ride_stops (ride_id, stop_index, name, point)
+        SELECT r.id, s.idx, s.name, s.point
+        FROM rides r
+        CROSS JOIN LATERAL (VALUES (0, r.origin_name, r.origin_point), (1, r.destination_name, r.destination_point))
+            AS s(idx, name, point)
+        WHERE NOT EXISTS (SELECT 1 FROM ride_stops x WHERE x.ride_id = r.id);
+    END IF;
+END
+\$\$;
+COMMIT;
+ANALYZE users;
+ANALYZE vehicles;
+ANALYZE rides;
+SQL
+
+echo "seeded $DRIVERS drivers, $PASSENGERS passengers, $((DRIVERS * RIDES_PER_DRIVER)) rides (password: 'password')"
@@ -0,0 +1,359 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replay mta3 capture (TrafficCaptureFilter) 3la build o5ra, w diff bin zouz runs.
+ *
+ *   java Replay.java replay <capture.tsv> <baseUrl> <speed> <summary.csv>
+ *       speed 1 = wa9t l capture, 10 = 10x asra3, 0 = kol chay fard marra
+ *   java Replay.java diff <before.csv> <after.csv>
+ *
+ * L ids ma yetsajjlouch fel capture: {id} yet3abba men rides/drivers elli l replay yal9ahom (search,
+ * rides/mine) w POST /bookings yetba3ath b seatsRequested=1. Routes o5rin elli t7eb body (PUT, POST
+ * 8ir bookings) ma yet3awdouch w yodhhrou "skipped".
+ * Roles: USER = users lt-passenger-N (seed.sh), ADMIN = REPLAY_ADMIN_EMAIL/REPLAY_ADMIN_PASSWORD.
+ */
+public class Replay {
+
+    record Captured(long epochMillis, String method, String route, String query, String role) {
+    }
+
+    static final Pattern RIDE_ID = Pattern.compile("[{,]\\s*\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+    static final Pattern DRIVER_ID = Pattern.compile("\"driverId\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+    static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    static final Pattern PATH_VARIABLE = Pattern.compile("\\{([^}]+)}");
+
+    static final List<String> RIDES = new CopyOnWriteArrayList<>();
+    static final List<String> DRIVERS = new CopyOnWriteArrayList<>();
+    static final List<String> BOOKINGS = new CopyOnWriteArrayList<>();
+    static final Map<String, List<Long>> LATENCIES = new ConcurrentHashMap<>();
+    static final Map<String, LongAdder> ERRORS = new ConcurrentHashMap<>();
+    static final Map<String, LongAdder> SKIPPED = new ConcurrentHashMap<>();
+
+    static HttpClient http;
+    static String baseUrl;
+    static List<String> userTokens = new ArrayList<>();
+    static String adminToken;
+
+    public static void main(String[] args) throws Exception {
+        switch (args[0]) {
+            case "replay" -> replay(Path.of(args[1]), args[2].replaceAll("/$", ""), Double.parseDouble(args[3]),
+                    Path.of(args[4]));
+            case "diff" -> diff(Path.of(args[1]), Path.of(args[2]));
+            default -> throw new IllegalArgumentException("replay | diff");
+        }
+    }
+
+    // ---- replay
+
+    static void replay(Path capture, String target, double speed, Path summary) throws Exception {
+        baseUrl = target;
+        List<Captured> requests = Files.readAllLines(capture).stream()
+                .filter(line -> !line.isBlank())
+                .map(line -> line.split("\t", -1))
+                .map(f -> new Captured(Long.parseLong(f[0]), f[1], f[2], f[3], f[4]))
+                .sorted((a, b) -> Long.compare(a.epochMillis(), b.epochMillis()))
+                .toList();
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("empty capture " + capture);
+        }
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build();
+        login(Integer.parseInt(System.getenv().getOrDefault("REPLAY_USERS", "50")));
+        primeIdPools();
+
+        // departureTime fel capture jet fel passé: nzidou l fer9 bin l capture w lyoum
+        long shiftDays = ChronoUnit.DAYS.between(
+                java.time.Instant.ofEpochMilli(requests.get(0).epochMillis()).atZone(java.time.ZoneOffset.UTC).toLocalDate(),
+                java.time.LocalDate.now(java.time.ZoneOffset.UTC));
+        long captureStart = requests.get(0).epochMillis();
+        long replayStart = System.nanoTime();
+        System.out.printf("replaying %d requests from %s at %sx%n", requests.size(), capture,
+                speed > 0 ? speed : "max");
+
+        for (Captured request : requests) {
+            if (speed > 0) {
+                long dueNanos = (long) (TimeUnit.MILLISECONDS.toNanos(request.epochMillis() - captureStart) / speed);
+                long waitNanos = dueNanos - (System.nanoTime() - replayStart);
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+            }
+            executor.submit(() -> send(request, shiftDays));
+        }
+        executor.shutdown();
+        executor.awaitTermination(2, TimeUnit.MINUTES);
+        writeSummary(summary);
+    }
+
+    static void send(Captured captured, long shiftDays) {
+        String key = captured.method() + " " + captured.route();
+        String token = switch (captured.role()) {
+            case "USER" -> userTokens.isEmpty() ? null : userTokens.get(ThreadLocalRandom.current().nextInt(userTokens.size()));
+            case "ADMIN" -> adminToken;
+            default -> null;
+        };
+        if (!"ANONYMOUS".equals(captured.role()) && token == null) {
+            count(SKIPPED, key);
+            return;
+        }
+        String body = null;
+        if (!"GET".equals(captured.method()) && !"DELETE".equals(captured.method())) {
+            if (!("POST".equals(captured.method()) && "/api/v1/bookings".equals(captured.route()))) {
+                count(SKIPPED, key);
+                return;
+            }
+            String rideId = pick(RIDES);
+            if (rideId == null) {
+                count(SKIPPED, key);
+                return;
+            }
+            body = "{\"rideId\":\"" + rideId + "\",\"seatsRequested\":1}";
+        }
+        String path = fillPath(captured.route());
+        if (path == null) {
+            count(SKIPPED, key);
+            return;
+        }
+        String query = shiftDeparture(captured.query(), shiftDays);
+        String url = baseUrl + path + (query.isEmpty() ? "" : "?" + query);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        request.method(captured.method(), body != null
+                ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            record(key, start);
+            if (response.statusCode() >= 500) {
+                count(ERRORS, key);
+            } else if (response.statusCode() < 300) {
+                harvest(response.body(), body != null);
+            }
+        } catch (IOException e) {
+            // Timeout / connection refusée: tet7seb erreur b wa9tha
+            record(key, start);
+            count(ERRORS, key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void record(String key, long startNanos) {
+        LATENCIES.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
+                .add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    // {id} -> bookings ba3d "/bookings/", users ba3d "/user/", rides fel ba9i
+    static String fillPath(String route) {
+        Matcher matcher = PATH_VARIABLE.matcher(route);
+        StringBuilder path = new StringBuilder();
+        while (matcher.find()) {
+            String before = route.substring(0, matcher.start());
+            List<String> pool = before.endsWith("/bookings/") ? BOOKINGS
+                    : before.endsWith("/user/") ? DRIVERS
+                    : RIDES;
+            String value = pick(pool);
+            if (value == null) {
+                return null;
+            }
+            matcher.appendReplacement(path, value);
+        }
+        matcher.appendTail(path);
+        return path.toString();
+    }
+
+    static String shiftDeparture(String query, long shiftDays) {
+        if (shiftDays == 0 || !query.contains("departureTime=")) {
+            return query;
+        }
+        List<String> params = new ArrayList<>();
+        for (String param : query.split("&")) {
+            if (param.startsWith("departureTime=")) {
+                String value = URLDecoder.decode(param.substring("departureTime=".length()), StandardCharsets.UTF_8);
+                value = LocalDateTime.parse(value).plusDays(shiftDays).toString();
+                param = "departureTime=" + URLEncoder.encode(value, StandardCharsets.UTF_8);
+            }
+            params.add(param);
+        }
+        return String.join("&", params);
+    }
+
+    static void harvest(String body, boolean bookingCreated) {
+        if (body == null) {
+            return;
+        }
+        if (bookingCreated) {
+            Matcher id = RIDE_ID.matcher(body);
+            if (id.find()) {
+                add(BOOKINGS, id.group(1));
+            }
+            return;
+        }
+        Matcher rides = RIDE_ID.matcher(body);
+        while (rides.find()) {
+            add(RIDES, rides.group(1));
+        }
+        Matcher drivers = DRIVER_ID.matcher(body);
+        while (drivers.find()) {
+            add(DRIVERS, drivers.group(1));
+        }
+    }
+
+    static void login(int users) throws Exception {
+        for (int i = 0; i < users; i++) {
+            String token = token("lt-passenger-" + i + "@blassa.tn", "password");
+            if (token != null) {
+                userTokens.add(token);
+            }
+        }
+        String adminEmail = System.getenv("REPLAY_ADMIN_EMAIL");
+        if (adminEmail != null) {
+            adminToken = token(adminEmail, System.getenv("REPLAY_ADMIN_PASSWORD"));
+        }
+        System.out.printf("logged in %d users%s%n", userTokens.size(), adminToken != null ? " + admin" : "");
+    }
+
+    static String token(String email, String password) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/mobile/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ACCESS_TOKEN.matcher(response.body());
+        return response.statusCode() == 200 && matcher.find() ? matcher.group(1) : null;
+    }
+
+    // Pools: search bin Tunis w Sousse 9bal l replay bch {id} yal9a rides
+    static void primeIdPools() throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl
+                + "/api/v1/rides/search?originLat=36.8065&originLon=10.1815&destLat=35.8256&destLon=10.6084&radius=10&size=50"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        harvest(response.body(), false);
+    }
+
+    static void add(List<String> pool, String id) {
+        if (pool.size() < 5_000 && !pool.contains(id)) {
+            pool.add(id);
+        }
+    }
+
+    static String pick(List<String> pool) {
+        return pool.isEmpty() ? null : pool.get(ThreadLocalRandom.current().nextInt(pool.size()));
+    }
+
+    static void count(Map<String, LongAdder> counters, String key) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    static void writeSummary(Path summary) throws IOException {
+        TreeSet<String> keys = new TreeSet<>(LATENCIES.keySet());
+        keys.addAll(SKIPPED.keySet());
+        keys.addAll(ERRORS.keySet());
+        if (summary.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(summary.toAbsolutePath().getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(summary))) {
+            out.println("route,count,errors,skipped,p50_ms,p90_ms,p99_ms,max_ms");
+            System.out.printf("%-48s %7s %6s %7s %8s %8s %8s %8s%n",
+                    "route", "count", "5xx", "skipped", "p50", "p90", "p99", "max");
+            for (String key : keys) {
+                long[] sorted = LATENCIES.getOrDefault(key, List.of()).stream().mapToLong(Long::longValue).sorted().toArray();
+                long errors = ERRORS.containsKey(key) ? ERRORS.get(key).sum() : 0;
+                long skipped = SKIPPED.containsKey(key) ? SKIPPED.get(key).sum() : 0;
+                double p50 = percentile(sorted, 50), p90 = percentile(sorted, 90), p99 = percentile(sorted, 99);
+                double max = sorted.length > 0 ? sorted[sorted.length - 1] / 1000.0 : 0;
+                out.printf(Locale.ROOT, "%s,%d,%d,%d,%.2f,%.2f,%.2f,%.2f%n", key, sorted.length, errors, skipped, p50, p90, p99, max);
+                System.out.printf(Locale.ROOT, "%-48s %7d %6d %7d %8.1f %8.1f %8.1f %8.1f%n",
+                        key, sorted.length, errors, skipped, p50, p90, p99, max);
+            }
+        }
+        System.out.println("summary written to " + summary);
+    }
+
+    static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+
+    // ---- diff
+
+    static void diff(Path before, Path after) throws IOException {
+        Map<String, String[]> a = readSummary(before);
+        Map<String, String[]> b = readSummary(after);
+        TreeSet<String> keys = new TreeSet<>(a.keySet());
+        keys.addAll(b.keySet());
+        System.out.printf("%-48s %16s %16s %16s %14s%n", "route", "p50 ms", "p99 ms", "max ms", "error rate");
+        for (String key : keys) {
+            String[] x = a.get(key);
+            String[] y = b.get(key);
+            if (x == null || y == null) {
+                System.out.printf("%-48s only in %s%n", key, x == null ? "after" : "before");
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-48s %16s %16s %16s %14s%n", key,
+                    change(x[4], y[4]), change(x[6], y[6]), change(x[7], y[7]),
+                    errorRate(x) + " -> " + errorRate(y));
+        }
+    }
+
+    static Map<String, String[]> readSummary(Path path) throws IOException {
+        Map<String, String[]> rows = new TreeMap<>();
+        List<String> lines = Files.readAllLines(path);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            rows.put(fields[0], fields);
+        }
+        return rows;
+    }
+
+    static String change(String before, String after) {
+        double b = Double.parseDouble(before), a = Double.parseDouble(after);
+        return String.format(Locale.ROOT, "%.1f->%.1f %s", b, a,
+                b == 0 ? "" : String.format(Locale.ROOT, "(%+.0f%%)", (a - b) / b * 100));
+    }
+
+    static String errorRate(String[] row) {
+        long count = Long.parseLong(row[1]);
+        long errors = Long.parseLong(row[2]);
+        return count == 0 ? "0%" : String.format(Locale.ROOT, "%.2f%%", 100.0 * errors / count);
+    }
+}
@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# EXPLAIN (ANALYZE, BUFFERS) of the "any stop pair" searchRides query against the load-test database,
+# to check that the ride_stops side goes through idx_ride_stops_scheduled_point_gist (V26).
+#
+# Usage: perf/sql/explain-search.sh [originLon originLat destLon destLat]
+#   DB_HOST/DB_PORT/DB_NAME/DB_USERNAME/DB_PASSWORD  default: the perf/loadtest stack (localhost:5433)
+# Seed first (perf/loadtest/seed.sh) so the planner has realistic row counts.
+set -euo pipefail
+
+ORIGIN_LON=${1:-10.1815}
+ORIGIN_LAT=${2:-36.8065}
+DEST_LON=${3:-10.6346}
+DEST_LAT=${4:-35.8256}
+export PGPASSWORD=${DB_PASSWORD:-postgres}
+PSQL="psql -h ${DB_HOST:-localhost} -p ${DB_PORT:-5433} -U ${DB_USERNAME:-postgres} -d ${DB_NAME:-blassa_load} -v ON_ERROR_STOP=1"
+
+$PSQL <<SQL
+ANALYZE rides;
+ANALYZE ride_stops;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM rides r
+WHERE r.status = 'SCHEDULED'
+AND r.departure_time BETWEEN now() AND now() + interval '1 day'
+AND r.gender_preference IN ('ANY', 'MALE_ONLY')
+AND EXISTS (
+    SELECT 1 FROM ride_stops p
+    JOIN ride_stops d ON d.ride_id = p.ride_id AND d.stop_index > p.stop_index
+    WHERE p.ride_id = r.id
+    AND p.ride_status = 'SCHEDULED' AND d.ride_status = 'SCHEDULED'
+    AND ST_DWithin(p.point, ST_SetSRID(ST_MakePoint($ORIGIN_LON, $ORIGIN_LAT), 4326)::geography, 3000)
+    AND ST_DWithin(d.point, ST_SetSRID(ST_MakePoint($DEST_LON, $DEST_LAT), 4326)::geography, 5000)
+    AND (SELECT min(seats) FROM unnest(r.leg_seats[p.stop_index + 1 : d.stop_index]) seats) >= 1
+)
+LIMIT 20;
+SQL
@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Time-to-first-successful-request: from process start until the search endpoint answers 200.
+# Results are appended to perf/startup/results.csv so regressions show up between commits.
+#
+# Usage: perf/startup/time-to-first-request.sh [label] [runs]
+#   START_CMD  command that starts the backend (default: docker run of the blassa image)
+#   PORT       port the backend listens on (default 8080)
+# The backend needs the usual DB_* / JWT_* / ... env vars, exported before running this.
+set -euo pipefail
+
+LABEL=${1:-$(git rev-parse --short HEAD 2>/dev/null || echo local)}
+RUNS=${2:-5}
+PORT=${PORT:-8080}
+START_CMD=${START_CMD:-"docker run --rm --network host --env-file .env blassa"}
+URL="http://localhost:$PORT/api/v1/rides/search?originLat=36.8065&originLon=10.1815&destLat=35.8256&destLon=10.6084"
+RESULTS="$(cd "$(dirname "$0")" && pwd)/results.csv"
+
+[ -f "$RESULTS" ] || echo "timestamp,label,run,time_to_first_request_ms" > "$RESULTS"
+
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    $START_CMD > /tmp/blassa-startup.log 2>&1 &
+    pid=$!
+
+    until curl -s -o /dev/null -w '%{http_code}' "$URL" | grep -q '^200$'; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "backend exited before answering, see /tmp/blassa-startup.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+
+    echo "run $run: ${elapsed} ms"
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$LABEL,$run,$elapsed" >> "$RESULTS"
+
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    # docker run --rm: stop l container zeda
+    docker ps -q --filter ancestor=blassa | xargs -r docker stop > /dev/null 2>&1 || true
+done
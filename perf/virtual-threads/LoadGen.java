@@ -0,0 +1,87 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator (java 21, ma y7tajch dependencies):
+ *   java LoadGen.java <url> <concurrency> <durationSeconds>
+ * Kol virtual user yab3ath request, yestanna l response, w y3awed.
+ */
+public class LoadGen {
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        int concurrency = Integer.parseInt(args[1]);
+        int durationSeconds = Integer.parseInt(args[2]);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong busy = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perUserLatencies = new ArrayList<>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 503) {
+                                busy.incrementAndGet();
+                            } else if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            } else {
+                                ok.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    synchronized (perUserLatencies) {
+                        perUserLatencies.add(Arrays.copyOf(samples, count));
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long[] all = perUserLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        long total = ok.get() + busy.get() + errors.get();
+        System.out.printf("requests=%d throughput=%.1f req/s ok=%d busy503=%d errors=%d%n",
+                total, (double) total / durationSeconds, ok.get(), busy.get(), errors.get());
+        System.out.printf("p50=%.1f ms p99=%.1f ms p999=%.1f ms max=%.1f ms%n",
+                percentile(all, 50), percentile(all, 99), percentile(all, 99.9),
+                all.length == 0 ? 0.0 : all[all.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Compare platform threads vs virtual threads + DB bulkhead on the same build.
+#
+# Usage: perf/virtual-threads/compare.sh [concurrency] [durationSeconds]
+# Needs: a packaged jar (./mvnw package -DskipTests) and the usual DB_* / JWT_* env vars
+# pointing at a local Postgres with some rides in it.
+set -euo pipefail
+
+CONCURRENCY=${1:-400}
+DURATION=${2:-60}
+PORT=${SERVER_PORT:-8080}
+ROOT=$(cd "$(dirname "$0")/../.." && pwd)
+JAR=$(ls "$ROOT"/target/blassa-*.jar | grep -v plain | head -n 1)
+URL="http://localhost:$PORT/api/v1/rides/search?originLat=36.8065&originLon=10.1815&destLat=35.8256&destLon=10.6084&radius=5"
+
+run() {
+    local label=$1 virtual=$2 bulkhead=$3
+    echo "=== $label (virtual threads=$virtual, bulkhead=$bulkhead)"
+    VIRTUAL_THREADS_ENABLED=$virtual DB_BULKHEAD_ENABLED=$bulkhead SERVER_PORT=$PORT \
+        java -jar "$JAR" > "/tmp/blassa-$label.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -sf "http://localhost:$PORT/livez" > /dev/null; do sleep 1; done
+
+    # Warm-up (JIT + pool), ma yetkhsebch
+    java "$ROOT/perf/virtual-threads/LoadGen.java" "$URL" 20 15 > /dev/null
+    java "$ROOT/perf/virtual-threads/LoadGen.java" "$URL" "$CONCURRENCY" "$DURATION"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run platform false false
+run virtual true true
@@ -0,0 +1,54 @@
+package com.blassa.config;
+
+import com.blassa.dto.NotificationResponse;
+import com.blassa.model.enums.NotificationType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.DefaultContentTypeResolver;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialisation STOMP mta3 NotificationResponse b nafs l converter elli fi WebSocketConfig.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationConverterBenchmark {
+
+    private JacksonJsonMessageConverter converter;
+    private NotificationResponse notification;
+    private MessageHeaders headers;
+
+    @Setup
+    public void setUp() {
+        DefaultContentTypeResolver resolver = new DefaultContentTypeResolver();
+        resolver.setDefaultMimeType(MediaType.APPLICATION_JSON);
+        converter = new JacksonJsonMessageConverter();
+        converter.setContentTypeResolver(resolver);
+
+        notification = new NotificationResponse(
+                UUID.randomUUID(),
+                NotificationType.NEW_BOOKING,
+                "Demande de réservation",
+                "Nouvelle demande de réservation de Sami Ben Ali",
+                "/rides/" + UUID.randomUUID(),
+                false,
+                OffsetDateTime.now());
+        headers = new MessageHeaders(Map.of());
+    }
+
+    @Benchmark
+    public Message<?> toMessage() {
+        return converter.toMessage(notification, headers);
+    }
+}
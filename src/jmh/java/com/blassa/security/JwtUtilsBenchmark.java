@@ -0,0 +1,54 @@
+package com.blassa.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation w validation mta3 JWT (kol request authentifiée t3addi b extractUsername + isTokenValid).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+    // 256 bits base64, nafs l format mta3 JWT_SECRET_KEY
+    private static final String SECRET_KEY = "Ymxhc3NhLWJlbmNobWFyay1zZWNyZXQta2V5LTMyLWJ5dGVzISE=";
+
+    private JwtUtils jwtUtils;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshTokenExpiration", 2_592_000_000L);
+        userDetails = User.withUsername("passenger@blassa.tn").password("unused").roles("USER").build();
+        token = jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtils.extractUsername(token);
+    }
+
+    // Kima JwtAuthenticationFilter: extractUsername ba3d isTokenValid (parse marrtin)
+    @Benchmark
+    public boolean filterValidation() {
+        String username = jwtUtils.extractUsername(token);
+        return username != null && jwtUtils.isTokenValid(token, userDetails);
+    }
+}
@@ -0,0 +1,44 @@
+package com.blassa.security;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path matching mta3 ProfileCompletionFilter (PROTECTED_PATHS / ALLOWED_PATHS) 3la kol request.
+ * Bla authentication: l filter y9os 9bal ma yousel lel database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProfileCompletionFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({ "/api/v1/rides/search", "/api/v1/bookings/mine", "/api/v1/user/me", "/api/v1/admin/reports/queue" })
+    public String path;
+
+    private ProfileCompletionFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        filter = new ProfileCompletionFilter(null);
+        request = new MockHttpServletRequest("GET", path);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter() throws Exception {
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return response;
+    }
+}
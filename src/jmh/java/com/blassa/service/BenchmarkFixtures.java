@@ -0,0 +1,156 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.Booking;
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.User;
+import com.blassa.model.entity.Vehicle;
+import com.blassa.model.enums.BookingStatus;
+import com.blassa.model.enums.Gender;
+import com.blassa.model.enums.RideGenderPreference;
+import com.blassa.model.enums.RideStatus;
+import com.blassa.repository.BookingRepository;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserRepository;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Entities fel memoire lel benchmarks: nafs l shape elli yrajja3ha Hibernate (driver + vehicle charges).
+ */
+final class BenchmarkFixtures {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private BenchmarkFixtures() {
+    }
+
+    static User driver() {
+        User driver = new User();
+        driver.setId(UUID.randomUUID());
+        driver.setEmail("driver@blassa.tn");
+        driver.setFirstName("Sami");
+        driver.setLastName("Ben Ali");
+        driver.setPhoneNumber("+21620000000");
+        driver.setGender(Gender.MALE);
+        driver.setProfilePictureUrl("https://res.cloudinary.com/blassa/image/upload/driver.png");
+        return driver;
+    }
+
+    static Ride ride(User driver, OffsetDateTime departureTime, RideStatus status) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(UUID.randomUUID());
+        vehicle.setOwner(driver);
+        vehicle.setMake("Peugeot");
+        vehicle.setModel("208");
+        vehicle.setColor("Gris");
+        vehicle.setLicensePlate("123 TUN 4567");
+
+        return Ride.builder()
+                .id(UUID.randomUUID())
+                .driver(driver)
+                .vehicle(vehicle)
+                .originName("Tunis")
+                .originPoint(GEOMETRY_FACTORY.createPoint(new Coordinate(10.1815, 36.8065)))
+                .destinationName("Sousse")
+                .destinationPoint(GEOMETRY_FACTORY.createPoint(new Coordinate(10.6084, 35.8256)))
+                .departureTime(departureTime)
+                .totalSeats(4)
+                .availableSeats(2)
+                .pricePerSeat(new BigDecimal("15.000"))
+                .allowsSmoking(false)
+                .allowsMusic(true)
+                .allowsPets(false)
+                .luggageSize("MEDIUM")
+                .genderPreference(RideGenderPreference.ANY)
+                .status(status)
+                .build();
+    }
+
+    static Booking booking(Ride ride, BookingStatus status) {
+        User passenger = driver();
+        passenger.setEmail("passenger@blassa.tn");
+        return Booking.builder()
+                .id(UUID.randomUUID())
+                .ride(ride)
+                .passenger(passenger)
+                .seatsBooked(2)
+                .priceTotal(new BigDecimal("30.000"))
+                .status(status)
+                .createdAt(OffsetDateTime.now())
+                .build();
+    }
+
+    /**
+     * Services mta3 l benchmark mwaslin b Spring (constructor injection, mouch positional): repositories
+     * stubs fel memoire (findByEmail / findById / findByRideIdAndPassengerId), w l collaborators l o5rin
+     * mocks ma yetna9douch fel hot path.
+     */
+    static AnnotationConfigApplicationContext services(User currentUser, List<Ride> rides, List<Booking> bookings) {
+        Map<UUID, Ride> ridesById = rides.stream().collect(Collectors.toMap(Ride::getId, ride -> ride));
+        Map<UUID, Booking> bookingsByRide = bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getRide().getId(), booking -> booking));
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(UserRepository.class, () -> stub(UserRepository.class, Map.of(
+                "findByEmail", args -> Optional.of(currentUser))));
+        context.registerBean(RideRepository.class, () -> stub(RideRepository.class, Map.of(
+                "findById", args -> Optional.ofNullable(ridesById.get((UUID) args[0])))));
+        context.registerBean(BookingRepository.class, () -> stub(BookingRepository.class, Map.of(
+                "findByRideIdAndPassengerId", args -> Optional.ofNullable(bookingsByRide.get((UUID) args[0])))));
+
+        List<Class<?>> services = List.of(RideService.class, BookingService.class, VehicleService.class);
+        Set<Class<?>> provided = new HashSet<>(services);
+        provided.addAll(List.of(UserRepository.class, RideRepository.class, BookingRepository.class));
+        for (Class<?> service : services) {
+            for (Class<?> dependency : service.getConstructors()[0].getParameterTypes()) {
+                if (provided.add(dependency)) {
+                    registerMock(context, dependency);
+                }
+            }
+            context.registerBean(service);
+        }
+        context.refresh();
+        return context;
+    }
+
+    private static <T> void registerMock(AnnotationConfigApplicationContext context, Class<T> type) {
+        context.registerBean(type, () -> Mockito.mock(type));
+    }
+
+    // Repository stub: methodes elli l benchmark y7tajha bark, l ba9i yfail
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> type.getSimpleName() + " stub";
+                        };
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
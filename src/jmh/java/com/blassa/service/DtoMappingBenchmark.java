@@ -0,0 +1,102 @@
+package com.blassa.service;
+
+import com.blassa.dto.BookingResponse;
+import com.blassa.dto.RideResponse;
+import com.blassa.model.entity.Booking;
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.User;
+import com.blassa.model.enums.BookingStatus;
+import com.blassa.model.enums.RideStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Mapping DTO 3abr l API publique: RideService.getRideById (anonymous w driver connecté) w
+ * BookingService.getMyBookingForRide (plate masquée vs plate kamla). Repositories stubs fel memoire,
+ * donc l wa9t howa l mapping (lookup mta3 l stub negligeable).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DtoMappingBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private RideService rideService;
+    private BookingService bookingService;
+    private UUID rideId;
+    private UUID departingRideId;
+    private UsernamePasswordAuthenticationToken driverAuthentication;
+
+    @Setup
+    public void setUp() {
+        User driver = BenchmarkFixtures.driver();
+        Ride ride = BenchmarkFixtures.ride(driver, OffsetDateTime.now().plusDays(2), RideStatus.SCHEDULED);
+        Ride departingRide = BenchmarkFixtures.ride(driver, OffsetDateTime.now().plusMinutes(30), RideStatus.SCHEDULED);
+        Booking confirmedBookingFarAway = BenchmarkFixtures.booking(ride, BookingStatus.CONFIRMED);
+        Booking confirmedBookingDeparting = BenchmarkFixtures.booking(departingRide, BookingStatus.CONFIRMED);
+        rideId = ride.getId();
+        departingRideId = departingRide.getId();
+
+        context = BenchmarkFixtures.services(driver, List.of(ride, departingRide),
+                List.of(confirmedBookingFarAway, confirmedBookingDeparting));
+        rideService = context.getBean(RideService.class);
+        bookingService = context.getBean(BookingService.class);
+
+        UserDetails principal = org.springframework.security.core.userdetails.User.withUsername(driver.getEmail())
+                .password("unused")
+                .roles("USER")
+                .build();
+        driverAuthentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    @TearDown
+    public void closeContext() {
+        context.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public RideResponse rideAnonymous() {
+        return rideService.getRideById(rideId);
+    }
+
+    @Benchmark
+    public RideResponse rideAsDriver() {
+        SecurityContextHolder.getContext().setAuthentication(driverAuthentication);
+        return rideService.getRideById(rideId);
+    }
+
+    // Page kamla mta3 search (20 rides) kima ridePage.map(this::mapToResponse)
+    @Benchmark
+    public List<RideResponse> ridePageAnonymous() {
+        return IntStream.range(0, 20).mapToObj(i -> rideService.getRideById(rideId)).toList();
+    }
+
+    @Benchmark
+    public BookingResponse bookingMaskedPlate() {
+        SecurityContextHolder.getContext().setAuthentication(driverAuthentication);
+        return bookingService.getMyBookingForRide(rideId);
+    }
+
+    @Benchmark
+    public BookingResponse bookingFullPlate() {
+        SecurityContextHolder.getContext().setAuthentication(driverAuthentication);
+        return bookingService.getMyBookingForRide(departingRideId);
+    }
+}
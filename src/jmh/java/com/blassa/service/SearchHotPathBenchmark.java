@@ -0,0 +1,66 @@
+package com.blassa.service;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Points JTS kima fi searchRides (factory partagée) vs factory jdida kol marra,
+ * w VehicleService.getMaskedPlate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchHotPathBenchmark {
+
+    private final GeometryFactory sharedFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private AnnotationConfigApplicationContext context;
+    private VehicleService vehicleService;
+
+    @Param({ "36.8065", "35.8256" })
+    public double latitude;
+
+    public double longitude = 10.1815;
+
+    @Param({ "123 TUN 4567", "AB" })
+    public String plate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixtures.services(BenchmarkFixtures.driver(), List.of(), List.of());
+        vehicleService = context.getBean(VehicleService.class);
+    }
+
+    @TearDown
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public void searchPointsSharedFactory(Blackhole blackhole) {
+        Point origin = sharedFactory.createPoint(new Coordinate(longitude, latitude));
+        Point destination = sharedFactory.createPoint(new Coordinate(longitude + 0.4, latitude - 1.0));
+        blackhole.consume(origin);
+        blackhole.consume(destination);
+    }
+
+    @Benchmark
+    public Point pointNewFactory() {
+        return new GeometryFactory(new PrecisionModel(), 4326).createPoint(new Coordinate(longitude, latitude));
+    }
+
+    @Benchmark
+    public String maskedPlate() {
+        return vehicleService.getMaskedPlate(plate);
+    }
+}
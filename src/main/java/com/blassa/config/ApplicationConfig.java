@@ -1,6 +1,8 @@
 package com.blassa.config;
 
 
+import com.blassa.observability.DomainMetrics;
+import com.blassa.observability.TimedPasswordEncoder;
 import com.blassa.security.MyUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -18,9 +20,9 @@ public class ApplicationConfig {
     private final MyUserDetailsService myUserDetailsService;
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider(myUserDetailsService);
-        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
         return daoAuthenticationProvider;
     }
     @Bean
@@ -29,8 +31,8 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(DomainMetrics domainMetrics) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), domainMetrics);
     }
 
 }
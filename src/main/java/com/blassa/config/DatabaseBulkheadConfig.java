@@ -0,0 +1,32 @@
+package com.blassa.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Bulkhead 9odem l datasource (chouf BulkheadDataSource). app.db-bulkhead.enabled yet9ra f runtime:
+// m3a fast-start/native (AOT) @ConditionalOnProperty yetjmed f build.
+@Configuration
+public class DatabaseBulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)
+                        && environment.getProperty("app.db-bulkhead.enabled", Boolean.class, true)) {
+                    int maxConcurrent = environment.getProperty("app.db-bulkhead.max-concurrent", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    long acquireTimeoutMs = environment.getProperty("app.db-bulkhead.acquire-timeout-ms", Long.class,
+                            2000L);
+                    return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.blassa.config;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import static java.util.Collections.singletonList;
+
+// Verifier mta3 Google ID tokens (mobile login). Lazy: ma yetsna3ch 9bal awel login b Google,
+// w ba3d yetla3 singleton bch l public keys mta3 Google yetcachiw bin l requests.
+@Configuration
+public class GoogleAuthConfig {
+
+    @Value("${spring.security.oauth2.client.registration.google.client-id}")
+    private String googleClientId;
+
+    @Bean
+    @Lazy
+    public GoogleIdTokenVerifier googleIdTokenVerifier() {
+        return new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), new GsonFactory())
+                .setAudience(singletonList(googleClientId))
+                .build();
+    }
+}
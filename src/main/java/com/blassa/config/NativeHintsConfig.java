@@ -0,0 +1,94 @@
+package com.blassa.config;
+
+import com.blassa.dto.NotificationResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reachability metadata lel native image (mvn -Pnative native:compile).
+ * Spring AOT ya3ref l controllers w l entities wa7dou; hna ken l classes elli
+ * yetchargaw b reflection walla ServiceLoader w AOT ma ychoufhomch.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.BlassaRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class BlassaRuntimeHints implements RuntimeHintsRegistrar {
+
+        // JTS geometry types elli Hibernate Spatial yebniha ki ya9ra geography columns
+        private static final List<String> JTS_TYPES = List.of(
+                "org.locationtech.jts.geom.Point",
+                "org.locationtech.jts.geom.LineString",
+                "org.locationtech.jts.geom.Polygon",
+                "org.locationtech.jts.geom.MultiPoint",
+                "org.locationtech.jts.geom.MultiLineString",
+                "org.locationtech.jts.geom.MultiPolygon",
+                "org.locationtech.jts.geom.GeometryCollection",
+                "org.locationtech.jts.geom.GeometryFactory",
+                "org.locationtech.jts.geom.PrecisionModel",
+                "org.locationtech.jts.geom.impl.CoordinateArraySequence",
+                "org.locationtech.jts.geom.impl.CoordinateArraySequenceFactory",
+                "org.hibernate.spatial.dialect.postgis.PGGeometryJdbcType",
+                "org.hibernate.spatial.dialect.postgis.PGGeographyJdbcType",
+                "org.hibernate.spatial.contributor.SpatialTypeContributor",
+                "org.hibernate.spatial.contributor.SpatialFunctionContributor",
+                "org.hibernate.spatial.integration.SpatialService");
+
+        // jjwt 0.11 yinstancie l implementation b Classes.newInstance(String)
+        private static final List<String> JJWT_TYPES = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.impl.io.RuntimeClasspathSerializerLocator",
+                "io.jsonwebtoken.impl.security.KeysBridge",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        // Cloudinary SDK y5tar l http strategy b Class.forName
+        private static final List<String> CLOUDINARY_TYPES = List.of(
+                "com.cloudinary.http45.UploaderStrategy",
+                "com.cloudinary.http45.ApiStrategy");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            registerIfPresent(hints, classLoader, JTS_TYPES);
+            registerIfPresent(hints, classLoader, JJWT_TYPES);
+            registerIfPresent(hints, classLoader, CLOUDINARY_TYPES);
+
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+            hints.resources().registerPattern("META-INF/services/org.hibernate.*");
+            hints.resources().registerPattern("cloudinary-version.properties");
+            hints.resources().registerPattern("places/*.csv");
+
+            // Payloads elli yet3addew 3al STOMP (JacksonJsonMessageConverter): AOT ma ychoufhomch
+            // 5ater SimpMessagingTemplate.convertAndSendToUser ya5ou Object
+            hints.reflection().registerType(NotificationResponse.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.ACCESS_DECLARED_FIELDS);
+        }
+
+        private void registerIfPresent(RuntimeHints hints, ClassLoader classLoader, List<String> typeNames) {
+            for (String typeName : typeNames) {
+                if (ClassUtils.isPresent(typeName, classLoader)) {
+                    hints.reflection().registerType(TypeReference.of(typeName),
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS,
+                            MemberCategory.ACCESS_DECLARED_FIELDS);
+                }
+            }
+        }
+    }
+}
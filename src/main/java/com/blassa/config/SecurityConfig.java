@@ -4,6 +4,7 @@ import com.blassa.security.CustomOAuth2UserService;
 import com.blassa.security.JwtAuthenticationFilter;
 import com.blassa.security.OAuth2SuccessHandler;
 import com.blassa.security.ProfileCompletionFilter;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,6 +13,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -19,7 +22,9 @@ import org.springframework.security.config.annotation.web.configurers.HeadersCon
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -42,6 +47,13 @@ public class SecurityConfig {
         @Value("${app.frontend-url}")
         private String frontendUrl;
 
+        // Actuator 3al port interne (management.server.port), mouch 3al port public mta3 Fly
+        @Value("${management.server.port:${server.port:8080}}")
+        private int managementPort;
+
+        @Value("${app.metrics.scrape-allowed-cidrs:127.0.0.1/32,::1/128}")
+        private String[] scrapeAllowedCidrs;
+
         @Bean
         public SecurityFilterChain filterChain(HttpSecurity http, CorsConfigurationSource corsConfigurationSource)
                         throws Exception {
@@ -55,6 +67,9 @@ public class SecurityConfig {
                                                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                                                 .requestMatchers("/api/v1/auth/**").permitAll()
                                                 .requestMatchers("/api/v1/rides/search").permitAll()
+                                                .requestMatchers(HttpMethod.GET, "/api/v1/itineraries").permitAll()
+                                                .requestMatchers(HttpMethod.GET, "/api/v1/rides/tiles/**").permitAll()
+                                                .requestMatchers(HttpMethod.GET, "/api/v1/places/**").permitAll()
                                                 .requestMatchers(HttpMethod.GET, "/api/v1/rides/*").permitAll()
                                                 .requestMatchers("/api/v1/user/*/public").permitAll()
                                                 .requestMatchers("/api/v1/reviews/user/**").permitAll()
@@ -64,7 +79,11 @@ public class SecurityConfig {
                                                 .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                                                 .requestMatchers("/verify/email/**", "/reset/email", "/forgot")
                                                 .permitAll()
-                                                .requestMatchers("/actuator/health").permitAll()
+                                                .requestMatchers("/livez", "/readyz").permitAll()
+                                                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                                                .requestMatchers("/actuator/prometheus").access(prometheusScrapeAccess())
+                                                .requestMatchers("/actuator/flightrecording", "/actuator/flightrecording/**")
+                                                .hasRole("ADMIN")
                                                 .anyRequest().authenticated())
                                 .oauth2Login(oauth2 -> oauth2
                                                 .userInfoEndpoint(userInfo -> userInfo
@@ -88,6 +107,21 @@ public class SecurityConfig {
                 return http.build();
         }
 
+        // Scrape Prometheus: ken 3al management port w men IP fel allow-list (réseau privé Fly)
+        private AuthorizationManager<RequestAuthorizationContext> prometheusScrapeAccess() {
+                List<IpAddressMatcher> allowed = Arrays.stream(scrapeAllowedCidrs)
+                                .map(String::trim)
+                                .filter(cidr -> !cidr.isEmpty())
+                                .map(IpAddressMatcher::new)
+                                .toList();
+                return (authentication, context) -> {
+                        HttpServletRequest request = context.getRequest();
+                        boolean granted = request.getLocalPort() == managementPort
+                                        && allowed.stream().anyMatch(matcher -> matcher.matches(request));
+                        return new AuthorizationDecision(granted);
+                };
+        }
+
         @Bean
         public CorsConfigurationSource corsConfigurationSource() {
                 CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,153 @@
+package com.blassa.config;
+
+import com.blassa.dto.RideResponse;
+import com.blassa.model.enums.RideGenderPreference;
+import com.blassa.model.enums.RideStatus;
+import com.blassa.security.JwtUtils;
+import com.blassa.service.RideService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up 9bal ma l instance t9oul "ready": Spring Boot ma y7ottech readiness 3la ACCEPTING_TRAFFIC
+ * ken ba3d ma l ApplicationRunners lkol ykammlou, donc l health check (readiness) yestanna hedha.
+ * Kol chay read-only: search 3la point synthetic, JWT, BCrypt, JSON, w pool ymtla lel minimum-idle.
+ * app.warmup.enabled yet9ra f runtime (mouch @ConditionalOnProperty): fast-start/native y7adhrou l beans
+ * f build (AOT) w condition t3 property tetjmed ki tet9ayyem wa9tha.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    // Wost l b7ar (Golfe de Gabès): search yemchi kamel ama ma yal9a chay
+    private static final double SYNTHETIC_LAT = 34.0;
+    private static final double SYNTHETIC_LON = 11.5;
+
+    private final DataSource dataSource;
+    private final RideService rideService;
+    private final JwtUtils jwtUtils;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.warmup.iterations:20}")
+    private int iterations;
+
+    @Value("${spring.datasource.hikari.minimum-idle:5}")
+    private int minimumIdle;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("Warm-up disabled (app.warmup.enabled=false)");
+            return;
+        }
+        long start = System.nanoTime();
+
+        step("connection pool", this::fillPool);
+        step("ride search", this::warmSearch);
+        step("jwt", this::warmJwt);
+        step("bcrypt", this::warmBcrypt);
+        step("json", this::warmJson);
+
+        long elapsedNanos = System.nanoTime() - start;
+        Timer.builder("blassa.warmup.duration")
+                .description("Time spent warming up before reporting ready")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    // Step elli tfachel ma toklch l startup, n7ebbou ken n3arfou
+    private void step(String name, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("Warm-up step '{}' failed: {}", name, e.getMessage());
+        }
+    }
+
+    private void fillPool() {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < minimumIdle; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (Exception ignored) {
+                    // connection mte3 warm-up, ma fiha chay
+                }
+            }
+        }
+    }
+
+    private void warmSearch() {
+        for (int i = 0; i < iterations; i++) {
+            // Bla materialisation t3 l templates: l warm-up (w l training run t3 CDS) ma yekteb chay
+            rideService.searchMaterialisedRides(
+                    SYNTHETIC_LAT, SYNTHETIC_LON,
+                    SYNTHETIC_LAT, SYNTHETIC_LON,
+                    null, null, i % 2 == 0, 1, null, 3.0,
+                    0, 10, i % 2 == 0 ? "price_asc" : "time_asc");
+        }
+    }
+
+    private void warmJwt() {
+        UserDetails warmupUser = User.withUsername("warmup@blassa.tn")
+                .password("")
+                .authorities("USER")
+                .build();
+        for (int i = 0; i < iterations; i++) {
+            String token = jwtUtils.generateToken(warmupUser);
+            jwtUtils.isTokenValid(token, warmupUser);
+        }
+    }
+
+    // BCrypt ghali (strength 10), marra wa7da tkaffi lel class loading w JIT mta3 l login
+    private void warmBcrypt() {
+        String hash = passwordEncoder.encode("warmup");
+        passwordEncoder.matches("warmup", hash);
+    }
+
+    private void warmJson() {
+        RideResponse sample = new RideResponse(
+                UUID.randomUUID(), UUID.randomUUID(), "Warm Up", null, "warmup@blassa.tn", 0.0,
+                null, null, null,
+                "Tunis", 36.8065, 10.1815,
+                "Sousse", 35.8256, 10.6084,
+                OffsetDateTime.now().plusDays(1), 4, 3, BigDecimal.valueOf(15),
+                false, true, false, "MEDIUM", RideGenderPreference.ANY, RideStatus.SCHEDULED,
+                "Peugeot", "208", "Gris", null, List.of());
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(sample);
+        }
+    }
+}
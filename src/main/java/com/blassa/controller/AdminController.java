@@ -1,11 +1,19 @@
 package com.blassa.controller;
 
+import com.blassa.dto.AnalyticsPointDTO;
+import com.blassa.dto.ReportBatchResolveRequest;
+import com.blassa.dto.ReportQueueResponse;
+import com.blassa.model.enums.AnalyticsGranularity;
 import com.blassa.model.enums.ReportStatus;
 import com.blassa.service.AdminService;
+import com.blassa.service.AnalyticsRollupService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -16,12 +24,21 @@ import java.util.UUID;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AnalyticsRollupService analyticsRollupService;
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
         return ResponseEntity.ok(adminService.getDashboardStats());
     }
 
+    @GetMapping("/analytics")
+    public ResponseEntity<List<AnalyticsPointDTO>> getAnalytics(
+            @RequestParam(defaultValue = "DAY") AnalyticsGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        return ResponseEntity.ok(analyticsRollupService.getSeries(granularity, from, to));
+    }
+
     @GetMapping("/users")
     public ResponseEntity<List<com.blassa.dto.UserSummaryDTO>> getUsers() {
         return ResponseEntity.ok(adminService.getAllUsers());
@@ -44,6 +61,21 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getReports());
     }
 
+    @GetMapping("/reports/queue")
+    public ResponseEntity<ReportQueueResponse> getReportQueue(
+            @RequestParam(defaultValue = "PENDING") ReportStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime beforeCreatedAt,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.getReportQueue(status, beforeCreatedAt, beforeId, size));
+    }
+
+    @PutMapping("/reports/resolve")
+    public ResponseEntity<Map<String, Integer>> resolveReports(@RequestBody @Valid ReportBatchResolveRequest request) {
+        int updated = adminService.resolveReports(request.getIds(), request.getStatus());
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
     @PutMapping("/reports/{id}/resolve")
     public ResponseEntity<Void> resolveReport(@PathVariable Long id, @RequestParam ReportStatus status) {
         adminService.resolveReport(id, status);
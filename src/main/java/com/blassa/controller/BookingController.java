@@ -3,6 +3,8 @@ package com.blassa.controller;
 import com.blassa.dto.BookingRequest;
 import com.blassa.dto.BookingResponse;
 import com.blassa.dto.RidePassengerResponse;
+import com.blassa.observability.DomainMetrics;
+import com.blassa.observability.jfr.BookingCreateEvent;
 import com.blassa.service.BookingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -19,10 +21,30 @@ import java.util.UUID;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final DomainMetrics domainMetrics;
 
     @PostMapping
     public ResponseEntity<BookingResponse> createBooking(@RequestBody @Valid BookingRequest request) {
-        return ResponseEntity.ok(bookingService.createBooking(request));
+        // Metrics houni mch fel service: commit (w optimistic lock) ysir ki createBooking yrajja3
+        long startNanos = System.nanoTime();
+        BookingCreateEvent event = new BookingCreateEvent();
+        event.begin();
+        String outcome = "CREATED";
+        try {
+            return ResponseEntity.ok(bookingService.createBooking(request));
+        } catch (RuntimeException e) {
+            outcome = DomainMetrics.outcomeOf(e);
+            throw e;
+        } finally {
+            domainMetrics.recordBooking(outcome, System.nanoTime() - startNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.rideId = String.valueOf(request.rideId());
+                event.seats = request.seatsRequested();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
     }
 
     @GetMapping("/mine")
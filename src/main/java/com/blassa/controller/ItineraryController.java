@@ -0,0 +1,43 @@
+package com.blassa.controller;
+
+import com.blassa.dto.ItineraryResponse;
+import com.blassa.service.ItineraryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+// Trajets b correspondances (ex. Bizerte -> Tunis -> Sfax) ken ma famech ride direct
+@RestController
+@RequestMapping("/api/v1/itineraries")
+@RequiredArgsConstructor
+public class ItineraryController {
+
+    private final ItineraryService itineraryService;
+
+    @GetMapping
+    public ResponseEntity<List<ItineraryResponse>> planItineraries(
+            @RequestParam Double originLat,
+            @RequestParam Double originLon,
+            @RequestParam Double destLat,
+            @RequestParam Double destLon,
+            @RequestParam(required = false) String departureTime,
+            @RequestParam(defaultValue = "1") Integer seats,
+            // 0..2 correspondances
+            @RequestParam(defaultValue = "2") Integer maxTransfers,
+            @RequestParam(required = false) String genderFilter,
+            @RequestParam(defaultValue = "3.0") Double radius) {
+
+        OffsetDateTime offsetTime = null;
+        if (departureTime != null && !departureTime.isBlank()) {
+            offsetTime = LocalDateTime.parse(departureTime).atOffset(ZoneOffset.of("+01:00"));
+        }
+
+        return ResponseEntity.ok(itineraryService.planItineraries(
+                originLat, originLon, destLat, destLon, offsetTime, seats, maxTransfers, radius, genderFilter));
+    }
+}
@@ -9,11 +9,9 @@ import com.blassa.service.AuthenticationService;
 import com.blassa.service.EmailService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,8 +20,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
-import static java.util.Collections.singletonList;
-
 /**
  * web controller m3ch yasla7 l android 5ater yst3ml fi HTTP-ONLY COOKIES, aw 3mlt controller edha
  * ano nst3ml m3ah authenticationService w jawna fol, just lezmna nstockiw token directement
@@ -40,9 +36,7 @@ public class MobileAuthController {
     private final JwtUtils jwtUtils;
     private final UserRepository userRepository;
     private final EmailService emailService;
-
-    @Value("${spring.security.oauth2.client.registration.google.client-id}")
-    private String googleClientId;
+    private final ObjectProvider<GoogleIdTokenVerifier> googleIdTokenVerifier;
 
 
     @PostMapping("/register")
@@ -182,13 +176,7 @@ public class MobileAuthController {
         }
 
         try {
-            GoogleIdTokenVerifier verifier=new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(),
-                    new GsonFactory())
-                    .setAudience(singletonList(googleClientId))
-                    .build();
-
-            GoogleIdToken googleIdToken=verifier.verify(idToken);
+            GoogleIdToken googleIdToken=googleIdTokenVerifier.getObject().verify(idToken);
             if (googleIdToken == null) {
                 return ResponseEntity.status(401).body(MobileAuthResponse.builder()
                         .status("INVALID_TOKEN")
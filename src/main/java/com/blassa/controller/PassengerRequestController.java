@@ -0,0 +1,88 @@
+package com.blassa.controller;
+
+import com.blassa.dto.PassengerRequestAccept;
+import com.blassa.dto.PassengerRequestCreate;
+import com.blassa.dto.PassengerRequestPage;
+import com.blassa.dto.PassengerRequestResponse;
+import com.blassa.dto.RideResponse;
+import com.blassa.service.PassengerRequestService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Demandes t3 passagers: passenger ynachar, driver ylawej (keyset: afterDeparture + afterId) w y9bel
+@RestController
+@RequestMapping("/api/v1/passenger-requests")
+@RequiredArgsConstructor
+public class PassengerRequestController {
+
+    private final PassengerRequestService passengerRequestService;
+
+    @PostMapping
+    public ResponseEntity<PassengerRequestResponse> createRequest(
+            @RequestBody @Valid PassengerRequestCreate request) {
+        return ResponseEntity.ok(passengerRequestService.createRequest(request));
+    }
+
+    @GetMapping("/mine")
+    public ResponseEntity<List<PassengerRequestResponse>> getMyRequests() {
+        return ResponseEntity.ok(passengerRequestService.getMyRequests());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelRequest(@PathVariable UUID id) {
+        passengerRequestService.cancelRequest(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Driver: pickup 9rib mel origin w dropoff 9rib mel destination
+    @GetMapping("/near")
+    public ResponseEntity<PassengerRequestPage> browseNear(
+            @RequestParam Double originLat,
+            @RequestParam Double originLon,
+            @RequestParam Double destLat,
+            @RequestParam Double destLon,
+            @RequestParam(defaultValue = "3.0") Double radius,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime departureTime,
+            @RequestParam(required = false) Double timeFlexHours,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime afterDeparture,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(passengerRequestService.browseNear(originLat, originLon, destLat, destLon, radius,
+                departureTime, timeFlexHours, afterDeparture, afterId, size));
+    }
+
+    // Driver: demandes 3al thnia t3 ride mte3ou (rideId) walla t3 ligne origin -> destination
+    @GetMapping("/along-route")
+    public ResponseEntity<PassengerRequestPage> browseAlongRoute(
+            @RequestParam(required = false) UUID rideId,
+            @RequestParam(required = false) Double originLat,
+            @RequestParam(required = false) Double originLon,
+            @RequestParam(required = false) Double destLat,
+            @RequestParam(required = false) Double destLon,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime departureTime,
+            @RequestParam(required = false) Double timeFlexHours,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime afterDeparture,
+            @RequestParam(required = false) UUID afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(passengerRequestService.browseAlongRoute(rideId, originLat, originLon, destLat,
+                destLon, departureTime, timeFlexHours, afterDeparture, afterId, size));
+    }
+
+    // Driver y9bel: ride jdid + booking confirmé lel passenger
+    @PostMapping("/{id}/accept")
+    public ResponseEntity<RideResponse> acceptRequest(@PathVariable UUID id,
+            @RequestBody @Valid PassengerRequestAccept accept) {
+        return ResponseEntity.ok(passengerRequestService.acceptRequest(id, accept));
+    }
+}
@@ -0,0 +1,34 @@
+package com.blassa.controller;
+
+import com.blassa.dto.PlaceResponse;
+import com.blassa.dto.PlaceReverseResponse;
+import com.blassa.service.PlaceGazetteer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Villes w délégations: autocomplete (prefix) w reverse (a9rab blasa), in-memory
+@RestController
+@RequestMapping("/api/v1/places")
+@RequiredArgsConstructor
+public class PlaceController {
+
+    private final PlaceGazetteer placeGazetteer;
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<PlaceResponse>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(placeGazetteer.autocomplete(q, limit));
+    }
+
+    @GetMapping("/reverse")
+    public ResponseEntity<PlaceReverseResponse> reverse(
+            @RequestParam Double lat,
+            @RequestParam Double lon,
+            @RequestParam(required = false) Double maxDistanceKm) {
+        return ResponseEntity.ok(placeGazetteer.reverse(lat, lon, maxDistanceKm));
+    }
+}
@@ -1,19 +1,29 @@
 package com.blassa.controller;
 
+import com.blassa.dto.ExploreDestinationResponse;
+import com.blassa.dto.RideCalendarDayResponse;
 import com.blassa.dto.RideRequest;
 import com.blassa.dto.RideResponse;
 import com.blassa.dto.RideStatusResponse;
 import com.blassa.dto.RideUpdateStatusRequest;
 import com.blassa.repository.RideRepository;
+import com.blassa.service.ExploreService;
+import com.blassa.service.RideCalendarService;
 import com.blassa.service.RideService;
+import com.blassa.service.RideTileService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/rides")
@@ -22,6 +32,9 @@ public class RideController {
 
     private final RideRepository rideRepository;
     private final RideService rideService;
+    private final RideTileService rideTileService;
+    private final ExploreService exploreService;
+    private final RideCalendarService rideCalendarService;
 
     @PostMapping
     public ResponseEntity<RideResponse> createRide(@RequestBody @Valid RideRequest request) {
@@ -36,6 +49,10 @@ public class RideController {
             @RequestParam Double destLat,
             @RequestParam Double destLon,
             @RequestParam(required = false) String departureTime,
+            // Fenêtre ± heures 7awl departureTime (default 2h, max 12h)
+            @RequestParam(required = false) Double timeFlexHours,
+            // true: rides elli yet3addaw b9orb l pickup/dropoff (corridor), mouch ken départ/arrivée
+            @RequestParam(defaultValue = "true") boolean enRoute,
             @RequestParam(defaultValue = "1") Integer seats,
 
             @RequestParam(required = false) String genderFilter,
@@ -55,6 +72,8 @@ public class RideController {
                 originLat, originLon,
                 destLat, destLon,
                 offsetTime,
+                timeFlexHours,
+                enRoute,
                 seats,
                 genderFilter,
                 radius,
@@ -63,6 +82,48 @@ public class RideController {
                 sortBy));
     }
 
+    // Explore: win najem nemchi men origin, destination par ligne (a9al prix, awel départ, nombre)
+    @GetMapping("/explore")
+    public ResponseEntity<List<ExploreDestinationResponse>> exploreDestinations(
+            @RequestParam Double originLat,
+            @RequestParam Double originLon,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "true") boolean enRoute,
+            @RequestParam(defaultValue = "1") Integer seats,
+            @RequestParam(required = false) String genderFilter,
+            @RequestParam(defaultValue = "3.0") Double radius) {
+
+        return ResponseEntity.ok(exploreService.explore(originLat, originLon, parseLocal(from), parseLocal(to),
+                seats, radius, enRoute, genderFilter));
+    }
+
+    // Calendrier lel date picker: nombre t3 rides w a9al prix par jour 3al N jours ljeyin
+    @GetMapping("/calendar")
+    public ResponseEntity<List<RideCalendarDayResponse>> getRideCalendar(
+            @RequestParam Double originLat,
+            @RequestParam Double originLon,
+            @RequestParam Double destLat,
+            @RequestParam Double destLon,
+            @RequestParam(required = false) Integer days,
+            @RequestParam(defaultValue = "true") boolean enRoute,
+            @RequestParam(defaultValue = "1") Integer seats,
+            @RequestParam(required = false) String genderFilter,
+            @RequestParam(defaultValue = "3.0") Double radius) {
+
+        return ResponseEntity.ok(rideCalendarService.getCalendar(originLat, originLon, destLat, destLon, days,
+                seats, radius, enRoute, genderFilter));
+    }
+
+    // Tuiles vectorielles (MVT) t3 l départs lel carte: clusters f zoom s8ir, rides f zoom kbir
+    @GetMapping(value = "/tiles/{z}/{x}/{y}.mvt", produces = "application/vnd.mapbox-vector-tile")
+    public ResponseEntity<byte[]> getRideTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        byte[] tile = rideTileService.getTile(z, x, y);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(rideTileService.getTtlSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(tile);
+    }
+
     // VIEW RIDE BY ID
     @GetMapping("/{id}")
     public ResponseEntity<RideResponse> getRideById(@PathVariable java.util.UUID id) {
@@ -106,4 +167,11 @@ public class RideController {
     public ResponseEntity<RideStatusResponse> completeRide(@PathVariable UUID id) {
         return ResponseEntity.ok(rideService.completeRide(id));
     }
+
+    private static OffsetDateTime parseLocal(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return LocalDateTime.parse(value).atOffset(ZoneOffset.of("+01:00"));
+    }
 }
@@ -0,0 +1,59 @@
+package com.blassa.controller;
+
+import com.blassa.dto.RideResponse;
+import com.blassa.dto.RideTemplateRequest;
+import com.blassa.dto.RideTemplateResponse;
+import com.blassa.service.RideService;
+import com.blassa.service.RideTemplateService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+// Rides récurrents (kol nhar khedma...): template + exceptions, les instances yetsen3ou lazy
+@RestController
+@RequestMapping("/api/v1/ride-templates")
+@RequiredArgsConstructor
+public class RideTemplateController {
+
+    private final RideTemplateService rideTemplateService;
+    private final RideService rideService;
+
+    @PostMapping
+    public ResponseEntity<RideTemplateResponse> createTemplate(@RequestBody @Valid RideTemplateRequest request) {
+        return ResponseEntity.ok(rideTemplateService.createTemplate(request));
+    }
+
+    @GetMapping("/mine")
+    public ResponseEntity<List<RideTemplateResponse>> getMyTemplates() {
+        return ResponseEntity.ok(rideTemplateService.getMyTemplates());
+    }
+
+    // Nhar bla ride (3otla, congé)
+    @PostMapping("/{id}/exceptions")
+    public ResponseEntity<RideTemplateResponse> addException(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(rideTemplateService.addException(id, date));
+    }
+
+    // Ride concret t3 nhar mou3ayen (yetsna3 ken mazel), bech passenger ynajjem yreservi
+    @PostMapping("/{id}/occurrences/{date}")
+    public ResponseEntity<RideResponse> materialiseOccurrence(
+            @PathVariable UUID id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        UUID rideId = rideTemplateService.materialiseOccurrence(id, date);
+        return ResponseEntity.ok(rideService.getRideById(rideId));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deactivate(@PathVariable UUID id) {
+        rideTemplateService.deactivate(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.blassa.controller;
+
+import com.blassa.dto.SavedSearchRequest;
+import com.blassa.dto.SavedSearchResponse;
+import com.blassa.service.SavedSearchService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+// Recherches sauvegardées: notification (STOMP /user/queue/notification) ki ride jdid ymatchi, bla polling
+@RestController
+@RequestMapping("/api/v1/saved-searches")
+@RequiredArgsConstructor
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    @PostMapping
+    public ResponseEntity<SavedSearchResponse> createSavedSearch(@RequestBody @Valid SavedSearchRequest request) {
+        return ResponseEntity.ok(savedSearchService.createSavedSearch(request));
+    }
+
+    @GetMapping("/mine")
+    public ResponseEntity<List<SavedSearchResponse>> getMySavedSearches() {
+        return ResponseEntity.ok(savedSearchService.getMySavedSearches());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSavedSearch(@PathVariable UUID id) {
+        savedSearchService.deleteSavedSearch(id);
+        return ResponseEntity.noContent().build();
+    }
+}
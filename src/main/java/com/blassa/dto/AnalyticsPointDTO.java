@@ -0,0 +1,22 @@
+package com.blassa.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+public class AnalyticsPointDTO {
+    private OffsetDateTime bucketStart;
+    private long signups;
+    private long ridesPublished;
+    private long bookingsTotal;
+    private long bookingsPending;
+    private long bookingsConfirmed;
+    private long bookingsRejected;
+    private long bookingsCancelled;
+    private BigDecimal grossBookingValue;
+    private double cancellationRate;
+}
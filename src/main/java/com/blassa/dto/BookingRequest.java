@@ -8,6 +8,13 @@ import java.util.UUID;
 
 public record BookingRequest(
         @NotNull UUID rideId,
-        @Min(1) @Max(4) int seatsRequested
+        @Min(1) @Max(4) int seatsRequested,
+        // Optional: tronçon (index t3 l arrêts), null => men origin lel destination
+        @Min(0) Integer fromStop,
+        @Min(1) Integer toStop
         ) {
+
+    public BookingRequest(UUID rideId, int seatsRequested) {
+        this(rideId, seatsRequested, null, null);
+    }
 }
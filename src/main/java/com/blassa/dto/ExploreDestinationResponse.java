@@ -0,0 +1,16 @@
+package com.blassa.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record ExploreDestinationResponse(
+        String destinationName,
+        double destinationLat,
+        double destinationLon,
+        BigDecimal minPrice,
+        OffsetDateTime earliestDeparture,
+        long rideCount,
+        UUID cheapestRideId,
+        UUID soonestRideId) {
+}
@@ -0,0 +1,17 @@
+package com.blassa.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record ItineraryLegResponse(
+        UUID rideId,
+        int fromStopIndex,
+        String fromStopName,
+        int toStopIndex,
+        String toStopName,
+        OffsetDateTime departureTime, // estimé ken arrêt intermédiaire
+        OffsetDateTime arrivalTime,
+        BigDecimal price,
+        int walkMetersBefore) {
+}
@@ -0,0 +1,14 @@
+package com.blassa.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record ItineraryResponse(
+        int transfers,
+        OffsetDateTime departureTime,
+        OffsetDateTime arrivalTime,
+        BigDecimal totalPrice,
+        int walkMetersAfter,
+        List<ItineraryLegResponse> legs) {
+}
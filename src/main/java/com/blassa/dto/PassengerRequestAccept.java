@@ -0,0 +1,28 @@
+package com.blassa.dto;
+
+import com.blassa.model.enums.RideGenderPreference;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Driver y7awel demande l ride: origin/destination men l demande, l ba9i men hna
+public record PassengerRequestAccept(
+        @NotNull UUID vehicleId,
+        @NotNull @Future OffsetDateTime departureTime,
+        @NotNull Integer totalSeats,
+        @NotNull BigDecimal pricePerSeat,
+
+        Boolean allowsSmoking,
+        Boolean allowsMusic,
+        Boolean allowsPets,
+        String luggageSize,
+        RideGenderPreference genderPreference,
+        @Valid @Size(max = RideRequest.MAX_WAYPOINTS) List<RouteWaypoint> waypoints,
+        @Valid @Size(max = RideRequest.MAX_STOPS) List<RideStopRequest> stops) {
+}
@@ -0,0 +1,25 @@
+package com.blassa.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.OffsetDateTime;
+
+// Passenger ynachar demande: "n7eb nemchi Sousse -> Tunis l jom3a bin 7h w 10h"
+public record PassengerRequestCreate(
+        @NotNull String originName,
+        @NotNull Double originLat,
+        @NotNull Double originLon,
+
+        @NotNull String destinationName,
+        @NotNull Double destinationLat,
+        @NotNull Double destinationLon,
+
+        @NotNull OffsetDateTime departureFrom,
+        @NotNull @Future OffsetDateTime departureTo,
+        @Min(1) @Max(8) Integer seats,
+        @Size(max = 500) String message) {
+}
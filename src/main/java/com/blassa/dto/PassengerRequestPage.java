@@ -0,0 +1,12 @@
+package com.blassa.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Page keyset: ab3ath (afterDeparture, afterId) bech tjib elli ba3dha; null => ma famech akther
+public record PassengerRequestPage(
+        List<PassengerRequestResponse> items,
+        OffsetDateTime nextAfterDeparture,
+        UUID nextAfterId) {
+}
@@ -0,0 +1,25 @@
+package com.blassa.dto;
+
+import com.blassa.model.enums.PassengerRequestStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record PassengerRequestResponse(
+        UUID id,
+        UUID passengerId,
+        String passengerName,
+        String passengerProfilePictureUrl,
+        String originName,
+        Double originLat,
+        Double originLon,
+        String destinationName,
+        Double destinationLat,
+        Double destinationLon,
+        OffsetDateTime departureFrom,
+        OffsetDateTime departureTo,
+        Integer seats,
+        String message,
+        PassengerRequestStatus status,
+        UUID rideId) {
+}
@@ -0,0 +1,12 @@
+package com.blassa.dto;
+
+import com.blassa.model.enums.PlaceType;
+
+public record PlaceResponse(
+        String code,
+        String name,
+        PlaceType type,
+        String governorate,
+        double lat,
+        double lon) {
+}
@@ -0,0 +1,6 @@
+package com.blassa.dto;
+
+public record PlaceReverseResponse(
+        PlaceResponse place,
+        int distanceMeters) {
+}
@@ -0,0 +1,23 @@
+package com.blassa.dto;
+
+import com.blassa.model.enums.ReportStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportBatchResolveRequest {
+    @NotEmpty(message = "At least one report id is required")
+    @Size(max = 500, message = "Cannot resolve more than 500 reports at once")
+    private List<Long> ids;
+
+    @NotNull(message = "Status is required")
+    private ReportStatus status;
+}
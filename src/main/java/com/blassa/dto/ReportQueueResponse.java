@@ -0,0 +1,17 @@
+package com.blassa.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ReportQueueResponse {
+    private List<ReportDTO> reports;
+    private boolean hasMore;
+    // Cursor lel page elli ba3dha (null ken ma famma chay)
+    private OffsetDateTime nextBeforeCreatedAt;
+    private Long nextBeforeId;
+}
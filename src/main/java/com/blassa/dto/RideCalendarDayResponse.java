@@ -0,0 +1,10 @@
+package com.blassa.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RideCalendarDayResponse(
+        LocalDate date,
+        long rideCount,
+        BigDecimal minPrice) {
+}
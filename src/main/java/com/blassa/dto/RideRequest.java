@@ -1,11 +1,14 @@
 package com.blassa.dto;
 
 import com.blassa.model.enums.RideGenderPreference;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 
 public record RideRequest(
         @NotNull String originName,
@@ -25,5 +28,12 @@ public record RideRequest(
         Boolean allowsPets,
         String luggageSize,
         RideGenderPreference genderPreference,
-        java.util.UUID vehicleId) {
+        java.util.UUID vehicleId,
+        // Optional: ordre mta3 l thnia; ken null => ligne droite origin -> destination
+        @Valid @Size(max = RideRequest.MAX_WAYPOINTS) List<RouteWaypoint> waypoints,
+        // Optional: arrêts intermédiaires b l ordre; passengers ynajjmou yreserviw ay tronçon
+        @Valid @Size(max = RideRequest.MAX_STOPS) List<RideStopRequest> stops) {
+
+    public static final int MAX_WAYPOINTS = 25;
+    public static final int MAX_STOPS = 8;
 }
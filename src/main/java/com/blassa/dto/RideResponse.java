@@ -5,6 +5,7 @@ import com.blassa.model.enums.RideStatus;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public record RideResponse(
@@ -40,5 +41,6 @@ public record RideResponse(
         String carMake,
         String carModel,
         String carColor,
-        String carLicensePlate) {
+        String carLicensePlate,
+        List<RideStopResponse> stops) {
 }
@@ -0,0 +1,10 @@
+package com.blassa.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+// Arrêt intermédiaire (bin origin w destination), b l ordre
+public record RideStopRequest(
+        @NotNull String name,
+        @NotNull Double lat,
+        @NotNull Double lon) {
+}
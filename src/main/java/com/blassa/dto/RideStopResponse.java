@@ -0,0 +1,10 @@
+package com.blassa.dto;
+
+public record RideStopResponse(
+        int index,
+        String name,
+        Double lat,
+        Double lon,
+        Integer seatsToNext // blays libres 7atta l arrêt elli ba3dou (null lel destination)
+) {
+}
@@ -0,0 +1,42 @@
+package com.blassa.dto;
+
+import com.blassa.model.enums.RideGenderPreference;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Ride récurrent: "kol lundi-vendredi 07:30 Tunis -> Ariana"
+public record RideTemplateRequest(
+        @NotNull String originName,
+        @NotNull Double originLat,
+        @NotNull Double originLon,
+
+        @NotNull String destinationName,
+        @NotNull Double destinationLat,
+        @NotNull Double destinationLon,
+
+        @NotNull LocalTime departureTime, // heure locale
+        String zoneId, // null => Africa/Tunis
+        @NotEmpty Set<DayOfWeek> daysOfWeek,
+        @NotNull LocalDate validFrom,
+        LocalDate validUntil,
+        @Size(max = 366) List<LocalDate> exceptionDates,
+
+        @NotNull Integer totalSeats,
+        @NotNull BigDecimal pricePerSeat,
+
+        Boolean allowsSmoking,
+        Boolean allowsMusic,
+        Boolean allowsPets,
+        String luggageSize,
+        RideGenderPreference genderPreference,
+        @NotNull UUID vehicleId) {
+}
@@ -0,0 +1,26 @@
+package com.blassa.dto;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public record RideTemplateResponse(
+        UUID id,
+        String originName,
+        String destinationName,
+        LocalTime departureTime,
+        String zoneId,
+        Set<DayOfWeek> daysOfWeek,
+        LocalDate validFrom,
+        LocalDate validUntil,
+        List<LocalDate> exceptionDates,
+        Integer totalSeats,
+        BigDecimal pricePerSeat,
+        Boolean active,
+        List<OffsetDateTime> nextDepartures) {
+}
@@ -0,0 +1,9 @@
+package com.blassa.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+// Point intermédiaire 3al thnia (optional) - yesta3mlou l backend bech yebni route_line
+public record RouteWaypoint(
+        @NotNull Double lat,
+        @NotNull Double lon) {
+}
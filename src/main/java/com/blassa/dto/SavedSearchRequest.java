@@ -0,0 +1,24 @@
+package com.blassa.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.OffsetDateTime;
+
+// "Notifini ki ykoun famma ride Sousse -> Tunis s-sbe7"
+public record SavedSearchRequest(
+        String originName,
+        @NotNull Double originLat,
+        @NotNull Double originLon,
+
+        String destinationName,
+        @NotNull Double destinationLat,
+        @NotNull Double destinationLon,
+
+        @Positive @Max(50) Double radiusKm, // null => 3 km (kif search)
+        @NotNull OffsetDateTime departureFrom,
+        @NotNull OffsetDateTime departureTo,
+        @Min(1) @Max(8) Integer seats) {
+}
@@ -0,0 +1,19 @@
+package com.blassa.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record SavedSearchResponse(
+        UUID id,
+        String originName,
+        Double originLat,
+        Double originLon,
+        String destinationName,
+        Double destinationLat,
+        Double destinationLon,
+        Double radiusKm,
+        OffsetDateTime departureFrom,
+        OffsetDateTime departureTo,
+        Integer seats,
+        Boolean active) {
+}
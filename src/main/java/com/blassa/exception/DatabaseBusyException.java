@@ -0,0 +1,14 @@
+package com.blassa.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Tetlancha ki l bulkhead mta3 l database m3abbi w ma tla9inech permit fel wa9t.
+ * GlobalExceptionHandler yrodha 503 (ma5ir men thread yestanna 30s 3la Hikari).
+ */
+public class DatabaseBusyException extends SQLTransientConnectionException {
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,13 @@
 package com.blassa.exception;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -51,6 +53,18 @@ public class GlobalExceptionHandler {
                 "Opération invalide: " + (ex.getRootCause() != null ? ex.getRootCause().getMessage() : message));
     }
 
+    @ExceptionHandler({ TransactionException.class, DataAccessException.class })
+    public ResponseEntity<Map<String, Object>> handleDataAccess(RuntimeException ex) {
+        if (isDatabaseBusy(ex)) {
+            ResponseEntity<Map<String, Object>> response = buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE,
+                    "SERVICE_BUSY", "Le service est momentanément surchargé, veuillez réessayer.");
+            return ResponseEntity.status(response.getStatusCode())
+                    .header("Retry-After", "1")
+                    .body(response.getBody());
+        }
+        return handleRuntimeException(ex);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "BUSINESS_RULE_VIOLATION", ex.getMessage());
@@ -91,6 +105,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    // Bulkhead exception tji mlawwja fi exceptions mta3 Hibernate/Spring, nlawjou 3liha fel causes
+    private boolean isDatabaseBusy(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof DatabaseBusyException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
     private ResponseEntity<Map<String, Object>> buildErrorResponse(HttpStatus status, String error, String message) {
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now().toString());
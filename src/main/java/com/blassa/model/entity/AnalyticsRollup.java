@@ -0,0 +1,56 @@
+package com.blassa.model.entity;
+
+import com.blassa.model.enums.AnalyticsGranularity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "analytics_rollups")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private AnalyticsGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private OffsetDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long signups;
+
+    @Column(name = "rides_published", nullable = false)
+    private long ridesPublished;
+
+    @Column(name = "bookings_total", nullable = false)
+    private long bookingsTotal;
+
+    @Column(name = "bookings_pending", nullable = false)
+    private long bookingsPending;
+
+    @Column(name = "bookings_confirmed", nullable = false)
+    private long bookingsConfirmed;
+
+    @Column(name = "bookings_rejected", nullable = false)
+    private long bookingsRejected;
+
+    @Column(name = "bookings_cancelled", nullable = false)
+    private long bookingsCancelled;
+
+    @Column(name = "gross_booking_value", nullable = false, precision = 14, scale = 2)
+    private BigDecimal grossBookingValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
@@ -40,6 +40,13 @@ public class Booking {
     @Column(name = "seats_booked")
     private Integer seatsBooked;
 
+    // Tronçon réservé (stop index); null => l ride kamla
+    @Column(name = "from_stop_index")
+    private Integer fromStopIndex;
+
+    @Column(name = "to_stop_index")
+    private Integer toStopIndex;
+
     @NotNull
     @Column(name = "price_total", nullable = false, precision = 10, scale = 2)
     private BigDecimal priceTotal;
@@ -0,0 +1,83 @@
+package com.blassa.model.entity;
+
+import com.blassa.model.enums.PassengerRequestStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.locationtech.jts.geom.Point;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Demande t3 passager ("nlawej 3la ride Sousse -> Tunis l jom3a"), driver y7awelha l ride + booking
+@Getter
+@Setter
+@Entity
+@Table(name = "passenger_requests")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PassengerRequest {
+    @Id
+    @ColumnDefault("uuid_generate_v4()")
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "passenger_id", nullable = false)
+    private User passenger;
+
+    @Size(max = 255)
+    @NotNull
+    @Column(name = "origin_name", nullable = false)
+    private String originName;
+
+    @NotNull
+    @Column(name = "origin_point", nullable = false, columnDefinition = "geography(Point, 4326)")
+    private Point originPoint;
+
+    @Size(max = 255)
+    @NotNull
+    @Column(name = "destination_name", nullable = false)
+    private String destinationName;
+
+    @NotNull
+    @Column(name = "destination_point", nullable = false, columnDefinition = "geography(Point, 4326)")
+    private Point destinationPoint;
+
+    @NotNull
+    @Column(name = "departure_from", nullable = false)
+    private OffsetDateTime departureFrom;
+
+    @NotNull
+    @Column(name = "departure_to", nullable = false)
+    private OffsetDateTime departureTo;
+
+    @NotNull
+    @Column(name = "seats", nullable = false)
+    private Integer seats;
+
+    @Size(max = 500)
+    @Column(name = "message")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private PassengerRequestStatus status;
+
+    // Ride elli tsna3 ki driver 9bel l demande
+    @Column(name = "ride_id")
+    private UUID rideId;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = OffsetDateTime.now();
+    }
+}
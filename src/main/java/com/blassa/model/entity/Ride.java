@@ -2,16 +2,25 @@ package com.blassa.model.entity;
 
 import com.blassa.model.enums.RideGenderPreference;
 import com.blassa.model.enums.RideStatus;
+import com.blassa.service.RideTileListener;
+import com.blassa.service.RideTimetableListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.Point;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -19,6 +28,7 @@ import java.util.UUID;
 @Setter
 @Entity
 @Table(name = "rides")
+@EntityListeners({ RideTimetableListener.class, RideTileListener.class })
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -92,12 +102,27 @@ public class Ride {
     @OneToMany(mappedBy = "ride")
     private Set<Booking> bookings = new LinkedHashSet<>();
 
+    // Arrêts b l ordre (0 = origin, ekher = destination); batch bech search ma ya3melch N+1
+    @OneToMany(mappedBy = "ride", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("stopIndex ASC")
+    @BatchSize(size = 20)
+    private List<RideStop> stops = new ArrayList<>();
+
+    // legSeats[i] = blays libres bin stop i w stop i+1; availableSeats = min(legSeats)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "leg_seats", columnDefinition = "integer[]")
+    private int[] legSeats;
+
     @Column(name = "origin_point", columnDefinition = "geography(Point, 4326)")
     private Point originPoint;
 
     @Column(name = "destination_point", columnDefinition = "geography(Point, 4326)")
     private Point destinationPoint;
 
+    // Polyline simplifiée t3 l thnia; route_utm (projetée) generated fel DB men hedhi
+    @Column(name = "route_line", columnDefinition = "geometry(LineString, 4326)")
+    private LineString routeLine;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "gender_preference")
     private RideGenderPreference genderPreference;
@@ -106,6 +131,13 @@ public class Ride {
     @Column(name = "status")
     private RideStatus status;
 
+    // Instance matérialisée men RideTemplate (null => ride 3adi)
+    @Column(name = "template_id")
+    private UUID templateId;
+
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = OffsetDateTime.now();
@@ -0,0 +1,44 @@
+package com.blassa.model.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.locationtech.jts.geom.Point;
+
+import java.util.UUID;
+
+// Arrêt f ride: 0 = origin, ekher wa7ed = destination
+@Getter
+@Setter
+@Entity
+@Table(name = "ride_stops")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RideStop {
+    @Id
+    @ColumnDefault("uuid_generate_v4()")
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "ride_id", nullable = false)
+    private Ride ride;
+
+    @NotNull
+    @Column(name = "stop_index", nullable = false)
+    private Integer stopIndex;
+
+    @Size(max = 255)
+    @NotNull
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @NotNull
+    @Column(name = "point", nullable = false, columnDefinition = "geography(Point, 4326)")
+    private Point point;
+}
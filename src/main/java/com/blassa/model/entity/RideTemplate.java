@@ -0,0 +1,126 @@
+package com.blassa.model.entity;
+
+import com.blassa.model.enums.RideGenderPreference;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Ride récurrent: les instances (Ride) yetsen3ou lazy (search / booking), voir RideTemplateService
+@Getter
+@Setter
+@Entity
+@Table(name = "ride_templates")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RideTemplate {
+    @Id
+    @ColumnDefault("uuid_generate_v4()")
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "driver_id", nullable = false)
+    private User driver;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicle_id")
+    private Vehicle vehicle;
+
+    @Size(max = 255)
+    @NotNull
+    @Column(name = "origin_name", nullable = false)
+    private String originName;
+
+    @NotNull
+    @Column(name = "origin_point", nullable = false, columnDefinition = "geography(Point, 4326)")
+    private Point originPoint;
+
+    @Size(max = 255)
+    @NotNull
+    @Column(name = "destination_name", nullable = false)
+    private String destinationName;
+
+    @NotNull
+    @Column(name = "destination_point", nullable = false, columnDefinition = "geography(Point, 4326)")
+    private Point destinationPoint;
+
+    @NotNull
+    @Column(name = "route_line", nullable = false, columnDefinition = "geometry(LineString, 4326)")
+    private LineString routeLine;
+
+    // Heure locale fel zone_id (07:30 Africa/Tunis), mouch instant
+    @NotNull
+    @Column(name = "departure_local_time", nullable = false)
+    private LocalTime departureLocalTime;
+
+    @NotNull
+    @Column(name = "zone_id", nullable = false, length = 64)
+    private String zoneId;
+
+    // Bitmask ISO: lundi = 1 << 0 ... dimanche = 1 << 6
+    @NotNull
+    @Column(name = "days_of_week", nullable = false)
+    private Integer daysOfWeek;
+
+    @NotNull
+    @Column(name = "valid_from", nullable = false)
+    private LocalDate validFrom;
+
+    @Column(name = "valid_until")
+    private LocalDate validUntil;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "exception_dates", nullable = false, columnDefinition = "date[]")
+    private LocalDate[] exceptionDates;
+
+    @NotNull
+    @Column(name = "total_seats", nullable = false)
+    private Integer totalSeats;
+
+    @NotNull
+    @Column(name = "price_per_seat", nullable = false, precision = 10, scale = 2)
+    private BigDecimal pricePerSeat;
+
+    @Column(name = "allows_smoking", nullable = false)
+    private Boolean allowsSmoking;
+
+    @Column(name = "allows_music", nullable = false)
+    private Boolean allowsMusic;
+
+    @Column(name = "allows_pets", nullable = false)
+    private Boolean allowsPets;
+
+    @Size(max = 20)
+    @Column(name = "luggage_size", nullable = false)
+    private String luggageSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "gender_preference", nullable = false)
+    private RideGenderPreference genderPreference;
+
+    @Column(name = "active", nullable = false)
+    private Boolean active;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,75 @@
+package com.blassa.model.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.locationtech.jts.geom.Point;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Recherche sauvegardée: l user yetna7a l polling, yjih notification ki ride ymatchi (SavedSearchService)
+@Getter
+@Setter
+@Entity
+@Table(name = "saved_searches")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SavedSearch {
+    @Id
+    @ColumnDefault("uuid_generate_v4()")
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Size(max = 255)
+    @Column(name = "origin_name")
+    private String originName;
+
+    @NotNull
+    @Column(name = "origin_point", nullable = false, columnDefinition = "geography(Point, 4326)")
+    private Point originPoint;
+
+    @Size(max = 255)
+    @Column(name = "destination_name")
+    private String destinationName;
+
+    @NotNull
+    @Column(name = "destination_point", nullable = false, columnDefinition = "geography(Point, 4326)")
+    private Point destinationPoint;
+
+    @NotNull
+    @Column(name = "radius_km", nullable = false)
+    private Double radiusKm;
+
+    @NotNull
+    @Column(name = "departure_from", nullable = false)
+    private OffsetDateTime departureFrom;
+
+    @NotNull
+    @Column(name = "departure_to", nullable = false)
+    private OffsetDateTime departureTo;
+
+    @NotNull
+    @Column(name = "seats", nullable = false)
+    private Integer seats;
+
+    @Column(name = "active", nullable = false)
+    private Boolean active;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = OffsetDateTime.now();
+    }
+}
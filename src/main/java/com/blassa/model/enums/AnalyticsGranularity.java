@@ -0,0 +1,17 @@
+package com.blassa.model.enums;
+
+public enum AnalyticsGranularity {
+    HOUR("hour"),
+    DAY("day");
+
+    // unit kima ya9raha date_trunc() fi Postgres
+    private final String sqlUnit;
+
+    AnalyticsGranularity(String sqlUnit) {
+        this.sqlUnit = sqlUnit;
+    }
+
+    public String getSqlUnit() {
+        return sqlUnit;
+    }
+}
@@ -8,5 +8,6 @@ public enum NotificationType {
     RIDE_COMPLETED,
     RIDE_CANCELLED,
     PASSENGER_CANCELLED,
-    NEW_REVIEW
+    NEW_REVIEW,
+    SAVED_SEARCH_MATCH
 }
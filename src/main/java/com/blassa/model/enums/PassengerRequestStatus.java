@@ -0,0 +1,3 @@
+package com.blassa.model.enums;
+
+public enum PassengerRequestStatus { OPEN, FULFILLED, CANCELLED }
@@ -0,0 +1,6 @@
+package com.blassa.model.enums;
+
+public enum PlaceType {
+    GOVERNORATE,
+    DELEGATION
+}
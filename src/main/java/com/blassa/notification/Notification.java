@@ -39,7 +39,8 @@ public class Notification {
     @Column(name = "is_read")
     private boolean isRead;
 
-    @Column(name = "created_at")
+    // Partition key (notifications partitioned by month)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
     @PrePersist
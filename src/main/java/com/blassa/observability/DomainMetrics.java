@@ -0,0 +1,120 @@
+package com.blassa.observability;
+
+import com.blassa.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Metrics mta3 l hot paths (search, booking, notifications, auth).
+ * Tags lkol m7doudin (buckets w codes fixes): 7atta id walla email ma yodkhlou tag.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainMetrics {
+
+    // Codes elli l services yrami'ouhom: "NOT_ENOUGH_SEATS", "RIDE_NOT_FOUND"...
+    private static final Pattern ERROR_CODE = Pattern.compile("[A-Z][A-Z_]{2,39}");
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordSearch(double radiusKm, long resultCount, long nanos) {
+        timer("blassa.ride.search", "Ride search latency",
+                "radius", radiusBucket(radiusKm),
+                "results", resultBucket(resultCount))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBooking(String outcome, long nanos) {
+        timer("blassa.booking.create", "Booking creation latency, including commit", "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // phase: persist (save f DB) walla push (WebSocket)
+    public void recordNotification(String phase, long nanos) {
+        timer("blassa.notification.dispatch", "Notification persist and push time", "phase", phase)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // outcome: hit (cache) walla miss (ST_AsMVT)
+    public void recordTile(String outcome, long nanos) {
+        timer("blassa.ride.tile", "Ride map vector tile latency", "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJwtFilter(String outcome, long nanos) {
+        timer("blassa.auth.jwt.filter", "JWT authentication filter latency", "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLogin(String outcome, long nanos) {
+        timer("blassa.auth.login", "Password login latency", "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPasswordHash(String operation, long nanos) {
+        timer("blassa.auth.bcrypt", "BCrypt encode and match time", "operation", operation)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Outcome m7doud men exception: l code mta3 l service, VERSION_CONFLICT lel optimistic lock,
+     * SERVICE_BUSY ki l bulkhead yraffed, w UNEXPECTED lel ba9i.
+     */
+    public static String outcomeOf(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ObjectOptimisticLockingFailureException || t instanceof OptimisticLockException) {
+                return "VERSION_CONFLICT";
+            }
+            if (t instanceof DatabaseBusyException) {
+                return "SERVICE_BUSY";
+            }
+        }
+        String message = error.getMessage();
+        if ((error instanceof IllegalArgumentException || error instanceof IllegalStateException)
+                && message != null && ERROR_CODE.matcher(message).matches()) {
+            return message;
+        }
+        return "UNEXPECTED";
+    }
+
+    static String radiusBucket(double radiusKm) {
+        if (radiusKm <= 3) {
+            return "le3km";
+        }
+        if (radiusKm <= 10) {
+            return "le10km";
+        }
+        if (radiusKm <= 25) {
+            return "le25km";
+        }
+        return "gt25km";
+    }
+
+    static String resultBucket(long resultCount) {
+        if (resultCount == 0) {
+            return "0";
+        }
+        if (resultCount <= 10) {
+            return "1-10";
+        }
+        if (resultCount <= 50) {
+            return "11-50";
+        }
+        return "gt50";
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
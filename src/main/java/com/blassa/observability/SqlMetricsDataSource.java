@@ -0,0 +1,96 @@
+package com.blassa.observability;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource proxy: y9is wa9t kol execute*() w yba3thou lel SqlStatementRecorder.
+ * Recorder yetjab b ObjectProvider 5ater l DataSource yetsna3 9bal MeterRegistry.
+ */
+public class SqlMetricsDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SqlStatementRecorder> recorder;
+
+    public SqlMetricsDataSource(DataSource target, ObjectProvider<SqlStatementRecorder> recorder) {
+        super(target);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    String name = method.getName();
+                    if (result instanceof CallableStatement statement && "prepareCall".equals(name)) {
+                        return wrapStatement(statement, CallableStatement.class, (String) args[0], (Connection) proxy);
+                    }
+                    if (result instanceof PreparedStatement statement && "prepareStatement".equals(name)) {
+                        return wrapStatement(statement, PreparedStatement.class, (String) args[0], (Connection) proxy);
+                    }
+                    if (result instanceof Statement statement && "createStatement".equals(name)) {
+                        return wrapStatement(statement, Statement.class, null, (Connection) proxy);
+                    }
+                    return result;
+                });
+    }
+
+    private Object wrapStatement(Statement statement, Class<? extends Statement> type, String preparedSql,
+            Connection connectionProxy) {
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    // Statement.getConnection() lazem yrajja3 l proxy, mouch l connection l 5am (JDBC contract)
+                    if ("getConnection".equals(method.getName())) {
+                        return connectionProxy;
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    // Statement (mch prepared): l SQL yji fel argument mta3 execute(sql)
+                    String sql = preparedSql != null ? preparedSql
+                            : (args != null && args.length > 0 && args[0] instanceof String s ? s : null);
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        if (sql != null) {
+                            SqlStatementRecorder current = recorder.getIfAvailable();
+                            if (current != null) {
+                                current.record(sql, System.nanoTime() - start);
+                            }
+                        }
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.blassa.observability;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compteur mta3 l SQL statements elli request wa7da (walla test) tab3athhom.
+ * ThreadLocal: kol request 3andha thread mte3ha (platform walla virtual).
+ * SqlRouteFilter y7ell l context 9bal security (route mazel ma t3arfetch): l timings t3 l statements
+ * elli 9bal l handler (auth, JWT) yetkhabbew w yetsajjlou bel route ki SqlRouteInterceptor ya3rafha.
+ */
+public final class SqlRequestContext {
+
+    public static final String NO_ROUTE = "none";
+
+    private static final ThreadLocal<SqlRequestContext> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'[^']*'");
+
+    // Statement (operation, durée) elli tsajjel 9bal ma l route tet3aref
+    record PendingStatement(String operation, long nanos) {
+    }
+
+    private String route;
+    private final Map<String, Integer> countsByShape = new HashMap<>();
+    private final List<PendingStatement> pending = new ArrayList<>();
+    private int statementCount;
+    private long totalNanos;
+
+    private SqlRequestContext(String route) {
+        this.route = route;
+    }
+
+    public static SqlRequestContext begin(String route) {
+        SqlRequestContext context = new SqlRequestContext(route);
+        CURRENT.set(context);
+        return context;
+    }
+
+    // Route mazel ma t3arfetch (filter 9bal DispatcherServlet)
+    public static SqlRequestContext beginUnresolved() {
+        return begin(null);
+    }
+
+    public static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static String currentRoute() {
+        SqlRequestContext context = CURRENT.get();
+        return context != null && context.route != null ? context.route : NO_ROUTE;
+    }
+
+    /**
+     * Shape mta3 statement: literals w IN lists yetna7aw bch "WHERE id = 1" w "WHERE id = 2"
+     * (walla IN (?, ?) w IN (?, ?, ?)) yet7asbou nafs l query.
+     */
+    public static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    void record(String shape, long nanos) {
+        statementCount++;
+        totalNanos += nanos;
+        countsByShape.merge(shape, 1, Integer::sum);
+    }
+
+    void defer(String operation, long nanos) {
+        pending.add(new PendingStatement(operation, nanos));
+    }
+
+    // Ythabbet l route w yrajja3 l statements elli tkhabbew
+    List<PendingStatement> resolveRoute(String resolvedRoute) {
+        route = resolvedRoute;
+        List<PendingStatement> deferred = List.copyOf(pending);
+        pending.clear();
+        return deferred;
+    }
+
+    public boolean isRouteResolved() {
+        return route != null;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public Map<String, Integer> getCountsByShape() {
+        return Map.copyOf(countsByShape);
+    }
+}
@@ -0,0 +1,47 @@
+package com.blassa.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Y7ell SqlRequestContext 9bal Spring Security: l queries t3 auth (JwtAuthenticationFilter, user lookup)
+ * yet7asbou 3al request w yeb9aw ytagaw bel route template (SqlRouteInterceptor), mouch "none".
+ * Requests elli ma yewslouch lel handler (401/403) yetsajjlou "unmapped".
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlRouteFilter extends OncePerRequestFilter {
+
+    private final SqlStatementRecorder sqlStatementRecorder;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        SqlRequestContext context = SqlRequestContext.beginUnresolved();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            try {
+                sqlStatementRecorder.complete(context);
+            } finally {
+                SqlRequestContext.end();
+            }
+        }
+    }
+}
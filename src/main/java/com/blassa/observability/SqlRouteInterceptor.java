@@ -0,0 +1,51 @@
+package com.blassa.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Y7ot route template (mithel /api/v1/rides/{id}) 3la kol statement elli l request tab3athha, 7atta
+ * elli t3addaw 9bal (filters, security) w tkhabbew fel context t3 SqlRouteFilter. Ken famech filter
+ * (ex. test MockMvc bla filters), l interceptor y7ell w ysakker l context wa7dou.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlRouteInterceptor implements HandlerInterceptor {
+
+    private static final String OWNS_CONTEXT = SqlRouteInterceptor.class.getName() + ".OWNS_CONTEXT";
+
+    private final SqlStatementRecorder sqlStatementRecorder;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? request.getMethod() + " " + pattern : SqlStatementRecorder.UNMAPPED_ROUTE;
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context == null) {
+            SqlRequestContext.begin(route);
+            request.setAttribute(OWNS_CONTEXT, Boolean.TRUE);
+        } else {
+            sqlStatementRecorder.resolveRoute(context, route);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler, Exception ex) {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null && request.getAttribute(OWNS_CONTEXT) != null) {
+            try {
+                sqlStatementRecorder.complete(context);
+            } finally {
+                SqlRequestContext.end();
+            }
+        }
+    }
+}
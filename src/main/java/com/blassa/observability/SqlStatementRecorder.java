@@ -0,0 +1,106 @@
+package com.blassa.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ysajjel kol statement fi Micrometer (route template + operation, cardinality m7douda)
+ * w y7asseb par request bch ylawej 3al N+1. Timers yet5azznou par (route, operation): l builder
+ * w l lookup fel registry ma yet3awdouch 3la kol statement.
+ */
+@Component
+@Slf4j
+public class SqlStatementRecorder {
+
+    // Route elli ma wsletch lel handler (401 men security, 404 statique)
+    static final String UNMAPPED_ROUTE = "unmapped";
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final Map<String, Timer> statementTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> perRequestSummaries = new ConcurrentHashMap<>();
+
+    public SqlStatementRecorder(MeterRegistry meterRegistry,
+            @Value("${app.sql.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public void record(String sql, long nanos) {
+        String operation = operationOf(sql);
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null && !context.isRouteResolved()) {
+            // Filter/security 9bal l handler: nestannaw l route
+            context.defer(operation, nanos);
+        } else {
+            statementTimer(context != null ? context.getRoute() : SqlRequestContext.NO_ROUTE, operation)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+        TransactionHoldTracker.recordJdbc(nanos);
+
+        if (context != null) {
+            context.record(SqlRequestContext.shapeOf(sql), nanos);
+        }
+    }
+
+    // SqlRouteInterceptor (preHandle): l statements elli tkhabbew yetsajjlou bel route template
+    public void resolveRoute(SqlRequestContext context, String route) {
+        for (SqlRequestContext.PendingStatement statement : context.resolveRoute(route)) {
+            statementTimer(route, statement.operation()).record(statement.nanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Yet3ayet fi e5er l request (SqlRouteFilter)
+    public void complete(SqlRequestContext context) {
+        if (!context.isRouteResolved()) {
+            resolveRoute(context, UNMAPPED_ROUTE);
+        }
+        perRequestSummaries.computeIfAbsent(context.getRoute(), route -> DistributionSummary
+                .builder("blassa.sql.statements.per.request")
+                .description("Number of JDBC statements issued by one request")
+                .tag("route", route)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+                .record(context.getStatementCount());
+
+        for (Map.Entry<String, Integer> entry : context.getCountsByShape().entrySet()) {
+            if (entry.getValue() > nPlusOneThreshold) {
+                meterRegistry.counter("blassa.sql.n_plus_one", "route", context.getRoute()).increment();
+                log.warn("Possible N+1 on {}: same statement executed {} times: {}",
+                        context.getRoute(), entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    private Timer statementTimer(String route, String operation) {
+        return statementTimers.computeIfAbsent(route + '\n' + operation, key -> Timer.builder("blassa.sql.statement")
+                .description("JDBC statement execution time")
+                .tag("route", route)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    static String operationOf(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete" -> keyword;
+            default -> "other";
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.blassa.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capture opt-in (app.traffic-capture.enabled) mta3 l trafic /api/** lel replay (perf/replay).
+ * Ligne TSV par request: epochMillis, method, route template, params anonymisés, role, status, durée (µs).
+ * Jamais: ids, emails, tokens, texte libre, body. Coordonnées arrondies (~1 km), dates lel se3a.
+ * Bean dima mregistri (AOT): l flag yet9ra fel runtime 3abr TrafficCaptureWriter.
+ */
+@Component
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final Set<String> COORDINATE_PARAMS = Set.of(
+            "originLat", "originLon", "destLat", "destLon", "lat", "lon");
+    private static final Set<String> TIME_PARAMS = Set.of("departureTime", "from", "to");
+    // Allow-list: param jdid (ids, cursors, q, token...) ma yetsajjelch 9bal ma yet7at lahne
+    private static final Set<String> KEPT_PARAMS = Set.of(
+            "radius", "seats", "page", "size", "sortBy", "genderFilter", "granularity", "status",
+            "timeFlexHours", "enRoute", "days", "date", "maxTransfers", "maxDistanceKm", "limit");
+
+    private final TrafficCaptureWriter writer;
+    private final double sampleRate;
+
+    public TrafficCaptureFilter(TrafficCaptureWriter writer,
+            @Value("${app.traffic-capture.sample-rate:0.1}") double sampleRate) {
+        this.writer = writer;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !writer.isRunning()
+                || !request.getRequestURI().startsWith("/api/")
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                writer.append(System.currentTimeMillis()
+                        + "\t" + request.getMethod()
+                        + "\t" + pattern
+                        + "\t" + anonymisedQuery(request.getParameterMap())
+                        + "\t" + roleOf(SecurityContextHolder.getContext().getAuthentication())
+                        + "\t" + response.getStatus()
+                        + "\t" + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        }
+    }
+
+    static String anonymisedQuery(Map<String, String[]> parameters) {
+        StringJoiner query = new StringJoiner("&");
+        parameters.forEach((name, values) -> {
+            if (values.length == 0) {
+                return;
+            }
+            String value = values[0];
+            if (COORDINATE_PARAMS.contains(name)) {
+                value = roundCoordinate(value);
+            } else if (TIME_PARAMS.contains(name)) {
+                value = truncateToHour(value);
+            } else if (!KEPT_PARAMS.contains(name)) {
+                value = null;
+            }
+            if (value != null) {
+                query.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        });
+        return query.toString();
+    }
+
+    private static String roundCoordinate(String value) {
+        try {
+            return new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Offset yeb9a (2026-10-20T08:00+01:00); date-time local (explore/calendar) tet9ass kima hiya
+    private static String truncateToHour(String value) {
+        try {
+            return OffsetDateTime.parse(value).truncatedTo(ChronoUnit.HOURS).toString();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value).truncatedTo(ChronoUnit.HOURS).toString();
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    static String roleOf(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return "ANONYMOUS";
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return "ADMIN";
+            }
+        }
+        return "USER";
+    }
+}
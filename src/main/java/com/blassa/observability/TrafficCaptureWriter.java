@@ -0,0 +1,118 @@
+package com.blassa.observability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread wa7ed yekteb l capture (append-only, TSV). L requests ma ystannawch l disque:
+ * ken l queue t3abbat, l ligne tetna7a (capture = sample, mch audit log).
+ * app.traffic-capture.enabled yet9ra fel runtime (AOT): ken false, l worker ma yebdach w l fichier ma yet7allech.
+ */
+@Component
+@Slf4j
+public class TrafficCaptureWriter implements SmartLifecycle {
+
+    private static final int LINE_SEPARATOR_BYTES = System.lineSeparator().getBytes(StandardCharsets.UTF_8).length;
+
+    private final boolean enabled;
+    private final Path file;
+    private final long maxBytes;
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(10_000);
+
+    private volatile Thread worker;
+    private long writtenBytes;
+
+    public TrafficCaptureWriter(
+            @Value("${app.traffic-capture.enabled:false}") boolean enabled,
+            @Value("${app.traffic-capture.file:traffic-capture.tsv}") String file,
+            @Value("${app.traffic-capture.max-size-mb:200}") long maxSizeMb) {
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    public void append(String line) {
+        queue.offer(line);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        worker = Thread.ofPlatform().daemon().name("traffic-capture").start(this::drain);
+        log.info("Capturing sampled traffic to {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writtenBytes = Files.size(file);
+            while (worker != null || !queue.isEmpty()) {
+                String first;
+                try {
+                    first = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    first = queue.poll();
+                    if (first == null) {
+                        break;
+                    }
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 500);
+                for (String line : batch) {
+                    if (writtenBytes >= maxBytes) {
+                        log.warn("Traffic capture {} reached {} bytes, capture stopped", file, maxBytes);
+                        return;
+                    }
+                    out.write(line);
+                    out.newLine();
+                    writtenBytes += line.getBytes(StandardCharsets.UTF_8).length + LINE_SEPARATOR_BYTES;
+                }
+                batch.clear();
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.error("Traffic capture to {} failed", file, e);
+        } finally {
+            worker = null;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.blassa.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Y9is 9addech kol transaction tched connection, w y9assem l wa9t bin JDBC (statements)
+ * w l ba9i (SMTP, WebSocket, Cloudinary...) elli ysir w l connection ma7jouza.
+ * Spring Boot yzid l TransactionExecutionListener beans lel transaction manager wa7dou.
+ * Timers yet5azznou par (method, outcome) kif SqlStatementRecorder: ma nabniwhomch 3la kol transaction.
+ */
+@Component
+@Slf4j
+public class TransactionHoldTracker implements TransactionExecutionListener {
+
+    // Wa9t JDBC cumulé 3al thread, yetzed men SqlStatementRecorder
+    private static final ThreadLocal<long[]> JDBC_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<Deque<Frame>> FRAMES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final MeterRegistry meterRegistry;
+    private final long nonJdbcWarnNanos;
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> nonJdbcTimers = new ConcurrentHashMap<>();
+
+    public TransactionHoldTracker(MeterRegistry meterRegistry,
+            @Value("${app.tx.non-jdbc-warn-ms:250}") long nonJdbcWarnMs) {
+        this.meterRegistry = meterRegistry;
+        this.nonJdbcWarnNanos = TimeUnit.MILLISECONDS.toNanos(nonJdbcWarnMs);
+    }
+
+    static void recordJdbc(long nanos) {
+        JDBC_NANOS.get()[0] += nanos;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null) {
+            FRAMES.get().push(new Frame(transaction, System.nanoTime(), JDBC_NANOS.get()[0]));
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        complete(transaction, commitFailure == null ? "commit" : "commit_failed");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        complete(transaction, "rollback");
+    }
+
+    private void complete(TransactionExecution transaction, String outcome) {
+        Deque<Frame> frames = FRAMES.get();
+        Frame frame = frames.peek();
+        // Frames ma tetna7ach ken l execution elli bdet hiya elli kamlet (REQUIRES_NEW imbriqué)
+        while (frame != null && frame.transaction != transaction) {
+            frames.pop();
+            frame = frames.peek();
+        }
+        if (frame == null) {
+            return;
+        }
+        frames.pop();
+        if (frames.isEmpty()) {
+            FRAMES.remove();
+        }
+
+        long holdNanos = System.nanoTime() - frame.startNanos;
+        long jdbcNanos = JDBC_NANOS.get()[0] - frame.jdbcNanosAtStart;
+        long nonJdbcNanos = Math.max(0, holdNanos - jdbcNanos);
+        String method = methodOf(transaction.getTransactionName());
+
+        holdTimer(method, outcome).record(holdNanos, TimeUnit.NANOSECONDS);
+        nonJdbcTimer(method).record(nonJdbcNanos, TimeUnit.NANOSECONDS);
+
+        if (nonJdbcNanos > nonJdbcWarnNanos) {
+            meterRegistry.counter("blassa.tx.non_jdbc.exceeded", "method", method).increment();
+            log.warn("Transaction {} on {} held its connection {} ms, {} ms of it outside JDBC",
+                    method, SqlRequestContext.currentRoute(),
+                    TimeUnit.NANOSECONDS.toMillis(holdNanos), TimeUnit.NANOSECONDS.toMillis(nonJdbcNanos));
+        }
+    }
+
+    private Timer holdTimer(String method, String outcome) {
+        return holdTimers.computeIfAbsent(method + '\n' + outcome, key -> Timer.builder("blassa.tx.hold")
+                .description("Time a transaction holds its database connection")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Timer nonJdbcTimer(String method) {
+        return nonJdbcTimers.computeIfAbsent(method, key -> Timer.builder("blassa.tx.non_jdbc")
+                .description("Part of the transaction hold time spent outside JDBC statements")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // "com.blassa.service.BookingService.createBooking" -> "BookingService.createBooking"
+    static String methodOf(String transactionName) {
+        if (transactionName == null || transactionName.isEmpty()) {
+            return "unnamed";
+        }
+        int methodDot = transactionName.lastIndexOf('.');
+        int classDot = methodDot > 0 ? transactionName.lastIndexOf('.', methodDot - 1) : -1;
+        return transactionName.substring(classDot + 1);
+    }
+
+    private record Frame(TransactionExecution transaction, long startNanos, long jdbcNanosAtStart) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.blassa.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(BookingCreateEvent.NAME)
+@Label("Booking Creation")
+@Description("POST /api/v1/bookings including the transaction commit")
+@Category({ "Blassa", "Booking" })
+@StackTrace(false)
+public class BookingCreateEvent extends Event {
+
+    public static final String NAME = "com.blassa.BookingCreate";
+
+    @Label("Ride Id")
+    public String rideId;
+
+    @Label("Seats Requested")
+    public int seats;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,24 @@
+package com.blassa.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(EmailSendEvent.NAME)
+@Label("Email Send")
+@Description("Synchronous SMTP send from EmailService")
+@Category({ "Blassa", "Email" })
+@StackTrace(false)
+public class EmailSendEvent extends Event {
+
+    public static final String NAME = "com.blassa.EmailSend";
+
+    @Label("Subject")
+    public String subject;
+
+    @Label("Outcome")
+    public String outcome;
+}
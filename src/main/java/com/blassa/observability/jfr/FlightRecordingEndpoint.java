@@ -0,0 +1,120 @@
+package com.blassa.observability.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/flightrecording (ADMIN b ro7ha, chouf SecurityConfig):
+ * POST ybda recording m7doud (duration w size), DELETE ywa99fou, GET /{id} yhabbet l .jfr.
+ * Recording wa7da bark fi nafs l wa9t.
+ */
+@Component
+@Endpoint(id = "flightrecording")
+@Slf4j
+public class FlightRecordingEndpoint {
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+
+    private Recording recording;
+
+    public FlightRecordingEndpoint(
+            @Value("${app.jfr.recording.max-duration:PT5M}") Duration maxDuration,
+            @Value("${app.jfr.recording.max-size-mb:100}") long maxSizeMb) {
+        this.maxDuration = maxDuration;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        return describe(recording);
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@OptionalParameter Integer durationSeconds,
+            @OptionalParameter String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(describe(recording), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Duration duration = durationSeconds != null
+                ? Duration.ofSeconds(Math.clamp(durationSeconds, 1, maxDuration.toSeconds()))
+                : maxDuration;
+        Configuration configuration;
+        try {
+            // "default" (~1% overhead) walla "profile" (akther details, akther overhead)
+            configuration = Configuration.getConfiguration("profile".equals(settings) ? "profile" : "default");
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR configuration unavailable", e);
+        }
+        closeRecording();
+        recording = new Recording(configuration);
+        recording.setName("blassa-on-demand");
+        recording.setDuration(duration);
+        recording.setMaxSize(maxSizeBytes);
+        recording.setToDisk(true);
+        recording.start();
+        log.info("Started JFR recording {} for {}", recording.getId(), duration);
+        return new WebEndpointResponse<>(describe(recording));
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording {}", recording.getId());
+        }
+        return describe(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        if (recording == null || recording.getId() != id) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() != RecordingState.STOPPED) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        return new WebEndpointResponse<>(new InputStreamResource(recording.getStream(null, null)));
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("id", recording.getId());
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        status.put("duration", recording.getDuration());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+}
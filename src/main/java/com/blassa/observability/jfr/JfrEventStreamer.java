@@ -0,0 +1,81 @@
+package com.blassa.observability.jfr;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Recording continu (overhead s4ir): l events mta3na + pinning mta3 virtual threads w
+ * monitor contention ywalliw timers fi Micrometer (blassa.jfr.event), bla ma nhabtou .jfr.
+ * app.jfr.streaming.enabled yet9ra f runtime (l bean dima mawjoud, AOT ma yjammdouch).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JfrEventStreamer implements SmartLifecycle {
+
+    private static final Duration JDK_EVENT_THRESHOLD = Duration.ofMillis(20);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.jfr.streaming.enabled:true}")
+    private boolean enabled = true;
+
+    private RecordingStream stream;
+
+    @Override
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+        } catch (IllegalStateException | SecurityException e) {
+            // Native image men gheir --enable-monitoring=jfr
+            log.warn("JFR streaming unavailable: {}", e.getMessage());
+            return;
+        }
+        for (String name : new String[] { RideSearchEvent.NAME, BookingCreateEvent.NAME,
+                NotificationDispatchEvent.NAME, EmailSendEvent.NAME }) {
+            stream.enable(name);
+            stream.onEvent(name, this::record);
+        }
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(JDK_EVENT_THRESHOLD);
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(JDK_EVENT_THRESHOLD);
+        stream.onEvent("jdk.VirtualThreadPinned", this::record);
+        stream.onEvent("jdk.JavaMonitorEnter", this::record);
+        stream.setMaxAge(Duration.ofMinutes(1));
+        stream.startAsync();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        String outcome = event.hasField("outcome") ? String.valueOf(event.getString("outcome")) : "none";
+        Timer.builder("blassa.jfr.event")
+                .description("Duration of JFR events streamed from the continuous recording")
+                .tag("event", event.getEventType().getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(event.getDuration());
+    }
+}
@@ -0,0 +1,29 @@
+package com.blassa.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name(NotificationDispatchEvent.NAME)
+@Label("Notification Dispatch")
+@Description("NotificationService.sendNotification: persist then WebSocket push")
+@Category({ "Blassa", "Notification" })
+@StackTrace(false)
+public class NotificationDispatchEvent extends Event {
+
+    public static final String NAME = "com.blassa.NotificationDispatch";
+
+    @Label("Notification Type")
+    public String notificationType;
+
+    @Label("Persist Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long persistNanos;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,30 @@
+package com.blassa.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(RideSearchEvent.NAME)
+@Label("Ride Search")
+@Description("RideService.searchRides, from parameter parsing to DTO mapping")
+@Category({ "Blassa", "Search" })
+@StackTrace(false)
+public class RideSearchEvent extends Event {
+
+    public static final String NAME = "com.blassa.RideSearch";
+
+    @Label("Pickup Radius (km)")
+    public double radiusKm;
+
+    @Label("Result Count")
+    public long resultCount;
+
+    @Label("Page")
+    public int page;
+
+    @Label("Sort")
+    public String sortBy;
+}
@@ -0,0 +1,85 @@
+package com.blassa.repository;
+
+import com.blassa.model.entity.AnalyticsRollup;
+import com.blassa.model.enums.AnalyticsGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AnalyticsRollupRepository extends JpaRepository<AnalyticsRollup, Long> {
+
+    List<AnalyticsRollup> findByGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+            AnalyticsGranularity granularity, OffsetDateTime from, OffsetDateTime to);
+
+    @Query("SELECT max(a.updatedAt) FROM AnalyticsRollup a")
+    Optional<OffsetDateTime> findLastRollupTime();
+
+    /**
+     * Recompute kol bucket elli fih users/rides/bookings tktbou (walla tbadlou) ba3d :since, walla
+     * elli fih ligne tfaskhet (analytics_rollup_deletes, V24), u upsert l resultat. Idempotent: n3awdou nfs l bucket marrtin ma ybadel chay.
+     */
+    @Modifying
+    @Query(value = """
+            WITH touched AS (
+                SELECT DISTINCT date_trunc(:unit, t.ts) AS bucket_start
+                FROM (
+                    SELECT u.created_at AS ts FROM users u WHERE u.created_at >= :since
+                    UNION ALL
+                    SELECT r.created_at FROM rides r WHERE r.created_at >= :since
+                    UNION ALL
+                    SELECT b.created_at FROM bookings b WHERE b.created_at >= :since OR b.updated_at >= :since
+                    UNION ALL
+                    SELECT d.created_at FROM analytics_rollup_deletes d
+                ) t
+                WHERE t.ts IS NOT NULL
+            )
+            INSERT INTO analytics_rollups (
+                granularity, bucket_start, signups, rides_published,
+                bookings_total, bookings_pending, bookings_confirmed, bookings_rejected, bookings_cancelled,
+                gross_booking_value, updated_at)
+            SELECT :granularity, tb.bucket_start,
+                (SELECT count(*) FROM users u
+                    WHERE u.created_at >= tb.bucket_start
+                      AND u.created_at < tb.bucket_start + CAST('1 ' || :unit AS interval)),
+                (SELECT count(*) FROM rides r
+                    WHERE r.created_at >= tb.bucket_start
+                      AND r.created_at < tb.bucket_start + CAST('1 ' || :unit AS interval)),
+                count(b.id),
+                count(b.id) FILTER (WHERE b.status = 'PENDING'),
+                count(b.id) FILTER (WHERE b.status = 'CONFIRMED'),
+                count(b.id) FILTER (WHERE b.status = 'REJECTED'),
+                count(b.id) FILTER (WHERE b.status = 'CANCELLED'),
+                COALESCE(sum(b.price_total) FILTER (WHERE b.status = 'CONFIRMED'), 0),
+                NOW()
+            FROM touched tb
+            LEFT JOIN bookings b
+                ON b.created_at >= tb.bucket_start
+               AND b.created_at < tb.bucket_start + CAST('1 ' || :unit AS interval)
+            GROUP BY tb.bucket_start
+            ON CONFLICT (granularity, bucket_start) DO UPDATE SET
+                signups = EXCLUDED.signups,
+                rides_published = EXCLUDED.rides_published,
+                bookings_total = EXCLUDED.bookings_total,
+                bookings_pending = EXCLUDED.bookings_pending,
+                bookings_confirmed = EXCLUDED.bookings_confirmed,
+                bookings_rejected = EXCLUDED.bookings_rejected,
+                bookings_cancelled = EXCLUDED.bookings_cancelled,
+                gross_booking_value = EXCLUDED.gross_booking_value,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int upsertTouchedBuckets(@Param("granularity") String granularity,
+            @Param("unit") String unit,
+            @Param("since") OffsetDateTime since);
+
+    // Marks t3 deletes elli l run hedha (w l OVERLAP) 3awed 7sebhom
+    @Modifying
+    @Query(value = "DELETE FROM analytics_rollup_deletes WHERE marked_at < :before", nativeQuery = true)
+    int clearDeleteMarks(@Param("before") OffsetDateTime before);
+}
@@ -36,6 +36,8 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
     long countByRideIdAndStatus(UUID rideId, BookingStatus status);
 
+    boolean existsByRideIdAndStatusIn(UUID rideId, List<BookingStatus> statuses);
+
     long countByPassengerIdAndStatusIn(UUID passengerId, List<BookingStatus> statuses);
 
     List<Booking> findByPassengerId(UUID passengerId);
@@ -2,7 +2,12 @@ package com.blassa.repository;
 
 import com.blassa.notification.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +18,16 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     long countByRecipientIdAndIsReadFalse(UUID recipientId);
 
     List<Notification> findByRecipientIdOrderByCreatedAtDesc(UUID recipientId);
+
+    // Partition maintenance (functions defined in V16__partition_notifications.sql)
+    @Query(value = "SELECT ensure_notification_partition(CAST(:monthStart AS date))", nativeQuery = true)
+    String ensurePartition(@Param("monthStart") LocalDate monthStart);
+
+    // Ken l notifications elli t9raw; partition pruning 3la created_at y7ded l scan lel partitions l 9dom
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE is_read = TRUE AND created_at < :cutoff", nativeQuery = true)
+    int deleteReadBefore(@Param("cutoff") OffsetDateTime cutoff);
+
+    @Query(value = "SELECT drop_notification_partitions_before(CAST(:cutoff AS date))", nativeQuery = true)
+    Integer dropPartitionsBefore(@Param("cutoff") LocalDate cutoff);
 }
@@ -0,0 +1,95 @@
+package com.blassa.repository;
+
+import com.blassa.model.entity.PassengerRequest;
+import com.blassa.model.enums.PassengerRequestStatus;
+import jakarta.persistence.LockModeType;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PassengerRequestRepository extends JpaRepository<PassengerRequest, UUID> {
+
+    List<PassengerRequest> findByPassengerIdOrderByCreatedAtDesc(UUID passengerId);
+
+    long countByPassengerIdAndStatus(UUID passengerId, PassengerRequestStatus status);
+
+    // Conversion: zouz drivers ma y7awlouch nafs l demande
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pr FROM PassengerRequest pr WHERE pr.id = :id")
+    Optional<PassengerRequest> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Demandes OPEN elli l pickup 9rib mel origin t3 l driver w l dropoff 9rib mel destination.
+     * Keyset (departure_from, id) > curseur: page suivante bla OFFSET, 3al idx_passenger_requests_open_*.
+     */
+    @Query(value = """
+            SELECT pr.* FROM passenger_requests pr
+            WHERE pr.status = 'OPEN'
+            AND ST_DWithin(pr.origin_point, :origin, :pickupRadius)
+            AND ST_DWithin(pr.destination_point, :destination, :dropoffRadius)
+            AND pr.departure_to >= :windowStart
+            AND pr.departure_from <= :windowEnd
+            AND (pr.departure_from, pr.id) > (:afterDeparture, :afterId)
+            ORDER BY pr.departure_from, pr.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<PassengerRequest> findOpenNear(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("destination") Point destination,
+            @Param("dropoffRadius") double dropoffRadius,
+            @Param("windowStart") OffsetDateTime windowStart,
+            @Param("windowEnd") OffsetDateTime windowEnd,
+            @Param("afterDeparture") OffsetDateTime afterDeparture,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit);
+
+    /**
+     * Demandes OPEN 3al thnia t3 l driver: pickup w dropoff fel corridor, w pickup 9bal dropoff
+     * 3al ligne (mouch l ittijah l 3aks). Nafs l keyset.
+     */
+    @Query(value = """
+            SELECT pr.* FROM passenger_requests pr
+            WHERE pr.status = 'OPEN'
+            AND ST_DWithin(pr.origin_point, CAST(:route AS geography), :corridor)
+            AND ST_DWithin(pr.destination_point, CAST(:route AS geography), :corridor)
+            AND ST_LineLocatePoint(CAST(:route AS geometry), CAST(pr.origin_point AS geometry))
+                < ST_LineLocatePoint(CAST(:route AS geometry), CAST(pr.destination_point AS geometry))
+            AND pr.departure_to >= :windowStart
+            AND pr.departure_from <= :windowEnd
+            AND (pr.departure_from, pr.id) > (:afterDeparture, :afterId)
+            ORDER BY pr.departure_from, pr.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<PassengerRequest> findOpenAlongRoute(
+            @Param("route") LineString route,
+            @Param("corridor") double corridor,
+            @Param("windowStart") OffsetDateTime windowStart,
+            @Param("windowEnd") OffsetDateTime windowEnd,
+            @Param("afterDeparture") OffsetDateTime afterDeparture,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit);
+
+    // Sweeper: batch b batch bech ma nchedouch lock 3al table lkol
+    @Modifying
+    @Query(value = """
+            DELETE FROM passenger_requests
+            WHERE id IN (
+                SELECT id FROM passenger_requests
+                WHERE status <> 'FULFILLED' AND departure_to < :cutoff
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int purgeExpired(@Param("cutoff") OffsetDateTime cutoff, @Param("batchSize") int batchSize);
+}
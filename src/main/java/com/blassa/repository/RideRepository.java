@@ -10,31 +10,51 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface RideRepository extends JpaRepository<Ride, UUID> {
 
+    /**
+     * Matching 3la ay zouz arrêts (pickup 9bal dropoff): origin/destination homa stop 0 w stop n,
+     * donc rides bla arrêts intermédiaires yetla9aw kif 9bal. L blays yetchoufou 3al legs
+     * [pickup, dropoff) bark (leg_seats 1-based). ride_status = 'SCHEDULED' 3al p w d howa elli y5alli
+     * Postgres yesta3mel l GiST partiel idx_ride_stops_scheduled_point_gist (V26).
+     */
     @Query(value = """
             SELECT * FROM rides r
-            WHERE
-                ST_DWithin(r.origin_point, :origin, :pickupRadius)
-            AND ST_DWithin(r.destination_point, :destination, :dropoffRadius)
+            WHERE r.status = 'SCHEDULED'
             AND r.departure_time BETWEEN :startTime AND :endTime
-            AND r.status = 'SCHEDULED'
-            AND r.available_seats >= :requiredSeats
             AND r.gender_preference IN (:allowedPreferences)
+            AND EXISTS (
+                SELECT 1 FROM ride_stops p
+                JOIN ride_stops d ON d.ride_id = p.ride_id AND d.stop_index > p.stop_index
+                WHERE p.ride_id = r.id
+                AND p.ride_status = 'SCHEDULED' AND d.ride_status = 'SCHEDULED'
+                AND ST_DWithin(p.point, :origin, :pickupRadius)
+                AND ST_DWithin(d.point, :destination, :dropoffRadius)
+                AND (SELECT min(seats) FROM unnest(r.leg_seats[p.stop_index + 1 : d.stop_index]) seats)
+                    >= :requiredSeats
+            )
             """, countQuery = """
             SELECT count(*) FROM rides r
-            WHERE
-                ST_DWithin(r.origin_point, :origin, :pickupRadius)
-            AND ST_DWithin(r.destination_point, :destination, :dropoffRadius)
+            WHERE r.status = 'SCHEDULED'
             AND r.departure_time BETWEEN :startTime AND :endTime
-            AND r.status = 'SCHEDULED'
-            AND r.available_seats >= :requiredSeats
             AND r.gender_preference IN (:allowedPreferences)
+            AND EXISTS (
+                SELECT 1 FROM ride_stops p
+                JOIN ride_stops d ON d.ride_id = p.ride_id AND d.stop_index > p.stop_index
+                WHERE p.ride_id = r.id
+                AND p.ride_status = 'SCHEDULED' AND d.ride_status = 'SCHEDULED'
+                AND ST_DWithin(p.point, :origin, :pickupRadius)
+                AND ST_DWithin(d.point, :destination, :dropoffRadius)
+                AND (SELECT min(seats) FROM unnest(r.leg_seats[p.stop_index + 1 : d.stop_index]) seats)
+                    >= :requiredSeats
+            )
             """, nativeQuery = true)
     Page<Ride> searchRides(
             @Param("origin") Point origin,
@@ -47,9 +67,418 @@ public interface RideRepository extends JpaRepository<Ride, UUID> {
             @Param("allowedPreferences") List<String> allowedPreferences,
             Pageable pageable);
 
+    /**
+     * Corridor ("en route"): rides elli l thnia mte3hom (route_utm, UTM 32N b metres) t3adi 9rib
+     * mel pickup w mel dropoff, w l pickup 9bal l dropoff 3al ligne. ST_DWithin 3al geometry
+     * projetée yesta3mel idx_rides_scheduled_route_utm_gist. Les points ytransformaw mara wa7da.
+     * L blays: ride_corridor_seats (V25) ya5ou l legs bin l arrêts elli y7ottou pickup/dropoff 3al ligne.
+     */
+    @Query(value = """
+            SELECT r.* FROM rides r
+            WHERE r.status = 'SCHEDULED'
+            AND ST_DWithin(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632), :pickupRadius)
+            AND ST_DWithin(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632), :dropoffRadius)
+            AND ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632))
+                < ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632))
+            AND r.departure_time BETWEEN :startTime AND :endTime
+            AND ride_corridor_seats(r.id, r.route_utm, r.leg_seats, ST_Transform(CAST(:origin AS geometry), 32632),
+                ST_Transform(CAST(:destination AS geometry), 32632)) >= :requiredSeats
+            AND r.gender_preference IN (:allowedPreferences)
+            """, countQuery = """
+            SELECT count(*) FROM rides r
+            WHERE r.status = 'SCHEDULED'
+            AND ST_DWithin(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632), :pickupRadius)
+            AND ST_DWithin(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632), :dropoffRadius)
+            AND ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632))
+                < ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632))
+            AND r.departure_time BETWEEN :startTime AND :endTime
+            AND ride_corridor_seats(r.id, r.route_utm, r.leg_seats, ST_Transform(CAST(:origin AS geometry), 32632),
+                ST_Transform(CAST(:destination AS geometry), 32632)) >= :requiredSeats
+            AND r.gender_preference IN (:allowedPreferences)
+            """, nativeQuery = true)
+    Page<Ride> searchRidesAlongRoute(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("destination") Point destination,
+            @Param("dropoffRadius") double dropoffRadius,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("requiredSeats") int requiredSeats,
+            @Param("allowedPreferences") List<String> allowedPreferences,
+            Pageable pageable);
+
+    /**
+     * sortBy=relevance: nafs l matching 3al arrêts w leg_seats t3 searchRides; l LATERAL y5ayer l zouz
+     * arrêts l a9rab (pickup + dropoff) bech l score ya7seb 3lihom, mouch 3al origin/destination t3 l ride.
+     * L candidats ytratbou b pickup_distance w yet9assou ba3d :candidateLimit, ba3d score pondéré
+     * (pickup, dropoff, fer9 l wa9t, rating) 3al candidats bark.
+     */
+    @Query(value = """
+            WITH candidates AS MATERIALIZED (
+                SELECT r.id, r.driver_id, r.departure_time, m.pickup_distance, m.dropoff_distance FROM rides r
+                CROSS JOIN LATERAL (
+                    SELECT ST_Distance(p.point, :origin) AS pickup_distance,
+                        ST_Distance(d.point, :destination) AS dropoff_distance
+                    FROM ride_stops p
+                    JOIN ride_stops d ON d.ride_id = p.ride_id AND d.stop_index > p.stop_index
+                    WHERE p.ride_id = r.id
+                    AND p.ride_status = 'SCHEDULED' AND d.ride_status = 'SCHEDULED'
+                    AND ST_DWithin(p.point, :origin, :pickupRadius)
+                    AND ST_DWithin(d.point, :destination, :dropoffRadius)
+                    AND (SELECT min(seats) FROM unnest(r.leg_seats[p.stop_index + 1 : d.stop_index]) seats)
+                        >= :requiredSeats
+                    ORDER BY pickup_distance / :pickupRadius + dropoff_distance / :dropoffRadius
+                    LIMIT 1
+                ) m
+                WHERE r.status = 'SCHEDULED'
+                AND r.departure_time BETWEEN :startTime AND :endTime
+                AND r.gender_preference IN (:allowedPreferences)
+                ORDER BY m.pickup_distance
+                LIMIT :candidateLimit
+            )
+            SELECT r.* FROM candidates c
+            JOIN rides r ON r.id = c.id
+            LEFT JOIN LATERAL (
+                SELECT AVG(rv.rating) AS rating FROM reviews rv WHERE rv.reviewee_id = c.driver_id
+            ) driver_rating ON :ratingWeight > 0
+            ORDER BY
+                :pickupWeight * c.pickup_distance / :pickupRadius
+                + :dropoffWeight * c.dropoff_distance / :dropoffRadius
+                + :timeWeight * ABS(EXTRACT(EPOCH FROM c.departure_time) - EXTRACT(EPOCH FROM CAST(:targetTime AS timestamptz))) / :timeWindowSeconds
+                - :ratingWeight * COALESCE(driver_rating.rating, 0) / 5.0,
+                c.id
+            """, countQuery = """
+            SELECT count(*) FROM (
+                SELECT 1 FROM rides r
+                WHERE r.status = 'SCHEDULED'
+                AND r.departure_time BETWEEN :startTime AND :endTime
+                AND r.gender_preference IN (:allowedPreferences)
+                AND EXISTS (
+                    SELECT 1 FROM ride_stops p
+                    JOIN ride_stops d ON d.ride_id = p.ride_id AND d.stop_index > p.stop_index
+                    WHERE p.ride_id = r.id
+                    AND p.ride_status = 'SCHEDULED' AND d.ride_status = 'SCHEDULED'
+                    AND ST_DWithin(p.point, :origin, :pickupRadius)
+                    AND ST_DWithin(d.point, :destination, :dropoffRadius)
+                    AND (SELECT min(seats) FROM unnest(r.leg_seats[p.stop_index + 1 : d.stop_index]) seats)
+                        >= :requiredSeats
+                )
+                LIMIT :candidateLimit
+            ) candidates
+            """, nativeQuery = true)
+    Page<Ride> searchRidesByRelevance(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("destination") Point destination,
+            @Param("dropoffRadius") double dropoffRadius,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("targetTime") OffsetDateTime targetTime,
+            @Param("timeWindowSeconds") double timeWindowSeconds,
+            @Param("requiredSeats") int requiredSeats,
+            @Param("allowedPreferences") List<String> allowedPreferences,
+            @Param("pickupWeight") double pickupWeight,
+            @Param("dropoffWeight") double dropoffWeight,
+            @Param("timeWeight") double timeWeight,
+            @Param("ratingWeight") double ratingWeight,
+            @Param("candidateLimit") int candidateLimit,
+            Pageable pageable);
+
+    /**
+     * sortBy=relevance m3a enRoute: nafs l predicate corridor w ride_corridor_seats t3 searchRidesAlongRoute.
+     * L candidats yetjebdou b KNN (route_utm <-> pickup) 3al idx_rides_scheduled_route_utm_gist, w pickup/dropoff
+     * yet7asbou b l distance lel ligne (metres), mouch lel origin/destination t3 l ride.
+     */
+    @Query(value = """
+            WITH candidates AS MATERIALIZED (
+                SELECT r.id, r.driver_id, r.departure_time,
+                    ST_Distance(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632)) AS pickup_distance,
+                    ST_Distance(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632)) AS dropoff_distance
+                FROM rides r
+                WHERE r.status = 'SCHEDULED'
+                AND ST_DWithin(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632), :pickupRadius)
+                AND ST_DWithin(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632), :dropoffRadius)
+                AND ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632))
+                    < ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632))
+                AND r.departure_time BETWEEN :startTime AND :endTime
+                AND ride_corridor_seats(r.id, r.route_utm, r.leg_seats, ST_Transform(CAST(:origin AS geometry), 32632),
+                    ST_Transform(CAST(:destination AS geometry), 32632)) >= :requiredSeats
+                AND r.gender_preference IN (:allowedPreferences)
+                ORDER BY r.route_utm <-> ST_Transform(CAST(:origin AS geometry), 32632)
+                LIMIT :candidateLimit
+            )
+            SELECT r.* FROM candidates c
+            JOIN rides r ON r.id = c.id
+            LEFT JOIN LATERAL (
+                SELECT AVG(rv.rating) AS rating FROM reviews rv WHERE rv.reviewee_id = c.driver_id
+            ) driver_rating ON :ratingWeight > 0
+            ORDER BY
+                :pickupWeight * c.pickup_distance / :pickupRadius
+                + :dropoffWeight * c.dropoff_distance / :dropoffRadius
+                + :timeWeight * ABS(EXTRACT(EPOCH FROM c.departure_time) - EXTRACT(EPOCH FROM CAST(:targetTime AS timestamptz))) / :timeWindowSeconds
+                - :ratingWeight * COALESCE(driver_rating.rating, 0) / 5.0,
+                c.id
+            """, countQuery = """
+            SELECT count(*) FROM (
+                SELECT 1 FROM rides r
+                WHERE r.status = 'SCHEDULED'
+                AND ST_DWithin(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632), :pickupRadius)
+                AND ST_DWithin(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632), :dropoffRadius)
+                AND ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632))
+                    < ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632))
+                AND r.departure_time BETWEEN :startTime AND :endTime
+                AND ride_corridor_seats(r.id, r.route_utm, r.leg_seats, ST_Transform(CAST(:origin AS geometry), 32632),
+                    ST_Transform(CAST(:destination AS geometry), 32632)) >= :requiredSeats
+                AND r.gender_preference IN (:allowedPreferences)
+                LIMIT :candidateLimit
+            ) candidates
+            """, nativeQuery = true)
+    Page<Ride> searchRidesByRelevanceAlongRoute(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("destination") Point destination,
+            @Param("dropoffRadius") double dropoffRadius,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("targetTime") OffsetDateTime targetTime,
+            @Param("timeWindowSeconds") double timeWindowSeconds,
+            @Param("requiredSeats") int requiredSeats,
+            @Param("allowedPreferences") List<String> allowedPreferences,
+            @Param("pickupWeight") double pickupWeight,
+            @Param("dropoffWeight") double dropoffWeight,
+            @Param("timeWeight") double timeWeight,
+            @Param("ratingWeight") double ratingWeight,
+            @Param("candidateLimit") int candidateLimit,
+            Pageable pageable);
+
     @EntityGraph(attributePaths = { "driver" })
     Page<Ride> findByDriverId(UUID id, Pageable pageable);
 
+    Optional<Ride> findByTemplateIdAndOccurrenceDate(UUID templateId, LocalDate occurrenceDate);
+
+    // Instances déjà matérialisées [templateId, occurrenceDate] => search ma y3awedch l INSERT
+    @Query("SELECT r.templateId, r.occurrenceDate FROM Ride r WHERE r.templateId IN :templateIds "
+            + "AND r.occurrenceDate BETWEEN :firstDate AND :lastDate")
+    List<Object[]> findMaterialisedOccurrences(@Param("templateIds") List<UUID> templateIds,
+            @Param("firstDate") LocalDate firstDate, @Param("lastDate") LocalDate lastDate);
+
+    // Timetable t3 l itinéraires: rides + arrêts f requête wa7da
+    @Query("SELECT DISTINCT r FROM Ride r LEFT JOIN FETCH r.stops WHERE r.status = :status "
+            + "AND r.departureTime BETWEEN :from AND :to")
+    List<Ride> findForTimetable(@Param("status") RideStatus status, @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to);
+
+    @Query("SELECT DISTINCT r FROM Ride r LEFT JOIN FETCH r.stops WHERE r.id IN :ids")
+    List<Ride> findWithStopsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Explore (enRoute=false): men origin wa7da, ligne par destination (grille :cellDegrees 3al arrêt d) b a9al
+     * prix t3 l tronçon p → d (prorata kif BookingService.segmentFraction, ride_segment_fraction V27), awel
+     * départ w nombre t3 rides. Nafs l matching 3al arrêts w leg_seats t3 searchRides: pickup 3la ay arrêt 9rib
+     * mel origin, destinations = l arrêts elli ba3dou. Colonnes: name, lat, lon, min_price, earliest, ride_count,
+     * cheapest_ride_id, soonest_ride_id.
+     */
+    @Query(value = """
+            SELECT mode() WITHIN GROUP (ORDER BY d.name) AS destination_name,
+                ST_Y(ST_Centroid(ST_Collect(CAST(d.point AS geometry)))) AS lat,
+                ST_X(ST_Centroid(ST_Collect(CAST(d.point AS geometry)))) AS lon,
+                min(seg.price) AS min_price,
+                min(r.departure_time) AS earliest_departure,
+                count(DISTINCT r.id) AS ride_count,
+                (array_agg(r.id ORDER BY seg.price, r.departure_time))[1] AS cheapest_ride_id,
+                (array_agg(r.id ORDER BY r.departure_time, seg.price))[1] AS soonest_ride_id
+            FROM rides r
+            JOIN ride_stops p ON p.ride_id = r.id
+            JOIN ride_stops d ON d.ride_id = r.id AND d.stop_index > p.stop_index
+            CROSS JOIN LATERAL (
+                SELECT round(CAST(r.price_per_seat * COALESCE(ride_segment_fraction(r.id, p.stop_index, d.stop_index), 1.0)
+                    AS numeric), 2) AS price
+            ) seg
+            WHERE r.status = 'SCHEDULED'
+            AND r.departure_time BETWEEN :startTime AND :endTime
+            AND r.gender_preference IN (:allowedPreferences)
+            AND p.ride_status = 'SCHEDULED' AND d.ride_status = 'SCHEDULED'
+            AND ST_DWithin(p.point, :origin, :pickupRadius)
+            AND NOT ST_DWithin(d.point, :origin, :pickupRadius)
+            AND (SELECT min(seats) FROM unnest(r.leg_seats[p.stop_index + 1 : d.stop_index]) seats)
+                >= :requiredSeats
+            GROUP BY ST_SnapToGrid(CAST(d.point AS geometry), :cellDegrees)
+            ORDER BY min_price, earliest_departure
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> exploreDestinations(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("requiredSeats") int requiredSeats,
+            @Param("allowedPreferences") List<String> allowedPreferences,
+            @Param("cellDegrees") double cellDegrees,
+            @Param("limit") int limit);
+
+    /**
+     * Explore en route: nafs l predicate corridor t3 searchRidesAlongRoute (route_utm 9rib mel origin), w
+     * destinations = l arrêts elli jeyin ba3d l origin 3al ligne. L prix prorata yebda men e5er arrêt 9bal l origin
+     * (kif ride_corridor_seats). Nafs l colonnes t3 exploreDestinations.
+     */
+    @Query(value = """
+            SELECT mode() WITHIN GROUP (ORDER BY d.name) AS destination_name,
+                ST_Y(ST_Centroid(ST_Collect(CAST(d.point AS geometry)))) AS lat,
+                ST_X(ST_Centroid(ST_Collect(CAST(d.point AS geometry)))) AS lon,
+                min(seg.price) AS min_price,
+                min(r.departure_time) AS earliest_departure,
+                count(DISTINCT r.id) AS ride_count,
+                (array_agg(r.id ORDER BY seg.price, r.departure_time))[1] AS cheapest_ride_id,
+                (array_agg(r.id ORDER BY r.departure_time, seg.price))[1] AS soonest_ride_id
+            FROM rides r
+            JOIN ride_stops d ON d.ride_id = r.id
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(max(s.stop_index), 0) AS stop_index FROM ride_stops s
+                WHERE s.ride_id = r.id
+                AND ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(s.point AS geometry), 32632))
+                    <= ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632))
+            ) p
+            CROSS JOIN LATERAL (
+                SELECT round(CAST(r.price_per_seat * COALESCE(ride_segment_fraction(r.id, p.stop_index, d.stop_index), 1.0)
+                    AS numeric), 2) AS price
+            ) seg
+            WHERE r.status = 'SCHEDULED'
+            AND d.stop_index > p.stop_index
+            AND ST_DWithin(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632), :pickupRadius)
+            AND ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632))
+                < ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(d.point AS geometry), 32632))
+            AND NOT ST_DWithin(d.point, :origin, :pickupRadius)
+            AND r.departure_time BETWEEN :startTime AND :endTime
+            AND ride_corridor_seats(r.id, r.route_utm, r.leg_seats, ST_Transform(CAST(:origin AS geometry), 32632),
+                ST_Transform(CAST(d.point AS geometry), 32632)) >= :requiredSeats
+            AND r.gender_preference IN (:allowedPreferences)
+            GROUP BY ST_SnapToGrid(CAST(d.point AS geometry), :cellDegrees)
+            ORDER BY min_price, earliest_departure
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> exploreDestinationsAlongRoute(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("requiredSeats") int requiredSeats,
+            @Param("allowedPreferences") List<String> allowedPreferences,
+            @Param("cellDegrees") double cellDegrees,
+            @Param("limit") int limit);
+
+    /**
+     * Calendrier (enRoute=false): nombre t3 rides réservables w a9al prix par jour (Africa/Tunis) lel route,
+     * nafs l matching 3al arrêts w leg_seats t3 searchRides. Colonnes: day, ride_count, min_price.
+     */
+    @Query(value = """
+            SELECT CAST(r.departure_time AT TIME ZONE 'Africa/Tunis' AS date) AS day,
+                count(*) AS ride_count,
+                min(r.price_per_seat) AS min_price
+            FROM rides r
+            WHERE r.status = 'SCHEDULED'
+            AND r.departure_time BETWEEN :startTime AND :endTime
+            AND r.gender_preference IN (:allowedPreferences)
+            AND EXISTS (
+                SELECT 1 FROM ride_stops p
+                JOIN ride_stops d ON d.ride_id = p.ride_id AND d.stop_index > p.stop_index
+                WHERE p.ride_id = r.id
+                AND p.ride_status = 'SCHEDULED' AND d.ride_status = 'SCHEDULED'
+                AND ST_DWithin(p.point, :origin, :pickupRadius)
+                AND ST_DWithin(d.point, :destination, :dropoffRadius)
+                AND (SELECT min(seats) FROM unnest(r.leg_seats[p.stop_index + 1 : d.stop_index]) seats)
+                    >= :requiredSeats
+            )
+            GROUP BY day
+            ORDER BY day
+            """, nativeQuery = true)
+    List<Object[]> countRidesPerDay(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("destination") Point destination,
+            @Param("dropoffRadius") double dropoffRadius,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("requiredSeats") int requiredSeats,
+            @Param("allowedPreferences") List<String> allowedPreferences);
+
+    /**
+     * Calendrier en route: nafs l predicate corridor t3 searchRidesAlongRoute (route_utm), groupé par jour.
+     */
+    @Query(value = """
+            SELECT CAST(r.departure_time AT TIME ZONE 'Africa/Tunis' AS date) AS day,
+                count(*) AS ride_count,
+                min(r.price_per_seat) AS min_price
+            FROM rides r
+            WHERE r.status = 'SCHEDULED'
+            AND ST_DWithin(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632), :pickupRadius)
+            AND ST_DWithin(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632), :dropoffRadius)
+            AND ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:origin AS geometry), 32632))
+                < ST_LineLocatePoint(r.route_utm, ST_Transform(CAST(:destination AS geometry), 32632))
+            AND r.departure_time BETWEEN :startTime AND :endTime
+            AND ride_corridor_seats(r.id, r.route_utm, r.leg_seats, ST_Transform(CAST(:origin AS geometry), 32632),
+                ST_Transform(CAST(:destination AS geometry), 32632)) >= :requiredSeats
+            AND r.gender_preference IN (:allowedPreferences)
+            GROUP BY day
+            ORDER BY day
+            """, nativeQuery = true)
+    List<Object[]> countRidesPerDayAlongRoute(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("destination") Point destination,
+            @Param("dropoffRadius") double dropoffRadius,
+            @Param("startTime") OffsetDateTime startTime,
+            @Param("endTime") OffsetDateTime endTime,
+            @Param("requiredSeats") int requiredSeats,
+            @Param("allowedPreferences") List<String> allowedPreferences);
+
+    /**
+     * Tuile MVT (EPSG:3857) b clusters: l origins SCHEDULED fel tuile (&& 3al GiST partiel t3 origin_mercator)
+     * yetjam3ou b grille :gridSize metres, kol cluster = centroid + nombre + a9al prix.
+     */
+    @Query(value = """
+            WITH bounds AS (
+                SELECT ST_TileEnvelope(:z, :x, :y) AS geom
+            ),
+            points AS (
+                SELECT r.price_per_seat, r.origin_mercator AS geom
+                FROM rides r, bounds b
+                WHERE r.status = 'SCHEDULED'
+                AND r.departure_time >= now()
+                AND r.origin_mercator && b.geom
+            ),
+            clusters AS (
+                SELECT count(*) AS ride_count, CAST(min(price_per_seat) AS float8) AS min_price,
+                       ST_Centroid(ST_Collect(geom)) AS geom
+                FROM points
+                GROUP BY ST_SnapToGrid(geom, :gridSize)
+            ),
+            mvt AS (
+                SELECT c.ride_count, c.min_price, ST_AsMVTGeom(c.geom, b.geom, 4096, 64, true) AS geom
+                FROM clusters c, bounds b
+            )
+            SELECT ST_AsMVT(mvt.*, 'rides', 4096, 'geom') FROM mvt
+            """, nativeQuery = true)
+    byte[] clusteredRidesTile(@Param("z") int z, @Param("x") int x, @Param("y") int y,
+            @Param("gridSize") double gridSize);
+
+    // Tuile MVT b ride par feature (zoom kbir): id, prix, blays, départ (epoch seconds)
+    @Query(value = """
+            WITH bounds AS (
+                SELECT ST_TileEnvelope(:z, :x, :y) AS geom
+            ),
+            mvt AS (
+                SELECT CAST(r.id AS text) AS id, CAST(r.price_per_seat AS float8) AS price, r.available_seats AS seats,
+                       CAST(extract(epoch FROM r.departure_time) AS bigint) AS departure,
+                       ST_AsMVTGeom(r.origin_mercator, b.geom, 4096, 64, true) AS geom
+                FROM rides r, bounds b
+                WHERE r.status = 'SCHEDULED'
+                AND r.departure_time >= now()
+                AND r.origin_mercator && b.geom
+            )
+            SELECT ST_AsMVT(mvt.*, 'rides', 4096, 'geom') FROM mvt
+            """, nativeQuery = true)
+    byte[] ridesTile(@Param("z") int z, @Param("x") int x, @Param("y") int y);
+
     List<Ride> findByIdAndStatus(UUID id, RideStatus status);
 
     int countByDriverIdAndStatus(UUID driverId, RideStatus status);
@@ -0,0 +1,90 @@
+package com.blassa.repository;
+
+import com.blassa.model.entity.RideTemplate;
+import org.locationtech.jts.geom.Point;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RideTemplateRepository extends JpaRepository<RideTemplate, UUID> {
+
+    List<RideTemplate> findByDriverIdOrderByCreatedAtDesc(UUID driverId);
+
+    /**
+     * Templates actifs elli l corridor mte3hom y3addi b9orb l pickup w l dropoff, valides fel fenêtre.
+     * Superset t3 l search (endpoints w corridor): l query t3 rides ba3d tfiltri l instances.
+     */
+    @Query(value = """
+            SELECT t.* FROM ride_templates t
+            WHERE t.active
+            AND ST_DWithin(t.route_line::geography, :origin, :pickupRadius)
+            AND ST_DWithin(t.route_line::geography, :destination, :dropoffRadius)
+            AND t.valid_from <= :lastDate
+            AND (t.valid_until IS NULL OR t.valid_until >= :firstDate)
+            AND t.total_seats >= :requiredSeats
+            """, nativeQuery = true)
+    List<RideTemplate> findCandidatesForSearch(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("destination") Point destination,
+            @Param("dropoffRadius") double dropoffRadius,
+            @Param("firstDate") LocalDate firstDate,
+            @Param("lastDate") LocalDate lastDate,
+            @Param("requiredSeats") int requiredSeats);
+
+    // Explore (bla destination): templates elli l corridor mte3hom y3addi b9orb l origin
+    @Query(value = """
+            SELECT t.* FROM ride_templates t
+            WHERE t.active
+            AND ST_DWithin(t.route_line::geography, :origin, :pickupRadius)
+            AND t.valid_from <= :lastDate
+            AND (t.valid_until IS NULL OR t.valid_until >= :firstDate)
+            AND t.total_seats >= :requiredSeats
+            """, nativeQuery = true)
+    List<RideTemplate> findCandidatesFromOrigin(
+            @Param("origin") Point origin,
+            @Param("pickupRadius") double pickupRadius,
+            @Param("firstDate") LocalDate firstDate,
+            @Param("lastDate") LocalDate lastDate,
+            @Param("requiredSeats") int requiredSeats);
+
+    /**
+     * Matérialise instance wa7da (ride + zouz arrêts). Idempotent: (template_id, occurrence_date)
+     * unique, donc zouz searches fi nafs l wa9t ma ya3mlouch doublon. Yrajja3 l id mta3 l ride l jdid,
+     * walla vide ken mawjouda: INSERT natif ma y3addich 3al JPA listeners, l appelant y3ayet lel hooks.
+     */
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO rides (driver_id, vehicle_id, origin_name, origin_point, destination_name,
+                    destination_point, route_line, departure_time, total_seats, available_seats, leg_seats,
+                    price_per_seat, allows_smoking, allows_music, allows_pets, luggage_size, gender_preference,
+                    status, version, created_at, template_id, occurrence_date)
+                SELECT t.driver_id, t.vehicle_id, t.origin_name, t.origin_point, t.destination_name,
+                    t.destination_point, t.route_line, :departureTime, t.total_seats, t.total_seats,
+                    ARRAY[t.total_seats], t.price_per_seat, t.allows_smoking, t.allows_music, t.allows_pets,
+                    t.luggage_size, t.gender_preference, 'SCHEDULED', 0, now(), t.id, :occurrenceDate
+                FROM ride_templates t
+                WHERE t.id = :templateId
+                ON CONFLICT (template_id, occurrence_date) DO NOTHING
+                RETURNING id, origin_name, origin_point, destination_name, destination_point, status
+            ), stops AS (
+                INSERT INTO ride_stops (ride_id, stop_index, name, point, ride_status)
+                SELECT id, 0, origin_name, origin_point, status FROM inserted
+                UNION ALL
+                SELECT id, 1, destination_name, destination_point, status FROM inserted
+            )
+            SELECT id FROM inserted
+            """, nativeQuery = true)
+    Optional<UUID> materialiseOccurrence(
+            @Param("templateId") UUID templateId,
+            @Param("occurrenceDate") LocalDate occurrenceDate,
+            @Param("departureTime") OffsetDateTime departureTime);
+}
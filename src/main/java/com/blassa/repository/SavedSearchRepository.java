@@ -0,0 +1,43 @@
+package com.blassa.repository;
+
+import com.blassa.model.entity.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, UUID> {
+
+    List<SavedSearch> findByUserIdAndActiveTrueOrderByCreatedAtDesc(UUID userId);
+
+    long countByUserIdAndActiveTrue(UUID userId);
+
+    // Chargement t3 SavedSearchIndex (m3a l user lel filtre genre)
+    @Query("SELECT s FROM SavedSearch s JOIN FETCH s.user WHERE s.active = true AND s.departureTo > :now")
+    List<SavedSearch> findActiveForIndex(@Param("now") OffsetDateTime now);
+
+    // Recherches jdod (machines o5rin zeda) depuis l e5er synchro t3 l index local
+    @Query("SELECT s FROM SavedSearch s JOIN FETCH s.user WHERE s.active = true AND s.departureTo > :now "
+            + "AND s.createdAt >= :since")
+    List<SavedSearch> findActiveCreatedSince(@Param("now") OffsetDateTime now, @Param("since") OffsetDateTime since);
+
+    @Modifying
+    @Query("UPDATE SavedSearch s SET s.active = false WHERE s.active = true AND s.departureTo <= :now")
+    int deactivateExpired(@Param("now") OffsetDateTime now);
+
+    // 1 => alerte jdida, 0 => deja notifié 3al ride hedha walla recherche supprimée (index t3 machine o5ra)
+    @Modifying
+    @Query(value = """
+            INSERT INTO saved_search_alerts (saved_search_id, ride_id)
+            SELECT s.id, :rideId FROM saved_searches s
+            WHERE s.id = :savedSearchId AND s.active
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int recordAlert(@Param("savedSearchId") UUID savedSearchId, @Param("rideId") UUID rideId);
+}
@@ -2,14 +2,66 @@ package com.blassa.repository;
 
 import com.blassa.model.entity.UserReport;
 import com.blassa.model.enums.ReportStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UserReportRepository extends JpaRepository<UserReport, Long> {
     List<UserReport> findByStatusOrderByCreatedAtDesc(ReportStatus status);
 
+    @Query("""
+            SELECT r FROM UserReport r
+            JOIN FETCH r.reporter
+            LEFT JOIN FETCH r.reportedUser
+            LEFT JOIN FETCH r.ride
+            ORDER BY r.createdAt DESC
+            """)
     List<UserReport> findAllByOrderByCreatedAtDesc();
+
+    long countByStatus(ReportStatus status);
+
+    // Awel page mta3 l queue (ma famma 7atta cursor)
+    @Query("""
+            SELECT r FROM UserReport r
+            JOIN FETCH r.reporter
+            LEFT JOIN FETCH r.reportedUser
+            LEFT JOIN FETCH r.ride
+            WHERE r.status = :status
+            ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<UserReport> findQueueFirstPage(@Param("status") ReportStatus status, Limit limit);
+
+    // Pages elli ba3d: keyset 3al (createdAt, id) mta3 e5er report fel page elli fetet
+    @Query("""
+            SELECT r FROM UserReport r
+            JOIN FETCH r.reporter
+            LEFT JOIN FETCH r.reportedUser
+            LEFT JOIN FETCH r.ride
+            WHERE r.status = :status
+              AND (r.createdAt < :beforeCreatedAt
+                   OR (r.createdAt = :beforeCreatedAt AND r.id < :beforeId))
+            ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<UserReport> findQueuePageBefore(@Param("status") ReportStatus status,
+            @Param("beforeCreatedAt") OffsetDateTime beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE UserReport r
+            SET r.status = :status, r.resolvedAt = :resolvedAt
+            WHERE r.id IN :ids
+            """)
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+            @Param("status") ReportStatus status,
+            @Param("resolvedAt") OffsetDateTime resolvedAt);
 }
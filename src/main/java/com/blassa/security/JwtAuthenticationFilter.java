@@ -1,5 +1,6 @@
 package com.blassa.security;
 
+import com.blassa.observability.DomainMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -22,6 +23,7 @@ import java.util.Arrays;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final MyUserDetailsService userDetailsService;
+    private final DomainMetrics domainMetrics;
 
     private static final String COOKIE_NAME = "blassa_token";
 
@@ -35,9 +37,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String userEmail = jwtUtils.extractUsername(jwt);
+        long startNanos = System.nanoTime();
+        String outcome = "skipped";
+        final String userEmail;
+        try {
+            userEmail = jwtUtils.extractUsername(jwt);
+        } catch (RuntimeException e) {
+            domainMetrics.recordJwtFilter("invalid", System.nanoTime() - startNanos);
+            throw e;
+        }
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            outcome = "rejected";
             try {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
                 if (jwtUtils.isTokenValid(jwt, userDetails)) {
@@ -47,8 +58,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = "authenticated";
                 }
             } catch (org.springframework.security.authentication.LockedException e) {
+                domainMetrics.recordJwtFilter("banned", System.nanoTime() - startNanos);
                 response.setStatus(HttpServletResponse.SC_FORBIDDEN);
                 response.getWriter().write("{\"error\": \"Account banned\", \"message\": \"" + e.getMessage() + "\"}");
                 return;
@@ -56,6 +69,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             }
         }
+        domainMetrics.recordJwtFilter(outcome, System.nanoTime() - startNanos);
         filterChain.doFilter(request, response);
     }
 
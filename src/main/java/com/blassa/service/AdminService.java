@@ -6,14 +6,16 @@ import com.blassa.model.enums.ReportStatus;
 import com.blassa.repository.RideRepository;
 import com.blassa.repository.UserReportRepository;
 import com.blassa.dto.ReportDTO;
-import com.blassa.model.entity.UserReport;
+import com.blassa.dto.ReportQueueResponse;
 import com.blassa.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -22,6 +24,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AdminService {
 
+    private static final int MAX_QUEUE_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final RideRepository rideRepository;
     private final UserReportRepository userReportRepository;
@@ -30,7 +34,7 @@ public class AdminService {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalUsers", userRepository.count());
         stats.put("totalRides", rideRepository.count());
-        stats.put("pendingReports", userReportRepository.findByStatusOrderByCreatedAtDesc(ReportStatus.PENDING).size());
+        stats.put("pendingReports", userReportRepository.countByStatus(ReportStatus.PENDING));
         return stats;
     }
 
@@ -66,12 +70,45 @@ public class AdminService {
         userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public List<ReportDTO> getReports() {
         return userReportRepository.findAllByOrderByCreatedAtDesc().stream()
                 .map(this::mapToReportDTO)
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * Moderation queue: keyset pagination 3al (createdAt, id), reporter/reportedUser/ride
+     * yjiw fi nafs l query (fetch join) bch ma n3amlouch 3 queries zeyda 3la kol report.
+     */
+    @Transactional(readOnly = true)
+    public ReportQueueResponse getReportQueue(ReportStatus status, OffsetDateTime beforeCreatedAt, Long beforeId,
+            int size) {
+        if ((beforeCreatedAt == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("INVALID_CURSOR");
+        }
+        int pageSize = Math.clamp(size, 1, MAX_QUEUE_PAGE_SIZE);
+        // Njibou wa7ed zeyed bch na3arfou kene famma page o5ra
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<UserReport> reports = beforeCreatedAt == null
+                ? userReportRepository.findQueueFirstPage(status, limit)
+                : userReportRepository.findQueuePageBefore(status, beforeCreatedAt, beforeId, limit);
+
+        boolean hasMore = reports.size() > pageSize;
+        List<UserReport> page = hasMore ? reports.subList(0, pageSize) : reports;
+
+        ReportQueueResponse.ReportQueueResponseBuilder builder = ReportQueueResponse.builder()
+                .reports(page.stream().map(this::mapToReportDTO).toList())
+                .hasMore(hasMore);
+        if (hasMore) {
+            UserReport last = page.get(page.size() - 1);
+            builder.nextBeforeCreatedAt(last.getCreatedAt())
+                    .nextBeforeId(last.getId());
+        }
+        return builder.build();
+    }
+
     private ReportDTO mapToReportDTO(UserReport report) {
         ReportDTO.ReportDTOBuilder builder = ReportDTO.builder()
                 .id(report.getId())
@@ -120,4 +157,16 @@ public class AdminService {
         report.setResolvedAt(OffsetDateTime.now());
         userReportRepository.save(report);
     }
+
+    /**
+     * Resolve barcha reports fi update wa7da (duplicates mta3 nafs l mochkla).
+     * Rajja3 9adech men report tbadlet.
+     */
+    @Transactional
+    public int resolveReports(List<Long> reportIds, ReportStatus status) {
+        if (status == ReportStatus.PENDING) {
+            throw new IllegalArgumentException("INVALID_RESOLUTION_STATUS");
+        }
+        return userReportRepository.updateStatusByIdIn(new LinkedHashSet<>(reportIds), status, OffsetDateTime.now());
+    }
 }
@@ -0,0 +1,95 @@
+package com.blassa.service;
+
+import com.blassa.dto.AnalyticsPointDTO;
+import com.blassa.model.entity.AnalyticsRollup;
+import com.blassa.model.enums.AnalyticsGranularity;
+import com.blassa.repository.AnalyticsRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Catch-up job lel admin analytics: kol marra n3awdou n7esbou ken l buckets elli
+ * tbadlou ba3d l run elli fet, bch l dashboard ya9ra range wa7da mel index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupService {
+
+    // Transactions elli commitaw b retard (booking bdet 9bal l run w kmlet ba3dou)
+    private static final Duration OVERLAP = Duration.ofMinutes(2);
+    private static final OffsetDateTime EPOCH = OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final AnalyticsRollupRepository analyticsRollupRepository;
+
+    private OffsetDateTime lastRunStartedAt;
+
+    @Scheduled(fixedDelayString = "${app.analytics.rollup-interval-ms:300000}",
+            initialDelayString = "${app.analytics.rollup-initial-delay-ms:60000}")
+    @Transactional
+    public void refreshRollups() {
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        OffsetDateTime since = resolveSince();
+
+        int hourly = analyticsRollupRepository.upsertTouchedBuckets(
+                AnalyticsGranularity.HOUR.name(), AnalyticsGranularity.HOUR.getSqlUnit(), since);
+        int daily = analyticsRollupRepository.upsertTouchedBuckets(
+                AnalyticsGranularity.DAY.name(), AnalyticsGranularity.DAY.getSqlUnit(), since);
+
+        // Marks 9dom men OVERLAP: transaction elli fasskhet 9bal l run walla commitat 9bal snapshot mte3na
+        analyticsRollupRepository.clearDeleteMarks(startedAt.minus(OVERLAP));
+
+        lastRunStartedAt = startedAt;
+        log.debug("Analytics rollups refreshed since {}: {} hourly, {} daily buckets", since, hourly, daily);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AnalyticsPointDTO> getSeries(AnalyticsGranularity granularity, OffsetDateTime from,
+            OffsetDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("INVALID_RANGE");
+        }
+        return analyticsRollupRepository
+                .findByGranularityAndBucketStartBetweenOrderByBucketStartAsc(granularity, from, to)
+                .stream()
+                .map(this::mapToPoint)
+                .toList();
+    }
+
+    private OffsetDateTime resolveSince() {
+        if (lastRunStartedAt != null) {
+            return lastRunStartedAt.minus(OVERLAP);
+        }
+        // Awel run ba3d restart: nkamlou men e5er rollup, walla backfill kamel kene table fergha
+        return analyticsRollupRepository.findLastRollupTime()
+                .map(last -> last.minus(OVERLAP))
+                .orElse(EPOCH);
+    }
+
+    private AnalyticsPointDTO mapToPoint(AnalyticsRollup rollup) {
+        double cancellationRate = rollup.getBookingsTotal() == 0
+                ? 0.0
+                : (double) rollup.getBookingsCancelled() / rollup.getBookingsTotal();
+
+        return AnalyticsPointDTO.builder()
+                .bucketStart(rollup.getBucketStart())
+                .signups(rollup.getSignups())
+                .ridesPublished(rollup.getRidesPublished())
+                .bookingsTotal(rollup.getBookingsTotal())
+                .bookingsPending(rollup.getBookingsPending())
+                .bookingsConfirmed(rollup.getBookingsConfirmed())
+                .bookingsRejected(rollup.getBookingsRejected())
+                .bookingsCancelled(rollup.getBookingsCancelled())
+                .grossBookingValue(rollup.getGrossBookingValue())
+                .cancellationRate(cancellationRate)
+                .build();
+    }
+}
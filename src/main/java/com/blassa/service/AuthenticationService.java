@@ -2,11 +2,15 @@ package com.blassa.service;
 
 import com.blassa.dto.*;
 import com.blassa.model.entity.User;
+import com.blassa.observability.DomainMetrics;
 import com.blassa.repository.UserRepository;
 import com.blassa.security.JwtUtils;
 import com.blassa.security.MyUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -23,6 +27,7 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final MyUserDetailsService userDetailsService;
     private final EmailService emailService;
+    private final DomainMetrics domainMetrics;
 
     @Transactional
     public AuthenticationResponse register(RegisterRequest request) {
@@ -80,7 +85,25 @@ public class AuthenticationService {
 
     @Transactional
     public AuthenticationResponse authenticate(AuthenticationRequest authenticationRequest) {
+        long startNanos = System.nanoTime();
+        try {
+            AuthenticationResponse response = doAuthenticate(authenticationRequest);
+            domainMetrics.recordLogin("EMAIL_NOT_VERIFIED".equals(response.getToken()) ? "email_not_verified" : "success",
+                    System.nanoTime() - startNanos);
+            return response;
+        } catch (BadCredentialsException e) {
+            domainMetrics.recordLogin("bad_credentials", System.nanoTime() - startNanos);
+            throw e;
+        } catch (LockedException | DisabledException e) {
+            domainMetrics.recordLogin("blocked", System.nanoTime() - startNanos);
+            throw e;
+        } catch (RuntimeException e) {
+            domainMetrics.recordLogin("error", System.nanoTime() - startNanos);
+            throw e;
+        }
+    }
 
+    private AuthenticationResponse doAuthenticate(AuthenticationRequest authenticationRequest) {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(authenticationRequest.getEmail(),
                         authenticationRequest.getPassword()));
@@ -4,6 +4,7 @@ import com.blassa.dto.BookingRequest;
 import com.blassa.dto.BookingResponse;
 import com.blassa.model.entity.Booking;
 import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.RideStop;
 import com.blassa.model.entity.User;
 import com.blassa.model.enums.BookingStatus;
 import com.blassa.model.enums.NotificationType;
@@ -24,6 +25,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,23 +56,30 @@ public class BookingService {
         Optional<Booking> existingBooking = bookingRepository.findByRideIdAndPassengerId(ride.getId(),
                 passenger.getId());
 
-        // Verifi les règles métier lkol
-        validateBookingRules(ride, passenger, bookingRequest.seatsRequested(), existingBooking);
+        // Tronçon: par défaut men origin lel destination
+        SeatSegmentTree legs = new SeatSegmentTree(legSeatsOf(ride));
+        int fromStop = bookingRequest.fromStop() != null ? bookingRequest.fromStop() : 0;
+        int toStop = bookingRequest.toStop() != null ? bookingRequest.toStop() : legs.legCount();
+        if (fromStop < 0 || toStop > legs.legCount() || fromStop >= toStop) {
+            throw new IllegalArgumentException("INVALID_STOPS");
+        }
 
-        // Beddel 3adad l blays
-        int newAvailableSeats = ride.getAvailableSeats() - bookingRequest.seatsRequested();
-        ride.setAvailableSeats(newAvailableSeats);
+        // Verifi les règles métier lkol
+        validateBookingRules(ride, passenger, legs.min(fromStop, toStop), bookingRequest.seatsRequested(),
+                existingBooking);
 
-        // Beddel statu kene l ride t3abbat full
-        if (newAvailableSeats == 0) {
-            ride.setStatus(RideStatus.FULL);
-        }
+        // Na99es l blays 3al legs mta3 l tronçon bark
+        legs.add(fromStop, toStop, -bookingRequest.seatsRequested());
+        applyLegSeats(ride, legs);
 
         // Sajjel l Ride (yb déclanchi optimistic lock check)
         rideRepository.save(ride);
 
-        // A7seb soum lkol
-        BigDecimal totalPrice = ride.getPricePerSeat().multiply(BigDecimal.valueOf(bookingRequest.seatsRequested()));
+        // A7seb soum lkol (prorata distance ken tronçon)
+        BigDecimal totalPrice = ride.getPricePerSeat()
+                .multiply(BigDecimal.valueOf(bookingRequest.seatsRequested()))
+                .multiply(BigDecimal.valueOf(segmentFraction(ride, fromStop, toStop, legs.legCount())))
+                .setScale(2, RoundingMode.HALF_UP);
 
         // Asna3 walla rajja3 booking
         Booking booking = existingBooking.orElse(new Booking());
@@ -79,6 +89,8 @@ public class BookingService {
         }
 
         booking.setSeatsBooked(bookingRequest.seatsRequested());
+        booking.setFromStopIndex(fromStop);
+        booking.setToStopIndex(toStop);
         booking.setPriceTotal(totalPrice);
         booking.setStatus(BookingStatus.PENDING); // L chauffeur lezm ya9bel
 
@@ -93,7 +105,7 @@ public class BookingService {
         emailService.sendNewPassengerEmail(
                 ride.getDriver().getEmail(),
                 passenger.getFirstName() + " " + passenger.getLastName(),
-                ride.getOriginName() + " → " + ride.getDestinationName());
+                segmentSummary(savedBooking, " → "));
         return mapToResponse(savedBooking);
     }
 
@@ -157,10 +169,7 @@ public class BookingService {
 
         // Rajja3 blays lel ride
         Ride ride = booking.getRide();
-        ride.setAvailableSeats(ride.getAvailableSeats() + booking.getSeatsBooked());
-        if (ride.getStatus() == RideStatus.FULL) {
-            ride.setStatus(RideStatus.SCHEDULED);
-        }
+        releaseSeats(ride, booking);
         rideRepository.save(ride);
 
         booking.setStatus(BookingStatus.REJECTED);
@@ -210,7 +219,7 @@ public class BookingService {
         return new BookingResponse(
                 booking.getId(),
                 booking.getRide().getId(),
-                booking.getRide().getOriginName() + " -> " + booking.getRide().getDestinationName(),
+                segmentSummary(booking, " -> "),
                 booking.getRide().getDriver().getFirstName() + " " + booking.getRide().getDriver().getLastName(),
                 booking.getRide().getDepartureTime(),
                 booking.getSeatsBooked(),
@@ -308,12 +317,8 @@ public class BookingService {
         }
 
         // 3adad l blays lezm yarj3ou kima kenou 9bal l booking
-        ride.setAvailableSeats(ride.getAvailableSeats() + booking.getSeatsBooked());
-        // raj3ha l scheduled ken kent m3abya
-        // Kene l ride kent FULL, rajja3ha SCHEDULED
-        if (ride.getStatus() == RideStatus.FULL) {
-            ride.setStatus(RideStatus.SCHEDULED);
-        }
+        // (w kene l ride kent FULL, rajja3ha SCHEDULED)
+        releaseSeats(ride, booking);
 
         rideRepository.save(ride);
 
@@ -355,10 +360,7 @@ public class BookingService {
 
         // Rajja3 l blays l dispo
         Ride ride = booking.getRide();
-        ride.setAvailableSeats(ride.getAvailableSeats() + booking.getSeatsBooked());
-        if (ride.getStatus() == RideStatus.FULL) {
-            ride.setStatus(RideStatus.SCHEDULED);
-        }
+        releaseSeats(ride, booking);
         rideRepository.save(ride);
 
         // Beddel statu t3 booking
@@ -381,7 +383,7 @@ public class BookingService {
                 ride.getId().toString());
     }
 
-    private void validateBookingRules(Ride ride, User passenger, Integer requestedSeats,
+    static void validateBookingRules(Ride ride, User passenger, int segmentSeats, Integer requestedSeats,
             Optional<Booking> existingBooking) {
         // Verifi kene l chauffeur 7ajez l rou7ou
         if (ride.getDriver().getId().equals(passenger.getId())) {
@@ -398,8 +400,8 @@ public class BookingService {
             throw new IllegalArgumentException("RIDE_ALREADY_DEPARTED");
         }
 
-        // Verifi dispo t3 blays, shouf 3adad l seats
-        if (ride.getAvailableSeats() < requestedSeats) {
+        // Verifi dispo t3 blays 3al tronçon (min t3 l legs), shouf 3adad l seats
+        if (segmentSeats < requestedSeats) {
             throw new IllegalArgumentException("NOT_ENOUGH_SEATS");
         }
 
@@ -423,6 +425,74 @@ public class BookingService {
         }
     }
 
+    // Rides 9dom (walla mabniyin bla legSeats): leg wa7ed = availableSeats
+    static int[] legSeatsOf(Ride ride) {
+        int[] legs = ride.getLegSeats();
+        return (legs != null && legs.length > 0) ? legs.clone() : new int[] { ride.getAvailableSeats() };
+    }
+
+    // legSeats + availableSeats (min, men l bidaya lel ekher) + FULL ken l legs lkol 3abbew
+    static void applyLegSeats(Ride ride, SeatSegmentTree legs) {
+        int[] updated = legs.toArray();
+        ride.setLegSeats(updated);
+        ride.setAvailableSeats(legs.min(0, legs.legCount()));
+        boolean anySeatLeft = Arrays.stream(updated).anyMatch(seats -> seats > 0);
+        if (!anySeatLeft && ride.getStatus() == RideStatus.SCHEDULED) {
+            ride.setStatus(RideStatus.FULL);
+        } else if (anySeatLeft && ride.getStatus() == RideStatus.FULL) {
+            ride.setStatus(RideStatus.SCHEDULED);
+        }
+    }
+
+    private void releaseSeats(Ride ride, Booking booking) {
+        SeatSegmentTree legs = new SeatSegmentTree(legSeatsOf(ride));
+        int fromStop = booking.getFromStopIndex() != null ? booking.getFromStopIndex() : 0;
+        int toStop = booking.getToStopIndex() != null ? booking.getToStopIndex() : legs.legCount();
+        legs.add(fromStop, Math.min(toStop, legs.legCount()), booking.getSeatsBooked());
+        applyLegSeats(ride, legs);
+    }
+
+    /**
+     * Prix prorata: distance t3 l tronçon / distance totale (haversine bin l arrêts).
+     * Ride kamla => 1 bla ma nlodiw l arrêts.
+     */
+    static double segmentFraction(Ride ride, int fromStop, int toStop, int legCount) {
+        if (fromStop == 0 && toStop == legCount) {
+            return 1.0;
+        }
+        List<RideStop> stops = ride.getStops();
+        if (stops == null || stops.size() != legCount + 1) {
+            return 1.0;
+        }
+        double total = 0;
+        double segment = 0;
+        for (int i = 0; i < legCount; i++) {
+            double leg = haversineMeters(stops.get(i), stops.get(i + 1));
+            total += leg;
+            if (i >= fromStop && i < toStop) {
+                segment += leg;
+            }
+        }
+        return total > 0 ? segment / total : (double) (toStop - fromStop) / legCount;
+    }
+
+    private static double haversineMeters(RideStop a, RideStop b) {
+        return GeoDistance.meters(a.getPoint().getY(), a.getPoint().getX(), b.getPoint().getY(), b.getPoint().getX());
+    }
+
+    // "Sousse -> Sfax" lel tronçon, walla origin -> destination t3 l ride
+    private String segmentSummary(Booking booking, String arrow) {
+        Ride ride = booking.getRide();
+        Integer from = booking.getFromStopIndex();
+        Integer to = booking.getToStopIndex();
+        int[] legs = ride.getLegSeats();
+        if (from == null || to == null || legs == null || (from == 0 && to == legs.length)
+                || ride.getStops() == null || to >= ride.getStops().size()) {
+            return ride.getOriginName() + arrow + ride.getDestinationName();
+        }
+        return ride.getStops().get(from).getName() + arrow + ride.getStops().get(to).getName();
+    }
+
     // njibu f current user
     private User getCurrentUser() {
         String email = ((UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
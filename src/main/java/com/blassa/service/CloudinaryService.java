@@ -5,6 +5,7 @@ import com.cloudinary.Transformation;
 import com.cloudinary.utils.ObjectUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -18,7 +19,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CloudinaryService {
 
-    private final Cloudinary cloudinary;
+    private final ObjectProvider<Cloudinary> cloudinary;
 
     private static final List<String> ALLOWED_CONTENT_TYPES = Arrays.asList(
             "image/jpeg",
@@ -42,7 +43,7 @@ public class CloudinaryService {
                 .fetchFormat("webp");
 
         @SuppressWarnings("unchecked")
-        Map<String, Object> uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
+        Map<String, Object> uploadResult = cloudinary.getObject().uploader().upload(file.getBytes(), ObjectUtils.asMap(
                 "public_id", publicId,
                 "overwrite", true,
                 "transformation", transformation));
@@ -55,7 +56,7 @@ public class CloudinaryService {
     public void deleteProfilePicture(UUID userId) throws IOException {
         String publicId = "blassa/profiles/" + userId.toString();
         @SuppressWarnings("unchecked")
-        Map<String, Object> result = cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+        Map<String, Object> result = cloudinary.getObject().uploader().destroy(publicId, ObjectUtils.emptyMap());
         String resultStatus = (String) result.get("result");
     }
 
@@ -0,0 +1,37 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.User;
+import com.blassa.repository.UserRepository;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * User l connecté lel endpoints publics (search, explore, calendrier, itinéraires).
+ */
+final class CurrentUsers {
+
+    private CurrentUsers() {
+    }
+
+    /**
+     * Jib user walla null kene mch authenticated (endpoint public)
+     */
+    static User findOrNull(UserRepository userRepository) {
+        try {
+            if (!isAuthenticated()) {
+                return null;
+            }
+            String email = ((UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                    .getUsername();
+            return userRepository.findByEmail(email).orElse(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // Bla lookup DB: ken l présence t3 authentication (ex. cap t3 l materialisation)
+    static boolean isAuthenticated() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal());
+    }
+}
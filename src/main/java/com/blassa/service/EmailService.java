@@ -1,5 +1,6 @@
 package com.blassa.service;
 
+import com.blassa.observability.jfr.EmailSendEvent;
 import com.blassa.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -160,6 +161,9 @@ public class EmailService {
         }
 
         private void sendHtmlEmail(String to, String subject, String htmlContent) {
+                EmailSendEvent event = new EmailSendEvent();
+                event.begin();
+                String outcome = "failed";
                 try {
                         MimeMessage message = mailSender.createMimeMessage();
                         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -168,8 +172,17 @@ public class EmailService {
                         helper.setSubject(subject);
                         helper.setText(htmlContent, true);
                         mailSender.send(message);
+                        outcome = "sent";
                 } catch (MessagingException e) {
                         throw new RuntimeException("Failed to send email", e);
+                } finally {
+                        event.end();
+                        if (event.shouldCommit()) {
+                                // Subject ma fihech data mta3 l user (l destinataire ma yetsajjelch)
+                                event.subject = subject;
+                                event.outcome = outcome;
+                                event.commit();
+                        }
                 }
         }
 
@@ -0,0 +1,139 @@
+package com.blassa.service;
+
+import com.blassa.dto.ExploreDestinationResponse;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * "Win najem nemchi men Tunis l weekend?": requête wa7da groupée 3al destinations (grille) men origin,
+ * b a9al prix, awel départ w nombre t3 rides. Nafs l matching t3 search: corridor ken enRoute (default),
+ * sinon arrêts intermédiaires, w l templates récurrents yetmatérialisaw 9bal. Origin ta9rib 0.01° (~1 km)
+ * w fenêtre bel minute bch l cache (TTL 9sir) yekhdem bin users 9rab ba3dhom.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExploreService {
+
+    static final double ORIGIN_ROUNDING_DEGREES = 0.01;
+    private static final ZoneId TUNIS = ZoneId.of("Africa/Tunis");
+
+    private final RideRepository rideRepository;
+    private final UserRepository userRepository;
+    private final RideTemplateService rideTemplateService;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Value("${app.explore.cell-degrees:0.1}")
+    private double cellDegrees = 0.1;
+
+    @Value("${app.explore.max-window-days:14}")
+    private int maxWindowDays = 14;
+
+    @Value("${app.explore.max-results:50}")
+    private int maxResults = 50;
+
+    @Value("${app.explore.ttl-seconds:60}")
+    private int ttlSeconds = 60;
+
+    @Value("${app.explore.max-entries:2000}")
+    private int maxEntries = 2000;
+
+    private record CacheKey(long latCell, long lonCell, long fromMinute, long toMinute, int seats,
+            double radiusMeters, boolean enRoute, List<String> preferences) {
+    }
+
+    private final TtlCache<CacheKey, List<ExploreDestinationResponse>> cache = new TtlCache<>();
+
+    // Bla transaction englobante kif searchRides: l materialisation tekteb fi transaction wa7dha
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ExploreDestinationResponse> explore(double originLat, double originLon, OffsetDateTime from,
+            OffsetDateTime to, Integer seats, Double radiusKm, boolean enRoute, String genderFilter) {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime start = (from != null && from.isAfter(now) ? from : now).truncatedTo(ChronoUnit.MINUTES);
+        OffsetDateTime end = (to != null ? to : start.plusDays(7)).truncatedTo(ChronoUnit.MINUTES);
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("INVALID_RANGE");
+        }
+        if (end.isAfter(start.plusDays(maxWindowDays))) {
+            throw new IllegalArgumentException("EXPLORE_WINDOW_TOO_LONG");
+        }
+
+        List<String> allowedPreferences = RideService.allowedPreferences(CurrentUsers.findOrNull(userRepository),
+                genderFilter);
+        long latCell = Math.round(originLat / ORIGIN_ROUNDING_DEGREES);
+        long lonCell = Math.round(originLon / ORIGIN_ROUNDING_DEGREES);
+        int requiredSeats = Math.max(seats != null ? seats : 1, 1);
+        double pickupRadius = RideService.pickupRadiusMeters(radiusKm);
+
+        CacheKey key = new CacheKey(latCell, lonCell, start.toEpochSecond() / 60, end.toEpochSecond() / 60,
+                requiredSeats, pickupRadius, enRoute, allowedPreferences);
+        List<ExploreDestinationResponse> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // L origin ta9rib => l résultat s7i7 lel key kamla, mouch ken lel awel user
+        var origin = geometryFactory.createPoint(new Coordinate(lonCell * ORIGIN_ROUNDING_DEGREES,
+                latCell * ORIGIN_ROUNDING_DEGREES));
+        try {
+            rideTemplateService.materialiseForExplore(origin, pickupRadius, start, end, to == null,
+                    requiredSeats);
+        } catch (RuntimeException e) {
+            // Kif searchRides: explore yekhdem b rides mawjoudin
+            log.warn("Recurring ride materialisation failed: {}", e.getMessage());
+        }
+        List<Object[]> rows = enRoute
+                ? rideRepository.exploreDestinationsAlongRoute(origin, pickupRadius, start, end, requiredSeats,
+                        allowedPreferences, cellDegrees, maxResults)
+                : rideRepository.exploreDestinations(origin, pickupRadius, start, end, requiredSeats,
+                        allowedPreferences, cellDegrees, maxResults);
+        List<ExploreDestinationResponse> result = new ArrayList<>();
+        for (Object[] row : rows) {
+            result.add(mapRow(row));
+        }
+        List<ExploreDestinationResponse> data = List.copyOf(result);
+        cache.put(key, data, ttlSeconds, maxEntries);
+        return data;
+    }
+
+    static ExploreDestinationResponse mapRow(Object[] row) {
+        return new ExploreDestinationResponse(
+                (String) row[0],
+                ((Number) row[1]).doubleValue(),
+                ((Number) row[2]).doubleValue(),
+                row[3] instanceof BigDecimal price ? price : new BigDecimal(row[3].toString()),
+                toOffsetDateTime(row[4]),
+                ((Number) row[5]).longValue(),
+                (UUID) row[6],
+                (UUID) row[7]);
+    }
+
+    // Native timestamptz yerja3 Instant, OffsetDateTime walla Timestamp 7asb l driver/dialect
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value instanceof OffsetDateTime odt) {
+            return odt.atZoneSameInstant(TUNIS).toOffsetDateTime();
+        }
+        Instant instant = value instanceof Timestamp ts ? ts.toInstant() : (Instant) value;
+        return OffsetDateTime.ofInstant(instant, TUNIS);
+    }
+}
@@ -0,0 +1,20 @@
+package com.blassa.service;
+
+// Distance 3al sphère (haversine) b metres, lel calculs in-memory (prix prorata, timetable)
+final class GeoDistance {
+
+    static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    private GeoDistance() {
+    }
+
+    static double meters(double lat1Deg, double lon1Deg, double lat2Deg, double lon2Deg) {
+        double lat1 = Math.toRadians(lat1Deg);
+        double lat2 = Math.toRadians(lat2Deg);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(lon2Deg - lon1Deg);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(h));
+    }
+}
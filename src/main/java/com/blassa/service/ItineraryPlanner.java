@@ -0,0 +1,182 @@
+package com.blassa.service;
+
+import com.blassa.service.RideTimetable.Snapshot;
+import com.blassa.service.RideTimetable.Trip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Connection scan b rounds (round r = r rides): kol round yscanni l connexions triées marra wa7da,
+ * ytla3 f trip ken l arrêt wsolnelou fel round elli 9bal w l leg fih blays kafyin, w ba3d ymchi
+ * (footpath ≤ walk radius) + min connection lel arrêts t3 rides okhrin.
+ * Résultat: Pareto (nombre de rides, arrivée) - kol journey b transfers akthar lezem youssel 9bal.
+ */
+final class ItineraryPlanner {
+
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    record Query(double originLat, double originLon, double destLat, double destLon,
+            long earliestDeparture, long latestArrival, int seats, int maxRides,
+            double pickupRadiusMeters, double dropoffRadiusMeters,
+            Collection<String> allowedPreferences, UUID excludedDriverId,
+            long minConnectionSeconds, double walkMetersPerSecond) {
+    }
+
+    record Leg(Trip trip, int fromStop, int toStop, int walkMetersBefore) {
+    }
+
+    record Journey(List<Leg> legs, long departure, long arrival, int walkMetersAfter) {
+
+        int transfers() {
+            return legs.size() - 1;
+        }
+    }
+
+    private ItineraryPlanner() {
+    }
+
+    static List<Journey> plan(Snapshot snapshot, Query query) {
+        List<Journey> journeys = new ArrayList<>();
+        int nodes = snapshot.nodeCount;
+        if (nodes == 0 || query.maxRides() < 1) {
+            return journeys;
+        }
+
+        boolean[] usable = new boolean[snapshot.tripCount()];
+        for (int t = 0; t < usable.length; t++) {
+            Trip trip = snapshot.trips[t];
+            usable[t] = query.allowedPreferences().contains(trip.genderPreference())
+                    && (query.excludedDriverId() == null || !query.excludedDriverId().equals(trip.driverId()));
+        }
+
+        int[] targets = snapshot.nodesWithin(query.destLat(), query.destLon(), query.dropoffRadiusMeters());
+        if (targets.length == 0) {
+            return journeys;
+        }
+
+        // reached[v]: wa9tech l passager ynajjem yetla3 f v (round 0 = men l origin)
+        long[] reached = new long[nodes];
+        Arrays.fill(reached, UNREACHED);
+        for (int node : snapshot.nodesWithin(query.originLat(), query.originLon(), query.pickupRadiusMeters())) {
+            reached[node] = query.earliestDeparture();
+        }
+
+        long[][] arrival = new long[query.maxRides() + 1][];
+        int[][] boardedAt = new int[query.maxRides() + 1][];
+        int[][] walkedFrom = new int[query.maxRides() + 1][];
+        int[] tripBoard = new int[snapshot.tripCount()];
+        int firstConnection = snapshot.firstConnectionFrom(query.earliestDeparture());
+        long bestArrival = UNREACHED;
+
+        for (int round = 1; round <= query.maxRides(); round++) {
+            long[] arr = new long[nodes];
+            int[] board = new int[nodes];
+            Arrays.fill(arr, UNREACHED);
+            Arrays.fill(board, -1);
+            Arrays.fill(tripBoard, -1);
+
+            for (int c = firstConnection; c < snapshot.connDep.length; c++) {
+                if (snapshot.connDep[c] > query.latestArrival()) {
+                    break;
+                }
+                int t = snapshot.connTrip[c];
+                if (!usable[t]) {
+                    continue;
+                }
+                int leg = snapshot.connLeg[c];
+                int from = snapshot.tripFirstNode[t] + leg;
+                if (snapshot.trips[t].legSeats()[leg] < query.seats()) {
+                    // Leg kamel: ma najjmouch net3addou menou, lezem netla3 ba3dou
+                    tripBoard[t] = -1;
+                    continue;
+                }
+                if (tripBoard[t] == -1 && reached[from] <= snapshot.connDep[c]) {
+                    tripBoard[t] = from;
+                }
+                if (tripBoard[t] != -1 && snapshot.connArr[c] < arr[from + 1]) {
+                    arr[from + 1] = snapshot.connArr[c];
+                    board[from + 1] = tripBoard[t];
+                }
+            }
+            arrival[round] = arr;
+            boardedAt[round] = board;
+
+            int target = -1;
+            for (int node : targets) {
+                if (arr[node] <= query.latestArrival() && (target == -1 || arr[node] < arr[target])) {
+                    target = node;
+                }
+            }
+            if (target != -1 && arr[target] < bestArrival) {
+                bestArrival = arr[target];
+                journeys.add(reconstruct(snapshot, query, round, target, boardedAt, walkedFrom));
+            }
+
+            if (round == query.maxRides()) {
+                break;
+            }
+            long[] next = new long[nodes];
+            int[] walk = new int[nodes];
+            Arrays.fill(next, UNREACHED);
+            Arrays.fill(walk, -1);
+            boolean any = false;
+            for (int v = 0; v < nodes; v++) {
+                if (arr[v] == UNREACHED) {
+                    continue;
+                }
+                int[] to = snapshot.footTo[v];
+                int[] meters = snapshot.footMeters[v];
+                for (int k = 0; k < to.length; k++) {
+                    long ready = arr[v] + Math.round(meters[k] / query.walkMetersPerSecond())
+                            + query.minConnectionSeconds();
+                    if (ready < next[to[k]]) {
+                        next[to[k]] = ready;
+                        walk[to[k]] = v;
+                        any = true;
+                    }
+                }
+            }
+            if (!any) {
+                break;
+            }
+            reached = next;
+            walkedFrom[round] = walk;
+        }
+        return journeys;
+    }
+
+    private static Journey reconstruct(Snapshot snapshot, Query query, int rides, int target,
+            int[][] boardedAt, int[][] walkedFrom) {
+        Leg[] legs = new Leg[rides];
+        int alight = target;
+        for (int round = rides; round >= 1; round--) {
+            int board = boardedAt[round][alight];
+            Trip trip = snapshot.trips[snapshot.nodeTrip[alight]];
+            int walkMeters;
+            int previous = -1;
+            if (round > 1) {
+                previous = walkedFrom[round - 1][board];
+                walkMeters = metersBetween(snapshot, previous, snapshot.nodeLat[board], snapshot.nodeLon[board]);
+            } else {
+                walkMeters = (int) Math.round(GeoDistance.meters(query.originLat(), query.originLon(),
+                        snapshot.nodeLat[board], snapshot.nodeLon[board]));
+            }
+            legs[round - 1] = new Leg(trip, snapshot.nodeStop[board], snapshot.nodeStop[alight], walkMeters);
+            alight = previous;
+        }
+        Leg first = legs[0];
+        Leg last = legs[rides - 1];
+        int walkAfter = (int) Math.round(GeoDistance.meters(snapshot.nodeLat[target], snapshot.nodeLon[target],
+                query.destLat(), query.destLon()));
+        return new Journey(List.of(legs), first.trip().times()[first.fromStop()],
+                last.trip().times()[last.toStop()], walkAfter);
+    }
+
+    private static int metersBetween(Snapshot snapshot, int node, double lat, double lon) {
+        return (int) Math.round(GeoDistance.meters(snapshot.nodeLat[node], snapshot.nodeLon[node], lat, lon));
+    }
+}
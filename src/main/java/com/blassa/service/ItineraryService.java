@@ -0,0 +1,102 @@
+package com.blassa.service;
+
+import com.blassa.dto.ItineraryLegResponse;
+import com.blassa.dto.ItineraryResponse;
+import com.blassa.model.entity.User;
+import com.blassa.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Itinéraires b correspondances (1 walla 2 transfers) 3al rides SCHEDULED: ykhdem 3al timetable
+ * in-memory (RideTimetable), bla requête DB ken l user. Horaires t3 arrêts intermédiaires estimés.
+ */
+@Service
+@RequiredArgsConstructor
+public class ItineraryService {
+
+    public static final int MAX_TRANSFERS = 2;
+    private static final ZoneId TUNIS = ZoneId.of("Africa/Tunis");
+
+    private final RideTimetable rideTimetable;
+    private final UserRepository userRepository;
+
+    @Value("${app.itinerary.walk-radius-m:800}")
+    private double walkRadiusMeters = 800;
+
+    @Value("${app.itinerary.walk-speed-kmh:4.5}")
+    private double walkSpeedKmh = 4.5;
+
+    @Value("${app.itinerary.min-connection-minutes:15}")
+    private int minConnectionMinutes = 15;
+
+    @Value("${app.itinerary.max-journey-hours:24}")
+    private int maxJourneyHours = 24;
+
+    public List<ItineraryResponse> planItineraries(double originLat, double originLon, double destLat,
+            double destLon, OffsetDateTime departureTime, int seats, int maxTransfers, Double radiusKm,
+            String genderFilter) {
+        User currentUser = CurrentUsers.findOrNull(userRepository);
+        OffsetDateTime from = departureTime != null ? departureTime : OffsetDateTime.now();
+        int rides = Math.max(0, Math.min(maxTransfers, MAX_TRANSFERS)) + 1;
+
+        ItineraryPlanner.Query query = new ItineraryPlanner.Query(
+                originLat, originLon, destLat, destLon,
+                from.toEpochSecond(), from.plusHours(maxJourneyHours).toEpochSecond(),
+                Math.max(seats, 1), rides,
+                RideService.pickupRadiusMeters(radiusKm), RideService.DROPOFF_RADIUS_METERS,
+                RideService.allowedPreferences(currentUser, genderFilter),
+                currentUser != null ? currentUser.getId() : null,
+                minConnectionMinutes * 60L, walkSpeedKmh * 1000 / 3600);
+
+        List<ItineraryResponse> result = new ArrayList<>();
+        for (ItineraryPlanner.Journey journey : ItineraryPlanner.plan(rideTimetable.snapshot(), query)) {
+            result.add(toResponse(journey, query.seats()));
+        }
+        return result;
+    }
+
+    private ItineraryResponse toResponse(ItineraryPlanner.Journey journey, int seats) {
+        List<ItineraryLegResponse> legs = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (ItineraryPlanner.Leg leg : journey.legs()) {
+            RideTimetable.Trip trip = leg.trip();
+            BigDecimal price = legPrice(trip, leg.fromStop(), leg.toStop(), seats);
+            total = total.add(price);
+            legs.add(new ItineraryLegResponse(
+                    trip.rideId(),
+                    leg.fromStop(), trip.stopNames()[leg.fromStop()],
+                    leg.toStop(), trip.stopNames()[leg.toStop()],
+                    toTunis(trip.times()[leg.fromStop()]),
+                    toTunis(trip.times()[leg.toStop()]),
+                    price,
+                    leg.walkMetersBefore()));
+        }
+        return new ItineraryResponse(journey.transfers(), toTunis(journey.departure()),
+                toTunis(journey.arrival()), total, journey.walkMetersAfter(), legs);
+    }
+
+    // Nafs l prorata t3 BookingService: prix x blays x (distance segment / distance totale)
+    static BigDecimal legPrice(RideTimetable.Trip trip, int fromStop, int toStop, int seats) {
+        double[] cumulative = trip.cumulativeMeters();
+        double total = cumulative[cumulative.length - 1];
+        double fraction = total > 0 ? (cumulative[toStop] - cumulative[fromStop]) / total : 1.0;
+        return trip.pricePerSeat()
+                .multiply(BigDecimal.valueOf(seats))
+                .multiply(BigDecimal.valueOf(fraction))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static OffsetDateTime toTunis(long epochSeconds) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds), TUNIS);
+    }
+}
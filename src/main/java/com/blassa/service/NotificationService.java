@@ -4,6 +4,8 @@ import com.blassa.dto.NotificationResponse;
 import com.blassa.model.entity.User;
 import com.blassa.model.enums.NotificationType;
 import com.blassa.notification.Notification;
+import com.blassa.observability.DomainMetrics;
+import com.blassa.observability.jfr.NotificationDispatchEvent;
 import com.blassa.repository.NotificationRepository;
 import com.blassa.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +22,7 @@ public class NotificationService {
     private final SimpMessagingTemplate simpMessagingTemplate;
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final DomainMetrics domainMetrics;
 
     public void sendNotification(
             UUID recipientId,
@@ -27,24 +30,45 @@ public class NotificationService {
             String title,
             String message,
             String link) {
-        User recipient = userRepository.findById(recipientId).orElseThrow();
-        Notification notification = Notification.builder()
-                .recipient(recipient)
-                .type(type)
-                .title(title)
-                .message(message)
-                .link(link)
-                .isRead(false)
-                .createdAt(OffsetDateTime.now())
-                .build();
-        Notification saved = notificationRepository.save(notification);
-        NotificationResponse response = mapToResponse(saved);
+        long startNanos = System.nanoTime();
+        NotificationDispatchEvent event = new NotificationDispatchEvent();
+        event.begin();
+        long persistNanos = 0;
+        String outcome = "persist_failed";
+        try {
+            User recipient = userRepository.findById(recipientId).orElseThrow();
+            Notification notification = Notification.builder()
+                    .recipient(recipient)
+                    .type(type)
+                    .title(title)
+                    .message(message)
+                    .link(link)
+                    .isRead(false)
+                    .createdAt(OffsetDateTime.now())
+                    .build();
+            Notification saved = notificationRepository.save(notification);
+            NotificationResponse response = mapToResponse(saved);
+            long pushStartNanos = System.nanoTime();
+            persistNanos = pushStartNanos - startNanos;
+            domainMetrics.recordNotification("persist", persistNanos);
 
-        // Send to user's email - matches the WebSocket principal name
-        simpMessagingTemplate
-                .convertAndSendToUser(recipient.getEmail(),
-                        "/queue/notification",
-                        response);
+            outcome = "push_failed";
+            // Send to user's email - matches the WebSocket principal name
+            simpMessagingTemplate
+                    .convertAndSendToUser(recipient.getEmail(),
+                            "/queue/notification",
+                            response);
+            domainMetrics.recordNotification("push", System.nanoTime() - pushStartNanos);
+            outcome = "sent";
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.notificationType = type.name();
+                event.persistNanos = persistNanos;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
     }
 
     public NotificationResponse mapToResponse(Notification notification) {
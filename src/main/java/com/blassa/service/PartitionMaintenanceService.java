@@ -0,0 +1,64 @@
+package com.blassa.service;
+
+import com.blassa.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Y7adher l partitions mta3 notifications 9bal ma yest7a9houhom, w yfassa5 l 9dom 3la marhaltin:
+ * l notifications elli t9raw yetna77aw ba3d retention-months (DELETE m7doud bel partition pruning),
+ * l partitions kamlin (m3a l unread) ma yet-droppaw ken ba3d unread-retention-months, bch notification
+ * ma t9rach ma todh3ach b sokout.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private final NotificationRepository notificationRepository;
+
+    @Value("${app.partitions.notifications.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    // Notifications elli t9raw
+    @Value("${app.partitions.notifications.retention-months:6}")
+    private int retentionMonths = 6;
+
+    // Partition kamla (7atta unread); dima >= retentionMonths
+    @Value("${app.partitions.notifications.unread-retention-months:24}")
+    private int unreadRetentionMonths = 24;
+
+    @Scheduled(fixedDelayString = "${app.partitions.maintenance-interval-ms:21600000}",
+            initialDelayString = "${app.partitions.maintenance-initial-delay-ms:30000}")
+    @Transactional
+    public void maintainNotificationPartitions() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            notificationRepository.ensurePartition(currentMonth.plusMonths(i));
+        }
+
+        if (retentionMonths > 0) {
+            int purged = notificationRepository.deleteReadBefore(
+                    currentMonth.minusMonths(retentionMonths).atStartOfDay().atOffset(ZoneOffset.UTC));
+            if (purged > 0) {
+                log.info("Deleted {} read notification(s) older than {} months", purged, retentionMonths);
+            }
+        }
+
+        if (unreadRetentionMonths > 0) {
+            int partitionMonths = Math.max(unreadRetentionMonths, retentionMonths);
+            Integer dropped = notificationRepository.dropPartitionsBefore(currentMonth.minusMonths(partitionMonths));
+            if (dropped != null && dropped > 0) {
+                log.info("Dropped {} notification partition(s) older than {} months", dropped, partitionMonths);
+            }
+        }
+    }
+}
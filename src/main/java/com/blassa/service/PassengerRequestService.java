@@ -0,0 +1,338 @@
+package com.blassa.service;
+
+import com.blassa.dto.PassengerRequestAccept;
+import com.blassa.dto.PassengerRequestCreate;
+import com.blassa.dto.PassengerRequestPage;
+import com.blassa.dto.PassengerRequestResponse;
+import com.blassa.dto.RideRequest;
+import com.blassa.dto.RideResponse;
+import com.blassa.model.entity.Booking;
+import com.blassa.model.entity.PassengerRequest;
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.User;
+import com.blassa.model.enums.BookingStatus;
+import com.blassa.model.enums.NotificationType;
+import com.blassa.model.enums.PassengerRequestStatus;
+import com.blassa.repository.BookingRepository;
+import com.blassa.repository.PassengerRequestRepository;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Demandes t3 passagers (côté demande): passenger ynachar, drivers ylawjou 3lihom 9rib mel
+ * origin/destination walla 3al thnia mte3hom (keyset), w driver y7awel demande l ride + booking
+ * CONFIRMED f transaction wa7da. Sweeper yfasakh l demandes elli fetet b batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PassengerRequestService {
+
+    static final int MAX_PAGE_SIZE = 50;
+    // Curseur initial: 9bal ay demande
+    static final OffsetDateTime KEYSET_START = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    static final UUID KEYSET_START_ID = new UUID(0, 0);
+
+    private final PassengerRequestRepository passengerRequestRepository;
+    private final RideRepository rideRepository;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final RideService rideService;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Value("${app.passenger-requests.max-open-per-user:5}")
+    private int maxOpenPerUser = 5;
+
+    @Value("${app.passenger-requests.corridor-m:5000}")
+    private double corridorMeters = 5000;
+
+    @Value("${app.passenger-requests.purge-after-hours:24}")
+    private int purgeAfterHours = 24;
+
+    @Value("${app.passenger-requests.purge-batch-size:500}")
+    private int purgeBatchSize = 500;
+
+    @Transactional
+    public PassengerRequestResponse createRequest(PassengerRequestCreate request) {
+        User passenger = getCurrentUser();
+        if (request.departureTo().isBefore(request.departureFrom())) {
+            throw new IllegalArgumentException("INVALID_WINDOW");
+        }
+        if (passengerRequestRepository.countByPassengerIdAndStatus(passenger.getId(),
+                PassengerRequestStatus.OPEN) >= maxOpenPerUser) {
+            throw new IllegalStateException("TOO_MANY_OPEN_REQUESTS");
+        }
+
+        PassengerRequest entity = new PassengerRequest();
+        entity.setPassenger(passenger);
+        entity.setOriginName(request.originName());
+        entity.setOriginPoint(point(request.originLat(), request.originLon()));
+        entity.setDestinationName(request.destinationName());
+        entity.setDestinationPoint(point(request.destinationLat(), request.destinationLon()));
+        entity.setDepartureFrom(request.departureFrom());
+        entity.setDepartureTo(request.departureTo());
+        entity.setSeats(request.seats() != null ? request.seats() : 1);
+        entity.setMessage(request.message());
+        entity.setStatus(PassengerRequestStatus.OPEN);
+
+        return mapToResponse(passengerRequestRepository.save(entity));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PassengerRequestResponse> getMyRequests() {
+        User passenger = getCurrentUser();
+        return passengerRequestRepository.findByPassengerIdOrderByCreatedAtDesc(passenger.getId()).stream()
+                .map(PassengerRequestService::mapToResponse)
+                .toList();
+    }
+
+    @Transactional
+    public void cancelRequest(UUID id) {
+        User passenger = getCurrentUser();
+        PassengerRequest request = passengerRequestRepository.findByIdForUpdate(id)
+                .filter(r -> r.getPassenger().getId().equals(passenger.getId()))
+                .orElseThrow(() -> new IllegalArgumentException("REQUEST_NOT_FOUND"));
+        if (request.getStatus() != PassengerRequestStatus.OPEN) {
+            throw new IllegalStateException("REQUEST_NOT_OPEN");
+        }
+        request.setStatus(PassengerRequestStatus.CANCELLED);
+        passengerRequestRepository.save(request);
+    }
+
+    /**
+     * Driver: demandes elli l pickup 9rib men origin mte3ou w l dropoff 9rib men destination.
+     */
+    @Transactional(readOnly = true)
+    public PassengerRequestPage browseNear(double originLat, double originLon, double destLat, double destLon,
+            Double radiusKm, OffsetDateTime departureTime, Double timeFlexHours,
+            OffsetDateTime afterDeparture, UUID afterId, int size) {
+        OffsetDateTime[] window = browseWindow(departureTime, timeFlexHours);
+        int limit = clampPageSize(size);
+        List<PassengerRequest> rows = passengerRequestRepository.findOpenNear(
+                point(originLat, originLon), RideService.pickupRadiusMeters(radiusKm),
+                point(destLat, destLon), RideService.DROPOFF_RADIUS_METERS,
+                window[0], window[1],
+                afterDeparture != null ? afterDeparture : KEYSET_START,
+                afterId != null ? afterId : KEYSET_START_ID,
+                limit);
+        return toPage(rows, limit);
+    }
+
+    /**
+     * Driver: demandes 3al thnia (corridor). Ken rideId mawjoud, l route_line t3 l ride w wa9tou;
+     * sinon ligne origin -> destination.
+     */
+    @Transactional(readOnly = true)
+    public PassengerRequestPage browseAlongRoute(UUID rideId, Double originLat, Double originLon,
+            Double destLat, Double destLon, OffsetDateTime departureTime, Double timeFlexHours,
+            OffsetDateTime afterDeparture, UUID afterId, int size) {
+        LineString route;
+        if (rideId != null) {
+            User driver = getCurrentUser();
+            Ride ride = rideRepository.findById(rideId)
+                    .filter(r -> r.getDriver().getId().equals(driver.getId()))
+                    .orElseThrow(() -> new IllegalArgumentException("RIDE_NOT_FOUND"));
+            route = ride.getRouteLine() != null
+                    ? ride.getRouteLine()
+                    : RouteGeometry.build(geometryFactory, ride.getOriginPoint(), null, ride.getDestinationPoint());
+            if (departureTime == null) {
+                departureTime = ride.getDepartureTime();
+            }
+        } else {
+            if (originLat == null || originLon == null || destLat == null || destLon == null) {
+                throw new IllegalArgumentException("ROUTE_REQUIRED");
+            }
+            route = RouteGeometry.build(geometryFactory, point(originLat, originLon), null, point(destLat, destLon));
+        }
+
+        OffsetDateTime[] window = browseWindow(departureTime, timeFlexHours);
+        int limit = clampPageSize(size);
+        List<PassengerRequest> rows = passengerRequestRepository.findOpenAlongRoute(
+                route, corridorMeters, window[0], window[1],
+                afterDeparture != null ? afterDeparture : KEYSET_START,
+                afterId != null ? afterId : KEYSET_START_ID,
+                limit);
+        return toPage(rows, limit);
+    }
+
+    /**
+     * Driver y9bel demande: ride jdid (origin/destination t3 l demande) + booking CONFIRMED lel
+     * passenger, f transaction wa7da. Lock 3al demande => driver wa7ed kahaw yenja7.
+     */
+    @Transactional
+    public RideResponse acceptRequest(UUID requestId, PassengerRequestAccept accept) {
+        User driver = getCurrentUser();
+        PassengerRequest request = passengerRequestRepository.findByIdForUpdate(requestId)
+                .orElseThrow(() -> new IllegalArgumentException("REQUEST_NOT_FOUND"));
+        if (request.getStatus() != PassengerRequestStatus.OPEN) {
+            throw new IllegalStateException("REQUEST_NOT_OPEN");
+        }
+        if (request.getDepartureTo().isBefore(OffsetDateTime.now())) {
+            throw new IllegalStateException("REQUEST_EXPIRED");
+        }
+        if (accept.departureTime().isBefore(request.getDepartureFrom())
+                || accept.departureTime().isAfter(request.getDepartureTo())) {
+            throw new IllegalArgumentException("DEPARTURE_OUTSIDE_WINDOW");
+        }
+        User passenger = request.getPassenger();
+        if (passenger.getId().equals(driver.getId())) {
+            throw new IllegalArgumentException("DRIVER_CANNOT_BOOK");
+        }
+
+        RideResponse created = rideService.createRide(toRideRequest(request, accept));
+        Ride ride = rideRepository.findById(created.id())
+                .orElseThrow(() -> new IllegalStateException("RIDE_NOT_FOUND"));
+
+        // Booking men l origin lel destination: nafs l règles t3 createBooking (genre, blays...)
+        SeatSegmentTree legs = new SeatSegmentTree(BookingService.legSeatsOf(ride));
+        BookingService.validateBookingRules(ride, passenger, legs.min(0, legs.legCount()), request.getSeats(),
+                Optional.empty());
+        legs.add(0, legs.legCount(), -request.getSeats());
+        BookingService.applyLegSeats(ride, legs);
+        rideRepository.save(ride);
+
+        Booking booking = new Booking();
+        booking.setRide(ride);
+        booking.setPassenger(passenger);
+        booking.setSeatsBooked(request.getSeats());
+        booking.setFromStopIndex(0);
+        booking.setToStopIndex(legs.legCount());
+        booking.setPriceTotal(ride.getPricePerSeat().multiply(BigDecimal.valueOf(request.getSeats())));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        bookingRepository.save(booking);
+
+        request.setStatus(PassengerRequestStatus.FULFILLED);
+        request.setRideId(ride.getId());
+        passengerRequestRepository.save(request);
+
+        notificationService.sendNotification(
+                passenger.getId(),
+                NotificationType.BOOKING_ACCEPTED,
+                "Demande acceptée",
+                driver.getFirstName() + " a accepté votre demande " + request.getOriginName() + " → "
+                        + request.getDestinationName(),
+                "/rides/" + ride.getId());
+
+        return rideService.getRideById(ride.getId());
+    }
+
+    // Batch b batch (transaction par batch), bech ma ycheddech locks twal
+    @Scheduled(fixedDelayString = "${app.passenger-requests.sweep-interval-ms:600000}",
+            initialDelayString = "${app.passenger-requests.sweep-initial-delay-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void purgeExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusHours(purgeAfterHours);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int deleted;
+        do {
+            Integer batch = tx.execute(status -> passengerRequestRepository.purgeExpired(cutoff, purgeBatchSize));
+            deleted = batch != null ? batch : 0;
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.info("Purged {} expired passenger requests", total);
+        }
+    }
+
+    static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static PassengerRequestPage toPage(List<PassengerRequest> rows, int limit) {
+        List<PassengerRequestResponse> items = rows.stream().map(PassengerRequestService::mapToResponse).toList();
+        if (rows.size() < limit) {
+            return new PassengerRequestPage(items, null, null);
+        }
+        PassengerRequest last = rows.get(rows.size() - 1);
+        return new PassengerRequestPage(items, last.getDepartureFrom(), last.getId());
+    }
+
+    private static OffsetDateTime[] browseWindow(OffsetDateTime departureTime, Double timeFlexHours) {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime[] window = RideService.searchWindow(departureTime, timeFlexHours, now);
+        if (window[0].isBefore(now)) {
+            window[0] = now;
+        }
+        return window;
+    }
+
+    private static RideRequest toRideRequest(PassengerRequest request, PassengerRequestAccept accept) {
+        return new RideRequest(
+                request.getOriginName(),
+                request.getOriginPoint().getY(),
+                request.getOriginPoint().getX(),
+                request.getDestinationName(),
+                request.getDestinationPoint().getY(),
+                request.getDestinationPoint().getX(),
+                accept.departureTime(),
+                accept.totalSeats(),
+                accept.pricePerSeat(),
+                accept.allowsSmoking(),
+                accept.allowsMusic(),
+                accept.allowsPets(),
+                accept.luggageSize(),
+                accept.genderPreference(),
+                accept.vehicleId(),
+                accept.waypoints(),
+                accept.stops());
+    }
+
+    private Point point(double lat, double lon) {
+        return geometryFactory.createPoint(new Coordinate(lon, lat));
+    }
+
+    private static PassengerRequestResponse mapToResponse(PassengerRequest request) {
+        User passenger = request.getPassenger();
+        return new PassengerRequestResponse(
+                request.getId(),
+                passenger.getId(),
+                passenger.getFirstName() + " " + passenger.getLastName(),
+                passenger.getProfilePictureUrl(),
+                request.getOriginName(),
+                request.getOriginPoint().getY(),
+                request.getOriginPoint().getX(),
+                request.getDestinationName(),
+                request.getDestinationPoint().getY(),
+                request.getDestinationPoint().getX(),
+                request.getDepartureFrom(),
+                request.getDepartureTo(),
+                request.getSeats(),
+                request.getMessage(),
+                request.getStatus(),
+                request.getRideId());
+    }
+
+    private User getCurrentUser() {
+        String email = ((UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .getUsername();
+        return userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException(email));
+    }
+}
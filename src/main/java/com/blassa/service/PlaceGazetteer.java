@@ -0,0 +1,127 @@
+package com.blassa.service;
+
+import com.blassa.dto.PlaceResponse;
+import com.blassa.dto.PlaceReverseResponse;
+import com.blassa.model.enums.PlaceType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gazetteer t3 l gouvernorats w délégations (places/tunisia-places.csv), yetcharga mara wa7da f startup.
+ * Autocomplete b PlaceTrie (kol kelma mel esm, bla accents/majuscules), reverse b PlaceKdTree:
+ * l zouz in-memory, bla DB. L gouvernorats yet9addmou 3al délégations f l résultats.
+ */
+@Service
+@Slf4j
+public class PlaceGazetteer {
+
+    static final String RESOURCE = "/places/tunisia-places.csv";
+    static final int MAX_SUGGESTIONS = 10;
+    // Centre ta9riban t3 Tounes, lel projection plane t3 l k-d tree
+    private static final double REFERENCE_LAT = 34.0;
+
+    private final List<PlaceResponse> places;
+    private final PlaceTrie trie;
+    private final PlaceKdTree kdTree;
+
+    public PlaceGazetteer() {
+        this(loadResource());
+    }
+
+    PlaceGazetteer(List<PlaceResponse> source) {
+        List<PlaceResponse> ranked = new ArrayList<>(source);
+        ranked.sort(Comparator.comparing(PlaceResponse::type).thenComparing(PlaceResponse::name));
+        this.places = List.copyOf(ranked);
+
+        this.trie = new PlaceTrie(MAX_SUGGESTIONS);
+        double[] lats = new double[places.size()];
+        double[] lons = new double[places.size()];
+        for (int id = 0; id < places.size(); id++) {
+            PlaceResponse place = places.get(id);
+            String name = place.name();
+            trie.insert(name, id);
+            // Kol kelma (ba3d espace walla tiret) tebda prefix: "bou" y9a3ed "Sidi Bou Zid"
+            for (int i = 1; i < name.length(); i++) {
+                if (PlaceTrie.fold(name.charAt(i - 1)) == ' ' && PlaceTrie.fold(name.charAt(i)) != ' ') {
+                    trie.insert(name.substring(i), id);
+                }
+            }
+            lats[id] = place.lat();
+            lons[id] = place.lon();
+        }
+        this.kdTree = new PlaceKdTree(lats, lons, REFERENCE_LAT);
+        log.info("Place gazetteer loaded: {} places, {} trie nodes", places.size(), trie.nodeCount());
+    }
+
+    public List<PlaceResponse> autocomplete(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit != null ? limit : MAX_SUGGESTIONS, MAX_SUGGESTIONS));
+        int[] ids = trie.lookup(query, max);
+        List<PlaceResponse> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(places.get(id));
+        }
+        return result;
+    }
+
+    public PlaceReverseResponse reverse(double lat, double lon, Double maxDistanceKm) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("INVALID_COORDINATES");
+        }
+        int id = kdTree.nearest(lat, lon);
+        if (id < 0) {
+            throw new RuntimeException("Place not found");
+        }
+        PlaceResponse place = places.get(id);
+        double meters = GeoDistance.meters(lat, lon, place.lat(), place.lon());
+        if (maxDistanceKm != null && meters > maxDistanceKm * 1000) {
+            throw new RuntimeException("Place not found");
+        }
+        return new PlaceReverseResponse(place, (int) Math.round(meters));
+    }
+
+    List<PlaceResponse> allPlaces() {
+        return places;
+    }
+
+    static List<PlaceResponse> parse(BufferedReader reader) throws IOException {
+        List<PlaceResponse> result = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] cols = line.split(",");
+            if (cols.length != 6) {
+                throw new IllegalStateException("INVALID_PLACE_ROW: " + line);
+            }
+            result.add(new PlaceResponse(cols[0], cols[1], PlaceType.valueOf(cols[2]), cols[3],
+                    Double.parseDouble(cols[4]), Double.parseDouble(cols[5])));
+        }
+        return result;
+    }
+
+    private static List<PlaceResponse> loadResource() {
+        try (InputStream in = PlaceGazetteer.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("PLACES_RESOURCE_MISSING");
+            }
+            return parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
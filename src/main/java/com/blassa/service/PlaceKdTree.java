@@ -0,0 +1,81 @@
+package com.blassa.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * K-d tree statique (2D) 3la array: l noeud t3 [lo, hi) howa l médiane, axe yetbaddel b profondeur.
+ * Coordonnées planes (lon * cos(lat ref), lat) => distance euclidienne ~ distance réelle 3la Tounes,
+ * l distance finale b haversine.
+ */
+final class PlaceKdTree {
+
+    private final int[] ids;
+    private final double[] xs;
+    private final double[] ys;
+    private final double cosRef;
+
+    PlaceKdTree(double[] lats, double[] lons, double referenceLat) {
+        this.cosRef = Math.cos(Math.toRadians(referenceLat));
+        int n = lats.length;
+        Integer[] order = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+        double[] px = new double[n];
+        double[] py = new double[n];
+        for (int i = 0; i < n; i++) {
+            px[i] = lons[i] * cosRef;
+            py[i] = lats[i];
+        }
+        build(order, px, py, 0, n, 0);
+        this.ids = new int[n];
+        this.xs = new double[n];
+        this.ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = order[i];
+            xs[i] = px[order[i]];
+            ys[i] = py[order[i]];
+        }
+    }
+
+    /** Id t3 l place l a9rab, walla -1 kene l arbre fergh. */
+    int nearest(double lat, double lon) {
+        if (ids.length == 0) {
+            return -1;
+        }
+        double[] best = { Double.MAX_VALUE };
+        int[] bestIndex = { -1 };
+        search(lon * cosRef, lat, 0, ids.length, 0, best, bestIndex);
+        return ids[bestIndex[0]];
+    }
+
+    private void search(double x, double y, int lo, int hi, int depth, double[] best, int[] bestIndex) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        double d2 = dx * dx + dy * dy;
+        if (d2 < best[0]) {
+            best[0] = d2;
+            bestIndex[0] = mid;
+        }
+        double diff = (depth & 1) == 0 ? x - xs[mid] : y - ys[mid];
+        boolean leftFirst = diff < 0;
+        search(x, y, leftFirst ? lo : mid + 1, leftFirst ? mid : hi, depth + 1, best, bestIndex);
+        if (diff * diff < best[0]) {
+            search(x, y, leftFirst ? mid + 1 : lo, leftFirst ? hi : mid, depth + 1, best, bestIndex);
+        }
+    }
+
+    private static void build(Integer[] order, double[] px, double[] py, int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        double[] axis = (depth & 1) == 0 ? px : py;
+        Arrays.sort(order, lo, hi, Comparator.comparingDouble(i -> axis[i]));
+        int mid = (lo + hi) >>> 1;
+        build(order, px, py, lo, mid, depth + 1);
+        build(order, px, py, mid + 1, hi, depth + 1);
+    }
+}
@@ -0,0 +1,151 @@
+package com.blassa.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Trie compact (arrays, first-child/next-sibling) lel autocomplete t3 l blayes. Kol noeud ykhabbi
+ * l top-K places (ordre d'insertion = ordre de rang) => lookup = mchi 3al prefix + copie K ids, bla
+ * parcours t3 l sous-arbre. Query ma tetnormalizach f String: kol char yet9ass (fold) w7dou.
+ */
+final class PlaceTrie {
+
+    private static final int ROOT = 0;
+
+    private final int topK;
+    private char[] labels = new char[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private int[][] top = new int[64][];
+    private int[] topSize = new int[64];
+    private int size = 1;
+
+    PlaceTrie(int topK) {
+        this.topK = topK;
+        firstChild[ROOT] = -1;
+        nextSibling[ROOT] = -1;
+        top[ROOT] = new int[topK];
+    }
+
+    /** L places lazem yetzadou b ordre de rang (l a7sen 9bal). */
+    void insert(String key, int placeId) {
+        int node = ROOT;
+        boolean lastWasSpace = true;
+        for (int i = 0; i < key.length(); i++) {
+            char c = fold(key.charAt(i));
+            if (c == 0 || (c == ' ' && lastWasSpace)) {
+                continue;
+            }
+            lastWasSpace = c == ' ';
+            node = childOrCreate(node, c);
+            addTop(node, placeId);
+        }
+    }
+
+    /** Ids t3 l places elli 3andhom kelma tebda b prefix, max limit, b ordre de rang. */
+    int[] lookup(CharSequence prefix, int limit) {
+        int node = ROOT;
+        boolean lastWasSpace = true;
+        boolean any = false;
+        for (int i = 0; i < prefix.length() && node >= 0; i++) {
+            char c = fold(prefix.charAt(i));
+            if (c == 0 || (c == ' ' && lastWasSpace)) {
+                continue;
+            }
+            lastWasSpace = c == ' ';
+            node = child(node, c);
+            any = true;
+        }
+        if (node < 0 || !any) {
+            return new int[0];
+        }
+        return Arrays.copyOf(top[node], Math.min(topSize[node], limit));
+    }
+
+    int nodeCount() {
+        return size;
+    }
+
+    /**
+     * Minuscule ASCII bla accents: lettres w chiffres yet3adaw, séparateurs (espace, -, ', .) => ' ',
+     * l ba9i => 0 (yetna77a). Accents latins courants b table, l rares b Normalizer.
+     */
+    static char fold(char c) {
+        if (c >= 'a' && c <= 'z' || c >= '0' && c <= '9') {
+            return c;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        if (c == ' ' || c == '-' || c == '\'' || c == '.' || c == '_' || c == '’') {
+            return ' ';
+        }
+        if (c < 0x80) {
+            return 0;
+        }
+        switch (c) {
+            case 'à', 'â', 'ä', 'á', 'À', 'Â', 'Ä', 'Á':
+                return 'a';
+            case 'é', 'è', 'ê', 'ë', 'É', 'È', 'Ê', 'Ë':
+                return 'e';
+            case 'î', 'ï', 'í', 'Î', 'Ï', 'Í':
+                return 'i';
+            case 'ô', 'ö', 'ó', 'Ô', 'Ö', 'Ó':
+                return 'o';
+            case 'ù', 'û', 'ü', 'ú', 'Ù', 'Û', 'Ü', 'Ú':
+                return 'u';
+            case 'ç', 'Ç':
+                return 'c';
+            default:
+                String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                char base = decomposed.charAt(0);
+                return base < 0x80 ? fold(base) : 0;
+        }
+    }
+
+    private int child(int node, char c) {
+        for (int n = firstChild[node]; n >= 0; n = nextSibling[n]) {
+            if (labels[n] == c) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    private int childOrCreate(int node, char c) {
+        int existing = child(node, c);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == labels.length) {
+            int capacity = size * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            top = Arrays.copyOf(top, capacity);
+            topSize = Arrays.copyOf(topSize, capacity);
+        }
+        int created = size++;
+        labels[created] = c;
+        firstChild[created] = -1;
+        nextSibling[created] = firstChild[node];
+        firstChild[node] = created;
+        top[created] = new int[topK];
+        return created;
+    }
+
+    private void addTop(int node, int placeId) {
+        int count = topSize[node];
+        if (count == topK) {
+            return;
+        }
+        // Nafs l place b akther men kelma (ex. "sidi bou zid" w "bou zid"): marra wa7da
+        for (int i = 0; i < count; i++) {
+            if (top[node][i] == placeId) {
+                return;
+            }
+        }
+        top[node][count] = placeId;
+        topSize[node] = count + 1;
+    }
+}
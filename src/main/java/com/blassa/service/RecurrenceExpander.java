@@ -0,0 +1,85 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.RideTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Yfassa5 RideTemplate l instances fi fenêtre [from, to] (bla DB).
+ * L heure locale tetfassar fel zone t3 l template kol nhar, donc 07:30 tab9a 07:30 ba3d DST.
+ * DST gap (heure ma temchich): ZonedDateTime.of yzid l décalage (02:30 -> 03:30).
+ * DST overlap (heure mkarra): l offset l awwel (9bal l recul).
+ */
+final class RecurrenceExpander {
+
+    record Occurrence(LocalDate date, OffsetDateTime departureTime) {
+    }
+
+    private RecurrenceExpander() {
+    }
+
+    static List<Occurrence> expand(RideTemplate template, OffsetDateTime from, OffsetDateTime to) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return occurrences;
+        }
+        ZoneId zone = ZoneId.of(template.getZoneId());
+        Set<LocalDate> exceptions = template.getExceptionDates() != null
+                ? new HashSet<>(List.of(template.getExceptionDates()))
+                : Set.of();
+
+        // Nhar 9bal w nhar ba3d: l fenêtre b offset ykhalef l zone t3 l template
+        LocalDate day = from.atZoneSameInstant(zone).toLocalDate().minusDays(1);
+        LocalDate last = to.atZoneSameInstant(zone).toLocalDate().plusDays(1);
+        if (day.isBefore(template.getValidFrom())) {
+            day = template.getValidFrom();
+        }
+        if (template.getValidUntil() != null && last.isAfter(template.getValidUntil())) {
+            last = template.getValidUntil();
+        }
+
+        for (; !day.isAfter(last); day = day.plusDays(1)) {
+            if (!runsOn(template.getDaysOfWeek(), day.getDayOfWeek()) || exceptions.contains(day)) {
+                continue;
+            }
+            OffsetDateTime departure = ZonedDateTime.of(day, template.getDepartureLocalTime(), zone)
+                    .toOffsetDateTime();
+            if (!departure.isBefore(from) && !departure.isAfter(to)) {
+                occurrences.add(new Occurrence(day, departure));
+            }
+        }
+        return occurrences;
+    }
+
+    static boolean runsOn(int daysOfWeekMask, DayOfWeek day) {
+        return (daysOfWeekMask & (1 << (day.getValue() - 1))) != 0;
+    }
+
+    static int toMask(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    static Set<DayOfWeek> fromMask(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (runsOn(mask, day)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+}
@@ -0,0 +1,139 @@
+package com.blassa.service;
+
+import com.blassa.dto.RideCalendarDayResponse;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calendrier t3 date picker: kol jour f N jours ljeyin, 9addech men ride réservable lel route w a9al prix,
+ * f requête groupée wa7da (bla searchRides jour b jour). Nafs l matching t3 search: corridor ken enRoute
+ * (default kif l endpoint search), sinon arrêts, w l templates récurrents yetmatérialisaw 9bal (horizon
+ * t3 RideTemplateService). Fer9 wa7ed: points ta9rib 0.01° w cache 9sir kif ExploreService.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RideCalendarService {
+
+    private static final ZoneId TUNIS = ZoneId.of("Africa/Tunis");
+
+    private final RideRepository rideRepository;
+    private final UserRepository userRepository;
+    private final RideTemplateService rideTemplateService;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    @Value("${app.calendar.default-days:30}")
+    private int defaultDays = 30;
+
+    @Value("${app.calendar.max-days:90}")
+    private int maxDays = 90;
+
+    @Value("${app.calendar.ttl-seconds:60}")
+    private int ttlSeconds = 60;
+
+    @Value("${app.calendar.max-entries:2000}")
+    private int maxEntries = 2000;
+
+    private record CacheKey(long originLatCell, long originLonCell, long destLatCell, long destLonCell,
+            long startMinute, int days, int seats, double radiusMeters, boolean enRoute, List<String> preferences) {
+    }
+
+    private final TtlCache<CacheKey, List<RideCalendarDayResponse>> cache = new TtlCache<>();
+
+    // Bla transaction englobante kif searchRides: l materialisation tekteb fi transaction wa7dha
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<RideCalendarDayResponse> getCalendar(double originLat, double originLon, double destLat,
+            double destLon, Integer days, Integer seats, Double radiusKm, boolean enRoute, String genderFilter) {
+        int dayCount = days != null ? days : defaultDays;
+        if (dayCount < 1 || dayCount > maxDays) {
+            throw new IllegalArgumentException("INVALID_CALENDAR_DAYS");
+        }
+        OffsetDateTime start = OffsetDateTime.now(TUNIS).truncatedTo(ChronoUnit.MINUTES);
+        LocalDate today = start.toLocalDate();
+        // Lel a5er t3 e5er jour (exclusif)
+        OffsetDateTime end = today.plusDays(dayCount).atStartOfDay(TUNIS).toOffsetDateTime();
+
+        List<String> allowedPreferences = RideService.allowedPreferences(CurrentUsers.findOrNull(userRepository),
+                genderFilter);
+        int requiredSeats = Math.max(seats != null ? seats : 1, 1);
+        double pickupRadius = RideService.pickupRadiusMeters(radiusKm);
+        long originLatCell = Math.round(originLat / ExploreService.ORIGIN_ROUNDING_DEGREES);
+        long originLonCell = Math.round(originLon / ExploreService.ORIGIN_ROUNDING_DEGREES);
+        long destLatCell = Math.round(destLat / ExploreService.ORIGIN_ROUNDING_DEGREES);
+        long destLonCell = Math.round(destLon / ExploreService.ORIGIN_ROUNDING_DEGREES);
+
+        CacheKey key = new CacheKey(originLatCell, originLonCell, destLatCell, destLonCell,
+                start.toEpochSecond() / 60, dayCount, requiredSeats, pickupRadius, enRoute, allowedPreferences);
+        List<RideCalendarDayResponse> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Point origin = cellPoint(originLatCell, originLonCell);
+        Point destination = cellPoint(destLatCell, destLonCell);
+        OffsetDateTime last = end.minusNanos(1000);
+        try {
+            rideTemplateService.materialiseForSearch(origin, pickupRadius, destination,
+                    RideService.DROPOFF_RADIUS_METERS, start, last, false, requiredSeats);
+        } catch (RuntimeException e) {
+            // Kif searchRides: l calendrier yekhdem b rides mawjoudin
+            log.warn("Recurring ride materialisation failed: {}", e.getMessage());
+        }
+        List<Object[]> rows = enRoute
+                ? rideRepository.countRidesPerDayAlongRoute(origin, pickupRadius, destination,
+                        RideService.DROPOFF_RADIUS_METERS, start, last, requiredSeats, allowedPreferences)
+                : rideRepository.countRidesPerDay(origin, pickupRadius, destination,
+                        RideService.DROPOFF_RADIUS_METERS, start, last, requiredSeats, allowedPreferences);
+        List<RideCalendarDayResponse> data = fillDays(today, dayCount, rows);
+        cache.put(key, data, ttlSeconds, maxEntries);
+        return data;
+    }
+
+    // Jour par jour (ken l jours elli fihom rides yerja3ou mel SQL), l ba9i b 0 w minPrice null
+    static List<RideCalendarDayResponse> fillDays(LocalDate firstDay, int days, List<Object[]> rows) {
+        Map<LocalDate, Object[]> byDay = new HashMap<>();
+        for (Object[] row : rows) {
+            LocalDate day = row[0] instanceof Date date ? date.toLocalDate() : (LocalDate) row[0];
+            byDay.put(day, row);
+        }
+        List<RideCalendarDayResponse> result = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            LocalDate day = firstDay.plusDays(i);
+            Object[] row = byDay.get(day);
+            if (row == null) {
+                result.add(new RideCalendarDayResponse(day, 0, null));
+            } else {
+                BigDecimal minPrice = row[2] instanceof BigDecimal price ? price : new BigDecimal(row[2].toString());
+                result.add(new RideCalendarDayResponse(day, ((Number) row[1]).longValue(), minPrice));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private Point cellPoint(long latCell, long lonCell) {
+        return geometryFactory.createPoint(new Coordinate(lonCell * ExploreService.ORIGIN_ROUNDING_DEGREES,
+                latCell * ExploreService.ORIGIN_ROUNDING_DEGREES));
+    }
+}
@@ -2,20 +2,28 @@ package com.blassa.service;
 
 import com.blassa.dto.RideRequest;
 import com.blassa.dto.RideResponse;
+import com.blassa.dto.RideStopRequest;
+import com.blassa.dto.RideStopResponse;
+import com.blassa.dto.RouteWaypoint;
 import com.blassa.dto.RideStatusResponse;
 import com.blassa.dto.RideUpdateStatusRequest;
 import com.blassa.model.entity.Booking;
 import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.RideStop;
 import com.blassa.model.entity.User;
 import com.blassa.model.enums.*;
+import com.blassa.observability.DomainMetrics;
+import com.blassa.observability.jfr.RideSearchEvent;
 import com.blassa.repository.BookingRepository;
 import com.blassa.repository.RideRepository;
 import com.blassa.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,17 +32,24 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
 import static com.blassa.model.enums.BookingStatus.CONFIRMED;
+import static com.blassa.model.enums.BookingStatus.PENDING;
 import static com.blassa.model.enums.RideStatus.COMPLETED;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional(readOnly = true)
 public class RideService {
 
@@ -42,12 +57,38 @@ public class RideService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final NotificationService notificationService;
+    private final SavedSearchService savedSearchService;
+    private final RideTileService rideTileService;
     private final EmailService emailService;
+    private final DomainMetrics domainMetrics;
+    private final RideTemplateService rideTemplateService;
+    private final PlatformTransactionManager transactionManager;
 
     private final com.blassa.service.VehicleService vehicleService;
 
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
+    static final double DEFAULT_TIME_FLEX_HOURS = 2.0;
+    static final double MAX_TIME_FLEX_HOURS = 12.0;
+    static final double DEFAULT_PICKUP_RADIUS_METERS = 3000.0;
+    static final double DROPOFF_RADIUS_METERS = 5000.0;
+
+    // Poids t3 sortBy=relevance (distance normalisée 3al radius, wa9t 3al fenêtre, rating 3la 5)
+    @Value("${app.search.relevance.pickup-weight:1.0}")
+    private double relevancePickupWeight = 1.0;
+
+    @Value("${app.search.relevance.dropoff-weight:1.0}")
+    private double relevanceDropoffWeight = 1.0;
+
+    @Value("${app.search.relevance.time-weight:1.0}")
+    private double relevanceTimeWeight = 1.0;
+
+    @Value("${app.search.relevance.rating-weight:0.0}")
+    private double relevanceRatingWeight = 0.0;
+
+    @Value("${app.search.relevance.candidate-limit:200}")
+    private int relevanceCandidateLimit = 200;
+
     @Transactional
     public RideResponse createRide(RideRequest rideRequest) {
         User driver = getCurrentUser();
@@ -75,7 +116,7 @@ public class RideService {
         ride.setDestinationPoint(destination);
         ride.setDepartureTime(rideRequest.departureTime());
         ride.setTotalSeats(rideRequest.totalSeats());
-        ride.setAvailableSeats(rideRequest.totalSeats());
+        applyStops(ride, rideRequest, origin, destination);
         ride.setPricePerSeat(rideRequest.pricePerSeat());
         ride.setAllowsSmoking(rideRequest.allowsSmoking());
         ride.setAllowsMusic(rideRequest.allowsMusic());
@@ -84,6 +125,7 @@ public class RideService {
         ride.setGenderPreference(rideRequest.genderPreference());
         ride.setStatus(RideStatus.SCHEDULED);
         Ride saved = rideRepository.save(ride);
+        savedSearchService.onRideSaved(saved.getId());
         return mapToResponse(saved);
     }
 
@@ -93,7 +135,7 @@ public class RideService {
         String carColor = ride.getVehicle() != null ? ride.getVehicle().getColor() : null;
 
         String carLicensePlate = null;
-        User currentUser = getCurrentUserOrNull();
+        User currentUser = CurrentUsers.findOrNull(userRepository);
 
         // plate tetchef ken l driver
         if (currentUser != null && ride.getDriver().getId().equals(currentUser.getId())) {
@@ -129,12 +171,65 @@ public class RideService {
                 carMake,
                 carModel,
                 carColor,
-                carLicensePlate);
+                carLicensePlate,
+                stopsOf(ride));
+    }
+
+    // Ride bla arrêts intermédiaires (leg wa7ed): ma nlodiwch l collection
+    private List<RideStopResponse> stopsOf(Ride ride) {
+        int[] legs = ride.getLegSeats();
+        if (legs == null || legs.length <= 1 || ride.getStops() == null) {
+            return List.of();
+        }
+        List<RideStopResponse> stops = new ArrayList<>(ride.getStops().size());
+        for (RideStop stop : ride.getStops()) {
+            int index = stop.getStopIndex();
+            stops.add(new RideStopResponse(index, stop.getName(), stop.getPoint().getY(), stop.getPoint().getX(),
+                    index < legs.length ? legs[index] : null));
+        }
+        return stops;
+    }
+
+    /**
+     * Yebni l arrêts (origin, intermédiaires, destination), legSeats (kol leg = totalSeats)
+     * w route_line (t3addi bel arrêts ken ma famech waypoints).
+     */
+    private void applyStops(Ride ride, RideRequest request, Point origin, Point destination) {
+        List<RideStopRequest> intermediate = request.stops() != null ? request.stops() : List.of();
+
+        ride.getStops().clear();
+        ride.getStops().add(newStop(ride, 0, request.originName(), origin));
+        for (RideStopRequest stop : intermediate) {
+            Point point = geometryFactory.createPoint(new Coordinate(stop.lon(), stop.lat()));
+            ride.getStops().add(newStop(ride, ride.getStops().size(), stop.name(), point));
+        }
+        ride.getStops().add(newStop(ride, ride.getStops().size(), request.destinationName(), destination));
+
+        int[] legSeats = new int[ride.getStops().size() - 1];
+        Arrays.fill(legSeats, request.totalSeats());
+        ride.setLegSeats(legSeats);
+        ride.setAvailableSeats(request.totalSeats());
+
+        List<RouteWaypoint> waypoints = request.waypoints();
+        if (waypoints == null && !intermediate.isEmpty()) {
+            waypoints = intermediate.stream().map(s -> new RouteWaypoint(s.lat(), s.lon())).toList();
+        }
+        ride.setRouteLine(RouteGeometry.build(geometryFactory, origin, waypoints, destination));
+    }
+
+    private RideStop newStop(Ride ride, int index, String name, Point point) {
+        RideStop stop = new RideStop();
+        stop.setRide(ride);
+        stop.setStopIndex(index);
+        stop.setName(name);
+        stop.setPoint(point);
+        return stop;
     }
 
     /**
      * Endpoint search publique - yemchi lel authenticated u l anonymous users
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<RideResponse> searchRides(
             Double originLat, Double originLon,
             Double destLat, Double destLon,
@@ -145,47 +240,132 @@ public class RideService {
             int page,
             int size,
             String sortBy) {
-        List<String> allowedPreferences;
+        return searchRides(originLat, originLon, destLat, destLon, departureTime, null, false,
+                seats, genderFilter, radiusKm, page, size, sortBy);
+    }
 
-        User currentUser = getCurrentUserOrNull();
-        if (currentUser != null) {
-            // Authenticated: Filtri b genre t3 user
-            allowedPreferences = (currentUser.getGender() ==Gender.MALE)
-                    ? List.of("ANY", "MALE_ONLY")
-                    : List.of("ANY", "FEMALE_ONLY");
-        } else if (genderFilter != null && !genderFilter.isEmpty() && !genderFilter.equals("ANY")) {
-            // Anonymous ma3 gender filter: Warri ANY + rides spécifiques lel genre
-            if (genderFilter.equals("FEMALE_ONLY")) {
-                allowedPreferences = List.of("ANY", "FEMALE_ONLY");
-            } else if (genderFilter.equals("MALE_ONLY")) {
-                allowedPreferences = List.of("ANY", "MALE_ONLY");
-            } else {
-                allowedPreferences = List.of("ANY", "MALE_ONLY", "FEMALE_ONLY");
-            }
-        } else {
-            allowedPreferences = List.of("ANY", "MALE_ONLY", "FEMALE_ONLY");
+    /**
+     * Kif searchRides, ama l fenêtre mta3 l wa9t flexible: departureTime ± timeFlexHours
+     * (clampée bin 0 w MAX_TIME_FLEX_HOURS, null => ±2h kif 9bal).
+     * enRoute=true: matching 3al corridor (route_line) mouch ken 3al origin/destination.
+     * <p>
+     * Bla transaction englobante: l rides récurrents yetmatérialisaw l awwel fi transaction
+     * write wa7dha (RideTemplateService), ba3d l lecture fi transaction readOnly.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<RideResponse> searchRides(
+            Double originLat, Double originLon,
+            Double destLat, Double destLon,
+            OffsetDateTime departureTime,
+            Double timeFlexHours,
+            boolean enRoute,
+            Integer seats,
+            String genderFilter,
+            Double radiusKm,
+            int page,
+            int size,
+            String sortBy) {
+        OffsetDateTime[] window = searchWindow(departureTime, timeFlexHours, OffsetDateTime.now());
+        try {
+            rideTemplateService.materialiseForSearch(
+                    geometryFactory.createPoint(new Coordinate(originLon, originLat)), pickupRadiusMeters(radiusKm),
+                    geometryFactory.createPoint(new Coordinate(destLon, destLat)), DROPOFF_RADIUS_METERS,
+                    window[0], window[1], departureTime == null, seats);
+        } catch (RuntimeException e) {
+            // Search tekhdem b rides mawjoudin, l instances yetsen3ou fel search l jeya
+            log.warn("Recurring ride materialisation failed: {}", e.getMessage());
         }
 
+        return searchMaterialisedRides(originLat, originLon, destLat, destLon, departureTime, timeFlexHours,
+                enRoute, seats, genderFilter, radiusKm, page, size, sortBy);
+    }
+
+    /**
+     * Search 3al rides elli mawjoudin deja (bla materialisation t3 l templates), read-only kamel.
+     * Lel warm-up w ay appel elli ma lazmouch yekteb f rides/ride_stops.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<RideResponse> searchMaterialisedRides(
+            Double originLat, Double originLon,
+            Double destLat, Double destLon,
+            OffsetDateTime departureTime,
+            Double timeFlexHours,
+            boolean enRoute,
+            Integer seats,
+            String genderFilter,
+            Double radiusKm,
+            int page,
+            int size,
+            String sortBy) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> doSearchRides(originLat, originLon, destLat, destLon, departureTime,
+                timeFlexHours, enRoute, seats, genderFilter, radiusKm, page, size, sortBy));
+    }
+
+    private Page<RideResponse> doSearchRides(
+            Double originLat, Double originLon,
+            Double destLat, Double destLon,
+            OffsetDateTime departureTime,
+            Double timeFlexHours,
+            boolean enRoute,
+            Integer seats,
+            String genderFilter,
+            Double radiusKm,
+            int page,
+            int size,
+            String sortBy) {
+        long startNanos = System.nanoTime();
+        RideSearchEvent searchEvent = new RideSearchEvent();
+        searchEvent.begin();
+        List<String> allowedPreferences = allowedPreferences(CurrentUsers.findOrNull(userRepository), genderFilter);
+
         Point origin = geometryFactory.createPoint(new Coordinate(originLon, originLat));
         Point destination = geometryFactory.createPoint(new Coordinate(destLon, destLat));
-        OffsetDateTime start;
-        OffsetDateTime end;
+        OffsetDateTime[] window = searchWindow(departureTime, timeFlexHours, OffsetDateTime.now());
+        OffsetDateTime start = window[0];
+        OffsetDateTime end = window[1];
+        long flexSeconds = Math.round(clampTimeFlexHours(timeFlexHours) * 3600);
 
-        if (departureTime != null) {
-            start = departureTime.minusHours(2);
-            end = departureTime.plusHours(2);
-        } else {
-            start = OffsetDateTime.now();
-            end = OffsetDateTime.now().plusYears(1);
-        }
-
-        double pickupRadiusMeters = (radiusKm != null) ? radiusKm * 1000 : 3000.0;
-        double dropoffRadiusMeters = 5000.0;
+        double pickupRadiusMeters = pickupRadiusMeters(radiusKm);
+        double dropoffRadiusMeters = DROPOFF_RADIUS_METERS;
         // hedhy pagination w filter
         Sort sort;
         if (sortBy == null)
             sortBy = "time_asc";
 
+        if (sortBy.equals("relevance")) {
+            // L ordre yji mel SQL (score), PageRequest bla Sort
+            OffsetDateTime target = (departureTime != null) ? departureTime : start;
+            double windowSeconds = (departureTime != null)
+                    ? Math.max(flexSeconds, 1)
+                    : java.time.Duration.between(start, end).toSeconds();
+            Page<Ride> ridePage = enRoute
+                    ? rideRepository.searchRidesByRelevanceAlongRoute(
+                            origin, pickupRadiusMeters,
+                            destination, dropoffRadiusMeters,
+                            start, end,
+                            target, windowSeconds,
+                            seats,
+                            allowedPreferences,
+                            relevancePickupWeight, relevanceDropoffWeight,
+                            relevanceTimeWeight, relevanceRatingWeight,
+                            relevanceCandidateLimit,
+                            PageRequest.of(page, size))
+                    : rideRepository.searchRidesByRelevance(
+                            origin, pickupRadiusMeters,
+                            destination, dropoffRadiusMeters,
+                            start, end,
+                            target, windowSeconds,
+                            seats,
+                            allowedPreferences,
+                            relevancePickupWeight, relevanceDropoffWeight,
+                            relevanceTimeWeight, relevanceRatingWeight,
+                            relevanceCandidateLimit,
+                            PageRequest.of(page, size));
+            return finishSearch(ridePage, pickupRadiusMeters, page, sortBy, startNanos, searchEvent);
+        }
+
         switch (sortBy) {
             case "price_asc":
                 sort = Sort.by("price_per_seat").ascending();
@@ -204,31 +384,77 @@ public class RideService {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Ride> ridePage = rideRepository.searchRides(
-                origin, pickupRadiusMeters,
-                destination, dropoffRadiusMeters,
-                start, end,
-                seats,
-                allowedPreferences,
-                pageable);
+        Page<Ride> ridePage = enRoute
+                ? rideRepository.searchRidesAlongRoute(
+                        origin, pickupRadiusMeters,
+                        destination, dropoffRadiusMeters,
+                        start, end,
+                        seats,
+                        allowedPreferences,
+                        pageable)
+                : rideRepository.searchRides(
+                        origin, pickupRadiusMeters,
+                        destination, dropoffRadiusMeters,
+                        start, end,
+                        seats,
+                        allowedPreferences,
+                        pageable);
+
+        return finishSearch(ridePage, pickupRadiusMeters, page, sortBy, startNanos, searchEvent);
+    }
 
-        return ridePage.map(this::mapToResponse);
+    private Page<RideResponse> finishSearch(Page<Ride> ridePage, double pickupRadiusMeters, int page,
+            String sortBy, long startNanos, RideSearchEvent searchEvent) {
+        Page<RideResponse> result = ridePage.map(this::mapToResponse);
+        domainMetrics.recordSearch(pickupRadiusMeters / 1000, ridePage.getTotalElements(),
+                System.nanoTime() - startNanos);
+        searchEvent.end();
+        if (searchEvent.shouldCommit()) {
+            searchEvent.radiusKm = pickupRadiusMeters / 1000;
+            searchEvent.resultCount = ridePage.getTotalElements();
+            searchEvent.page = page;
+            searchEvent.sortBy = sortBy;
+            searchEvent.commit();
+        }
+        return result;
     }
 
-    /**
-     * Jib user walla null kene mch authenticated (lel public endpoints)
-     */
-    private User getCurrentUserOrNull() {
-        try {
-            var auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
-                return null;
+    // Préférences de genre elli l user ynajjem ychoufhom (search w itinéraires)
+    static List<String> allowedPreferences(User currentUser, String genderFilter) {
+        if (currentUser != null) {
+            // Authenticated: Filtri b genre t3 user
+            return (currentUser.getGender() == Gender.MALE)
+                    ? List.of("ANY", "MALE_ONLY")
+                    : List.of("ANY", "FEMALE_ONLY");
+        } else if (genderFilter != null && !genderFilter.isEmpty() && !genderFilter.equals("ANY")) {
+            // Anonymous ma3 gender filter: Warri ANY + rides spécifiques lel genre
+            if (genderFilter.equals("FEMALE_ONLY")) {
+                return List.of("ANY", "FEMALE_ONLY");
+            } else if (genderFilter.equals("MALE_ONLY")) {
+                return List.of("ANY", "MALE_ONLY");
             }
-            String email = ((UserDetails) auth.getPrincipal()).getUsername();
-            return userRepository.findByEmail(email).orElse(null);
-        } catch (Exception e) {
-            return null;
         }
+        return List.of("ANY", "MALE_ONLY", "FEMALE_ONLY");
+    }
+
+    // [start, end]: departureTime ± flex, walla men tawa l sana
+    static OffsetDateTime[] searchWindow(OffsetDateTime departureTime, Double timeFlexHours, OffsetDateTime now) {
+        if (departureTime == null) {
+            return new OffsetDateTime[] { now, now.plusYears(1) };
+        }
+        long flexSeconds = Math.round(clampTimeFlexHours(timeFlexHours) * 3600);
+        return new OffsetDateTime[] { departureTime.minusSeconds(flexSeconds), departureTime.plusSeconds(flexSeconds) };
+    }
+
+    static double pickupRadiusMeters(Double radiusKm) {
+        return (radiusKm != null) ? radiusKm * 1000 : DEFAULT_PICKUP_RADIUS_METERS;
+    }
+
+    static double clampTimeFlexHours(Double timeFlexHours) {
+        if (timeFlexHours == null || timeFlexHours.isNaN()) {
+            return DEFAULT_TIME_FLEX_HOURS;
+        }
+        return Math.max(0.0, Math.min(timeFlexHours, MAX_TIME_FLEX_HOURS));
     }
 
     private User getCurrentUser() {
@@ -237,7 +463,7 @@ public class RideService {
         return userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException(email));
     }
 
-    private void validateGenderPreference(User driver, RideGenderPreference preference) {
+    static void validateGenderPreference(User driver, RideGenderPreference preference) {
         if (preference == null)
             return;
 
@@ -468,8 +694,9 @@ public class RideService {
         if (ride.getStatus() != RideStatus.SCHEDULED) {
             throw new RuntimeException("Only scheduled rides can be edited");
         }
-        // Verifi bookings mawjoudin - emna3 l update kene famma passengers booked
-        boolean hasBookings = !bookingRepository.findByRideIdAndStatus(rideId, CONFIRMED).isEmpty();
+        // Verifi bookings mawjoudin - emna3 l update kene famma passengers booked (PENDING zeda:
+        // applyStops yraja3 l blays lel totalSeats w fromStop/toStop mta3hom ynajjmou ywalliw barra l legs)
+        boolean hasBookings = bookingRepository.existsByRideIdAndStatusIn(rideId, List.of(PENDING, CONFIRMED));
         if (hasBookings) {
             throw new RuntimeException(
                     "Cannot modify a ride that already has passengers booked. Please cancel the ride instead.");
@@ -481,6 +708,11 @@ public class RideService {
         Point destination = geometryFactory
                 .createPoint(new Coordinate(request.destinationLon(), request.destinationLat()));
 
+        // Tuile t3 l origin l 9dim (RideTileListener ychouf ken l jdid)
+        if (ride.getOriginPoint() != null && !ride.getOriginPoint().equalsExact(origin)) {
+            rideTileService.invalidate(ride.getOriginPoint());
+        }
+
         ride.setOriginName(request.originName());
         ride.setOriginPoint(origin);
         ride.setDestinationName(request.destinationName());
@@ -493,8 +725,11 @@ public class RideService {
         ride.setLuggageSize(request.luggageSize());
         ride.setGenderPreference(request.genderPreference());
         ride.setTotalSeats(request.totalSeats());
-        ride.setAvailableSeats(request.totalSeats());
+        // Ma famma 7atta booking (pending walla confirmé) => l arrêts w l blays yetbnaw men jdid
+        applyStops(ride, request, origin, destination);
 
-        return mapToResponse(rideRepository.save(ride));
+        Ride saved = rideRepository.save(ride);
+        savedSearchService.onRideSaved(saved.getId());
+        return mapToResponse(saved);
     }
 }
@@ -0,0 +1,321 @@
+package com.blassa.service;
+
+import com.blassa.dto.RideTemplateRequest;
+import com.blassa.dto.RideTemplateResponse;
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.RideTemplate;
+import com.blassa.model.entity.User;
+import com.blassa.model.entity.Vehicle;
+import com.blassa.model.enums.BookingStatus;
+import com.blassa.model.enums.RideGenderPreference;
+import com.blassa.model.enums.RideStatus;
+import com.blassa.repository.BookingRepository;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.RideTemplateRepository;
+import com.blassa.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Rides récurrents: l template yetsajjel marra wa7da, w les instances (Ride) yetsen3ou ken ki
+ * search ta7ki 3la fenêtre fiha occurrence walla ki passenger y7eb yreservi (materialiseOccurrence).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RideTemplateService {
+
+    static final String DEFAULT_ZONE = "Africa/Tunis";
+
+    private final RideTemplateRepository rideTemplateRepository;
+    private final RideRepository rideRepository;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final VehicleService vehicleService;
+    private final SavedSearchService savedSearchService;
+    private final RideTimetableListener rideTimetableListener;
+    private final RideTileListener rideTileListener;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    // Search bla date (fenêtre sana) ma tmatérialisich akther men hedha; fenêtre datée = toulha bark
+    @Value("${app.recurring.materialise-horizon-days:14}")
+    private int materialiseHorizonDays = 14;
+
+    @Value("${app.recurring.max-materialise-per-search:200}")
+    private int maxMaterialisePerSearch = 200;
+
+    // Search/explore/calendrier publics: anonymous ma ynajjemch yekteb 200 ride b GET wa7ed
+    @Value("${app.recurring.max-materialise-anonymous:20}")
+    private int maxMaterialiseAnonymous = 20;
+
+    @Transactional
+    public RideTemplateResponse createTemplate(RideTemplateRequest request) {
+        User driver = getCurrentUser();
+        RideService.validateGenderPreference(driver, request.genderPreference());
+
+        Vehicle vehicle = vehicleService.getVehicleEntity(request.vehicleId());
+        if (!vehicle.getOwner().getId().equals(driver.getId())) {
+            throw new IllegalArgumentException("You can only use your own vehicles");
+        }
+        if (request.validUntil() != null && request.validUntil().isBefore(request.validFrom())) {
+            throw new IllegalArgumentException("INVALID_VALIDITY");
+        }
+        String zoneId = request.zoneId() != null ? request.zoneId() : DEFAULT_ZONE;
+        try {
+            ZoneId.of(zoneId);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("INVALID_ZONE");
+        }
+
+        Point origin = geometryFactory.createPoint(new Coordinate(request.originLon(), request.originLat()));
+        Point destination = geometryFactory
+                .createPoint(new Coordinate(request.destinationLon(), request.destinationLat()));
+
+        RideTemplate template = new RideTemplate();
+        template.setDriver(driver);
+        template.setVehicle(vehicle);
+        template.setOriginName(request.originName());
+        template.setOriginPoint(origin);
+        template.setDestinationName(request.destinationName());
+        template.setDestinationPoint(destination);
+        template.setRouteLine(RouteGeometry.build(geometryFactory, origin, null, destination));
+        template.setDepartureLocalTime(request.departureTime());
+        template.setZoneId(zoneId);
+        template.setDaysOfWeek(RecurrenceExpander.toMask(request.daysOfWeek()));
+        template.setValidFrom(request.validFrom());
+        template.setValidUntil(request.validUntil());
+        template.setExceptionDates(request.exceptionDates() != null
+                ? new TreeSet<>(request.exceptionDates()).toArray(new LocalDate[0])
+                : new LocalDate[0]);
+        template.setTotalSeats(request.totalSeats());
+        template.setPricePerSeat(request.pricePerSeat());
+        template.setAllowsSmoking(Boolean.TRUE.equals(request.allowsSmoking()));
+        template.setAllowsMusic(Boolean.TRUE.equals(request.allowsMusic()));
+        template.setAllowsPets(Boolean.TRUE.equals(request.allowsPets()));
+        template.setLuggageSize(request.luggageSize() != null ? request.luggageSize() : "MEDIUM");
+        template.setGenderPreference(request.genderPreference() != null
+                ? request.genderPreference()
+                : RideGenderPreference.ANY);
+        template.setActive(true);
+
+        return mapToResponse(rideTemplateRepository.save(template));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RideTemplateResponse> getMyTemplates() {
+        User driver = getCurrentUser();
+        return rideTemplateRepository.findByDriverIdOrderByCreatedAtDesc(driver.getId()).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    /**
+     * Nhar ma fihch ride (3otla, ...). Ken l instance déjà matérialisée w ma fihech passengers, tetannula.
+     */
+    @Transactional
+    public RideTemplateResponse addException(UUID templateId, LocalDate date) {
+        RideTemplate template = getOwnedTemplate(templateId);
+
+        Set<LocalDate> exceptions = new TreeSet<>(Arrays.asList(template.getExceptionDates()));
+        if (exceptions.add(date)) {
+            template.setExceptionDates(exceptions.toArray(new LocalDate[0]));
+        }
+
+        rideRepository.findByTemplateIdAndOccurrenceDate(templateId, date).ifPresent(ride -> {
+            if (ride.getStatus() != RideStatus.SCHEDULED && ride.getStatus() != RideStatus.FULL) {
+                return;
+            }
+            boolean hasPassengers = bookingRepository.findByRideId(ride.getId()).stream()
+                    .anyMatch(b -> b.getStatus() == BookingStatus.PENDING || b.getStatus() == BookingStatus.CONFIRMED);
+            if (hasPassengers) {
+                throw new IllegalStateException("OCCURRENCE_HAS_BOOKINGS");
+            }
+            ride.setStatus(RideStatus.CANCELLED);
+            rideRepository.save(ride);
+        });
+
+        return mapToResponse(rideTemplateRepository.save(template));
+    }
+
+    // Les instances déjà matérialisées yab9aw (fihom bookings possibles), ma yetsen3ouch jdod
+    @Transactional
+    public void deactivate(UUID templateId) {
+        RideTemplate template = getOwnedTemplate(templateId);
+        template.setActive(false);
+        rideTemplateRepository.save(template);
+    }
+
+    /**
+     * Lien direct lel occurrence (booking): tmatérialisi ken l date valide w fel mosta9bel.
+     */
+    @Transactional
+    public UUID materialiseOccurrence(UUID templateId, LocalDate date) {
+        RideTemplate template = rideTemplateRepository.findById(templateId)
+                .orElseThrow(() -> new IllegalArgumentException("TEMPLATE_NOT_FOUND"));
+        if (!Boolean.TRUE.equals(template.getActive())) {
+            throw new IllegalArgumentException("TEMPLATE_NOT_ACTIVE");
+        }
+
+        ZoneId zone = ZoneId.of(template.getZoneId());
+        OffsetDateTime dayStart = date.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime dayEnd = date.plusDays(1).atStartOfDay(zone).toOffsetDateTime().minusNanos(1);
+        RecurrenceExpander.Occurrence occurrence = RecurrenceExpander.expand(template, dayStart, dayEnd).stream()
+                .filter(o -> o.date().equals(date))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("OCCURRENCE_NOT_FOUND"));
+        if (occurrence.departureTime().isBefore(OffsetDateTime.now())) {
+            throw new IllegalArgumentException("RIDE_ALREADY_DEPARTED");
+        }
+
+        rideTemplateRepository.materialiseOccurrence(templateId, date, occurrence.departureTime())
+                .ifPresent(rideId -> onOccurrenceMaterialised(template, rideId));
+        return rideRepository.findByTemplateIdAndOccurrenceDate(templateId, date)
+                .map(Ride::getId)
+                .orElseThrow(() -> new IllegalStateException("OCCURRENCE_NOT_MATERIALISED"));
+    }
+
+    /**
+     * 9bal search: templates elli ymatchiw spatialement, yetfass5ou fel fenêtre, w l instances elli
+     * mouch mawjoudin yetsen3ou (ON CONFLICT DO NOTHING). openEnded (search bla date): fenêtre bornée
+     * b materialiseHorizonDays; sinon l fenêtre datée kamla. Cas normal (kol chay déjà matérialisé):
+     * zouz queries, bla INSERT.
+     */
+    @Transactional
+    public int materialiseForSearch(Point origin, double pickupRadius, Point destination, double dropoffRadius,
+            OffsetDateTime start, OffsetDateTime end, boolean openEnded, int requiredSeats) {
+        return materialise(start, end, openEnded, (firstDate, lastDate) -> rideTemplateRepository
+                .findCandidatesForSearch(origin, pickupRadius, destination, dropoffRadius, firstDate, lastDate,
+                        requiredSeats));
+    }
+
+    /**
+     * Kif materialiseForSearch lel explore (bla destination): templates elli l corridor mte3hom
+     * y3addi b9orb l origin.
+     */
+    @Transactional
+    public int materialiseForExplore(Point origin, double pickupRadius, OffsetDateTime start, OffsetDateTime end,
+            boolean openEnded, int requiredSeats) {
+        return materialise(start, end, openEnded, (firstDate, lastDate) -> rideTemplateRepository.findCandidatesFromOrigin(
+                origin, pickupRadius, firstDate, lastDate, requiredSeats));
+    }
+
+    private int materialise(OffsetDateTime start, OffsetDateTime end, boolean openEnded,
+            BiFunction<LocalDate, LocalDate, List<RideTemplate>> candidates) {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime from = start.isBefore(now) ? now : start;
+        OffsetDateTime to = end;
+        if (openEnded && to.isAfter(now.plusDays(materialiseHorizonDays))) {
+            to = now.plusDays(materialiseHorizonDays);
+        }
+        if (from.isAfter(to)) {
+            return 0;
+        }
+
+        // Marge nhar: l dates locales t3 l templates (zone) ynajjmou ykhalfou 3al UTC
+        LocalDate firstDate = from.toLocalDate().minusDays(1);
+        LocalDate lastDate = to.toLocalDate().plusDays(1);
+        List<RideTemplate> templates = candidates.apply(firstDate, lastDate);
+        if (templates.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (Object[] row : rideRepository.findMaterialisedOccurrences(
+                templates.stream().map(RideTemplate::getId).toList(), firstDate, lastDate)) {
+            existing.add(row[0] + "|" + row[1]);
+        }
+
+        int cap = CurrentUsers.isAuthenticated() ? maxMaterialisePerSearch : maxMaterialiseAnonymous;
+        int created = 0;
+        for (RideTemplate template : templates) {
+            for (RecurrenceExpander.Occurrence occurrence : RecurrenceExpander.expand(template, from, to)) {
+                if (existing.contains(template.getId() + "|" + occurrence.date())) {
+                    continue;
+                }
+                if (created >= cap) {
+                    log.warn("Recurring materialisation capped at {} rides for one search", cap);
+                    return created;
+                }
+                Optional<UUID> rideId = rideTemplateRepository.materialiseOccurrence(
+                        template.getId(), occurrence.date(), occurrence.departureTime());
+                if (rideId.isPresent()) {
+                    onOccurrenceMaterialised(template, rideId.get());
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    // Nafs l hooks ba3d l commit elli ya3mlhom createRide (JPA listeners + saved searches)
+    private void onOccurrenceMaterialised(RideTemplate template, UUID rideId) {
+        rideTimetableListener.onRideChanged(rideId);
+        rideTileListener.onRideChanged(template.getOriginPoint());
+        savedSearchService.onRideSaved(rideId);
+    }
+
+    RideTemplateResponse mapToResponse(RideTemplate template) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<OffsetDateTime> next = new ArrayList<>();
+        if (Boolean.TRUE.equals(template.getActive())) {
+            for (RecurrenceExpander.Occurrence o : RecurrenceExpander.expand(template, now, now.plusDays(7))) {
+                next.add(o.departureTime());
+            }
+        }
+        return new RideTemplateResponse(
+                template.getId(),
+                template.getOriginName(),
+                template.getDestinationName(),
+                template.getDepartureLocalTime(),
+                template.getZoneId(),
+                RecurrenceExpander.fromMask(template.getDaysOfWeek()),
+                template.getValidFrom(),
+                template.getValidUntil(),
+                template.getExceptionDates() != null ? List.of(template.getExceptionDates()) : List.of(),
+                template.getTotalSeats(),
+                template.getPricePerSeat(),
+                template.getActive(),
+                next);
+    }
+
+    private RideTemplate getOwnedTemplate(UUID templateId) {
+        RideTemplate template = rideTemplateRepository.findById(templateId)
+                .orElseThrow(() -> new IllegalArgumentException("TEMPLATE_NOT_FOUND"));
+        if (!template.getDriver().getId().equals(getCurrentUser().getId())) {
+            throw new IllegalArgumentException("NOT_AUTHORIZED");
+        }
+        return template;
+    }
+
+    // njibu f current user
+    private User getCurrentUser() {
+        String email = ((UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .getUsername();
+        return userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException(email));
+    }
+}
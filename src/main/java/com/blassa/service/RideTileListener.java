@@ -0,0 +1,51 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.Ride;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener 3al Ride: ba3d l commit, l tuiles MVT elli fihom l origin yetna77aw mel cache.
+ * L origin l 9dim (updateRide ybaddel l point) yna77ih RideService.
+ */
+@Component
+@RequiredArgsConstructor
+public class RideTileListener {
+
+    private final ObjectProvider<RideTileService> rideTileService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onRideChanged(Ride ride) {
+        onRideChanged(ride.getOriginPoint());
+    }
+
+    // Inserts natifs (RideTemplateService.materialise*) ma y3addiwch 3al callbacks JPA
+    public void onRideChanged(Point origin) {
+        if (origin == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(origin);
+                }
+            });
+        } else {
+            invalidate(origin);
+        }
+    }
+
+    private void invalidate(Point origin) {
+        rideTileService.ifAvailable(service -> service.invalidate(origin));
+    }
+}
@@ -0,0 +1,105 @@
+package com.blassa.service;
+
+import com.blassa.observability.DomainMetrics;
+import com.blassa.repository.RideRepository;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tuiles MVT t3 l rides SCHEDULED (origins) lel carte: clusters ken zoom ≤ clusterMaxZoom, sinon
+ * ride par feature. Cache in-memory b TTL 9sir; ki ride yetbaddel, ken l tuiles elli fihom
+ * l origin mte3ou (tuile wa7da par zoom) yetna77aw, l ba9i yab9a fel cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RideTileService {
+
+    static final int MAX_ZOOM = 18;
+    // Circonférence Web Mercator (EPSG:3857) b metres
+    static final double WORLD_METERS = 40_075_016.685578488;
+
+    private final RideRepository rideRepository;
+    private final DomainMetrics domainMetrics;
+
+    @Value("${app.tiles.ttl-seconds:30}")
+    private int ttlSeconds = 30;
+
+    @Value("${app.tiles.max-entries:5000}")
+    private int maxEntries = 5000;
+
+    @Value("${app.tiles.cluster-max-zoom:10}")
+    private int clusterMaxZoom = 10;
+
+    // Grille t3 l clusters: 8 x 8 cellules par tuile (~32 px 3al écran)
+    @Value("${app.tiles.cluster-cells-per-tile:8}")
+    private int clusterCellsPerTile = 8;
+
+    private final TtlCache<Long, byte[]> cache = new TtlCache<>();
+
+    public byte[] getTile(int z, int x, int y) {
+        if (!isValidTile(z, x, y)) {
+            throw new IllegalArgumentException("INVALID_TILE");
+        }
+        long start = System.nanoTime();
+        long key = tileKey(z, x, y);
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            domainMetrics.recordTile("hit", System.nanoTime() - start);
+            return cached;
+        }
+
+        byte[] tile = z <= clusterMaxZoom
+                ? rideRepository.clusteredRidesTile(z, x, y, clusterGridMeters(z, clusterCellsPerTile))
+                : rideRepository.ridesTile(z, x, y);
+        if (tile == null) {
+            tile = new byte[0];
+        }
+        cache.put(key, tile, ttlSeconds, maxEntries);
+        domainMetrics.recordTile("miss", System.nanoTime() - start);
+        return tile;
+    }
+
+    public int getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    /** Ynaha l tuiles elli fihom point (WGS84), zoom 0..MAX_ZOOM. */
+    public void invalidate(Point point) {
+        if (point == null) {
+            return;
+        }
+        for (int z = 0; z <= MAX_ZOOM; z++) {
+            int[] xy = tileOf(point.getY(), point.getX(), z);
+            cache.remove(tileKey(z, xy[0], xy[1]));
+        }
+    }
+
+    static boolean isValidTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            return false;
+        }
+        int n = 1 << z;
+        return x >= 0 && x < n && y >= 0 && y < n;
+    }
+
+    // Tuile (x, y) t3 point f zoom z (schéma XYZ, y men l chmel)
+    static int[] tileOf(double lat, double lon, int z) {
+        int n = 1 << z;
+        double latRad = Math.toRadians(Math.max(-85.0511, Math.min(85.0511, lat)));
+        int x = (int) Math.floor((lon + 180.0) / 360.0 * n);
+        int y = (int) Math.floor((1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * n);
+        return new int[] { Math.max(0, Math.min(n - 1, x)), Math.max(0, Math.min(n - 1, y)) };
+    }
+
+    static double clusterGridMeters(int z, int cellsPerTile) {
+        return WORLD_METERS / (1L << z) / cellsPerTile;
+    }
+
+    static long tileKey(int z, int x, int y) {
+        return ((long) z << 48) | ((long) x << 24) | y;
+    }
+}
@@ -0,0 +1,527 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.RideStop;
+import com.blassa.model.enums.RideStatus;
+import com.blassa.repository.RideRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Timetable in-memory t3 rides SCHEDULED (horizon mahdoud) lel planificateur d'itinéraires.
+ * Kol ride = trip, kol arrêt = node, kol leg = connexion (départ/arrivée estimés).
+ * <p>
+ * Mise à jour incrémentale: RideTimetableListener ymarki l rides elli tbadlou (after commit),
+ * refreshDirty() ylodi ken houma w ypatchi l snapshot (connexions w footpaths t3 l trips elli tbadlou
+ * bark). Snapshot immuable (copy-on-write) w les requêtes ya9raw l référence bla lock. rebuild() w
+ * refreshDirty() yet3addaw wa7ed wa7ed (lock), w l publication b CAS 3al version elli tbnet menha.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RideTimetable {
+
+    // Thnia mouch khat dhahi: distance haversine x facteur
+    static final double ROAD_DETOUR_FACTOR = 1.3;
+
+    private final RideRepository rideRepository;
+
+    @Value("${app.itinerary.horizon-hours:48}")
+    private int horizonHours = 48;
+
+    @Value("${app.itinerary.average-speed-kmh:70}")
+    private double averageSpeedKmh = 70;
+
+    @Value("${app.itinerary.walk-radius-m:800}")
+    private double walkRadiusMeters = 800;
+
+    // Ride -> numéro de marque: marque jdida 3al nafs l ride wa9t l refresh ma tetna7ach
+    private final Map<UUID, Long> dirty = new ConcurrentHashMap<>();
+    private final AtomicLong markSequence = new AtomicLong();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.build(List.of(), 800));
+
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    public void markDirty(UUID rideId) {
+        dirty.put(rideId, markSequence.incrementAndGet());
+    }
+
+    @Scheduled(fixedDelayString = "${app.itinerary.full-rebuild-interval-ms:300000}",
+            initialDelayString = "${app.itinerary.initial-delay-ms:5000}")
+    public void rebuild() {
+        refreshLock.lock();
+        try {
+            long started = System.nanoTime();
+            Map<UUID, Long> seen = Map.copyOf(dirty);
+            Snapshot base = snapshot.get();
+            OffsetDateTime now = OffsetDateTime.now();
+            List<Ride> rides = rideRepository.findForTimetable(RideStatus.SCHEDULED, now,
+                    now.plusHours(horizonHours));
+            List<Trip> loaded = new ArrayList<>(rides.size());
+            for (Ride ride : rides) {
+                Trip trip = Trip.fromRide(ride, speedMetersPerSecond());
+                if (trip != null) {
+                    loaded.add(trip);
+                }
+            }
+            Snapshot next = Snapshot.build(loaded, walkRadiusMeters, base.version + 1);
+            if (publish(base, next)) {
+                clearMarks(seen);
+            }
+            log.debug("Ride timetable rebuilt: {} trips in {} ms", next.tripCount(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.itinerary.refresh-interval-ms:2000}",
+            initialDelayString = "${app.itinerary.initial-delay-ms:5000}")
+    public void refreshDirty() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            Map<UUID, Long> seen = Map.copyOf(dirty);
+            if (seen.isEmpty()) {
+                return;
+            }
+            Snapshot base = snapshot.get();
+            OffsetDateTime now = OffsetDateTime.now();
+            OffsetDateTime horizon = now.plusHours(horizonHours);
+            List<Trip> changed = new ArrayList<>();
+            for (Ride ride : rideRepository.findWithStopsByIdIn(new ArrayList<>(seen.keySet()))) {
+                if (ride.getStatus() == RideStatus.SCHEDULED
+                        && !ride.getDepartureTime().isBefore(now) && !ride.getDepartureTime().isAfter(horizon)) {
+                    Trip trip = Trip.fromRide(ride, speedMetersPerSecond());
+                    if (trip != null) {
+                        changed.add(trip);
+                    }
+                }
+            }
+            // Marques yetna7aw ken ba3d l publication: ken l refresh fsal, l rides yet3awdou
+            if (publish(base, base.patch(seen.keySet(), changed, now.toEpochSecond(), walkRadiusMeters))) {
+                clearMarks(seen);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean publish(Snapshot base, Snapshot next) {
+        if (snapshot.compareAndSet(base, next)) {
+            return true;
+        }
+        log.warn("Ride timetable v{} superseded before publication, dirty rides kept", next.version);
+        return false;
+    }
+
+    private void clearMarks(Map<UUID, Long> seen) {
+        seen.forEach((rideId, mark) -> dirty.remove(rideId, mark));
+    }
+
+    private double speedMetersPerSecond() {
+        return averageSpeedKmh * 1000 / 3600;
+    }
+
+    /**
+     * Ride immuable: arrêts, horaires estimés (epoch seconds) w blays par leg.
+     */
+    record Trip(UUID rideId, UUID driverId, String genderPreference, BigDecimal pricePerSeat,
+            String[] stopNames, double[] lat, double[] lon, long[] times, double[] cumulativeMeters,
+            int[] legSeats) {
+
+        int stopCount() {
+            return stopNames.length;
+        }
+
+        static Trip fromRide(Ride ride, double speedMetersPerSecond) {
+            List<RideStop> stops = ride.getStops() != null ? ride.getStops() : List.of();
+            int n = stops.size() >= 2 ? stops.size() : 2;
+            String[] names = new String[n];
+            double[] lat = new double[n];
+            double[] lon = new double[n];
+            if (stops.size() >= 2) {
+                List<RideStop> ordered = new ArrayList<>(stops);
+                ordered.sort(Comparator.comparing(RideStop::getStopIndex));
+                for (int i = 0; i < n; i++) {
+                    names[i] = ordered.get(i).getName();
+                    lat[i] = ordered.get(i).getPoint().getY();
+                    lon[i] = ordered.get(i).getPoint().getX();
+                }
+            } else if (ride.getOriginPoint() != null && ride.getDestinationPoint() != null) {
+                names[0] = ride.getOriginName();
+                lat[0] = ride.getOriginPoint().getY();
+                lon[0] = ride.getOriginPoint().getX();
+                names[1] = ride.getDestinationName();
+                lat[1] = ride.getDestinationPoint().getY();
+                lon[1] = ride.getDestinationPoint().getX();
+            } else {
+                return null;
+            }
+
+            int[] legSeats = BookingService.legSeatsOf(ride);
+            if (legSeats.length != n - 1) {
+                return null;
+            }
+            long[] times = new long[n];
+            double[] cumulative = new double[n];
+            times[0] = ride.getDepartureTime().toEpochSecond();
+            for (int i = 1; i < n; i++) {
+                double leg = GeoDistance.meters(lat[i - 1], lon[i - 1], lat[i], lon[i]) * ROAD_DETOUR_FACTOR;
+                cumulative[i] = cumulative[i - 1] + leg;
+                times[i] = times[i - 1] + Math.round(leg / speedMetersPerSecond);
+            }
+            String gender = ride.getGenderPreference() != null ? ride.getGenderPreference().name() : "ANY";
+            return new Trip(ride.getId(), ride.getDriver() != null ? ride.getDriver().getId() : null, gender,
+                    ride.getPricePerSeat(), names, lat, lon, times, cumulative, legSeats);
+        }
+    }
+
+    /**
+     * Vue indexée t3 l trips: nodes (arrêts), connexions triées b départ (connection scan),
+     * footpaths bin arrêts t3 rides mkhtalfin (≤ walk radius) w grille spatiale lel lookup.
+     * patch() y3awed yesta3mel l connexions w footpaths t3 l trips elli ma tbadlouch (remap d'indices)
+     * w ya7seb ken l footpaths t3 l arrêts l jdod.
+     */
+    static final class Snapshot {
+        final long version;
+        final double walkRadiusMeters;
+        final Trip[] trips;
+        final int[] tripFirstNode;
+        final int nodeCount;
+        final int[] nodeTrip;
+        final int[] nodeStop;
+        final double[] nodeLat;
+        final double[] nodeLon;
+
+        final int[] connTrip;
+        final int[] connLeg;
+        final long[] connDep;
+        final long[] connArr;
+
+        final int[][] footTo;
+        final int[][] footMeters;
+
+        private final double cellDegrees;
+        private final Map<Long, int[]> grid;
+
+        /**
+         * previous/previousTrip: trips [0, retained) houma l trips l 9dom (nafs l ordre),
+         * previousTrip[ancien index] = index jdid walla -1 ken tna7a. previous null => build kamel.
+         */
+        private Snapshot(Trip[] trips, double walkRadiusMeters, long version, Snapshot previous,
+                int[] previousTrip, int retained) {
+            this.version = version;
+            this.walkRadiusMeters = walkRadiusMeters;
+            this.trips = trips;
+            this.tripFirstNode = new int[trips.length];
+            int nodes = 0;
+            int connections = 0;
+            for (int t = 0; t < trips.length; t++) {
+                tripFirstNode[t] = nodes;
+                nodes += trips[t].stopCount();
+                connections += trips[t].stopCount() - 1;
+            }
+            this.nodeCount = nodes;
+            this.nodeTrip = new int[nodes];
+            this.nodeStop = new int[nodes];
+            this.nodeLat = new double[nodes];
+            this.nodeLon = new double[nodes];
+            for (int t = 0; t < trips.length; t++) {
+                for (int i = 0; i < trips[t].stopCount(); i++) {
+                    int node = tripFirstNode[t] + i;
+                    nodeTrip[node] = t;
+                    nodeStop[node] = i;
+                    nodeLat[node] = trips[t].lat()[i];
+                    nodeLon[node] = trips[t].lon()[i];
+                }
+            }
+
+            this.connTrip = new int[connections];
+            this.connLeg = new int[connections];
+            this.connDep = new long[connections];
+            this.connArr = new long[connections];
+            if (previous == null) {
+                fillConnections(0, 0);
+            } else {
+                mergeConnections(previous, previousTrip, retained);
+            }
+
+            this.cellDegrees = Math.max(walkRadiusMeters, 100) / 111_000.0;
+            Map<Long, List<Integer>> cells = new HashMap<>();
+            for (int node = 0; node < nodes; node++) {
+                cells.computeIfAbsent(cellKey(nodeLat[node], nodeLon[node]), k -> new ArrayList<>()).add(node);
+            }
+            this.grid = new HashMap<>(cells.size() * 2);
+            cells.forEach((key, list) -> grid.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+
+            this.footTo = new int[nodes][];
+            this.footMeters = new int[nodes][];
+            if (previous == null) {
+                for (int node = 0; node < nodes; node++) {
+                    computeFootpaths(node, null, nodes);
+                }
+            } else {
+                patchFootpaths(previous, previousTrip, retained);
+            }
+        }
+
+        static Snapshot build(Collection<Trip> trips, double walkRadiusMeters) {
+            return build(trips, walkRadiusMeters, 0);
+        }
+
+        static Snapshot build(Collection<Trip> trips, double walkRadiusMeters, long version) {
+            return new Snapshot(trips.toArray(new Trip[0]), walkRadiusMeters, version, null, null, 0);
+        }
+
+        /**
+         * Snapshot jdid bla l rides removedRideIds (w bla l trips elli fatou nowEpoch), m3a changed
+         * (versions jdida walla rides jdod) fel e5er. Version +1.
+         */
+        Snapshot patch(Set<UUID> removedRideIds, Collection<Trip> changed, long nowEpoch, double radiusMeters) {
+            int[] previousTrip = new int[trips.length];
+            List<Trip> next = new ArrayList<>(trips.length + changed.size());
+            for (int t = 0; t < trips.length; t++) {
+                Trip trip = trips[t];
+                if (removedRideIds.contains(trip.rideId()) || trip.times()[0] < nowEpoch) {
+                    previousTrip[t] = -1;
+                } else {
+                    previousTrip[t] = next.size();
+                    next.add(trip);
+                }
+            }
+            int retained = next.size();
+            for (Trip trip : changed) {
+                if (trip.times()[0] >= nowEpoch) {
+                    next.add(trip);
+                }
+            }
+            if (radiusMeters != walkRadiusMeters) {
+                // Footpaths l 9dom ma yetsta3mlouch b rayon o5ra (snapshot initial 9bal @Value)
+                return build(next, radiusMeters, version + 1);
+            }
+            return new Snapshot(next.toArray(new Trip[0]), walkRadiusMeters, version + 1, this, previousTrip,
+                    retained);
+        }
+
+        // Connexions t3 trips [fromTrip, trips.length) triées, men l index c
+        private int fillConnections(int fromTrip, int c) {
+            int start = c;
+            for (int t = fromTrip; t < trips.length; t++) {
+                for (int i = 0; i < trips[t].stopCount() - 1; i++) {
+                    connTrip[c] = t;
+                    connLeg[c] = i;
+                    c++;
+                }
+            }
+            Integer[] order = new Integer[c - start];
+            for (int k = 0; k < order.length; k++) {
+                order[k] = start + k;
+            }
+            Arrays.sort(order, Comparator.comparingLong(k -> trips[connTrip[k]].times()[connLeg[k]]));
+            int[] trip = Arrays.copyOfRange(connTrip, start, c);
+            int[] leg = Arrays.copyOfRange(connLeg, start, c);
+            for (int k = 0; k < order.length; k++) {
+                connTrip[start + k] = trip[order[k] - start];
+                connLeg[start + k] = leg[order[k] - start];
+                connDep[start + k] = trips[connTrip[start + k]].times()[connLeg[start + k]];
+                connArr[start + k] = trips[connTrip[start + k]].times()[connLeg[start + k] + 1];
+            }
+            return c;
+        }
+
+        // Connexions l 9dom (déjà triées, indices remappés) merge m3a connexions t3 l trips l jdod
+        private void mergeConnections(Snapshot previous, int[] previousTrip, int retained) {
+            int added = 0;
+            for (int t = retained; t < trips.length; t++) {
+                added += trips[t].stopCount() - 1;
+            }
+            int keptEnd = connTrip.length - added;
+            // L jdod triés fel e5er, ba3d merge men l e5er (kima merge sort in-place)
+            fillConnections(retained, keptEnd);
+            int[] newTrip = Arrays.copyOfRange(connTrip, keptEnd, connTrip.length);
+            int[] newLeg = Arrays.copyOfRange(connLeg, keptEnd, connTrip.length);
+            long[] newDep = Arrays.copyOfRange(connDep, keptEnd, connTrip.length);
+            long[] newArr = Arrays.copyOfRange(connArr, keptEnd, connTrip.length);
+
+            int c = 0;
+            int a = 0;
+            for (int k = 0; k < previous.connTrip.length; k++) {
+                int trip = previousTrip[previous.connTrip[k]];
+                if (trip < 0) {
+                    continue;
+                }
+                while (a < newTrip.length && newDep[a] < previous.connDep[k]) {
+                    c = putConnection(c, newTrip[a], newLeg[a], newDep[a], newArr[a]);
+                    a++;
+                }
+                c = putConnection(c, trip, previous.connLeg[k], previous.connDep[k], previous.connArr[k]);
+            }
+            while (a < newTrip.length) {
+                c = putConnection(c, newTrip[a], newLeg[a], newDep[a], newArr[a]);
+                a++;
+            }
+        }
+
+        private int putConnection(int c, int trip, int leg, long dep, long arr) {
+            connTrip[c] = trip;
+            connLeg[c] = leg;
+            connDep[c] = dep;
+            connArr[c] = arr;
+            return c + 1;
+        }
+
+        /**
+         * Footpaths l 9dom remappés; l arrêts l jdod bark ya3mlou lookup spatial, w l footpath
+         * l 3aks (arrêt 9dim -> arrêt jdid) yetzed lel arrêt l 9dim.
+         */
+        private void patchFootpaths(Snapshot previous, int[] previousTrip, int retained) {
+            int firstAdded = retained < trips.length ? tripFirstNode[retained] : nodeCount;
+            List<List<int[]>> reverse = new ArrayList<>(firstAdded);
+            for (int node = 0; node < firstAdded; node++) {
+                reverse.add(null);
+            }
+            for (int node = firstAdded; node < nodeCount; node++) {
+                computeFootpaths(node, reverse, firstAdded);
+            }
+
+            int[] previousNode = new int[previous.nodeCount];
+            Arrays.fill(previousNode, -1);
+            for (int t = 0; t < previous.trips.length; t++) {
+                int trip = previousTrip[t];
+                if (trip < 0) {
+                    continue;
+                }
+                for (int i = 0; i < previous.trips[t].stopCount(); i++) {
+                    previousNode[previous.tripFirstNode[t] + i] = tripFirstNode[trip] + i;
+                }
+            }
+            for (int old = 0; old < previous.nodeCount; old++) {
+                int node = previousNode[old];
+                if (node < 0) {
+                    continue;
+                }
+                List<int[]> extra = reverse.get(node);
+                int[] oldTo = previous.footTo[old];
+                int[] to = new int[oldTo.length + (extra != null ? extra.size() : 0)];
+                int[] meters = new int[to.length];
+                int n = 0;
+                for (int k = 0; k < oldTo.length; k++) {
+                    int other = previousNode[oldTo[k]];
+                    if (other >= 0) {
+                        to[n] = other;
+                        meters[n] = previous.footMeters[old][k];
+                        n++;
+                    }
+                }
+                if (extra != null) {
+                    for (int[] path : extra) {
+                        to[n] = path[0];
+                        meters[n] = path[1];
+                        n++;
+                    }
+                }
+                footTo[node] = n == to.length ? to : Arrays.copyOf(to, n);
+                footMeters[node] = n == meters.length ? meters : Arrays.copyOf(meters, n);
+            }
+        }
+
+        // reverse != null: footpath l 3aks lel nodes < firstAdded (patch)
+        private void computeFootpaths(int node, List<List<int[]>> reverse, int firstAdded) {
+            List<int[]> near = new ArrayList<>();
+            for (int other : nodesWithin(nodeLat[node], nodeLon[node], walkRadiusMeters)) {
+                if (nodeTrip[other] != nodeTrip[node]) {
+                    int meters = (int) Math.round(GeoDistance.meters(nodeLat[node], nodeLon[node],
+                            nodeLat[other], nodeLon[other]));
+                    near.add(new int[] { other, meters });
+                    if (reverse != null && other < firstAdded) {
+                        List<int[]> extra = reverse.get(other);
+                        if (extra == null) {
+                            extra = new ArrayList<>();
+                            reverse.set(other, extra);
+                        }
+                        extra.add(new int[] { node, meters });
+                    }
+                }
+            }
+            footTo[node] = near.stream().mapToInt(p -> p[0]).toArray();
+            footMeters[node] = near.stream().mapToInt(p -> p[1]).toArray();
+        }
+
+        int tripCount() {
+            return trips.length;
+        }
+
+        /** Nodes b distance ≤ radius (grille, ba3d filtre haversine). */
+        int[] nodesWithin(double lat, double lon, double radiusMeters) {
+            double dLat = radiusMeters / 111_000.0;
+            double dLon = radiusMeters / (111_000.0 * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+            long minLat = (long) Math.floor((lat - dLat) / cellDegrees);
+            long maxLat = (long) Math.floor((lat + dLat) / cellDegrees);
+            long minLon = (long) Math.floor((lon - dLon) / cellDegrees);
+            long maxLon = (long) Math.floor((lon + dLon) / cellDegrees);
+            List<Integer> result = new ArrayList<>();
+            for (long y = minLat; y <= maxLat; y++) {
+                for (long x = minLon; x <= maxLon; x++) {
+                    int[] cell = grid.get(pack(y, x));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int node : cell) {
+                        if (GeoDistance.meters(lat, lon, nodeLat[node], nodeLon[node]) <= radiusMeters) {
+                            result.add(node);
+                        }
+                    }
+                }
+            }
+            return result.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /** Awwel connexion b départ ≥ epochSeconds (binary search). */
+        int firstConnectionFrom(long epochSeconds) {
+            int lo = 0;
+            int hi = connDep.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (connDep[mid] < epochSeconds) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private long cellKey(double lat, double lon) {
+            return pack((long) Math.floor(lat / cellDegrees), (long) Math.floor(lon / cellDegrees));
+        }
+
+        private static long pack(long y, long x) {
+            return (y << 32) ^ (x & 0xffffffffL);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.Ride;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * JPA listener 3al Ride: kol persist/update/remove ymarki l ride dirty fel timetable ba3d l commit
+ * (ken refresh y9ra 9bal l commit, ychouf l état l 9dim w l marque tdhi3).
+ * Timetable yetjab b ObjectProvider 5ater l listener yetsna3 m3a l EntityManagerFactory.
+ */
+@Component
+@RequiredArgsConstructor
+public class RideTimetableListener {
+
+    private final ObjectProvider<RideTimetable> timetable;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onRideChanged(Ride ride) {
+        onRideChanged(ride.getId());
+    }
+
+    // Inserts natifs (RideTemplateService.materialise*) ma y3addiwch 3al callbacks JPA
+    public void onRideChanged(UUID rideId) {
+        if (rideId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markDirty(rideId);
+                }
+            });
+        } else {
+            markDirty(rideId);
+        }
+    }
+
+    private void markDirty(UUID rideId) {
+        timetable.ifAvailable(t -> t.markDirty(rideId));
+    }
+}
@@ -0,0 +1,50 @@
+package com.blassa.service;
+
+import com.blassa.dto.RouteWaypoint;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Yebni route_line t3 ride (origin -> waypoints -> destination) localement, bla routing API.
+ * Douglas-Peucker y9os l points elli ma ybadlouch l corridor (~50m), bech l GiST ybda s8ir.
+ */
+final class RouteGeometry {
+
+    // ~55m f latitude Tounes; corridor search b radius 3km+ donc ma ybadel chay fel résultats
+    static final double SIMPLIFY_TOLERANCE_DEGREES = 0.0005;
+
+    private RouteGeometry() {
+    }
+
+    static LineString build(GeometryFactory geometryFactory, Point origin, List<RouteWaypoint> waypoints,
+            Point destination) {
+        List<Coordinate> coordinates = new ArrayList<>();
+        coordinates.add(origin.getCoordinate());
+        if (waypoints != null) {
+            for (RouteWaypoint waypoint : waypoints) {
+                if (waypoint == null || waypoint.lat() == null || waypoint.lon() == null) {
+                    continue;
+                }
+                Coordinate next = new Coordinate(waypoint.lon(), waypoint.lat());
+                if (!next.equals2D(coordinates.get(coordinates.size() - 1))) {
+                    coordinates.add(next);
+                }
+            }
+        }
+        coordinates.add(destination.getCoordinate());
+
+        LineString line = geometryFactory.createLineString(coordinates.toArray(new Coordinate[0]));
+        if (coordinates.size() <= 2) {
+            return line;
+        }
+        // DP ynajjem yraja3 geometry vide ken l points lkol mlasg ba3dhom
+        LineString simplified = (LineString) DouglasPeuckerSimplifier.simplify(line, SIMPLIFY_TOLERANCE_DEGREES);
+        return simplified.getNumPoints() >= 2 ? simplified : line;
+    }
+}
@@ -0,0 +1,148 @@
+package com.blassa.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Index spatial in-memory t3 l recherches sauvegardées (reverse matching): grille 3al origin,
+ * kol recherche tetsajjel f les cellules elli ymesshom cercle l pickup mte3ha.
+ * Ride jdid => cellules t3 l arrêts mte3ou kahaw, mouch scan 3al recherches lkol.
+ * Index par machine: SavedSearchService ysynchroni l recherches jdod mel DB 9bal kol matching.
+ */
+@Component
+public class SavedSearchIndex {
+
+    // ~5.5 km: l rayon par défaut (3 km) yaghti 1-4 cellules
+    static final double CELL_DEGREES = 0.05;
+
+    /** Recherche active, immuable (l genre t3 l user deja traduit l préférences acceptées). */
+    record Entry(UUID id, UUID userId, double originLat, double originLon, double destLat, double destLon,
+            double pickupRadiusMeters, long departureFrom, long departureTo, int seats,
+            Collection<String> allowedPreferences) {
+    }
+
+    /** Ride vu par l matcher: arrêts b l ordre w blays par leg. */
+    record RideView(UUID rideId, UUID driverId, String genderPreference, long departureTime,
+            double[] lat, double[] lon, int[] legSeats) {
+    }
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UUID>> cells = new ConcurrentHashMap<>();
+
+    public int size() {
+        return entries.size();
+    }
+
+    void put(Entry entry) {
+        remove(entry.id());
+        entries.put(entry.id(), entry);
+        // compute (atomique par cellule): computeIfAbsent(...).add() ynajjem yzid f set elli remove 9a3ed yna77ih
+        forEachCell(entry, key -> cells.compute(key, (k, ids) -> {
+            Set<UUID> cell = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            cell.add(entry.id());
+            return cell;
+        }));
+    }
+
+    void remove(UUID id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            forEachCell(previous, key -> cells.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            }));
+        }
+    }
+
+    void replaceAll(Collection<Entry> all) {
+        Set<UUID> stale = new HashSet<>(entries.keySet());
+        all.forEach(entry -> stale.remove(entry.id()));
+        stale.forEach(this::remove);
+        all.forEach(this::put);
+    }
+
+    /**
+     * Recherches elli l ride ykhdemhom: pickup 9rib men arrêt i, dropoff 9rib men arrêt j > i,
+     * blays kafyin 3al legs [i, j), départ fel fenêtre, genre accepté, w mouch l driver rou7ou.
+     */
+    List<Entry> match(RideView ride, double dropoffRadiusMeters) {
+        List<Entry> matches = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        int stops = ride.lat().length;
+        for (int i = 0; i < stops - 1; i++) {
+            Set<UUID> candidates = cells.get(cellKey(ride.lat()[i], ride.lon()[i]));
+            if (candidates == null) {
+                continue;
+            }
+            for (UUID id : candidates) {
+                Entry entry = entries.get(id);
+                if (entry == null || seen.contains(id) || !acceptsRide(entry, ride)) {
+                    continue;
+                }
+                if (GeoDistance.meters(ride.lat()[i], ride.lon()[i], entry.originLat(), entry.originLon())
+                        > entry.pickupRadiusMeters()) {
+                    continue;
+                }
+                if (servesDropoff(entry, ride, i, dropoffRadiusMeters)) {
+                    seen.add(id);
+                    matches.add(entry);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean acceptsRide(Entry entry, RideView ride) {
+        return ride.departureTime() >= entry.departureFrom()
+                && ride.departureTime() <= entry.departureTo()
+                && entry.allowedPreferences().contains(ride.genderPreference())
+                && !entry.userId().equals(ride.driverId());
+    }
+
+    private static boolean servesDropoff(Entry entry, RideView ride, int pickupStop, double dropoffRadiusMeters) {
+        int minSeats = Integer.MAX_VALUE;
+        for (int j = pickupStop + 1; j < ride.lat().length; j++) {
+            minSeats = Math.min(minSeats, ride.legSeats()[j - 1]);
+            if (minSeats < entry.seats()) {
+                return false;
+            }
+            if (GeoDistance.meters(ride.lat()[j], ride.lon()[j], entry.destLat(), entry.destLon())
+                    <= dropoffRadiusMeters) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void forEachCell(Entry entry, LongConsumer action) {
+        double dLat = entry.pickupRadiusMeters() / 111_000.0;
+        double dLon = entry.pickupRadiusMeters()
+                / (111_000.0 * Math.max(Math.cos(Math.toRadians(entry.originLat())), 0.01));
+        long minY = (long) Math.floor((entry.originLat() - dLat) / CELL_DEGREES);
+        long maxY = (long) Math.floor((entry.originLat() + dLat) / CELL_DEGREES);
+        long minX = (long) Math.floor((entry.originLon() - dLon) / CELL_DEGREES);
+        long maxX = (long) Math.floor((entry.originLon() + dLon) / CELL_DEGREES);
+        for (long y = minY; y <= maxY; y++) {
+            for (long x = minX; x <= maxX; x++) {
+                action.accept(pack(y, x));
+            }
+        }
+    }
+
+    private static long cellKey(double lat, double lon) {
+        return pack((long) Math.floor(lat / CELL_DEGREES), (long) Math.floor(lon / CELL_DEGREES));
+    }
+
+    private static long pack(long y, long x) {
+        return (y << 32) ^ (x & 0xffffffffL);
+    }
+}
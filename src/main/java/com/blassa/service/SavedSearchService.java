@@ -0,0 +1,276 @@
+package com.blassa.service;
+
+import com.blassa.dto.SavedSearchRequest;
+import com.blassa.dto.SavedSearchResponse;
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.RideStop;
+import com.blassa.model.entity.SavedSearch;
+import com.blassa.model.entity.User;
+import com.blassa.model.enums.NotificationType;
+import com.blassa.model.enums.RideStatus;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.SavedSearchRepository;
+import com.blassa.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recherches sauvegardées w alertes: ki ride yetsna3 walla yetbaddel (ba3d l commit), yetmatcha
+ * m3a SavedSearchIndex (in-memory) w l users elli ymatchiw yjihom notification (DB + STOMP).
+ * L matching ysir f virtual thread, l requête t3 l driver ma tstannach.
+ * Plusieurs machines (Fly): kol wa7da 3andha index; 9bal l matching l recherches jdod mel DB
+ * yetzedou (created_at), w recordAlert ma ynotifich recherche désactivée 3la machine o5ra.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SavedSearchService {
+
+    private static final ZoneId TUNIS = ZoneId.of("Africa/Tunis");
+    private static final DateTimeFormatter ALERT_TIME = DateTimeFormatter.ofPattern("dd/MM 'à' HH:mm");
+    // Kol recherche tetsajjel f kol cellule t3 cercle l pickup: rayon kbir = index kbir
+    static final double MAX_RADIUS_KM = 50.0;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final RideRepository rideRepository;
+    private final UserRepository userRepository;
+    private final SavedSearchIndex savedSearchIndex;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private final TaskExecutor alertExecutor = new VirtualThreadTaskExecutor("ride-alerts-");
+
+    @Value("${app.saved-search.max-per-user:10}")
+    private int maxPerUser = 10;
+
+    @Value("${app.saved-search.max-window-days:30}")
+    private int maxWindowDays = 30;
+
+    // Marge 3al created_at: horloges t3 l machines w transactions elli commitaw ba3d
+    @Value("${app.saved-search.sync-overlap-seconds:60}")
+    private long syncOverlapSeconds = 60;
+
+    private volatile OffsetDateTime indexSyncedAt;
+
+    @Transactional
+    public SavedSearchResponse createSavedSearch(SavedSearchRequest request) {
+        User user = getCurrentUser();
+        if (request.departureTo().isBefore(request.departureFrom())) {
+            throw new IllegalArgumentException("INVALID_WINDOW");
+        }
+        if (request.departureTo().isBefore(OffsetDateTime.now())) {
+            throw new IllegalArgumentException("WINDOW_IN_PAST");
+        }
+        if (request.departureFrom().plusDays(maxWindowDays).isBefore(request.departureTo())) {
+            throw new IllegalArgumentException("WINDOW_TOO_LONG");
+        }
+        if (savedSearchRepository.countByUserIdAndActiveTrue(user.getId()) >= maxPerUser) {
+            throw new IllegalStateException("TOO_MANY_SAVED_SEARCHES");
+        }
+
+        SavedSearch search = new SavedSearch();
+        search.setUser(user);
+        search.setOriginName(request.originName());
+        search.setOriginPoint(geometryFactory.createPoint(new Coordinate(request.originLon(), request.originLat())));
+        search.setDestinationName(request.destinationName());
+        search.setDestinationPoint(geometryFactory
+                .createPoint(new Coordinate(request.destinationLon(), request.destinationLat())));
+        search.setRadiusKm(clampRadiusKm(request.radiusKm()));
+        search.setDepartureFrom(request.departureFrom());
+        search.setDepartureTo(request.departureTo());
+        search.setSeats(request.seats() != null ? request.seats() : 1);
+        search.setActive(true);
+
+        SavedSearch saved = savedSearchRepository.save(search);
+        SavedSearchIndex.Entry entry = toEntry(saved);
+        afterCommit(() -> savedSearchIndex.put(entry));
+        return mapToResponse(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchResponse> getMySavedSearches() {
+        User user = getCurrentUser();
+        return savedSearchRepository.findByUserIdAndActiveTrueOrderByCreatedAtDesc(user.getId()).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    @Transactional
+    public void deleteSavedSearch(UUID id) {
+        User user = getCurrentUser();
+        SavedSearch search = savedSearchRepository.findById(id)
+                .filter(s -> s.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new IllegalArgumentException("SAVED_SEARCH_NOT_FOUND"));
+        search.setActive(false);
+        savedSearchRepository.save(search);
+        afterCommit(() -> savedSearchIndex.remove(id));
+    }
+
+    /**
+     * Y3ayet 3liha RideService (createRide / updateRide) dekhel l transaction: l matching yebda
+     * ba3d l commit, f virtual thread.
+     */
+    public void onRideSaved(UUID rideId) {
+        afterCommit(() -> alertExecutor.execute(() -> {
+            try {
+                notifyMatches(rideId);
+            } catch (Exception e) {
+                log.warn("Saved search matching failed for ride {}", rideId, e);
+            }
+        }));
+    }
+
+    int notifyMatches(UUID rideId) {
+        Ride ride = rideRepository.findWithStopsByIdIn(List.of(rideId)).stream().findFirst().orElse(null);
+        if (ride == null || ride.getStatus() != RideStatus.SCHEDULED
+                || ride.getDepartureTime().isBefore(OffsetDateTime.now())) {
+            return 0;
+        }
+        syncRecentSearches();
+        List<SavedSearchIndex.Entry> matches = savedSearchIndex.match(rideView(ride),
+                RideService.DROPOFF_RADIUS_METERS);
+        if (matches.isEmpty()) {
+            return 0;
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        String title = "Nouveau trajet disponible";
+        String message = "Un trajet " + ride.getOriginName() + " → " + ride.getDestinationName() + " le "
+                + ride.getDepartureTime().atZoneSameInstant(TUNIS).format(ALERT_TIME)
+                + " correspond à votre recherche";
+        int notified = 0;
+        for (SavedSearchIndex.Entry entry : matches) {
+            Integer inserted = tx.execute(status -> savedSearchRepository.recordAlert(entry.id(), rideId));
+            if (inserted != null && inserted > 0) {
+                notificationService.sendNotification(entry.userId(), NotificationType.SAVED_SEARCH_MATCH,
+                        title, message, "/rides/" + rideId);
+                notified++;
+            }
+        }
+        return notified;
+    }
+
+    // Recherches créées depuis l e5er synchro (hnee walla 3la machine o5ra)
+    void syncRecentSearches() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime synced = indexSyncedAt;
+        OffsetDateTime since = (synced != null ? synced : now).minusSeconds(syncOverlapSeconds);
+        for (SavedSearch search : savedSearchRepository.findActiveCreatedSince(now, since)) {
+            savedSearchIndex.put(toEntry(search));
+        }
+        indexSyncedAt = now;
+    }
+
+    // Chargement initial w kol se3a: l recherches elli fetet fenêtrethom yetna77aw
+    @Scheduled(fixedDelayString = "${app.saved-search.reload-interval-ms:3600000}",
+            initialDelayString = "${app.saved-search.initial-delay-ms:5000}")
+    @Transactional
+    public void reloadIndex() {
+        OffsetDateTime now = OffsetDateTime.now();
+        indexSyncedAt = now;
+        int expired = savedSearchRepository.deactivateExpired(now);
+        List<SavedSearchIndex.Entry> entries = savedSearchRepository.findActiveForIndex(now).stream()
+                .map(this::toEntry)
+                .toList();
+        savedSearchIndex.replaceAll(entries);
+        log.debug("Saved search index reloaded: {} active, {} expired", entries.size(), expired);
+    }
+
+    static double clampRadiusKm(Double radiusKm) {
+        if (radiusKm == null || radiusKm.isNaN() || radiusKm <= 0) {
+            return 3.0;
+        }
+        return Math.min(radiusKm, MAX_RADIUS_KM);
+    }
+
+    private SavedSearchIndex.Entry toEntry(SavedSearch search) {
+        return new SavedSearchIndex.Entry(
+                search.getId(),
+                search.getUser().getId(),
+                search.getOriginPoint().getY(), search.getOriginPoint().getX(),
+                search.getDestinationPoint().getY(), search.getDestinationPoint().getX(),
+                RideService.pickupRadiusMeters(clampRadiusKm(search.getRadiusKm())),
+                search.getDepartureFrom().toEpochSecond(),
+                search.getDepartureTo().toEpochSecond(),
+                search.getSeats(),
+                RideService.allowedPreferences(search.getUser(), null));
+    }
+
+    static SavedSearchIndex.RideView rideView(Ride ride) {
+        List<RideStop> stops = new ArrayList<>(ride.getStops() != null ? ride.getStops() : List.of());
+        stops.sort(Comparator.comparing(RideStop::getStopIndex));
+        double[] lat;
+        double[] lon;
+        if (stops.size() >= 2) {
+            lat = stops.stream().mapToDouble(s -> s.getPoint().getY()).toArray();
+            lon = stops.stream().mapToDouble(s -> s.getPoint().getX()).toArray();
+        } else {
+            lat = new double[] { ride.getOriginPoint().getY(), ride.getDestinationPoint().getY() };
+            lon = new double[] { ride.getOriginPoint().getX(), ride.getDestinationPoint().getX() };
+        }
+        String gender = ride.getGenderPreference() != null ? ride.getGenderPreference().name() : "ANY";
+        return new SavedSearchIndex.RideView(ride.getId(), ride.getDriver().getId(), gender,
+                ride.getDepartureTime().toEpochSecond(), lat, lon, BookingService.legSeatsOf(ride));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private SavedSearchResponse mapToResponse(SavedSearch search) {
+        return new SavedSearchResponse(
+                search.getId(),
+                search.getOriginName(),
+                search.getOriginPoint().getY(),
+                search.getOriginPoint().getX(),
+                search.getDestinationName(),
+                search.getDestinationPoint().getY(),
+                search.getDestinationPoint().getX(),
+                search.getRadiusKm(),
+                search.getDepartureFrom(),
+                search.getDepartureTo(),
+                search.getSeats(),
+                search.getActive());
+    }
+
+    private User getCurrentUser() {
+        String email = ((UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .getUsername();
+        return userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException(email));
+    }
+}
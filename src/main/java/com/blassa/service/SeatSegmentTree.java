@@ -0,0 +1,110 @@
+package com.blassa.service;
+
+import java.util.Arrays;
+
+/**
+ * Blays libres par tronçon (leg i = stop i -> stop i+1): range-min w range-add b lazy propagation.
+ * Booking stop a -> stop b ychouf min(legs [a, b)) w ynaa9es men nafs l range, O(log n) kol wa7da.
+ * Mouch thread-safe: l concurrence t3addi b optimistic lock 3al Ride (version).
+ */
+final class SeatSegmentTree {
+
+    private final int size;
+    private final int[] min;
+    private final int[] lazy;
+
+    SeatSegmentTree(int[] legSeats) {
+        if (legSeats == null || legSeats.length == 0) {
+            throw new IllegalArgumentException("A ride needs at least one leg");
+        }
+        this.size = legSeats.length;
+        this.min = new int[4 * size];
+        this.lazy = new int[4 * size];
+        build(1, 0, size - 1, legSeats);
+    }
+
+    int legCount() {
+        return size;
+    }
+
+    /** Min t3 l blays 3al legs [from, toExclusive). */
+    int min(int from, int toExclusive) {
+        checkRange(from, toExclusive);
+        return query(1, 0, size - 1, from, toExclusive - 1);
+    }
+
+    /** Zid delta (négatif => réservation) 3al legs [from, toExclusive). */
+    void add(int from, int toExclusive, int delta) {
+        checkRange(from, toExclusive);
+        update(1, 0, size - 1, from, toExclusive - 1, delta);
+    }
+
+    int[] toArray() {
+        int[] legs = new int[size];
+        collect(1, 0, size - 1, 0, legs);
+        return legs;
+    }
+
+    private void build(int node, int lo, int hi, int[] legSeats) {
+        if (lo == hi) {
+            min[node] = legSeats[lo];
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        build(2 * node, lo, mid, legSeats);
+        build(2 * node + 1, mid + 1, hi, legSeats);
+        min[node] = Math.min(min[2 * node], min[2 * node + 1]);
+    }
+
+    private int query(int node, int lo, int hi, int from, int to) {
+        if (from <= lo && hi <= to) {
+            return min[node];
+        }
+        int mid = (lo + hi) >>> 1;
+        int result = Integer.MAX_VALUE;
+        if (from <= mid) {
+            result = Math.min(result, query(2 * node, lo, mid, from, to));
+        }
+        if (to > mid) {
+            result = Math.min(result, query(2 * node + 1, mid + 1, hi, from, to));
+        }
+        return result + lazy[node];
+    }
+
+    private void update(int node, int lo, int hi, int from, int to, int delta) {
+        if (from <= lo && hi <= to) {
+            min[node] += delta;
+            lazy[node] += delta;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (from <= mid) {
+            update(2 * node, lo, mid, from, to, delta);
+        }
+        if (to > mid) {
+            update(2 * node + 1, mid + 1, hi, from, to, delta);
+        }
+        min[node] = Math.min(min[2 * node], min[2 * node + 1]) + lazy[node];
+    }
+
+    private void collect(int node, int lo, int hi, int pending, int[] out) {
+        if (lo == hi) {
+            out[lo] = min[node] + pending;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        collect(2 * node, lo, mid, pending + lazy[node], out);
+        collect(2 * node + 1, mid + 1, hi, pending + lazy[node], out);
+    }
+
+    private void checkRange(int from, int toExclusive) {
+        if (from < 0 || toExclusive > size || from >= toExclusive) {
+            throw new IllegalArgumentException("INVALID_STOPS");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
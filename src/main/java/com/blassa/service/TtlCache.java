@@ -0,0 +1,49 @@
+package com.blassa.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache in-memory b TTL 9sir (explore, calendrier, tuiles): entrée expirée = miss. Ki yousel l max,
+ * l expirés yetna77aw, w ken mazel kbir yetfaragh kamel (l résultats yet3awdou yetsen3ou).
+ */
+final class TtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && entry.expiresAtMillis() > System.currentTimeMillis() ? entry.value() : null;
+    }
+
+    void put(K key, V value, int ttlSeconds, int maxEntries) {
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            evict(now, maxEntries);
+        }
+        entries.put(key, new Entry<>(value, now + ttlSeconds * 1000L));
+    }
+
+    void remove(K key) {
+        entries.remove(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long now, int maxEntries) {
+        for (Iterator<Entry<V>> it = entries.values().iterator(); it.hasNext();) {
+            if (it.next().expiresAtMillis() <= now) {
+                it.remove();
+            }
+        }
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- V14: Pre-aggregated admin analytics (hourly + daily buckets)
+-- Rows are upserted by AnalyticsRollupService, the dashboard reads one range of the unique index.
+
+CREATE TABLE analytics_rollups (
+    id                  BIGSERIAL PRIMARY KEY,
+    granularity         VARCHAR(10) NOT NULL,
+    bucket_start        TIMESTAMP WITH TIME ZONE NOT NULL,
+    signups             BIGINT NOT NULL DEFAULT 0,
+    rides_published     BIGINT NOT NULL DEFAULT 0,
+    bookings_total      BIGINT NOT NULL DEFAULT 0,
+    bookings_pending    BIGINT NOT NULL DEFAULT 0,
+    bookings_confirmed  BIGINT NOT NULL DEFAULT 0,
+    bookings_rejected   BIGINT NOT NULL DEFAULT 0,
+    bookings_cancelled  BIGINT NOT NULL DEFAULT 0,
+    gross_booking_value NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    updated_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_analytics_rollups_bucket UNIQUE (granularity, bucket_start),
+    CONSTRAINT chk_analytics_granularity CHECK (granularity IN ('HOUR', 'DAY'))
+);
+
+-- Catch-up job scans only rows written since its last run
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users(created_at);
+CREATE INDEX IF NOT EXISTS idx_rides_created_at ON rides(created_at);
+CREATE INDEX IF NOT EXISTS idx_bookings_updated_at ON bookings(updated_at);
+CREATE INDEX IF NOT EXISTS idx_bookings_created_at ON bookings(created_at);
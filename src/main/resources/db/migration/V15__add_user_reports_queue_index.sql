@@ -0,0 +1,4 @@
+-- V15: Supporting index for the keyset-paginated moderation queue
+-- (status filter + newest first, id breaks ties between reports created in the same instant)
+CREATE INDEX IF NOT EXISTS idx_user_reports_status_created_at
+    ON user_reports(status, created_at DESC, id DESC);
@@ -0,0 +1,98 @@
+-- V16: Range-partition notifications by month on created_at
+-- Read notifications pile up forever; with monthly partitions the hot lookups only walk small
+-- per-partition indexes and expired months are dropped with DETACH/DROP instead of DELETE.
+-- Nothing references notifications(id), so the table can be rebuilt in place.
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+ALTER TABLE notifications_legacy RENAME CONSTRAINT notifications_pkey TO notifications_legacy_pkey;
+DROP INDEX IF EXISTS idx_notifications_recipient_unread;
+DROP INDEX IF EXISTS idx_notifications_created_at;
+
+CREATE TABLE notifications (
+    id              UUID NOT NULL DEFAULT uuid_generate_v4(),
+    recipient_id    UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    type            VARCHAR(50) NOT NULL,
+    title           VARCHAR(255) NOT NULL,
+    message         TEXT NOT NULL,
+    link            VARCHAR(500),
+    is_read         BOOLEAN DEFAULT FALSE,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT notifications_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Safety net: rows outside every monthly partition land here instead of failing the insert
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+-- Creates the partition holding the month of month_start (idempotent), returns its name
+CREATE OR REPLACE FUNCTION ensure_notification_partition(month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    lower_bound DATE := date_trunc('month', month_start)::DATE;
+    upper_bound DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'notifications_p' || to_char(lower_bound, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+            partition_name, lower_bound, upper_bound);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches and drops every monthly partition that ends on or before cutoff, returns how many
+CREATE OR REPLACE FUNCTION drop_notification_partitions_before(cutoff DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    part RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = 'notifications'
+          AND c.relname ~ '^notifications_p[0-9]{6}$'
+          AND (to_date(substring(c.relname FROM 16), 'YYYYMM') + INTERVAL '1 month')::DATE <= cutoff
+    LOOP
+        EXECUTE format('ALTER TABLE notifications DETACH PARTITION %I', part.relname);
+        EXECUTE format('DROP TABLE %I', part.relname);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month that already has data, plus the next three months
+DO $$
+DECLARE
+    m DATE;
+BEGIN
+    FOR m IN
+        SELECT generate_series(
+            date_trunc('month', COALESCE((SELECT min(created_at) FROM notifications_legacy), NOW())),
+            date_trunc('month', NOW()) + INTERVAL '3 months',
+            INTERVAL '1 month')::DATE
+    LOOP
+        PERFORM ensure_notification_partition(m);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO notifications (id, recipient_id, type, title, message, link, is_read, created_at)
+SELECT id, recipient_id, type, title, message, link, COALESCE(is_read, FALSE), COALESCE(created_at, NOW())
+FROM notifications_legacy;
+
+DROP TABLE notifications_legacy;
+
+-- Indexes on the parent cascade to every partition (current and future)
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_unread
+    ON notifications(recipient_id, created_at DESC)
+    WHERE is_read = FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_created
+    ON notifications(recipient_id, created_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_id
+    ON notifications(id);
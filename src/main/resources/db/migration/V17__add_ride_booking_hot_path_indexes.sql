@@ -0,0 +1,21 @@
+-- V17: Keep the ride/booking hot paths off finished rows
+-- rides and bookings are referenced by foreign keys (bookings.ride_id, reviews.booking_id,
+-- user_reports.ride_id) that Postgres cannot point at a partitioned table unless the partition
+-- key is part of the referenced key, so instead of partitioning them we index only the live rows.
+
+-- searchRides always filters on status = 'SCHEDULED': partial GiST indexes only contain bookable rides
+CREATE INDEX IF NOT EXISTS idx_rides_scheduled_origin_gist
+    ON rides USING GIST (origin_point)
+    WHERE status = 'SCHEDULED';
+
+CREATE INDEX IF NOT EXISTS idx_rides_scheduled_destination_gist
+    ON rides USING GIST (destination_point)
+    WHERE status = 'SCHEDULED';
+
+CREATE INDEX IF NOT EXISTS idx_rides_scheduled_departure
+    ON rides(departure_time)
+    WHERE status = 'SCHEDULED';
+
+-- findByRideId / findByRideIdAndStatus
+CREATE INDEX IF NOT EXISTS idx_bookings_ride_status
+    ON bookings(ride_id, status);
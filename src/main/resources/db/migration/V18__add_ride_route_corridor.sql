@@ -0,0 +1,22 @@
+-- V18: Route geometry lel matching "en route" (passenger 3al thnia, mouch ken f origin/destination)
+-- route_line: polyline simplifiée (origin -> waypoints -> destination) en WGS84, yektebha l backend.
+-- route_utm: nafs l ligne projetée f UTM 32N (EPSG:32632, t8atti Tounes kamla) bech ST_DWithin
+-- w ST_LineLocatePoint yekhdmou b metres 3al geometry (GiST) bla cast geography.
+ALTER TABLE rides
+    ADD COLUMN IF NOT EXISTS route_line geometry(LineString, 4326);
+
+-- Rides 9dom: ligne droite bin origin w destination
+UPDATE rides
+SET route_line = ST_MakeLine(origin_point::geometry, destination_point::geometry)
+WHERE route_line IS NULL
+  AND origin_point IS NOT NULL
+  AND destination_point IS NOT NULL;
+
+ALTER TABLE rides
+    ADD COLUMN IF NOT EXISTS route_utm geometry(LineString, 32632)
+        GENERATED ALWAYS AS (ST_Transform(route_line, 32632)) STORED;
+
+-- Corridor search dima 3al rides SCHEDULED, kif V17
+CREATE INDEX IF NOT EXISTS idx_rides_scheduled_route_utm_gist
+    ON rides USING GIST (route_utm)
+    WHERE status = 'SCHEDULED';
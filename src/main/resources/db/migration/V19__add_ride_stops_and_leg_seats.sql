@@ -0,0 +1,38 @@
+-- V19: Rides b arrêts intermédiaires + blays par tronçon (leg)
+-- ride_stops: stop 0 = origin, stop n = destination, w l arrêts bin'hom b l ordre.
+-- rides.leg_seats[i] (1-based f Postgres) = blays libres bin stop i-1 w stop i.
+-- available_seats ybe9a = min(leg_seats) (blays men l bidaya lel ekher) lel queries 9dom.
+CREATE TABLE IF NOT EXISTS ride_stops (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    ride_id UUID NOT NULL REFERENCES rides (id) ON DELETE CASCADE,
+    stop_index INTEGER NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    point geography(Point, 4326) NOT NULL,
+    -- DEFERRABLE: updateRide ybaddel l arrêts (delete + insert) fi nafs l flush
+    CONSTRAINT uq_ride_stops_ride_index UNIQUE (ride_id, stop_index) DEFERRABLE INITIALLY DEFERRED
+);
+
+-- Search "any stop pair": pickup/dropoff 9rib men ay arrêt
+CREATE INDEX IF NOT EXISTS idx_ride_stops_point_gist
+    ON ride_stops USING GIST (point);
+
+-- Rides 9dom: zouz arrêts (origin, destination)
+INSERT INTO ride_stops (ride_id, stop_index, name, point)
+SELECT r.id, 0, r.origin_name, r.origin_point FROM rides r
+WHERE r.origin_point IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM ride_stops s WHERE s.ride_id = r.id);
+
+INSERT INTO ride_stops (ride_id, stop_index, name, point)
+SELECT r.id, 1, r.destination_name, r.destination_point FROM rides r
+WHERE r.destination_point IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM ride_stops s WHERE s.ride_id = r.id AND s.stop_index = 1);
+
+ALTER TABLE rides
+    ADD COLUMN IF NOT EXISTS leg_seats INTEGER[];
+
+UPDATE rides SET leg_seats = ARRAY[available_seats] WHERE leg_seats IS NULL;
+
+-- Tronçon réservé (null => l ride kamla, kif bookings 9dom)
+ALTER TABLE bookings
+    ADD COLUMN IF NOT EXISTS from_stop_index INTEGER,
+    ADD COLUMN IF NOT EXISTS to_stop_index INTEGER;
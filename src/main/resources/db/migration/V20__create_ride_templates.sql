@@ -0,0 +1,47 @@
+-- V20: Rides récurrents (templates) b matérialisation lazy
+-- Template = règle hebdomadaire (days_of_week bitmask, ISO lundi = bit 0) + heure locale + zone.
+-- Les instances (rides) ma yetsen3ouch l9odem: ken ki ta7ki search fenêtre walla booking,
+-- donc rides w l indexes mte3hom ma yetnaffkhouch b chhar men récurrences.
+CREATE TABLE IF NOT EXISTS ride_templates (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    driver_id UUID NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    vehicle_id UUID REFERENCES vehicles (id),
+    origin_name VARCHAR(255) NOT NULL,
+    origin_point geography(Point, 4326) NOT NULL,
+    destination_name VARCHAR(255) NOT NULL,
+    destination_point geography(Point, 4326) NOT NULL,
+    route_line geometry(LineString, 4326) NOT NULL,
+    departure_local_time TIME NOT NULL,
+    zone_id VARCHAR(64) NOT NULL DEFAULT 'Africa/Tunis',
+    days_of_week INTEGER NOT NULL,
+    valid_from DATE NOT NULL,
+    valid_until DATE,
+    exception_dates DATE[] NOT NULL DEFAULT '{}',
+    total_seats INTEGER NOT NULL,
+    price_per_seat NUMERIC(10, 2) NOT NULL,
+    allows_smoking BOOLEAN NOT NULL DEFAULT FALSE,
+    allows_music BOOLEAN NOT NULL DEFAULT FALSE,
+    allows_pets BOOLEAN NOT NULL DEFAULT FALSE,
+    luggage_size VARCHAR(20) NOT NULL DEFAULT 'MEDIUM',
+    gender_preference VARCHAR(20) NOT NULL DEFAULT 'ANY',
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_ride_templates_days CHECK (days_of_week BETWEEN 1 AND 127),
+    CONSTRAINT chk_ride_templates_validity CHECK (valid_until IS NULL OR valid_until >= valid_from)
+);
+
+-- Search y9alleb 3la templates actifs elli l corridor mte3hom y3addi b9orb l pickup/dropoff
+CREATE INDEX IF NOT EXISTS idx_ride_templates_active_route_gist
+    ON ride_templates USING GIST ((route_line::geography))
+    WHERE active;
+
+CREATE INDEX IF NOT EXISTS idx_ride_templates_driver
+    ON ride_templates (driver_id);
+
+-- Instance matérialisée: (template, date locale) unique => INSERT ... ON CONFLICT DO NOTHING idempotent
+ALTER TABLE rides
+    ADD COLUMN IF NOT EXISTS template_id UUID REFERENCES ride_templates (id) ON DELETE SET NULL,
+    ADD COLUMN IF NOT EXISTS occurrence_date DATE;
+
+ALTER TABLE rides
+    ADD CONSTRAINT uq_rides_template_occurrence UNIQUE (template_id, occurrence_date);
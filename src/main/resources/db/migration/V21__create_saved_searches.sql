@@ -0,0 +1,34 @@
+-- V21: Recherches sauvegardées + alertes (reverse matching ki ride yetsna3 walla yetbaddel)
+-- L matching ysir fel mémoire (SavedSearchIndex), l table hedhi source de vérité lel index.
+CREATE TABLE IF NOT EXISTS saved_searches (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    origin_name VARCHAR(255),
+    origin_point geography(Point, 4326) NOT NULL,
+    destination_name VARCHAR(255),
+    destination_point geography(Point, 4326) NOT NULL,
+    radius_km DOUBLE PRECISION NOT NULL DEFAULT 3.0,
+    departure_from TIMESTAMPTZ NOT NULL,
+    departure_to TIMESTAMPTZ NOT NULL,
+    seats INTEGER NOT NULL DEFAULT 1,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_saved_searches_window CHECK (departure_to >= departure_from),
+    CONSTRAINT chk_saved_searches_seats CHECK (seats >= 1)
+);
+
+-- Chargement t3 l index (actives elli mazel fenêtrethom ma fetetch)
+CREATE INDEX IF NOT EXISTS idx_saved_searches_active_departure_to
+    ON saved_searches (departure_to)
+    WHERE active;
+
+CREATE INDEX IF NOT EXISTS idx_saved_searches_user
+    ON saved_searches (user_id);
+
+-- Alerte wa7da par (recherche, ride): updateRide ma y3awedch ynotifi
+CREATE TABLE IF NOT EXISTS saved_search_alerts (
+    saved_search_id UUID NOT NULL REFERENCES saved_searches (id) ON DELETE CASCADE,
+    ride_id UUID NOT NULL REFERENCES rides (id) ON DELETE CASCADE,
+    notified_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (saved_search_id, ride_id)
+);
@@ -0,0 +1,40 @@
+-- V22: Demandes t3 passagers (côté demande): l drivers ylawjou 3lihom 9rib mel thnia mte3hom
+-- w ynajjmou y7awlouhom l ride + booking confirmé. Les indexes partiels fihom ken l OPEN.
+CREATE TABLE IF NOT EXISTS passenger_requests (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    passenger_id UUID NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    origin_name VARCHAR(255) NOT NULL,
+    origin_point geography(Point, 4326) NOT NULL,
+    destination_name VARCHAR(255) NOT NULL,
+    destination_point geography(Point, 4326) NOT NULL,
+    departure_from TIMESTAMPTZ NOT NULL,
+    departure_to TIMESTAMPTZ NOT NULL,
+    seats INTEGER NOT NULL DEFAULT 1,
+    message VARCHAR(500),
+    status VARCHAR(20) NOT NULL DEFAULT 'OPEN',
+    ride_id UUID REFERENCES rides (id) ON DELETE SET NULL,
+    created_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_passenger_requests_window CHECK (departure_to >= departure_from),
+    CONSTRAINT chk_passenger_requests_seats CHECK (seats >= 1)
+);
+
+CREATE INDEX IF NOT EXISTS idx_passenger_requests_open_origin_gist
+    ON passenger_requests USING GIST (origin_point)
+    WHERE status = 'OPEN';
+
+CREATE INDEX IF NOT EXISTS idx_passenger_requests_open_destination_gist
+    ON passenger_requests USING GIST (destination_point)
+    WHERE status = 'OPEN';
+
+-- Keyset (departure_from, id) lel pagination t3 l drivers
+CREATE INDEX IF NOT EXISTS idx_passenger_requests_open_keyset
+    ON passenger_requests (departure_from, id)
+    WHERE status = 'OPEN';
+
+-- Sweeper: demandes elli fenêtrethom fetet (mouch FULFILLED)
+CREATE INDEX IF NOT EXISTS idx_passenger_requests_sweep
+    ON passenger_requests (departure_to)
+    WHERE status <> 'FULFILLED';
+
+CREATE INDEX IF NOT EXISTS idx_passenger_requests_passenger
+    ON passenger_requests (passenger_id);
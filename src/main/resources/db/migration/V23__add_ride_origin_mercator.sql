@@ -0,0 +1,10 @@
+-- V23: Origin f Web Mercator (EPSG:3857) lel tuiles MVT (/api/v1/rides/tiles/{z}/{x}/{y}.mvt)
+-- ST_TileEnvelope yraja3 3857: l filtre && ysir 3al geometry projetée (GiST) bla ST_Transform
+-- kol ligne w bla mochkla t3 geography ki l enveloppe t8atti l 3alem lkol (zoom s8ir).
+ALTER TABLE rides
+    ADD COLUMN IF NOT EXISTS origin_mercator geometry(Point, 3857)
+        GENERATED ALWAYS AS (ST_Transform(origin_point::geometry, 3857)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_rides_scheduled_origin_mercator_gist
+    ON rides USING GIST (origin_mercator)
+    WHERE status = 'SCHEDULED';
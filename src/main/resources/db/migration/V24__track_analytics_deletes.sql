@@ -0,0 +1,26 @@
+-- V24: Deletes (suppression compte: users, rides, bookings) ma ykhalliw 7atta timestamp => l bucket
+-- ma yetla3ch "touched" w l rollup yab9a y7seb l lignes elli tna77aw. Trigger ykhabbi created_at
+-- t3 l ligne elli tfaskhet; AnalyticsRollupService y3awed y7seb l bucket w ba3d yfarragh l marks.
+CREATE TABLE analytics_rollup_deletes (
+    id         BIGSERIAL PRIMARY KEY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    marked_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_analytics_rollup_deletes_marked_at ON analytics_rollup_deletes(marked_at);
+
+CREATE OR REPLACE FUNCTION analytics_mark_delete() RETURNS trigger AS $$
+BEGIN
+    IF OLD.created_at IS NOT NULL THEN
+        INSERT INTO analytics_rollup_deletes (created_at) VALUES (OLD.created_at);
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_analytics_delete AFTER DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION analytics_mark_delete();
+CREATE TRIGGER trg_rides_analytics_delete AFTER DELETE ON rides
+    FOR EACH ROW EXECUTE FUNCTION analytics_mark_delete();
+CREATE TRIGGER trg_bookings_analytics_delete AFTER DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION analytics_mark_delete();
@@ -0,0 +1,22 @@
+-- V25: Blays t3 tronçon f matching corridor (en route)
+-- Pickup/dropoff ynajjmou ykounou bin zouz arrêts: l passager ya9ra men e5er arrêt 9bal l pickup
+-- (3al route_utm) lel awel arrêt ba3d l dropoff, donc l legs [pickup_stop + 1, dropoff_stop]
+-- (leg_seats 1-based). Ken l arrêts mouch b l ordre 3al ligne (slice fergha), min(leg_seats).
+-- p_pickup w p_dropoff déjà f UTM 32N (EPSG:32632), kif route_utm.
+CREATE OR REPLACE FUNCTION ride_corridor_seats(p_ride_id UUID, p_route geometry, p_legs INTEGER[],
+                                               p_pickup geometry, p_dropoff geometry)
+RETURNS INTEGER AS $$
+    SELECT COALESCE(
+        (SELECT min(seats) FROM unnest(p_legs[
+            (SELECT COALESCE(max(s.stop_index), 0) FROM ride_stops s
+             WHERE s.ride_id = p_ride_id
+             AND ST_LineLocatePoint(p_route, ST_Transform(CAST(s.point AS geometry), 32632))
+                 <= ST_LineLocatePoint(p_route, p_pickup)) + 1
+            :
+            (SELECT COALESCE(min(s.stop_index), cardinality(p_legs)) FROM ride_stops s
+             WHERE s.ride_id = p_ride_id
+             AND ST_LineLocatePoint(p_route, ST_Transform(CAST(s.point AS geometry), 32632))
+                 >= ST_LineLocatePoint(p_route, p_dropoff))
+        ]) seats),
+        (SELECT min(seats) FROM unnest(p_legs) seats))
+$$ LANGUAGE sql STABLE;
@@ -0,0 +1,45 @@
+-- V26: Search "any stop pair" (searchRides, relevance, explore, calendrier) ma kenech yesta3mel 7atta index
+-- partiel: idx_ride_stops_point_gist fih l arrêts t3 rides COMPLETED/CANCELLED lkol w yekber dima.
+-- ride_stops.ride_status = copie men rides.status (triggers) bech l GiST ykoun partiel kif V17.
+
+ALTER TABLE ride_stops
+    ADD COLUMN IF NOT EXISTS ride_status VARCHAR(20);
+
+UPDATE ride_stops s SET ride_status = r.status
+FROM rides r
+WHERE r.id = s.ride_id AND s.ride_status IS DISTINCT FROM r.status;
+
+ALTER TABLE ride_stops
+    ALTER COLUMN ride_status SET NOT NULL;
+
+-- Insert (JPA walla seed) bla ride_status: ya5ou l status mta3 l ride. materialiseOccurrence y3addih
+-- explicite: l CTE ma ychoufech l ride elli tzedet fi nafs l statement.
+CREATE OR REPLACE FUNCTION ride_stops_fill_status() RETURNS trigger AS $$
+BEGIN
+    IF NEW.ride_status IS NULL THEN
+        SELECT r.status INTO NEW.ride_status FROM rides r WHERE r.id = NEW.ride_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_ride_stops_fill_status BEFORE INSERT ON ride_stops
+    FOR EACH ROW EXECUTE FUNCTION ride_stops_fill_status();
+
+-- cancel, complete, expire: l arrêts yo5orjou mel index m3a l ride
+CREATE OR REPLACE FUNCTION rides_sync_stop_status() RETURNS trigger AS $$
+BEGIN
+    UPDATE ride_stops SET ride_status = NEW.status WHERE ride_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_rides_sync_stop_status AFTER UPDATE OF status ON rides
+    FOR EACH ROW WHEN (OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION rides_sync_stop_status();
+
+CREATE INDEX IF NOT EXISTS idx_ride_stops_scheduled_point_gist
+    ON ride_stops USING GIST (point)
+    WHERE ride_status = 'SCHEDULED';
+
+DROP INDEX IF EXISTS idx_ride_stops_point_gist;
@@ -0,0 +1,16 @@
+-- V27: Prix prorata t3 tronçon f SQL (explore), nafs l 7seb t3 BookingService.segmentFraction:
+-- distance [from, to] / distance totale, distances bin l arrêts el wa7ed ba3d l e5er (sphère, kif haversine).
+-- Distance totale 0 (arrêts fi nafs l blasa) => (to - from) / nombre t3 legs.
+CREATE OR REPLACE FUNCTION ride_segment_fraction(p_ride_id UUID, p_from INTEGER, p_to INTEGER)
+RETURNS DOUBLE PRECISION AS $$
+    SELECT CASE
+        WHEN p_from = 0 AND p_to = max(stop_index) THEN 1.0
+        WHEN sum(leg) > 0 THEN COALESCE(sum(leg) FILTER (WHERE stop_index > p_from AND stop_index <= p_to), 0) / sum(leg)
+        ELSE CAST(p_to - p_from AS DOUBLE PRECISION) / NULLIF(max(stop_index), 0)
+    END
+    FROM (
+        SELECT s.stop_index, ST_Distance(lag(s.point) OVER (ORDER BY s.stop_index), s.point, false) AS leg
+        FROM ride_stops s
+        WHERE s.ride_id = p_ride_id
+    ) legs
+$$ LANGUAGE sql STABLE;
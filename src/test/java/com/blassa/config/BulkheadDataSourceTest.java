@@ -0,0 +1,77 @@
+package com.blassa.config;
+
+import com.blassa.exception.DatabaseBusyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource target;
+    @Mock
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(target.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void getConnection_shouldTakePermitAndReleaseItOnceOnClose() throws SQLException {
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 2, 100);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        first.close();
+        // close marrtin ma yrajja3ch permit zeyed
+        first.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_shouldTimeOutIntoDatabaseBusyWhenFull() throws SQLException {
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, 50);
+        Connection held = dataSource.getConnection();
+
+        long start = System.nanoTime();
+        assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+        assertTrue(System.nanoTime() - start >= 40_000_000L);
+        verify(target, times(1)).getConnection();
+
+        held.close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_shouldReleasePermitWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool down"));
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, 50);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void proxy_shouldDelegateOtherCalls() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, 50);
+
+        try (Connection wrapped = dataSource.getConnection()) {
+            assertFalse(wrapped.getAutoCommit());
+        }
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
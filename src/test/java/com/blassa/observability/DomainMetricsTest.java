@@ -0,0 +1,40 @@
+package com.blassa.observability;
+
+import com.blassa.model.entity.Ride;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainMetricsTest {
+
+    @Test
+    void outcomeOf_shouldKeepServiceErrorCodes() {
+        assertEquals("NOT_ENOUGH_SEATS", DomainMetrics.outcomeOf(new IllegalArgumentException("NOT_ENOUGH_SEATS")));
+        assertEquals("PASSENGER_ALREADY_BOOKED",
+                DomainMetrics.outcomeOf(new IllegalStateException("PASSENGER_ALREADY_BOOKED")));
+    }
+
+    @Test
+    void outcomeOf_shouldMapVersionConflictAndFreeText() {
+        assertEquals("VERSION_CONFLICT",
+                DomainMetrics.outcomeOf(new ObjectOptimisticLockingFailureException(Ride.class, "id")));
+        assertEquals("UNEXPECTED", DomainMetrics.outcomeOf(new IllegalArgumentException("User not found")));
+        assertEquals("UNEXPECTED", DomainMetrics.outcomeOf(new NullPointerException()));
+    }
+
+    @Test
+    void recordSearch_shouldBucketRadiusAndResults() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DomainMetrics metrics = new DomainMetrics(meterRegistry);
+
+        metrics.recordSearch(3.0, 0, 1_000);
+        metrics.recordSearch(12.5, 37, 1_000);
+
+        assertEquals(1, meterRegistry.get("blassa.ride.search").tag("radius", "le3km").tag("results", "0")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("blassa.ride.search").tag("radius", "le25km").tag("results", "11-50")
+                .timer().count());
+    }
+}
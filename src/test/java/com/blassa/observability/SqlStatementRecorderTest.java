@@ -0,0 +1,116 @@
+package com.blassa.observability;
+
+import com.blassa.support.QueryBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlStatementRecorderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementRecorder recorder = new SqlStatementRecorder(meterRegistry, 3);
+
+    @AfterEach
+    void tearDown() {
+        SqlRequestContext.end();
+    }
+
+    @Test
+    void shapeOf_shouldCollapseLiteralsAndInLists() {
+        assertEquals(
+                SqlRequestContext.shapeOf("select * from users u where u.id in (?, ?, ?) and u.role = 'ADMIN'"),
+                SqlRequestContext.shapeOf("select *  from users u\n where u.id in (?,?) and u.role = 'USER'"));
+    }
+
+    @Test
+    void record_shouldTagStatementsWithRouteAndOperation() {
+        SqlRequestContext.begin("GET /api/v1/rides/{id}");
+
+        recorder.record("select r1_0.id from rides r1_0 where r1_0.id=?", 1_000_000);
+        recorder.record("update rides set available_seats=? where id=?", 2_000_000);
+
+        assertEquals(1, meterRegistry.get("blassa.sql.statement")
+                .tag("route", "GET /api/v1/rides/{id}").tag("operation", "select").timer().count());
+        assertEquals(1, meterRegistry.get("blassa.sql.statement")
+                .tag("operation", "update").timer().count());
+        assertEquals(2, SqlRequestContext.current().getStatementCount());
+    }
+
+    @Test
+    void complete_shouldFlagRepeatedStatementShape() {
+        SqlRequestContext context = SqlRequestContext.begin("GET /api/v1/admin/reports");
+        for (int i = 0; i < 5; i++) {
+            recorder.record("select u1_0.id from users u1_0 where u1_0.id=" + i, 1000);
+        }
+
+        recorder.complete(context);
+
+        assertEquals(1.0, meterRegistry.get("blassa.sql.n_plus_one").counter().count());
+        assertEquals(5.0, meterRegistry.get("blassa.sql.statements.per.request").summary().totalAmount());
+    }
+
+    @Test
+    void resolveRoute_shouldTagStatementsIssuedBeforeHandler() {
+        SqlRequestContext context = SqlRequestContext.beginUnresolved();
+        recorder.record("select u1_0.id from users u1_0 where u1_0.email=?", 1_000_000);
+
+        recorder.resolveRoute(context, "GET /api/v1/bookings/me");
+        recorder.record("select b1_0.id from bookings b1_0 where b1_0.passenger_id=?", 1_000_000);
+        recorder.complete(context);
+
+        assertEquals(2, meterRegistry.get("blassa.sql.statement")
+                .tag("route", "GET /api/v1/bookings/me").timer().count());
+        assertTrue(meterRegistry.find("blassa.sql.statement").tag("route", SqlRequestContext.NO_ROUTE).timers().isEmpty());
+    }
+
+    @Test
+    void complete_shouldTagUnresolvedRequestsAsUnmapped() {
+        SqlRequestContext context = SqlRequestContext.beginUnresolved();
+        recorder.record("select u1_0.id from users u1_0 where u1_0.email=?", 1000);
+
+        recorder.complete(context);
+
+        assertEquals(1, meterRegistry.get("blassa.sql.statement")
+                .tag("route", SqlStatementRecorder.UNMAPPED_ROUTE).timer().count());
+        assertEquals(1.0, meterRegistry.get("blassa.sql.statements.per.request")
+                .tag("route", SqlStatementRecorder.UNMAPPED_ROUTE).summary().totalAmount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statementGetConnection_shouldReturnProxiedConnection() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection raw = mock(Connection.class);
+        PreparedStatement rawStatement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(raw);
+        when(raw.prepareStatement("select 1")).thenReturn(rawStatement);
+        ObjectProvider<SqlStatementRecorder> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(recorder);
+
+        Connection connection = new SqlMetricsDataSource(target, provider).getConnection();
+        PreparedStatement statement = connection.prepareStatement("select 1");
+        statement.executeQuery();
+
+        assertSame(connection, statement.getConnection());
+        assertEquals(1, meterRegistry.get("blassa.sql.statement").tag("operation", "select").timer().count());
+    }
+
+    @Test
+    void queryBudget_shouldFail_whenBudgetExceeded() {
+        assertThrows(AssertionError.class, () -> QueryBudget.atMost(1, () -> {
+            recorder.record("select 1", 1000);
+            recorder.record("select 2", 1000);
+        }));
+
+        QueryBudget.atMost(2, () -> recorder.record("select 1", 1000));
+    }
+}
@@ -0,0 +1,66 @@
+package com.blassa.observability;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficCaptureFilterTest {
+
+    @Test
+    void anonymisedQuery_shouldRoundCoordinatesAndDropUnknownParams() {
+        Map<String, String[]> params = new LinkedHashMap<>();
+        params.put("originLat", new String[] { "36.806512" });
+        params.put("originLon", new String[] { "10.181534" });
+        params.put("departureTime", new String[] { "2026-10-20T08:47:00+01:00" });
+        params.put("radius", new String[] { "5" });
+        params.put("email", new String[] { "someone@blassa.tn" });
+
+        String query = TrafficCaptureFilter.anonymisedQuery(params);
+
+        assertEquals("originLat=36.81&originLon=10.18&departureTime=2026-10-20T08%3A00%2B01%3A00&radius=5", query);
+    }
+
+    @Test
+    void anonymisedQuery_shouldKeepSearchShapeAndTruncateLocalRanges() {
+        Map<String, String[]> params = new LinkedHashMap<>();
+        params.put("timeFlexHours", new String[] { "3" });
+        params.put("enRoute", new String[] { "false" });
+        params.put("from", new String[] { "2026-10-20T08:47:12" });
+        params.put("to", new String[] { "2026-10-27T23:59" });
+        params.put("days", new String[] { "30" });
+        params.put("afterId", new String[] { "7f1c6d1e-2f4b-4a55-9f0e-0b1d2c3e4f50" });
+        params.put("q", new String[] { "sou" });
+
+        String query = TrafficCaptureFilter.anonymisedQuery(params);
+
+        assertEquals("timeFlexHours=3&enRoute=false&from=2026-10-20T08%3A00&to=2026-10-27T23%3A00&days=30", query);
+    }
+
+    @Test
+    void filter_shouldSkipRequests_whenCaptureDisabledAtRuntime() {
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(false, "unused.tsv", 1);
+        writer.start();
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(writer, 1.0);
+
+        assertFalse(writer.isRunning());
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/v1/rides/search")));
+    }
+
+    @Test
+    void roleOf_shouldDistinguishAnonymousUserAndAdmin() {
+        assertEquals("ANONYMOUS", TrafficCaptureFilter.roleOf(null));
+        assertEquals("ANONYMOUS", TrafficCaptureFilter.roleOf(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"))));
+        assertEquals("USER", TrafficCaptureFilter.roleOf(new UsernamePasswordAuthenticationToken(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"))));
+        assertEquals("ADMIN", TrafficCaptureFilter.roleOf(new UsernamePasswordAuthenticationToken(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"))));
+    }
+}
@@ -0,0 +1,55 @@
+package com.blassa.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionHoldTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TransactionHoldTracker tracker = new TransactionHoldTracker(meterRegistry, 20);
+
+    @Test
+    void methodOf_shouldKeepClassAndMethodName() {
+        assertEquals("BookingService.createBooking",
+                TransactionHoldTracker.methodOf("com.blassa.service.BookingService.createBooking"));
+        assertEquals("unnamed", TransactionHoldTracker.methodOf(null));
+    }
+
+    @Test
+    void commit_shouldSplitJdbcAndNonJdbcTime() throws InterruptedException {
+        DefaultTransactionStatus tx = transaction("com.blassa.service.BookingService.createBooking");
+
+        tracker.afterBegin(tx, null);
+        TransactionHoldTracker.recordJdbc(TimeUnit.MILLISECONDS.toNanos(5));
+        Thread.sleep(40);
+        tracker.afterCommit(tx, null);
+
+        var hold = meterRegistry.get("blassa.tx.hold")
+                .tag("method", "BookingService.createBooking").tag("outcome", "commit").timer();
+        var nonJdbc = meterRegistry.get("blassa.tx.non_jdbc")
+                .tag("method", "BookingService.createBooking").timer();
+        assertEquals(1, hold.count());
+        assertTrue(hold.totalTime(TimeUnit.MILLISECONDS) - nonJdbc.totalTime(TimeUnit.MILLISECONDS) >= 4.9);
+        assertEquals(1.0, meterRegistry.get("blassa.tx.non_jdbc.exceeded").counter().count());
+    }
+
+    @Test
+    void rollback_shouldNotWarn_whenTransactionIsFast() {
+        DefaultTransactionStatus tx = transaction("com.blassa.service.RideService.createRide");
+
+        tracker.afterBegin(tx, null);
+        tracker.afterRollback(tx, null);
+
+        assertEquals(1, meterRegistry.get("blassa.tx.hold").tag("outcome", "rollback").timer().count());
+        assertNull(meterRegistry.find("blassa.tx.non_jdbc.exceeded").counter());
+    }
+
+    private static DefaultTransactionStatus transaction(String name) {
+        return new DefaultTransactionStatus(name, new Object(), true, false, false, false, false, null);
+    }
+}
@@ -0,0 +1,158 @@
+package com.blassa.service;
+
+import com.blassa.dto.ReportDTO;
+import com.blassa.dto.ReportQueueResponse;
+import com.blassa.model.entity.User;
+import com.blassa.model.entity.UserReport;
+import com.blassa.model.enums.ReportStatus;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserReportRepository;
+import com.blassa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private UserReportRepository userReportRepository;
+
+    @InjectMocks
+    private AdminService adminService;
+
+    private final User reporter = User.builder().id(UUID.randomUUID()).firstName("Sara").lastName("Reporter")
+            .email("reporter@blassa.tn").build();
+
+    private UserReport report(long id, OffsetDateTime createdAt) {
+        return UserReport.builder().id(id).reporter(reporter).reason("SPAM").status(ReportStatus.PENDING)
+                .createdAt(createdAt).build();
+    }
+
+    // Nafs l predicate w l ordre t3 findQueueFirstPage / findQueuePageBefore, 3la liste in-memory
+    private void stubQueue(List<UserReport> table) {
+        Comparator<UserReport> order = Comparator.comparing(UserReport::getCreatedAt)
+                .thenComparing(UserReport::getId).reversed();
+        lenient().when(userReportRepository.findQueueFirstPage(eq(ReportStatus.PENDING), any(Limit.class)))
+                .thenAnswer(inv -> table.stream().sorted(order)
+                        .limit(inv.getArgument(1, Limit.class).max()).toList());
+        lenient().when(userReportRepository.findQueuePageBefore(eq(ReportStatus.PENDING), any(), any(),
+                any(Limit.class))).thenAnswer(inv -> {
+                    OffsetDateTime before = inv.getArgument(1);
+                    Long beforeId = inv.getArgument(2);
+                    return table.stream()
+                            .filter(r -> r.getCreatedAt().isBefore(before)
+                                    || (r.getCreatedAt().isEqual(before) && r.getId() < beforeId))
+                            .sorted(order)
+                            .limit(inv.getArgument(3, Limit.class).max())
+                            .toList();
+                });
+    }
+
+    @Test
+    void getReportQueue_shouldVisitEveryReportOnceAcrossEqualTimestamps() {
+        OffsetDateTime t0 = OffsetDateTime.parse("2026-03-14T08:00:00+01:00");
+        List<UserReport> table = new ArrayList<>();
+        // 7 reports b nafs l createdAt (batch import), 2 9bal w 1 ba3d
+        for (long id = 1; id <= 7; id++) {
+            table.add(report(id, t0));
+        }
+        table.add(report(8, t0.minusMinutes(5)));
+        table.add(report(9, t0.minusMinutes(10)));
+        table.add(report(10, t0.plusMinutes(1)));
+        stubQueue(table);
+
+        List<Long> seen = new ArrayList<>();
+        ReportQueueResponse page = adminService.getReportQueue(ReportStatus.PENDING, null, null, 3);
+        page.getReports().stream().map(ReportDTO::getId).forEach(seen::add);
+        int pages = 1;
+        while (page.isHasMore()) {
+            page = adminService.getReportQueue(ReportStatus.PENDING, page.getNextBeforeCreatedAt(),
+                    page.getNextBeforeId(), 3);
+            page.getReports().stream().map(ReportDTO::getId).forEach(seen::add);
+            pages++;
+        }
+
+        assertEquals(List.of(10L, 7L, 6L, 5L, 4L, 3L, 2L, 1L, 8L, 9L), seen);
+        assertEquals(4, pages);
+        assertNull(page.getNextBeforeId());
+    }
+
+    @Test
+    void getReportQueue_shouldStayStableWhenReportsArriveBetweenPages() {
+        OffsetDateTime t0 = OffsetDateTime.parse("2026-03-14T08:00:00+01:00");
+        List<UserReport> table = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            table.add(report(id, t0));
+        }
+        stubQueue(table);
+
+        ReportQueueResponse first = adminService.getReportQueue(ReportStatus.PENDING, null, null, 2);
+        // Report jdid (a7dath) ma ylazemch y7arrek l cursor
+        table.add(report(5, t0.plusSeconds(1)));
+        ReportQueueResponse second = adminService.getReportQueue(ReportStatus.PENDING,
+                first.getNextBeforeCreatedAt(), first.getNextBeforeId(), 2);
+
+        assertEquals(List.of(4L, 3L), first.getReports().stream().map(ReportDTO::getId).toList());
+        assertEquals(List.of(2L, 1L), second.getReports().stream().map(ReportDTO::getId).toList());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void getReportQueue_shouldRejectHalfCursorAndClampPageSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> adminService.getReportQueue(ReportStatus.PENDING, OffsetDateTime.now(), null, 10));
+
+        when(userReportRepository.findQueueFirstPage(eq(ReportStatus.PENDING), any(Limit.class)))
+                .thenReturn(List.of());
+        adminService.getReportQueue(ReportStatus.PENDING, null, null, 10_000);
+
+        ArgumentCaptor<Limit> limit = ArgumentCaptor.forClass(Limit.class);
+        verify(userReportRepository).findQueueFirstPage(eq(ReportStatus.PENDING), limit.capture());
+        assertEquals(101, limit.getValue().max());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resolveReports_shouldIssueSingleUpdateWithDistinctIds() {
+        when(userReportRepository.updateStatusByIdIn(anyCollection(), eq(ReportStatus.RESOLVED), any()))
+                .thenReturn(3);
+
+        int updated = adminService.resolveReports(List.of(4L, 2L, 4L, 9L), ReportStatus.RESOLVED);
+
+        assertEquals(3, updated);
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(userReportRepository, times(1)).updateStatusByIdIn(ids.capture(), eq(ReportStatus.RESOLVED),
+                notNull());
+        assertEquals(List.of(4L, 2L, 9L), new ArrayList<>(ids.getValue()));
+        verify(userReportRepository, never()).save(any());
+    }
+
+    @Test
+    void resolveReports_shouldRejectPendingAsResolution() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> adminService.resolveReports(List.of(1L), ReportStatus.PENDING));
+
+        assertEquals("INVALID_RESOLUTION_STATUS", error.getMessage());
+        verifyNoInteractions(userReportRepository);
+    }
+}
@@ -0,0 +1,105 @@
+package com.blassa.service;
+
+import com.blassa.dto.AnalyticsPointDTO;
+import com.blassa.model.entity.AnalyticsRollup;
+import com.blassa.model.enums.AnalyticsGranularity;
+import com.blassa.repository.AnalyticsRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsRollupServiceTest {
+
+    @Mock
+    private AnalyticsRollupRepository analyticsRollupRepository;
+
+    @InjectMocks
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Test
+    void getSeries_shouldComputeCancellationRate() {
+        OffsetDateTime from = OffsetDateTime.now().minusDays(7);
+        OffsetDateTime to = OffsetDateTime.now();
+        AnalyticsRollup rollup = AnalyticsRollup.builder()
+                .granularity(AnalyticsGranularity.DAY)
+                .bucketStart(from)
+                .bookingsTotal(8)
+                .bookingsCancelled(2)
+                .grossBookingValue(BigDecimal.valueOf(90))
+                .build();
+        when(analyticsRollupRepository.findByGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+                AnalyticsGranularity.DAY, from, to)).thenReturn(List.of(rollup));
+
+        List<AnalyticsPointDTO> series = analyticsRollupService.getSeries(AnalyticsGranularity.DAY, from, to);
+
+        assertEquals(1, series.size());
+        assertEquals(0.25, series.get(0).getCancellationRate(), 1e-9);
+    }
+
+    @Test
+    void getSeries_shouldReturnZeroRate_whenNoBookings() {
+        OffsetDateTime from = OffsetDateTime.now().minusDays(1);
+        OffsetDateTime to = OffsetDateTime.now();
+        AnalyticsRollup rollup = AnalyticsRollup.builder()
+                .granularity(AnalyticsGranularity.HOUR)
+                .bucketStart(from)
+                .grossBookingValue(BigDecimal.ZERO)
+                .build();
+        when(analyticsRollupRepository.findByGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+                AnalyticsGranularity.HOUR, from, to)).thenReturn(List.of(rollup));
+
+        assertEquals(0.0, analyticsRollupService.getSeries(AnalyticsGranularity.HOUR, from, to)
+                .get(0).getCancellationRate());
+    }
+
+    @Test
+    void getSeries_shouldThrow_whenRangeInverted() {
+        OffsetDateTime now = OffsetDateTime.now();
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> analyticsRollupService.getSeries(AnalyticsGranularity.DAY, now, now.minusDays(1)));
+
+        assertEquals("INVALID_RANGE", ex.getMessage());
+    }
+
+    @Test
+    void refreshRollups_shouldResumeFromLastRollup() {
+        OffsetDateTime last = OffsetDateTime.now().minusHours(1);
+        when(analyticsRollupRepository.findLastRollupTime()).thenReturn(Optional.of(last));
+
+        analyticsRollupService.refreshRollups();
+
+        verify(analyticsRollupRepository).upsertTouchedBuckets(eq("HOUR"), eq("hour"), eq(last.minusMinutes(2)));
+        verify(analyticsRollupRepository).upsertTouchedBuckets(eq("DAY"), eq("day"), any());
+    }
+
+    @Test
+    void refreshRollups_shouldClearDeleteMarksOlderThanOverlap() {
+        when(analyticsRollupRepository.findLastRollupTime()).thenReturn(Optional.empty());
+        OffsetDateTime before = OffsetDateTime.now();
+
+        analyticsRollupService.refreshRollups();
+
+        ArgumentCaptor<OffsetDateTime> cutoff = ArgumentCaptor.forClass(OffsetDateTime.class);
+        InOrder order = inOrder(analyticsRollupRepository);
+        order.verify(analyticsRollupRepository).upsertTouchedBuckets(eq("DAY"), eq("day"), any());
+        order.verify(analyticsRollupRepository).clearDeleteMarks(cutoff.capture());
+        assertFalse(cutoff.getValue().isAfter(before.minusMinutes(2).plusSeconds(5)));
+        assertTrue(cutoff.getValue().isAfter(before.minusMinutes(3)));
+    }
+}
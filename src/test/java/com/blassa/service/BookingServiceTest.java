@@ -2,6 +2,7 @@ package com.blassa.service;
 
 import com.blassa.model.entity.Booking;
 import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.RideStop;
 import com.blassa.model.entity.User;
 import com.blassa.model.enums.*;
 import com.blassa.repository.BookingRepository;
@@ -10,6 +11,9 @@ import com.blassa.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,10 +24,13 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -185,4 +192,80 @@ class BookingServiceTest {
 
         assertEquals("NOT_AUTHORIZED_TO_CANCEL", ex.getMessage());
     }
+
+    // Tunis -> Sousse -> Sfax, 3 blays 3al kol leg
+    private void withStops() {
+        GeometryFactory gf = new GeometryFactory(new PrecisionModel(), 4326);
+        List<RideStop> stops = new ArrayList<>();
+        stops.add(RideStop.builder().ride(ride).stopIndex(0).name("Tunis")
+                .point(gf.createPoint(new Coordinate(10.1815, 36.8065))).build());
+        stops.add(RideStop.builder().ride(ride).stopIndex(1).name("Sousse")
+                .point(gf.createPoint(new Coordinate(10.6084, 35.8256))).build());
+        stops.add(RideStop.builder().ride(ride).stopIndex(2).name("Sfax")
+                .point(gf.createPoint(new Coordinate(10.7603, 34.7406))).build());
+        ride.setStops(stops);
+        ride.setLegSeats(new int[] { 3, 3 });
+        ride.setAvailableSeats(3);
+    }
+
+    @Test
+    void createBooking_segment_shouldOnlyConsumeItsLegs() {
+        withStops();
+        when(rideRepository.findById(ride.getId())).thenReturn(Optional.of(ride));
+        when(bookingRepository.findByRideIdAndPassengerId(ride.getId(), passenger.getId()))
+                .thenReturn(Optional.empty());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        var response = bookingService.createBooking(
+                new com.blassa.dto.BookingRequest(ride.getId(), 2, 1, 2));
+
+        assertArrayEquals(new int[] { 3, 1 }, ride.getLegSeats());
+        assertEquals(1, ride.getAvailableSeats());
+        assertEquals(RideStatus.SCHEDULED, ride.getStatus());
+        assertEquals("Sousse -> Sfax", response.rideSummary());
+        // Sousse -> Sfax ~ 45% mel distance => a9al men 2 x 15
+        assertTrue(response.priceTotal().compareTo(BigDecimal.valueOf(30)) < 0);
+        assertTrue(response.priceTotal().signum() > 0);
+    }
+
+    @Test
+    void createBooking_shouldThrow_whenAnyLegOfSegmentIsFull() {
+        withStops();
+        ride.setLegSeats(new int[] { 0, 3 });
+        ride.setAvailableSeats(0);
+
+        when(rideRepository.findById(ride.getId())).thenReturn(Optional.of(ride));
+        when(bookingRepository.findByRideIdAndPassengerId(ride.getId(), passenger.getId()))
+                .thenReturn(Optional.empty());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> bookingService.createBooking(
+                        new com.blassa.dto.BookingRequest(ride.getId(), 1, 0, 2)));
+
+        assertEquals("NOT_ENOUGH_SEATS", ex.getMessage());
+    }
+
+    @Test
+    void cancelBooking_segment_shouldReleaseOnlyItsLegs() {
+        withStops();
+        ride.setLegSeats(new int[] { 3, 1 });
+        ride.setAvailableSeats(1);
+        Booking booking = Booking.builder()
+                .id(UUID.randomUUID())
+                .ride(ride)
+                .passenger(passenger)
+                .seatsBooked(2)
+                .fromStopIndex(1)
+                .toStopIndex(2)
+                .priceTotal(BigDecimal.valueOf(14))
+                .status(BookingStatus.CONFIRMED)
+                .build();
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        bookingService.cancelBooking(booking.getId());
+
+        assertArrayEquals(new int[] { 3, 3 }, ride.getLegSeats());
+        assertEquals(3, ride.getAvailableSeats());
+        assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+    }
 }
@@ -0,0 +1,117 @@
+package com.blassa.service;
+
+import com.blassa.dto.ExploreDestinationResponse;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Point;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExploreServiceTest {
+
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RideTemplateService rideTemplateService;
+
+    @InjectMocks
+    private ExploreService exploreService;
+
+    private Object[] sousseRow(UUID cheapest, UUID soonest) {
+        return new Object[] { "Sousse", 35.8256, 10.6360, new BigDecimal("12.00"),
+                Instant.parse("2026-03-14T07:00:00Z"), 4L, cheapest, soonest };
+    }
+
+    @Test
+    void explore_shouldMapAggregateRows() {
+        UUID cheapest = UUID.randomUUID();
+        UUID soonest = UUID.randomUUID();
+        List<Object[]> rows = List.<Object[]>of(sousseRow(cheapest, soonest));
+        when(rideRepository.exploreDestinations(any(), anyDouble(), any(), any(), anyInt(), anyList(), anyDouble(),
+                anyInt())).thenReturn(rows);
+
+        List<ExploreDestinationResponse> result = exploreService.explore(36.8065, 10.1815, null, null, 1, 3.0, false,
+                null);
+
+        assertEquals(1, result.size());
+        ExploreDestinationResponse sousse = result.get(0);
+        assertEquals("Sousse", sousse.destinationName());
+        assertEquals(4, sousse.rideCount());
+        assertEquals(cheapest, sousse.cheapestRideId());
+        assertEquals(soonest, sousse.soonestRideId());
+        // 07:00Z => 08:00 Tunis
+        assertEquals(8, sousse.earliestDeparture().getHour());
+    }
+
+    @Test
+    void explore_shouldServeNearbyOriginsFromCache() {
+        when(rideRepository.exploreDestinations(any(), anyDouble(), any(), any(), anyInt(), anyList(), anyDouble(),
+                anyInt())).thenReturn(List.<Object[]>of(sousseRow(UUID.randomUUID(), UUID.randomUUID())));
+        OffsetDateTime from = OffsetDateTime.now().plusDays(1);
+
+        exploreService.explore(36.8065, 10.1815, from, from.plusDays(2), 1, 3.0, false, null);
+        // ~300 m b3id: nafs l cellule 0.01°
+        exploreService.explore(36.8041, 10.1790, from, from.plusDays(2), 1, 3.0, false, null);
+
+        ArgumentCaptor<Point> origin = ArgumentCaptor.forClass(Point.class);
+        verify(rideRepository, times(1)).exploreDestinations(origin.capture(), anyDouble(), any(), any(), anyInt(),
+                anyList(), anyDouble(), anyInt());
+        assertEquals(36.81, origin.getValue().getY(), 1e-9);
+        assertEquals(10.18, origin.getValue().getX(), 1e-9);
+
+        exploreService.explore(36.8065, 10.1815, from, from.plusDays(2), 2, 3.0, false, null);
+        verify(rideRepository, times(2)).exploreDestinations(any(), anyDouble(), any(), any(), anyInt(), anyList(),
+                anyDouble(), anyInt());
+    }
+
+    @Test
+    void explore_shouldRejectInvalidOrTooLongWindow() {
+        OffsetDateTime from = OffsetDateTime.now().plusDays(1);
+
+        IllegalArgumentException inverted = assertThrows(IllegalArgumentException.class,
+                () -> exploreService.explore(36.8, 10.18, from, from.minusHours(1), 1, 3.0, true, null));
+        assertEquals("INVALID_RANGE", inverted.getMessage());
+
+        IllegalArgumentException tooLong = assertThrows(IllegalArgumentException.class,
+                () -> exploreService.explore(36.8, 10.18, from, from.plusDays(30), 1, 3.0, true, null));
+        assertEquals("EXPLORE_WINDOW_TOO_LONG", tooLong.getMessage());
+        verifyNoInteractions(rideRepository);
+    }
+
+    @Test
+    void explore_shouldMaterialiseTemplatesAndMatchCorridor_whenEnRoute() {
+        when(rideRepository.exploreDestinationsAlongRoute(any(), anyDouble(), any(), any(), anyInt(), anyList(),
+                anyDouble(), anyInt())).thenReturn(List.<Object[]>of(sousseRow(UUID.randomUUID(), UUID.randomUUID())));
+        OffsetDateTime from = OffsetDateTime.now().plusDays(1);
+
+        List<ExploreDestinationResponse> result = exploreService.explore(36.8065, 10.1815, from, from.plusDays(2),
+                1, 3.0, true, null);
+
+        assertEquals(1, result.size());
+        // Kif searchRides: l templates 9bal l requête, 3al nafs l fenêtre
+        var order = inOrder(rideTemplateService, rideRepository);
+        order.verify(rideTemplateService).materialiseForExplore(any(), anyDouble(), any(), any(), eq(false),
+                eq(1));
+        order.verify(rideRepository).exploreDestinationsAlongRoute(any(), anyDouble(), any(), any(), eq(1),
+                anyList(), anyDouble(), anyInt());
+        verify(rideRepository, never()).exploreDestinations(any(), anyDouble(), any(), any(), anyInt(), anyList(),
+                anyDouble(), anyInt());
+    }
+}
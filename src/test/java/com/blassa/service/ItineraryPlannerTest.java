@@ -0,0 +1,143 @@
+package com.blassa.service;
+
+import com.blassa.service.RideTimetable.Snapshot;
+import com.blassa.service.RideTimetable.Trip;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItineraryPlannerTest {
+
+    private static final double[] BIZERTE = { 37.2744, 9.8739 };
+    private static final double[] TUNIS = { 36.8065, 10.1815 };
+    private static final double[] TUNIS_STATION = { 36.8080, 10.1830 }; // ~200 m men TUNIS
+    private static final double[] SFAX = { 34.7406, 10.7603 };
+    private static final double[] GABES = { 33.8815, 10.0982 };
+
+    private static final List<String> ALL = List.of("ANY", "MALE_ONLY", "FEMALE_ONLY");
+    private final OffsetDateTime day = OffsetDateTime.of(2026, 3, 14, 0, 0, 0, 0, ZoneOffset.ofHours(1));
+
+    @Test
+    void plan_shouldChainThreeRidesThroughTransfers() {
+        Trip bizerteTunis = trip("ANY", 3, stop("Bizerte", BIZERTE, 8, 0), stop("Tunis", TUNIS, 9, 0));
+        Trip tunisSfax = trip("ANY", 3, stop("Tunis Station", TUNIS_STATION, 10, 0), stop("Sfax", SFAX, 13, 0));
+        Trip sfaxGabes = trip("ANY", 3, stop("Sfax", SFAX, 15, 0), stop("Gabès", GABES, 17, 0));
+
+        List<ItineraryPlanner.Journey> journeys = ItineraryPlanner.plan(
+                snapshot(bizerteTunis, tunisSfax, sfaxGabes), query(BIZERTE, GABES, 1, 3, ALL));
+
+        assertEquals(1, journeys.size());
+        ItineraryPlanner.Journey journey = journeys.get(0);
+        assertEquals(2, journey.transfers());
+        assertEquals(List.of(bizerteTunis, tunisSfax, sfaxGabes),
+                journey.legs().stream().map(ItineraryPlanner.Leg::trip).toList());
+        assertEquals(at(8, 0), journey.departure());
+        assertEquals(at(17, 0), journey.arrival());
+        assertTrue(journey.legs().get(1).walkMetersBefore() > 100);
+        assertEquals(0, journey.legs().get(2).walkMetersBefore());
+    }
+
+    @Test
+    void plan_shouldRespectMinimumConnectionTime() {
+        Trip bizerteTunis = trip("ANY", 3, stop("Bizerte", BIZERTE, 8, 0), stop("Tunis", TUNIS, 9, 0));
+        // 10 min ba3d l wsoul, a9al men 15 min
+        Trip tunisSfax = trip("ANY", 3, stop("Tunis", TUNIS, 9, 10), stop("Sfax", SFAX, 12, 10));
+
+        assertTrue(ItineraryPlanner.plan(snapshot(bizerteTunis, tunisSfax), query(BIZERTE, SFAX, 1, 3, ALL))
+                .isEmpty());
+    }
+
+    @Test
+    void plan_shouldSkipLegsWithoutEnoughSeats() {
+        Trip bizerteTunis = trip("ANY", 3, stop("Bizerte", BIZERTE, 8, 0), stop("Tunis", TUNIS, 9, 0));
+        Trip tunisSfax = trip("ANY", 1, stop("Tunis", TUNIS, 10, 0), stop("Sfax", SFAX, 13, 0));
+        Snapshot snapshot = snapshot(bizerteTunis, tunisSfax);
+
+        assertEquals(1, ItineraryPlanner.plan(snapshot, query(BIZERTE, SFAX, 1, 3, ALL)).size());
+        assertTrue(ItineraryPlanner.plan(snapshot, query(BIZERTE, SFAX, 2, 3, ALL)).isEmpty());
+    }
+
+    @Test
+    void plan_shouldReturnParetoSetByTransfers() {
+        Trip direct = trip("ANY", 3, stop("Bizerte", BIZERTE, 8, 0), stop("Gabès", GABES, 20, 0));
+        Trip bizerteTunis = trip("ANY", 3, stop("Bizerte", BIZERTE, 8, 0), stop("Tunis", TUNIS, 9, 0));
+        Trip tunisGabes = trip("ANY", 3, stop("Tunis", TUNIS, 10, 0), stop("Gabès", GABES, 15, 0));
+        Snapshot snapshot = snapshot(direct, bizerteTunis, tunisGabes);
+
+        List<ItineraryPlanner.Journey> journeys = ItineraryPlanner.plan(snapshot, query(BIZERTE, GABES, 1, 3, ALL));
+
+        assertEquals(2, journeys.size());
+        assertEquals(0, journeys.get(0).transfers());
+        assertEquals(at(20, 0), journeys.get(0).arrival());
+        assertEquals(1, journeys.get(1).transfers());
+        assertEquals(at(15, 0), journeys.get(1).arrival());
+
+        // Ride wa7ed kahaw => ken l direct
+        assertEquals(1, ItineraryPlanner.plan(snapshot, query(BIZERTE, GABES, 1, 1, ALL)).size());
+    }
+
+    @Test
+    void plan_shouldBoardAtIntermediateStopAndFilterGender() {
+        Trip femaleOnly = trip("FEMALE_ONLY", 3, stop("Bizerte", BIZERTE, 8, 0), stop("Tunis", TUNIS, 9, 0),
+                stop("Sfax", SFAX, 12, 0));
+
+        List<ItineraryPlanner.Journey> journeys = ItineraryPlanner.plan(snapshot(femaleOnly),
+                query(TUNIS, SFAX, 1, 1, List.of("ANY", "FEMALE_ONLY")));
+        assertEquals(1, journeys.size());
+        assertEquals(1, journeys.get(0).legs().get(0).fromStop());
+        assertEquals(2, journeys.get(0).legs().get(0).toStop());
+
+        assertTrue(ItineraryPlanner.plan(snapshot(femaleOnly), query(TUNIS, SFAX, 1, 1, List.of("ANY", "MALE_ONLY")))
+                .isEmpty());
+    }
+
+    private record Stop(String name, double[] point, long time) {
+    }
+
+    private Stop stop(String name, double[] point, int hour, int minute) {
+        return new Stop(name, point, at(hour, minute));
+    }
+
+    private long at(int hour, int minute) {
+        return day.withHour(hour).withMinute(minute).toEpochSecond();
+    }
+
+    private static Trip trip(String gender, int seats, Stop... stops) {
+        int n = stops.length;
+        String[] names = new String[n];
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        long[] times = new long[n];
+        double[] cumulative = new double[n];
+        int[] legSeats = new int[n - 1];
+        for (int i = 0; i < n; i++) {
+            names[i] = stops[i].name();
+            lat[i] = stops[i].point()[0];
+            lon[i] = stops[i].point()[1];
+            times[i] = stops[i].time();
+            if (i > 0) {
+                cumulative[i] = cumulative[i - 1] + GeoDistance.meters(lat[i - 1], lon[i - 1], lat[i], lon[i]);
+                legSeats[i - 1] = seats;
+            }
+        }
+        return new Trip(UUID.randomUUID(), UUID.randomUUID(), gender, BigDecimal.valueOf(20), names, lat, lon,
+                times, cumulative, legSeats);
+    }
+
+    private static Snapshot snapshot(Trip... trips) {
+        return Snapshot.build(List.of(trips), 800);
+    }
+
+    private ItineraryPlanner.Query query(double[] origin, double[] destination, int seats, int maxRides,
+            List<String> allowed) {
+        return new ItineraryPlanner.Query(origin[0], origin[1], destination[0], destination[1],
+                at(6, 0), at(6, 0) + 24 * 3600, seats, maxRides, 3000, 5000, allowed, null, 15 * 60,
+                4.5 * 1000 / 3600);
+    }
+}
@@ -0,0 +1,40 @@
+package com.blassa.service;
+
+import com.blassa.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Test
+    void maintain_shouldPurgeReadAtShortHorizonAndDropPartitionsAtUnreadHorizon() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+
+        partitionMaintenanceService.maintainNotificationPartitions();
+
+        verify(notificationRepository, times(4)).ensurePartition(any());
+        ArgumentCaptor<OffsetDateTime> readCutoff = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(notificationRepository).deleteReadBefore(readCutoff.capture());
+        assertEquals(currentMonth.minusMonths(6).atStartOfDay().atOffset(ZoneOffset.UTC), readCutoff.getValue());
+        verify(notificationRepository).dropPartitionsBefore(currentMonth.minusMonths(24));
+    }
+}
@@ -0,0 +1,201 @@
+package com.blassa.service;
+
+import com.blassa.dto.PassengerRequestAccept;
+import com.blassa.dto.PassengerRequestPage;
+import com.blassa.dto.RideRequest;
+import com.blassa.dto.RideResponse;
+import com.blassa.model.entity.Booking;
+import com.blassa.model.entity.PassengerRequest;
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.User;
+import com.blassa.model.enums.*;
+import com.blassa.repository.BookingRepository;
+import com.blassa.repository.PassengerRequestRepository;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PassengerRequestServiceTest {
+
+    @Mock
+    private PassengerRequestRepository passengerRequestRepository;
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RideService rideService;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PassengerRequestService passengerRequestService;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private final Point sousse = geometryFactory.createPoint(new Coordinate(10.6360, 35.8256));
+    private final Point tunis = geometryFactory.createPoint(new Coordinate(10.1815, 36.8065));
+
+    private User driver;
+    private User passenger;
+    private PassengerRequest request;
+
+    @BeforeEach
+    void setUp() {
+        driver = User.builder().id(UUID.randomUUID()).email("driver@blassa.tn").firstName("Ahmed")
+                .lastName("Driver").gender(Gender.MALE).build();
+        passenger = User.builder().id(UUID.randomUUID()).email("passenger@blassa.tn").firstName("Sara")
+                .lastName("Passenger").gender(Gender.FEMALE).build();
+
+        OffsetDateTime tomorrow = OffsetDateTime.now().plusDays(1);
+        request = PassengerRequest.builder()
+                .id(UUID.randomUUID())
+                .passenger(passenger)
+                .originName("Sousse")
+                .originPoint(sousse)
+                .destinationName("Tunis")
+                .destinationPoint(tunis)
+                .departureFrom(tomorrow.minusHours(1))
+                .departureTo(tomorrow.plusHours(2))
+                .seats(2)
+                .status(PassengerRequestStatus.OPEN)
+                .build();
+
+        UserDetails userDetails = org.springframework.security.core.userdetails.User
+                .withUsername(driver.getEmail()).password("password").authorities("USER").build();
+        Authentication auth = mock(Authentication.class);
+        lenient().when(auth.getPrincipal()).thenReturn(userDetails);
+        SecurityContext ctx = mock(SecurityContext.class);
+        lenient().when(ctx.getAuthentication()).thenReturn(auth);
+        SecurityContextHolder.setContext(ctx);
+        lenient().when(userRepository.findByEmail(driver.getEmail())).thenReturn(Optional.of(driver));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private PassengerRequestAccept accept(OffsetDateTime departure, int totalSeats, RideGenderPreference gender) {
+        return new PassengerRequestAccept(UUID.randomUUID(), departure, totalSeats, BigDecimal.valueOf(12),
+                false, true, false, "MEDIUM", gender, null, null);
+    }
+
+    @Test
+    void acceptRequest_shouldCreateRideAndConfirmedBooking() {
+        OffsetDateTime departure = request.getDepartureFrom().plusMinutes(30);
+        Ride ride = Ride.builder().id(UUID.randomUUID()).driver(driver).departureTime(departure).totalSeats(4)
+                .availableSeats(4).legSeats(new int[] { 4 }).pricePerSeat(BigDecimal.valueOf(12))
+                .status(RideStatus.SCHEDULED).genderPreference(RideGenderPreference.ANY).build();
+        RideResponse created = mock(RideResponse.class);
+        when(created.id()).thenReturn(ride.getId());
+        when(passengerRequestRepository.findByIdForUpdate(request.getId())).thenReturn(Optional.of(request));
+        when(rideService.createRide(any(RideRequest.class))).thenReturn(created);
+        when(rideRepository.findById(ride.getId())).thenReturn(Optional.of(ride));
+
+        passengerRequestService.acceptRequest(request.getId(), accept(departure, 4, RideGenderPreference.ANY));
+
+        ArgumentCaptor<RideRequest> rideRequest = ArgumentCaptor.forClass(RideRequest.class);
+        verify(rideService).createRide(rideRequest.capture());
+        assertEquals("Sousse", rideRequest.getValue().originName());
+        assertEquals(36.8065, rideRequest.getValue().destinationLat());
+
+        ArgumentCaptor<Booking> booking = ArgumentCaptor.forClass(Booking.class);
+        verify(bookingRepository).save(booking.capture());
+        assertEquals(BookingStatus.CONFIRMED, booking.getValue().getStatus());
+        assertEquals(passenger, booking.getValue().getPassenger());
+        assertEquals(0, new BigDecimal("24").compareTo(booking.getValue().getPriceTotal()));
+        assertArrayEquals(new int[] { 2 }, ride.getLegSeats());
+        assertEquals(2, ride.getAvailableSeats());
+
+        assertEquals(PassengerRequestStatus.FULFILLED, request.getStatus());
+        assertEquals(ride.getId(), request.getRideId());
+        verify(notificationService).sendNotification(eq(passenger.getId()), eq(NotificationType.BOOKING_ACCEPTED),
+                anyString(), anyString(), eq("/rides/" + ride.getId()));
+    }
+
+    @Test
+    void acceptRequest_shouldRejectDepartureOutsideWindow() {
+        when(passengerRequestRepository.findByIdForUpdate(request.getId())).thenReturn(Optional.of(request));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> passengerRequestService.acceptRequest(request.getId(),
+                        accept(request.getDepartureTo().plusHours(1), 4, RideGenderPreference.ANY)));
+
+        assertEquals("DEPARTURE_OUTSIDE_WINDOW", error.getMessage());
+        verify(rideService, never()).createRide(any());
+    }
+
+    @Test
+    void acceptRequest_shouldRejectRequestAlreadyFulfilled() {
+        request.setStatus(PassengerRequestStatus.FULFILLED);
+        when(passengerRequestRepository.findByIdForUpdate(request.getId())).thenReturn(Optional.of(request));
+
+        assertThrows(IllegalStateException.class, () -> passengerRequestService.acceptRequest(request.getId(),
+                accept(request.getDepartureFrom(), 4, RideGenderPreference.ANY)));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void browseNear_shouldReturnKeysetCursorOnlyForFullPage() {
+        PassengerRequest second = PassengerRequest.builder().id(UUID.randomUUID()).passenger(passenger)
+                .originName("Sousse").originPoint(sousse).destinationName("Tunis").destinationPoint(tunis)
+                .departureFrom(request.getDepartureFrom().plusHours(1)).departureTo(request.getDepartureTo())
+                .seats(1).status(PassengerRequestStatus.OPEN).build();
+        when(passengerRequestRepository.findOpenNear(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                eq(PassengerRequestService.KEYSET_START), eq(PassengerRequestService.KEYSET_START_ID), eq(2)))
+                .thenReturn(List.of(request, second));
+
+        PassengerRequestPage page = passengerRequestService.browseNear(35.82, 10.63, 36.80, 10.18, 3.0, null,
+                null, null, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(second.getDepartureFrom(), page.nextAfterDeparture());
+        assertEquals(second.getId(), page.nextAfterId());
+
+        when(passengerRequestRepository.findOpenNear(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                eq(second.getDepartureFrom()), eq(second.getId()), eq(2))).thenReturn(List.of());
+        PassengerRequestPage last = passengerRequestService.browseNear(35.82, 10.63, 36.80, 10.18, 3.0, null,
+                null, second.getDepartureFrom(), second.getId(), 2);
+        assertNull(last.nextAfterId());
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteInBatchesUntilShortBatch() {
+        when(passengerRequestRepository.purgeExpired(any(), eq(500))).thenReturn(500, 500, 12);
+
+        passengerRequestService.purgeExpired();
+
+        verify(passengerRequestRepository, times(3)).purgeExpired(any(), eq(500));
+    }
+}
@@ -0,0 +1,74 @@
+package com.blassa.service;
+
+import com.blassa.dto.PlaceResponse;
+import com.blassa.dto.PlaceReverseResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceGazetteerTest {
+
+    private final PlaceGazetteer gazetteer = new PlaceGazetteer();
+
+    private List<String> names(List<PlaceResponse> places) {
+        return places.stream().map(PlaceResponse::name).toList();
+    }
+
+    @Test
+    void autocomplete_shouldIgnoreCaseAndAccents() {
+        assertEquals(List.of("Kélibia"), names(gazetteer.autocomplete("KELI", null)));
+        assertEquals(List.of("Sidi Bou Saïd"), names(gazetteer.autocomplete("sidi bou sai", null)));
+        assertEquals(List.of("Radès"), names(gazetteer.autocomplete("rades", null)));
+    }
+
+    @Test
+    void autocomplete_shouldMatchInnerWordsAndRankGovernoratesFirst() {
+        List<String> bou = names(gazetteer.autocomplete("bou", null));
+        assertEquals("Sidi Bou Zid", bou.get(0));
+        assertTrue(bou.containsAll(List.of("Bou Salem", "Menzel Bourguiba", "Sidi Bou Saïd")));
+
+        List<String> djerba = names(gazetteer.autocomplete("djerba", null));
+        assertEquals(List.of("Djerba Houmt Souk", "Djerba Midoun"), djerba);
+        assertEquals(List.of("Djerba Houmt Souk"), names(gazetteer.autocomplete("houmt", null)));
+
+        List<String> t = names(gazetteer.autocomplete("t", 3));
+        assertEquals(List.of("Tataouine", "Tozeur", "Tunis"), t);
+    }
+
+    @Test
+    void autocomplete_shouldReturnEmptyForUnknownOrBlankQuery() {
+        assertTrue(gazetteer.autocomplete("xyz", null).isEmpty());
+        assertTrue(gazetteer.autocomplete("  ", null).isEmpty());
+        assertTrue(gazetteer.autocomplete("-", null).isEmpty());
+    }
+
+    @Test
+    void reverse_shouldSnapToNearestPlace() {
+        PlaceReverseResponse marsa = gazetteer.reverse(36.8790, 10.3230, null);
+        assertEquals("La Marsa", marsa.place().name());
+        assertTrue(marsa.distanceMeters() < 500);
+
+        assertEquals("Sfax", gazetteer.reverse(34.7400, 10.7600, null).place().name());
+        assertThrows(RuntimeException.class, () -> gazetteer.reverse(48.8566, 2.3522, 50.0));
+        assertThrows(IllegalArgumentException.class, () -> gazetteer.reverse(120, 10, null));
+    }
+
+    @Test
+    void reverse_shouldMatchLinearScan() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            double lat = 32 + random.nextDouble() * 5.5;
+            double lon = 7.5 + random.nextDouble() * 4;
+            PlaceReverseResponse found = gazetteer.reverse(lat, lon, null);
+            double best = Double.MAX_VALUE;
+            for (PlaceResponse place : gazetteer.allPlaces()) {
+                best = Math.min(best, GeoDistance.meters(lat, lon, place.lat(), place.lon()));
+            }
+            // Projection plane: l a9rab ynajem yetbaddel ken distances 9rab barcha
+            assertTrue(found.distanceMeters() <= best * 1.05 + 1, "lat=" + lat + " lon=" + lon);
+        }
+    }
+}
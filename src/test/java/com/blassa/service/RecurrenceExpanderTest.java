@@ -0,0 +1,108 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.RideTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceExpanderTest {
+
+    private static final Set<DayOfWeek> WEEKDAYS = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+    private RideTemplate template(String zone, LocalTime time, Set<DayOfWeek> days, LocalDate... exceptions) {
+        return RideTemplate.builder()
+                .zoneId(zone)
+                .departureLocalTime(time)
+                .daysOfWeek(RecurrenceExpander.toMask(days))
+                .validFrom(LocalDate.of(2026, 1, 1))
+                .exceptionDates(exceptions)
+                .active(true)
+                .build();
+    }
+
+    private static OffsetDateTime utc(int month, int day, int hour) {
+        return OffsetDateTime.of(2026, month, day, hour, 0, 0, 0, ZoneOffset.UTC);
+    }
+
+    @Test
+    void weekdays_shouldSkipWeekendAndExceptionDates() {
+        // Lundi 2 -> dimanche 8 mars 2026, 3otla l mercredi
+        RideTemplate t = template("Africa/Tunis", LocalTime.of(7, 30), WEEKDAYS, LocalDate.of(2026, 3, 4));
+
+        List<RecurrenceExpander.Occurrence> occurrences = RecurrenceExpander.expand(t, utc(3, 2, 0), utc(3, 8, 23));
+
+        assertEquals(List.of(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 3),
+                LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 6)),
+                occurrences.stream().map(RecurrenceExpander.Occurrence::date).toList());
+        // Tounes UTC+1 toul l 3am
+        assertEquals(OffsetDateTime.of(2026, 3, 2, 7, 30, 0, 0, ZoneOffset.ofHours(1)),
+                occurrences.get(0).departureTime());
+    }
+
+    @Test
+    void dstSpringForward_shouldKeepLocalTimeAndShiftGapTimes() {
+        RideTemplate morning = template("Europe/Paris", LocalTime.of(7, 30), EnumSet.allOf(DayOfWeek.class));
+        RideTemplate inGap = template("Europe/Paris", LocalTime.of(2, 30), EnumSet.allOf(DayOfWeek.class));
+
+        List<RecurrenceExpander.Occurrence> around = RecurrenceExpander.expand(morning, utc(3, 28, 0), utc(3, 30, 23));
+        List<RecurrenceExpander.Occurrence> gap = RecurrenceExpander.expand(inGap, utc(3, 29, 0), utc(3, 29, 12));
+
+        // 07:30 local dima, l offset ybaddel (+01:00 -> +02:00)
+        assertEquals(3, around.size());
+        assertEquals(utc(3, 28, 6).plusMinutes(30), around.get(0).departureTime().withOffsetSameInstant(ZoneOffset.UTC));
+        assertEquals(utc(3, 30, 5).plusMinutes(30), around.get(2).departureTime().withOffsetSameInstant(ZoneOffset.UTC));
+        // 02:30 ma temchich nhar 29 => 03:30 +02:00, occurrence ma tetna7ach
+        assertEquals(1, gap.size());
+        assertEquals(LocalTime.of(3, 30), gap.get(0).departureTime().toLocalTime());
+        assertEquals(ZoneOffset.ofHours(2), gap.get(0).departureTime().getOffset());
+    }
+
+    @Test
+    void dstFallBack_shouldPickEarlierOffsetOnce() {
+        RideTemplate inOverlap = template("Europe/Paris", LocalTime.of(2, 30), EnumSet.allOf(DayOfWeek.class));
+
+        List<RecurrenceExpander.Occurrence> occurrences =
+                RecurrenceExpander.expand(inOverlap, utc(10, 25, 0), utc(10, 25, 12));
+
+        assertEquals(1, occurrences.size());
+        assertEquals(ZoneOffset.ofHours(2), occurrences.get(0).departureTime().getOffset());
+    }
+
+    @Test
+    void validity_shouldBoundOccurrences() {
+        RideTemplate t = template("Africa/Tunis", LocalTime.of(18, 0), EnumSet.allOf(DayOfWeek.class));
+        t.setValidFrom(LocalDate.of(2026, 5, 10));
+        t.setValidUntil(LocalDate.of(2026, 5, 12));
+
+        List<RecurrenceExpander.Occurrence> occurrences = RecurrenceExpander.expand(t, utc(5, 1, 0), utc(5, 31, 0));
+
+        assertEquals(List.of(LocalDate.of(2026, 5, 10), LocalDate.of(2026, 5, 11), LocalDate.of(2026, 5, 12)),
+                occurrences.stream().map(RecurrenceExpander.Occurrence::date).toList());
+    }
+
+    @Test
+    void window_shouldFilterByInstantAcrossOffsets() {
+        // 07:30 Tunis = 06:30Z: fenêtre 06:00Z-06:29Z ma fihech, 06:00Z-07:00Z fiha
+        RideTemplate t = template("Africa/Tunis", LocalTime.of(7, 30), WEEKDAYS);
+
+        assertTrue(RecurrenceExpander.expand(t, utc(3, 2, 6), utc(3, 2, 6).plusMinutes(29)).isEmpty());
+        assertEquals(1, RecurrenceExpander.expand(t, utc(3, 2, 6), utc(3, 2, 7)).size());
+    }
+
+    @Test
+    void mask_shouldRoundTrip() {
+        assertEquals(0b0011111, RecurrenceExpander.toMask(WEEKDAYS));
+        assertEquals(WEEKDAYS, RecurrenceExpander.fromMask(0b0011111));
+        assertTrue(RecurrenceExpander.runsOn(RecurrenceExpander.toMask(Set.of(DayOfWeek.SUNDAY)), DayOfWeek.SUNDAY));
+        assertFalse(RecurrenceExpander.runsOn(RecurrenceExpander.toMask(Set.of(DayOfWeek.SUNDAY)), DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,102 @@
+package com.blassa.service;
+
+import com.blassa.dto.RideCalendarDayResponse;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RideCalendarServiceTest {
+
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RideTemplateService rideTemplateService;
+
+    @InjectMocks
+    private RideCalendarService rideCalendarService;
+
+    @Test
+    void fillDays_shouldReturnEveryDayWithZerosForGaps() {
+        LocalDate first = LocalDate.of(2026, 3, 14);
+        List<Object[]> rows = List.of(
+                new Object[] { Date.valueOf(first), 3L, new BigDecimal("10.00") },
+                new Object[] { first.plusDays(2), 1L, new BigDecimal("15.50") });
+
+        List<RideCalendarDayResponse> days = RideCalendarService.fillDays(first, 4, rows);
+
+        assertEquals(4, days.size());
+        assertEquals(3, days.get(0).rideCount());
+        assertEquals(new BigDecimal("10.00"), days.get(0).minPrice());
+        assertEquals(0, days.get(1).rideCount());
+        assertNull(days.get(1).minPrice());
+        assertEquals(first.plusDays(2), days.get(2).date());
+        assertEquals(1, days.get(2).rideCount());
+        assertEquals(first.plusDays(3), days.get(3).date());
+    }
+
+    @Test
+    void getCalendar_shouldQueryWholeRangeOnceAndCache() {
+        when(rideRepository.countRidesPerDay(any(), anyDouble(), any(), anyDouble(), any(), any(), anyInt(),
+                anyList())).thenReturn(List.of());
+
+        List<RideCalendarDayResponse> days = rideCalendarService.getCalendar(36.8065, 10.1815, 35.8256, 10.6360,
+                7, 1, 3.0, false, null);
+        rideCalendarService.getCalendar(36.8065, 10.1815, 35.8256, 10.6360, 7, 1, 3.0, false, null);
+
+        assertEquals(7, days.size());
+        assertEquals(LocalDate.now(ZoneId.of("Africa/Tunis")), days.get(0).date());
+        ArgumentCaptor<OffsetDateTime> end = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(rideRepository, times(1)).countRidesPerDay(any(), anyDouble(), any(), anyDouble(), any(),
+                end.capture(), eq(1), anyList());
+        assertEquals(days.get(6).date(), end.getValue().atZoneSameInstant(ZoneId.of("Africa/Tunis")).toLocalDate());
+    }
+
+    @Test
+    void getCalendar_shouldRejectOutOfRangeDays() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> rideCalendarService.getCalendar(36.8, 10.18, 35.8, 10.6, 365, 1, 3.0, true, null));
+
+        assertEquals("INVALID_CALENDAR_DAYS", error.getMessage());
+        verifyNoInteractions(rideRepository);
+    }
+
+    @Test
+    void getCalendar_shouldMaterialiseTemplatesAndMatchCorridor_whenEnRoute() {
+        when(rideRepository.countRidesPerDayAlongRoute(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                anyInt(), anyList())).thenReturn(List.<Object[]>of(
+                        new Object[] { LocalDate.now(ZoneId.of("Africa/Tunis")), 2L, new BigDecimal("9.00") }));
+
+        List<RideCalendarDayResponse> days = rideCalendarService.getCalendar(36.8065, 10.1815, 35.8256, 10.6360,
+                7, 1, 3.0, true, null);
+
+        assertEquals(2, days.get(0).rideCount());
+        // Kif searchRides: l templates 9bal l comptage, 3al nafs l fenêtre
+        ArgumentCaptor<OffsetDateTime> end = ArgumentCaptor.forClass(OffsetDateTime.class);
+        var order = inOrder(rideTemplateService, rideRepository);
+        order.verify(rideTemplateService).materialiseForSearch(any(), anyDouble(), any(), anyDouble(), any(),
+                end.capture(), eq(false), eq(1));
+        order.verify(rideRepository).countRidesPerDayAlongRoute(any(), anyDouble(), any(), anyDouble(), any(),
+                eq(end.getValue()), eq(1), anyList());
+        verify(rideRepository, never()).countRidesPerDay(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                anyInt(), anyList());
+    }
+}
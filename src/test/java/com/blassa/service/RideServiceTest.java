@@ -0,0 +1,185 @@
+package com.blassa.service;
+
+import com.blassa.dto.RideRequest;
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.User;
+import com.blassa.model.enums.BookingStatus;
+import com.blassa.model.enums.RideStatus;
+import com.blassa.observability.DomainMetrics;
+import com.blassa.repository.BookingRepository;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RideServiceTest {
+
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private SavedSearchService savedSearchService;
+    @Mock
+    private RideTileService rideTileService;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private DomainMetrics domainMetrics;
+    @Mock
+    private VehicleService vehicleService;
+    @Mock
+    private RideTemplateService rideTemplateService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RideService rideService;
+
+    private final OffsetDateTime departure = OffsetDateTime.of(2026, 3, 14, 8, 0, 0, 0, ZoneOffset.ofHours(1));
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void clampTimeFlexHours_shouldDefaultAndClamp() {
+        assertEquals(RideService.DEFAULT_TIME_FLEX_HOURS, RideService.clampTimeFlexHours(null));
+        assertEquals(0.0, RideService.clampTimeFlexHours(-3.0));
+        assertEquals(RideService.MAX_TIME_FLEX_HOURS, RideService.clampTimeFlexHours(48.0));
+        assertEquals(0.5, RideService.clampTimeFlexHours(0.5));
+    }
+
+    @Test
+    void searchRides_shouldUseFlexibleWindow() {
+        when(rideRepository.searchRides(any(), anyDouble(), any(), anyDouble(), any(), any(), anyInt(), anyList(),
+                any(Pageable.class))).thenReturn(Page.empty());
+
+        rideService.searchRides(36.8, 10.18, 35.82, 10.63, departure, 0.5, false, 1, null, 3.0, 0, 10, "time_asc");
+
+        ArgumentCaptor<OffsetDateTime> start = ArgumentCaptor.forClass(OffsetDateTime.class);
+        ArgumentCaptor<OffsetDateTime> end = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(rideRepository).searchRides(any(), eq(3000.0), any(), eq(5000.0), start.capture(), end.capture(),
+                eq(1), anyList(), any(Pageable.class));
+        assertEquals(departure.minusMinutes(30), start.getValue());
+        assertEquals(departure.plusMinutes(30), end.getValue());
+    }
+
+    @Test
+    void searchMaterialisedRides_shouldNeverMaterialiseTemplates() {
+        when(rideRepository.searchRides(any(), anyDouble(), any(), anyDouble(), any(), any(), anyInt(), anyList(),
+                any(Pageable.class))).thenReturn(Page.empty());
+
+        rideService.searchMaterialisedRides(34.0, 11.5, 34.0, 11.5, null, null, false, 1, null, 3.0, 0, 10,
+                "price_asc");
+
+        verifyNoInteractions(rideTemplateService);
+        verify(rideRepository).searchRides(any(), anyDouble(), any(), anyDouble(), any(), any(), anyInt(), anyList(),
+                any(Pageable.class));
+    }
+
+    @Test
+    void searchRides_enRoute_shouldUseCorridorQuery() {
+        when(rideRepository.searchRidesAlongRoute(any(), anyDouble(), any(), anyDouble(), any(), any(), anyInt(),
+                anyList(), any(Pageable.class))).thenReturn(Page.empty());
+
+        rideService.searchRides(35.82, 10.63, 34.74, 10.76, departure, null, true, 1, null, 3.0, 0, 10, "time_asc");
+
+        verify(rideRepository).searchRidesAlongRoute(any(), eq(3000.0), any(), eq(5000.0),
+                eq(departure.minusHours(2)), eq(departure.plusHours(2)), eq(1), anyList(), any(Pageable.class));
+        verify(rideRepository, never()).searchRides(any(), anyDouble(), any(), anyDouble(), any(), any(), anyInt(),
+                anyList(), any(Pageable.class));
+    }
+
+    @Test
+    void searchRides_relevance_shouldUseScoredQueryWithUnsortedPage() {
+        when(rideRepository.searchRidesByRelevance(any(), anyDouble(), any(), anyDouble(), any(), any(), any(),
+                anyDouble(), anyInt(), anyList(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyInt(),
+                any(Pageable.class))).thenReturn(new PageImpl<Ride>(List.of()));
+
+        rideService.searchRides(36.8, 10.18, 35.82, 10.63, departure, null, false, 1, null, 3.0, 0, 10, "relevance");
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(rideRepository).searchRidesByRelevance(any(), eq(3000.0), any(), eq(5000.0),
+                eq(departure.minusHours(2)), eq(departure.plusHours(2)), eq(departure), eq(7200.0),
+                eq(1), anyList(), eq(1.0), eq(1.0), eq(1.0), eq(0.0), eq(200), pageable.capture());
+        assertTrue(pageable.getValue().getSort().isUnsorted());
+        verify(rideRepository, never()).searchRides(any(), anyDouble(), any(), anyDouble(), any(), any(), anyInt(),
+                anyList(), any(Pageable.class));
+    }
+
+    @Test
+    void searchRides_relevanceEnRoute_shouldUseCorridorScoredQuery() {
+        when(rideRepository.searchRidesByRelevanceAlongRoute(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                any(), anyDouble(), anyInt(), anyList(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyInt(),
+                any(Pageable.class))).thenReturn(new PageImpl<Ride>(List.of()));
+
+        rideService.searchRides(36.8, 10.18, 35.82, 10.63, departure, null, true, 1, null, 3.0, 0, 10, "relevance");
+
+        verify(rideRepository).searchRidesByRelevanceAlongRoute(any(), eq(3000.0), any(), eq(5000.0),
+                eq(departure.minusHours(2)), eq(departure.plusHours(2)), eq(departure), eq(7200.0),
+                eq(1), anyList(), eq(1.0), eq(1.0), eq(1.0), eq(0.0), eq(200), any(Pageable.class));
+        verify(rideRepository, never()).searchRidesByRelevance(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                any(), anyDouble(), anyInt(), anyList(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyInt(),
+                any(Pageable.class));
+    }
+
+    @Test
+    void updateRide_shouldReject_whenPendingBookingExists() {
+        User driver = User.builder().id(UUID.randomUUID()).email("driver@blassa.tn").build();
+        int[] legSeats = { 1, 3 };
+        Ride ride = Ride.builder()
+                .id(UUID.randomUUID())
+                .driver(driver)
+                .status(RideStatus.SCHEDULED)
+                .totalSeats(3)
+                .availableSeats(1)
+                .legSeats(legSeats)
+                .build();
+        UserDetails principal = org.springframework.security.core.userdetails.User.withUsername(driver.getEmail())
+                .password("unused").roles("USER").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(rideRepository.findById(ride.getId())).thenReturn(Optional.of(ride));
+        when(userRepository.findByEmail(driver.getEmail())).thenReturn(Optional.of(driver));
+        when(bookingRepository.existsByRideIdAndStatusIn(ride.getId(), List.of(BookingStatus.PENDING,
+                BookingStatus.CONFIRMED))).thenReturn(true);
+        RideRequest request = new RideRequest("Tunis", 36.8, 10.18, "Sousse", 35.82, 10.63, departure, 4,
+                new BigDecimal("12.000"), false, true, false, "MEDIUM", null, null, null, List.of());
+
+        assertThrows(RuntimeException.class, () -> rideService.updateRide(ride.getId(), request));
+
+        assertArrayEquals(new int[] { 1, 3 }, ride.getLegSeats());
+        assertEquals(1, ride.getAvailableSeats());
+        verify(rideRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,194 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.RideTemplate;
+import com.blassa.repository.BookingRepository;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.RideTemplateRepository;
+import com.blassa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RideTemplateServiceTest {
+
+    @Mock
+    private RideTemplateRepository rideTemplateRepository;
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private VehicleService vehicleService;
+    @Mock
+    private SavedSearchService savedSearchService;
+    @Mock
+    private RideTimetableListener rideTimetableListener;
+    @Mock
+    private RideTileListener rideTileListener;
+
+    @InjectMocks
+    private RideTemplateService rideTemplateService;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private final Point tunis = geometryFactory.createPoint(new Coordinate(10.1815, 36.8065));
+    private final Point ariana = geometryFactory.createPoint(new Coordinate(10.1956, 36.8665));
+
+    private RideTemplate dailyTemplate() {
+        return RideTemplate.builder()
+                .id(UUID.randomUUID())
+                .zoneId("Africa/Tunis")
+                .departureLocalTime(LocalTime.NOON)
+                .daysOfWeek(RecurrenceExpander.toMask(EnumSet.allOf(DayOfWeek.class)))
+                .validFrom(LocalDate.now().minusDays(10))
+                .exceptionDates(new LocalDate[0])
+                .totalSeats(3)
+                .originPoint(tunis)
+                .active(true)
+                .build();
+    }
+
+    @Test
+    void materialiseForSearch_shouldOnlyInsertMissingOccurrences() {
+        RideTemplate template = dailyTemplate();
+        OffsetDateTime start = OffsetDateTime.now().plusMinutes(1);
+        OffsetDateTime end = start.plusDays(4);
+        List<RecurrenceExpander.Occurrence> expected = RecurrenceExpander.expand(template, start, end);
+        LocalDate alreadyThere = expected.get(0).date();
+
+        when(rideTemplateRepository.findCandidatesForSearch(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                anyInt())).thenReturn(List.of(template));
+        when(rideRepository.findMaterialisedOccurrences(eq(List.of(template.getId())), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[] { template.getId(), alreadyThere }));
+        when(rideTemplateRepository.materialiseOccurrence(eq(template.getId()), any(), any()))
+                .thenAnswer(invocation -> Optional.of(UUID.randomUUID()));
+
+        int created = rideTemplateService.materialiseForSearch(tunis, 3000, ariana, 5000, start, end, false, 1);
+
+        assertEquals(expected.size() - 1, created);
+        verify(rideTemplateRepository, never()).materialiseOccurrence(eq(template.getId()), eq(alreadyThere), any());
+        // Insert natif: l hooks mta3 createRide lazem yet3aytou b l id mta3 kol ride jdid
+        verify(savedSearchService, times(created)).onRideSaved(any(UUID.class));
+        verify(rideTimetableListener, times(created)).onRideChanged(any(UUID.class));
+        verify(rideTileListener, times(created)).onRideChanged(tunis);
+    }
+
+    @Test
+    void materialiseForSearch_shouldNotFireHooks_whenOccurrenceAlreadyInserted() {
+        RideTemplate template = dailyTemplate();
+        OffsetDateTime start = OffsetDateTime.now().plusMinutes(1);
+        when(rideTemplateRepository.findCandidatesForSearch(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                anyInt())).thenReturn(List.of(template));
+        // Search o5ra sab9et (ON CONFLICT DO NOTHING)
+        when(rideTemplateRepository.materialiseOccurrence(eq(template.getId()), any(), any()))
+                .thenReturn(Optional.empty());
+
+        assertEquals(0, rideTemplateService.materialiseForSearch(tunis, 3000, ariana, 5000, start,
+                start.plusDays(2), false, 1));
+        verifyNoInteractions(savedSearchService, rideTimetableListener, rideTileListener);
+    }
+
+    @Test
+    void materialiseForSearch_shouldStopAtHorizon() {
+        RideTemplate template = dailyTemplate();
+        when(rideTemplateRepository.findCandidatesForSearch(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                anyInt())).thenReturn(List.of(template));
+        when(rideTemplateRepository.materialiseOccurrence(eq(template.getId()), any(), any()))
+                .thenAnswer(invocation -> Optional.of(UUID.randomUUID()));
+
+        // Search bla date: fenêtre sana, ama horizon 14 jour
+        OffsetDateTime now = OffsetDateTime.now();
+        int created = rideTemplateService.materialiseForSearch(tunis, 3000, ariana, 5000, now, now.plusYears(1),
+                true, 1);
+
+        assertTrue(created >= 13 && created <= 15, "created=" + created);
+    }
+
+    @Test
+    void materialiseForSearch_shouldMaterialiseDatedWindowBeyondHorizon() {
+        RideTemplate template = dailyTemplate();
+        when(rideTemplateRepository.findCandidatesForSearch(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                anyInt())).thenReturn(List.of(template));
+        when(rideTemplateRepository.materialiseOccurrence(eq(template.getId()), any(), any()))
+                .thenAnswer(invocation -> Optional.of(UUID.randomUUID()));
+
+        // Search datée 3 jem3at l9oddem: l horizon ma ya9as'hech
+        OffsetDateTime start = OffsetDateTime.now().plusDays(21);
+        OffsetDateTime end = start.plusDays(2);
+        int created = rideTemplateService.materialiseForSearch(tunis, 3000, ariana, 5000, start, end, false, 1);
+
+        assertEquals(RecurrenceExpander.expand(template, start, end).size(), created);
+        assertTrue(created > 0);
+    }
+
+    @Test
+    void materialiseForSearch_shouldCapAnonymousCallersLower() {
+        RideTemplate template = dailyTemplate();
+        when(rideTemplateRepository.findCandidatesForSearch(any(), anyDouble(), any(), anyDouble(), any(), any(),
+                anyInt())).thenReturn(List.of(template));
+        when(rideTemplateRepository.materialiseOccurrence(eq(template.getId()), any(), any()))
+                .thenAnswer(invocation -> Optional.of(UUID.randomUUID()));
+        OffsetDateTime start = OffsetDateTime.now().plusMinutes(1);
+
+        assertEquals(20, rideTemplateService.materialiseForSearch(tunis, 3000, ariana, 5000, start,
+                start.plusDays(60), false, 1));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("driver@blassa.tn", null, List.of()));
+        try {
+            assertTrue(rideTemplateService.materialiseForSearch(tunis, 3000, ariana, 5000, start,
+                    start.plusDays(60), false, 1) > 20);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void materialiseForSearch_shouldSkipQueries_whenWindowIsInThePast() {
+        OffsetDateTime past = OffsetDateTime.now().minusDays(3);
+
+        assertEquals(0, rideTemplateService.materialiseForSearch(tunis, 3000, ariana, 5000, past,
+                past.plusHours(4), false, 1));
+        verifyNoInteractions(rideTemplateRepository, rideRepository);
+    }
+
+    @Test
+    void materialiseForExplore_shouldUseOriginOnlyCandidates() {
+        RideTemplate template = dailyTemplate();
+        OffsetDateTime start = OffsetDateTime.now().plusMinutes(1);
+        OffsetDateTime end = start.plusDays(2);
+        when(rideTemplateRepository.findCandidatesFromOrigin(eq(tunis), eq(3000.0), any(), any(), eq(1)))
+                .thenReturn(List.of(template));
+        when(rideTemplateRepository.materialiseOccurrence(eq(template.getId()), any(), any()))
+                .thenAnswer(invocation -> Optional.of(UUID.randomUUID()));
+
+        int created = rideTemplateService.materialiseForExplore(tunis, 3000, start, end, false, 1);
+
+        assertEquals(RecurrenceExpander.expand(template, start, end).size(), created);
+        verify(rideTemplateRepository, never()).findCandidatesForSearch(any(), anyDouble(), any(), anyDouble(),
+                any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,83 @@
+package com.blassa.service;
+
+import com.blassa.observability.DomainMetrics;
+import com.blassa.repository.RideRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RideTileServiceTest {
+
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private DomainMetrics domainMetrics;
+
+    @InjectMocks
+    private RideTileService rideTileService;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private final Point tunis = geometryFactory.createPoint(new Coordinate(10.1815, 36.8065));
+
+    @Test
+    void tileOf_shouldMatchSlippyMapScheme() {
+        assertArrayEquals(new int[] { 0, 0 }, RideTileService.tileOf(36.8065, 10.1815, 0));
+        assertArrayEquals(new int[] { 540, 399 }, RideTileService.tileOf(36.8065, 10.1815, 10));
+        assertArrayEquals(new int[] { 1, 0 }, RideTileService.tileOf(36.8065, 10.1815, 1));
+    }
+
+    @Test
+    void getTile_shouldRejectOutOfRangeCoordinates() {
+        assertThrows(IllegalArgumentException.class, () -> rideTileService.getTile(3, 8, 0));
+        assertThrows(IllegalArgumentException.class, () -> rideTileService.getTile(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> rideTileService.getTile(19, 0, 0));
+        verifyNoInteractions(rideRepository);
+    }
+
+    @Test
+    void getTile_shouldClusterAtLowZoomAndCacheResult() {
+        byte[] tile = { 1, 2, 3 };
+        when(rideRepository.clusteredRidesTile(eq(8), eq(135), eq(100), anyDouble())).thenReturn(tile);
+
+        assertSame(tile, rideTileService.getTile(8, 135, 100));
+        assertSame(tile, rideTileService.getTile(8, 135, 100));
+
+        verify(rideRepository, times(1)).clusteredRidesTile(eq(8), eq(135), eq(100),
+                eq(RideTileService.clusterGridMeters(8, 8)));
+        verify(rideRepository, never()).ridesTile(anyInt(), anyInt(), anyInt());
+        verify(domainMetrics).recordTile(eq("hit"), anyLong());
+    }
+
+    @Test
+    void invalidate_shouldOnlyDropTilesContainingThePoint() {
+        int[] tunisTile = RideTileService.tileOf(36.8065, 10.1815, 14);
+        when(rideRepository.ridesTile(anyInt(), anyInt(), anyInt())).thenReturn(new byte[] { 7 });
+
+        rideTileService.getTile(14, tunisTile[0], tunisTile[1]);
+        rideTileService.getTile(14, tunisTile[0] + 1, tunisTile[1]);
+        rideTileService.invalidate(tunis);
+        rideTileService.getTile(14, tunisTile[0], tunisTile[1]);
+        rideTileService.getTile(14, tunisTile[0] + 1, tunisTile[1]);
+
+        verify(rideRepository, times(2)).ridesTile(14, tunisTile[0], tunisTile[1]);
+        verify(rideRepository, times(1)).ridesTile(14, tunisTile[0] + 1, tunisTile[1]);
+    }
+
+    @Test
+    void getTile_shouldReturnEmptyTileWhenNoRides() {
+        when(rideRepository.ridesTile(15, 17500, 12900)).thenReturn(null);
+
+        assertEquals(0, rideTileService.getTile(15, 17500, 12900).length);
+    }
+}
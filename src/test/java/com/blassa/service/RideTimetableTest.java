@@ -0,0 +1,108 @@
+package com.blassa.service;
+
+import com.blassa.repository.RideRepository;
+import com.blassa.service.RideTimetable.Snapshot;
+import com.blassa.service.RideTimetable.Trip;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RideTimetableTest {
+
+    private static final double[] TUNIS = { 36.8065, 10.1815 };
+    private static final double[] TUNIS_STATION = { 36.8080, 10.1830 }; // ~200 m men TUNIS
+    private static final double[] ARIANA = { 36.8665, 10.1956 };
+    private static final double[] SOUSSE = { 35.8256, 10.6084 };
+
+    @Mock
+    private RideRepository rideRepository;
+
+    @InjectMocks
+    private RideTimetable rideTimetable;
+
+    @Test
+    void patch_shouldMatchFullRebuild() {
+        Trip tunisSousse = trip(1_000, TUNIS, SOUSSE);
+        Trip arianaTunis = trip(2_000, ARIANA, TUNIS_STATION);
+        Trip departed = trip(100, TUNIS_STATION, SOUSSE);
+        Trip stationAriana = trip(3_000, TUNIS_STATION, ARIANA);
+        Snapshot base = Snapshot.build(List.of(tunisSousse, arianaTunis, departed, stationAriana), 800);
+
+        Trip moved = new Trip(arianaTunis.rideId(), arianaTunis.driverId(), "ANY", BigDecimal.TEN,
+                arianaTunis.stopNames(), arianaTunis.lat(), arianaTunis.lon(), new long[] { 500, 1_500 },
+                arianaTunis.cumulativeMeters(), arianaTunis.legSeats());
+        Trip added = trip(1_200, TUNIS_STATION, SOUSSE);
+        Snapshot patched = base.patch(Set.of(arianaTunis.rideId(), added.rideId()), List.of(moved, added), 400, 800);
+        Snapshot full = Snapshot.build(List.of(tunisSousse, stationAriana, moved, added), 800);
+
+        assertEquals(base.version + 1, patched.version);
+        assertEquals(footpaths(full), footpaths(patched));
+        assertEquals(connections(full), connections(patched));
+    }
+
+    @Test
+    void refreshDirty_shouldKeepMarks_whenRideChangesDuringRefresh() {
+        UUID rideId = UUID.randomUUID();
+        AtomicInteger reads = new AtomicInteger();
+        when(rideRepository.findWithStopsByIdIn(anyList())).thenAnswer(invocation -> {
+            if (reads.incrementAndGet() == 1) {
+                // Commit o5ra 3al nafs l ride wa9t l lecture
+                rideTimetable.markDirty(rideId);
+            }
+            return List.of();
+        });
+        rideTimetable.markDirty(rideId);
+
+        rideTimetable.refreshDirty();
+        rideTimetable.refreshDirty();
+        rideTimetable.refreshDirty();
+
+        verify(rideRepository, times(2)).findWithStopsByIdIn(List.of(rideId));
+        assertEquals(2, rideTimetable.snapshot().version);
+    }
+
+    private static Trip trip(long departure, double[] from, double[] to) {
+        double meters = GeoDistance.meters(from[0], from[1], to[0], to[1]);
+        return new Trip(UUID.randomUUID(), UUID.randomUUID(), "ANY", BigDecimal.valueOf(20),
+                new String[] { "from", "to" }, new double[] { from[0], to[0] }, new double[] { from[1], to[1] },
+                new long[] { departure, departure + 3_600 }, new double[] { 0, meters }, new int[] { 3 });
+    }
+
+    // Footpaths b (ride, arrêt) 5ater l indices t3 l nodes ybadlou bin patch w rebuild
+    private static Set<String> footpaths(Snapshot snapshot) {
+        Set<String> result = new HashSet<>();
+        for (int node = 0; node < snapshot.nodeCount; node++) {
+            for (int k = 0; k < snapshot.footTo[node].length; k++) {
+                int other = snapshot.footTo[node][k];
+                result.add(snapshot.trips[snapshot.nodeTrip[node]].rideId() + "/" + snapshot.nodeStop[node] + "->"
+                        + snapshot.trips[snapshot.nodeTrip[other]].rideId() + "/" + snapshot.nodeStop[other]
+                        + "=" + snapshot.footMeters[node][k]);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> connections(Snapshot snapshot) {
+        List<String> result = new ArrayList<>();
+        for (int c = 0; c < snapshot.connDep.length; c++) {
+            result.add(snapshot.trips[snapshot.connTrip[c]].rideId() + "/" + snapshot.connLeg[c] + "@"
+                    + snapshot.connDep[c] + "-" + snapshot.connArr[c]);
+        }
+        return result;
+    }
+}
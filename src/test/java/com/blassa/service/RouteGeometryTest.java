@@ -0,0 +1,52 @@
+package com.blassa.service;
+
+import com.blassa.dto.RouteWaypoint;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteGeometryTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private final Point tunis = geometryFactory.createPoint(new Coordinate(10.1815, 36.8065));
+    private final Point sfax = geometryFactory.createPoint(new Coordinate(10.7603, 34.7406));
+
+    @Test
+    void build_shouldBeStraightLine_whenNoWaypoints() {
+        LineString line = RouteGeometry.build(geometryFactory, tunis, null, sfax);
+
+        assertEquals(2, line.getNumPoints());
+        assertEquals(4326, line.getSRID());
+        assertTrue(line.getStartPoint().equalsExact(tunis));
+        assertTrue(line.getEndPoint().equalsExact(sfax));
+    }
+
+    @Test
+    void build_shouldKeepWaypointsInOrder() {
+        RouteWaypoint sousse = new RouteWaypoint(35.8256, 10.6084);
+        RouteWaypoint elJem = new RouteWaypoint(35.2960, 10.7060);
+
+        LineString line = RouteGeometry.build(geometryFactory, tunis, List.of(sousse, elJem), sfax);
+
+        assertEquals(4, line.getNumPoints());
+        assertEquals(10.6084, line.getCoordinateN(1).x, 1e-9);
+        assertEquals(35.2960, line.getCoordinateN(2).y, 1e-9);
+    }
+
+    @Test
+    void build_shouldDropDuplicateAndNearlyCollinearWaypoints() {
+        // Point f west l ligne droite (w duplicate mte3ou) => ytna7aw
+        RouteWaypoint midway = new RouteWaypoint((36.8065 + 34.7406) / 2, (10.1815 + 10.7603) / 2);
+
+        LineString line = RouteGeometry.build(geometryFactory, tunis, List.of(midway, midway), sfax);
+
+        assertEquals(2, line.getNumPoints());
+    }
+}
@@ -0,0 +1,131 @@
+package com.blassa.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SavedSearchIndexTest {
+
+    private static final List<String> ALL = List.of("ANY", "MALE_ONLY", "FEMALE_ONLY");
+    private static final long DAY = 1_773_471_600L; // 2026-03-14 08:00 +01:00
+
+    private final SavedSearchIndex index = new SavedSearchIndex();
+    private final UUID driver = UUID.randomUUID();
+
+    // Sousse -> Tunis, 3 km, 06:00-10:00
+    private SavedSearchIndex.Entry sousseToTunis(int seats, List<String> allowed) {
+        return new SavedSearchIndex.Entry(UUID.randomUUID(), UUID.randomUUID(), 35.8256, 10.6360, 36.8065, 10.1815,
+                3000, DAY - 2 * 3600, DAY + 2 * 3600, seats, allowed);
+    }
+
+    private SavedSearchIndex.RideView ride(long departure, String gender, double[] lat, double[] lon, int... legs) {
+        return new SavedSearchIndex.RideView(UUID.randomUUID(), driver, gender, departure, lat, lon, legs);
+    }
+
+    @Test
+    void match_shouldFindSearchNearRideEndpoints() {
+        SavedSearchIndex.Entry entry = sousseToTunis(1, ALL);
+        index.put(entry);
+
+        // Pickup ~1.5 km men l centre, dropoff Tunis
+        SavedSearchIndex.RideView ride = ride(DAY, "ANY", new double[] { 35.8380, 36.8100 },
+                new double[] { 10.6300, 10.1900 }, 3);
+
+        assertEquals(List.of(entry), index.match(ride, 5000));
+    }
+
+    @Test
+    void match_shouldMatchIntermediateStopsWithEnoughSeats() {
+        SavedSearchIndex.Entry entry = sousseToTunis(2, ALL);
+        index.put(entry);
+
+        // Sfax -> Sousse -> Tunis: leg Sfax-Sousse kamel, leg Sousse-Tunis fih 2 blays
+        SavedSearchIndex.RideView ride = ride(DAY, "ANY", new double[] { 34.7406, 35.8256, 36.8065 },
+                new double[] { 10.7603, 10.6360, 10.1815 }, 0, 2);
+        assertEquals(1, index.match(ride, 5000).size());
+
+        SavedSearchIndex.RideView tooFull = ride(DAY, "ANY", new double[] { 34.7406, 35.8256, 36.8065 },
+                new double[] { 10.7603, 10.6360, 10.1815 }, 3, 1);
+        assertTrue(index.match(tooFull, 5000).isEmpty());
+    }
+
+    @Test
+    void match_shouldRejectWrongDirectionWindowAndGender() {
+        index.put(sousseToTunis(1, List.of("ANY", "MALE_ONLY")));
+
+        double[] lat = { 35.8256, 36.8065 };
+        double[] lon = { 10.6360, 10.1815 };
+        assertTrue(index.match(ride(DAY + 3 * 3600, "ANY", lat, lon, 3), 5000).isEmpty());
+        assertTrue(index.match(ride(DAY, "FEMALE_ONLY", lat, lon, 3), 5000).isEmpty());
+        // Tunis -> Sousse
+        assertTrue(index.match(ride(DAY, "ANY", new double[] { 36.8065, 35.8256 },
+                new double[] { 10.1815, 10.6360 }, 3), 5000).isEmpty());
+        // Pickup b3id (~20 km)
+        assertTrue(index.match(ride(DAY, "ANY", new double[] { 35.6781, 36.8065 },
+                new double[] { 10.7000, 10.1815 }, 3), 5000).isEmpty());
+    }
+
+    @Test
+    void match_shouldSkipDriversOwnSearch() {
+        SavedSearchIndex.Entry own = new SavedSearchIndex.Entry(UUID.randomUUID(), driver, 35.8256, 10.6360,
+                36.8065, 10.1815, 3000, DAY - 3600, DAY + 3600, 1, ALL);
+        index.put(own);
+
+        assertTrue(index.match(ride(DAY, "ANY", new double[] { 35.8256, 36.8065 },
+                new double[] { 10.6360, 10.1815 }, 3), 5000).isEmpty());
+    }
+
+    @Test
+    void removeAndReplace_shouldDropEntriesFromCells() {
+        SavedSearchIndex.Entry first = sousseToTunis(1, ALL);
+        SavedSearchIndex.Entry second = sousseToTunis(1, ALL);
+        index.put(first);
+        index.put(second);
+        SavedSearchIndex.RideView ride = ride(DAY, "ANY", new double[] { 35.8256, 36.8065 },
+                new double[] { 10.6360, 10.1815 }, 3);
+        assertEquals(2, index.match(ride, 5000).size());
+
+        index.remove(first.id());
+        assertEquals(List.of(second), index.match(ride, 5000));
+
+        // reloadIndex: l recherches expirées ma yjiwech mel DB
+        index.replaceAll(List.of());
+        assertEquals(0, index.size());
+        assertTrue(index.match(ride, 5000).isEmpty());
+    }
+
+    @Test
+    void putAndRemove_shouldNotLoseEntriesSharingCells() throws Exception {
+        List<SavedSearchIndex.Entry> kept = new ArrayList<>();
+        List<SavedSearchIndex.Entry> removed = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            (i % 2 == 0 ? kept : removed).add(sousseToTunis(1, ALL));
+        }
+        removed.forEach(index::put);
+
+        // Remove yfaragh l cellule wa9t put yzid fiha
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < kept.size(); i++) {
+                SavedSearchIndex.Entry put = kept.get(i);
+                SavedSearchIndex.Entry remove = removed.get(i);
+                tasks.add(executor.submit(() -> index.put(put)));
+                tasks.add(executor.submit(() -> index.remove(remove.id())));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+
+        SavedSearchIndex.RideView ride = ride(DAY, "ANY", new double[] { 35.8256, 36.8065 },
+                new double[] { 10.6360, 10.1815 }, 3);
+        assertEquals(kept.size(), index.match(ride, 5000).size());
+    }
+}
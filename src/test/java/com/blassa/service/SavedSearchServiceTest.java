@@ -0,0 +1,103 @@
+package com.blassa.service;
+
+import com.blassa.model.entity.Ride;
+import com.blassa.model.entity.SavedSearch;
+import com.blassa.model.entity.User;
+import com.blassa.model.enums.Gender;
+import com.blassa.model.enums.NotificationType;
+import com.blassa.model.enums.RideGenderPreference;
+import com.blassa.model.enums.RideStatus;
+import com.blassa.repository.RideRepository;
+import com.blassa.repository.SavedSearchRepository;
+import com.blassa.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SavedSearchServiceTest {
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+    @Mock
+    private RideRepository rideRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Spy
+    private SavedSearchIndex savedSearchIndex = new SavedSearchIndex();
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SavedSearchService savedSearchService;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+    private final Point sousse = geometryFactory.createPoint(new Coordinate(10.6360, 35.8256));
+    private final Point tunis = geometryFactory.createPoint(new Coordinate(10.1815, 36.8065));
+
+    @Test
+    void notifyMatches_shouldMatchSearchCreatedOnAnotherMachine() {
+        OffsetDateTime departure = OffsetDateTime.now().plusDays(1);
+        Ride ride = Ride.builder()
+                .id(UUID.randomUUID())
+                .driver(User.builder().id(UUID.randomUUID()).build())
+                .originName("Sousse")
+                .originPoint(sousse)
+                .destinationName("Tunis")
+                .destinationPoint(tunis)
+                .departureTime(departure)
+                .availableSeats(3)
+                .legSeats(new int[] { 3 })
+                .genderPreference(RideGenderPreference.ANY)
+                .status(RideStatus.SCHEDULED)
+                .build();
+        User passenger = User.builder().id(UUID.randomUUID()).gender(Gender.FEMALE).build();
+        // Ma t3addatch b createSavedSearch 3al machine hedhi: l index local ma ya3rafhach
+        SavedSearch search = SavedSearch.builder()
+                .id(UUID.randomUUID())
+                .user(passenger)
+                .originPoint(sousse)
+                .destinationPoint(tunis)
+                .radiusKm(3.0)
+                .departureFrom(departure.minusHours(2))
+                .departureTo(departure.plusHours(2))
+                .seats(1)
+                .active(true)
+                .build();
+        when(rideRepository.findWithStopsByIdIn(List.of(ride.getId()))).thenReturn(List.of(ride));
+        when(savedSearchRepository.findActiveCreatedSince(any(), any())).thenReturn(List.of(search));
+        when(savedSearchRepository.recordAlert(search.getId(), ride.getId())).thenReturn(1);
+
+        assertEquals(1, savedSearchService.notifyMatches(ride.getId()));
+
+        verify(notificationService).sendNotification(eq(passenger.getId()), eq(NotificationType.SAVED_SEARCH_MATCH),
+                anyString(), anyString(), eq("/rides/" + ride.getId()));
+        assertEquals(1, savedSearchIndex.size());
+    }
+
+    @Test
+    void clampRadiusKm_shouldBoundIndexedCells() {
+        assertEquals(3.0, SavedSearchService.clampRadiusKm(null));
+        assertEquals(3.0, SavedSearchService.clampRadiusKm(-5.0));
+        assertEquals(SavedSearchService.MAX_RADIUS_KM, SavedSearchService.clampRadiusKm(20_000.0));
+        assertEquals(10.0, SavedSearchService.clampRadiusKm(10.0));
+    }
+}
@@ -0,0 +1,64 @@
+package com.blassa.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatSegmentTreeTest {
+
+    @Test
+    void bookingMiddleSegment_shouldOnlyConsumeItsLegs() {
+        // Tunis -> Hammamet -> Sousse -> Sfax -> Gabès, 3 blays
+        SeatSegmentTree legs = new SeatSegmentTree(new int[] { 3, 3, 3, 3 });
+
+        legs.add(1, 3, -2); // Hammamet -> Sfax
+
+        assertArrayEquals(new int[] { 3, 1, 1, 3 }, legs.toArray());
+        assertEquals(1, legs.min(0, 4));
+        assertEquals(3, legs.min(0, 1));
+        assertEquals(3, legs.min(3, 4));
+        assertEquals(1, legs.min(2, 4));
+    }
+
+    @Test
+    void invalidRange_shouldThrow() {
+        SeatSegmentTree legs = new SeatSegmentTree(new int[] { 2, 2 });
+
+        assertThrows(IllegalArgumentException.class, () -> legs.min(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> legs.min(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> legs.add(-1, 1, 1));
+    }
+
+    @Test
+    void randomOperations_shouldMatchBruteForce() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(12);
+            int[] expected = new int[n];
+            Arrays.fill(expected, 4);
+            SeatSegmentTree legs = new SeatSegmentTree(expected.clone());
+
+            for (int op = 0; op < 40; op++) {
+                int from = random.nextInt(n);
+                int to = from + 1 + random.nextInt(n - from);
+                if (random.nextBoolean()) {
+                    int delta = random.nextInt(5) - 2;
+                    legs.add(from, to, delta);
+                    for (int i = from; i < to; i++) {
+                        expected[i] += delta;
+                    }
+                } else {
+                    int min = Integer.MAX_VALUE;
+                    for (int i = from; i < to; i++) {
+                        min = Math.min(min, expected[i]);
+                    }
+                    assertEquals(min, legs.min(from, to));
+                }
+            }
+            assertArrayEquals(expected, legs.toArray());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.blassa.support;
+
+import com.blassa.observability.SqlRequestContext;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Query budgets lel tests elli ykhdmou 3la database (SpringBootTest / DataJpaTest):
+ *
+ * <pre>
+ * RideResponse ride = QueryBudget.atMost(3, () -> rideService.getRideById(id));
+ * </pre>
+ *
+ * Kol statement elli temchi 3al DataSource (SqlMetricsDataSource) fi west l action tet7seb.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static <T> T atMost(int maxStatements, Supplier<T> action) {
+        SqlRequestContext previous = SqlRequestContext.current();
+        SqlRequestContext context = SqlRequestContext.begin("test");
+        try {
+            T result = action.get();
+            if (context.getStatementCount() > maxStatements) {
+                fail("Query budget exceeded: expected at most " + maxStatements + " statements but got "
+                        + context.getStatementCount() + "\n" + describe(context.getCountsByShape()));
+            }
+            return result;
+        } finally {
+            SqlRequestContext.end();
+            if (previous != null) {
+                SqlRequestContext.begin(previous.getRoute());
+            }
+        }
+    }
+
+    public static void atMost(int maxStatements, Runnable action) {
+        atMost(maxStatements, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static String describe(Map<String, Integer> countsByShape) {
+        return countsByShape.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}